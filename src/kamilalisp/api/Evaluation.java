@@ -1,6 +1,8 @@
 package kamilalisp.api;
 
 import com.google.common.io.Resources;
+import kamilalisp.compiler.Compiler;
+import kamilalisp.compiler.Engine;
 import kamilalisp.data.Atom;
 import kamilalisp.data.Environment;
 import kamilalisp.data.Executor;
@@ -8,6 +10,8 @@ import kamilalisp.libs.*;
 import kamilalisp.reader.DefaultVisitor;
 import kamilalisp.reader.GrammarLexer;
 import kamilalisp.reader.GrammarParser;
+import kamilalisp.vm.BytecodeCompiler;
+import kamilalisp.vm.Disassembler;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.tree.ParseTree;
@@ -15,30 +19,43 @@ import org.antlr.v4.runtime.tree.ParseTree;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class Evaluation {
-    public static List<Atom> evalString(String code) {
+    // Files parsed ahead of time, by the name `import` refers to them with.
+    // Standard library files are prefixed with '!'.
+    private static final ConcurrentHashMap<String, List<Atom>> preparsed = new ConcurrentHashMap<>();
+
+    public static List<Atom> parse(String code) {
         GrammarLexer lex = new GrammarLexer(CharStreams.fromString(code));
         CommonTokenStream tokens = new CommonTokenStream(lex);
         GrammarParser parser = new GrammarParser(tokens);
         ParseTree tree = parser.file_();
         DefaultVisitor visitor = new DefaultVisitor();
-        List<Atom> atoms = visitor.visit(tree).getList().get();
-        Environment globEnv = createDefaultEnv();
-        Executor executor = new Executor(globEnv);
-        return atoms.stream().map(executor::evaluate).collect(Collectors.toList());
+        return visitor.visit(tree).getList();
+    }
+
+    public static void preparse(String name, List<Atom> forms) {
+        preparsed.put(name, forms);
+    }
+
+    // The forms of a file `import`ed as `name`, if it was parsed ahead of time.
+    public static List<Atom> preparsed(String name) {
+        return preparsed.get(name);
+    }
+
+    public static List<Atom> evalString(String code) {
+        return evalAtoms(createDefaultEnv(), parse(code));
     }
 
     public static List<Atom> evalString(Environment globEnv, String code) {
-        GrammarLexer lex = new GrammarLexer(CharStreams.fromString(code));
-        CommonTokenStream tokens = new CommonTokenStream(lex);
-        GrammarParser parser = new GrammarParser(tokens);
-        ParseTree tree = parser.file_();
-        DefaultVisitor visitor = new DefaultVisitor();
-        List<Atom> atoms = visitor.visit(tree).getList().get();
+        return evalAtoms(globEnv, parse(code));
+    }
+
+    public static List<Atom> evalAtoms(Environment globEnv, List<Atom> atoms) {
         Executor executor = new Executor(globEnv);
-        return atoms.stream().map(executor::evaluate).collect(Collectors.toList());
+        return atoms.stream().map(x -> Compiler.compile(x, executor.env.scope, executor.env.global).evaluate(executor)).collect(Collectors.toList());
     }
 
     public static Atom evalAtom(Environment globEnv, String code) {
@@ -49,7 +66,22 @@ public class Evaluation {
         DefaultVisitor visitor = new DefaultVisitor();
         Atom atom = visitor.visit(tree);
         Executor executor = new Executor(globEnv);
-        return executor.evaluate(atom);
+        return Compiler.compile(atom, globEnv.scope, globEnv.global).evaluate(executor);
+    }
+
+    // Select the engine that runs code compiled from now on: the tree-walking
+    // interpreter (the default) or the bytecode VM.
+    public static void setEngine(Engine engine) {
+        Compiler.engine = engine;
+    }
+
+    public static Engine getEngine() {
+        return Compiler.engine;
+    }
+
+    // A bytecode listing of every form in `code`, as compiled for `globEnv`.
+    public static String disassemble(Environment globEnv, String code) {
+        return parse(code).stream().map(x -> Disassembler.disassemble(BytecodeCompiler.compile(x, globEnv.scope, globEnv))).collect(Collectors.joining("\n"));
     }
 
     public static Environment createDefaultEnv() {
@@ -59,13 +91,19 @@ public class Evaluation {
         MathLib.install(globEnv);
         ListLib.install(globEnv);
         FoldLib.install(globEnv);
+        ParallelLib.install(globEnv);
         MatrixLib.install(globEnv);
         RegexLib.install(globEnv);
         SymLib.install(globEnv);
-        try {
-            Evaluation.evalString(globEnv, Resources.toString(Resources.getResource("kamilalisp/prelude.lisp"), StandardCharsets.UTF_8));
-        } catch (IOException e) {
-            e.printStackTrace();
+        List<Atom> prelude = preparsed("!prelude.lisp");
+        if(prelude != null) {
+            Evaluation.evalAtoms(globEnv, prelude);
+        } else {
+            try {
+                Evaluation.evalString(globEnv, Resources.toString(Resources.getResource("kamilalisp/prelude.lisp"), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
         globEnv.owner = null;
         return globEnv;
@@ -0,0 +1,52 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.Atom;
+import kamilalisp.data.Executor;
+import kamilalisp.data.Scope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CallNode implements Node {
+    final Node head;
+    // Macros receive their arguments unevaluated, closures receive the values
+    // of the compiled argument nodes. The latter are compiled on first use,
+    // since most macro arguments are never evaluated as code.
+    final List<Atom> rawArguments;
+    Node[] arguments;
+    final Scope scope;
+    // The JIT's translation of this node as a lambda body, shared by all the
+    // closures created by one lambda form, and collected along with it.
+    JitNode jit;
+
+    public CallNode(Node head, List<Atom> rawArguments, Scope scope) {
+        this.head = head;
+        this.rawArguments = rawArguments;
+        this.scope = scope;
+    }
+
+    Node[] compileArguments() {
+        Node[] result = new Node[rawArguments.size()];
+        for(int i = 0; i < result.length; i++)
+            result[i] = Compiler.compile(rawArguments.get(i), scope);
+        return arguments = result;
+    }
+
+    @Override
+    public Atom evaluate(Executor env) {
+        Atom head = this.head.evaluate(env);
+        switch(head.getType()) {
+            case CLOSURE: {
+                Node[] nodes = arguments == null ? compileArguments() : arguments;
+                List<Atom> values = new ArrayList<>(nodes.length);
+                for(Node n : nodes)
+                    values.add(n.evaluate(env));
+                return head.getClosure().apply(env, values);
+            }
+            case MACRO:
+                return head.getMacro().apply(env, rawArguments);
+            default:
+                throw new Error("Can't evaluate a list with head of type " + head.getType().name() + " - '" + head + "'.");
+        }
+    }
+}
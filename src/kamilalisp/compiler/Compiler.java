@@ -0,0 +1,68 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.Atom;
+import kamilalisp.data.Environment;
+import kamilalisp.data.Executor;
+import kamilalisp.data.Scope;
+import kamilalisp.data.Symbol;
+import kamilalisp.data.Type;
+import kamilalisp.vm.BytecodeCompiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class Compiler {
+    public static volatile Engine engine = Engine.TREE;
+
+    // Compile a form for the selected engine. `global` is the environment the
+    // form will run in, which the bytecode compiler consults to recognise
+    // special forms.
+    public static Node compile(Atom a, Scope scope, Environment global) {
+        if(engine == Engine.BYTECODE)
+            return BytecodeCompiler.compileNode(a, scope, global);
+        return compile(a, scope);
+    }
+
+    // Turn a form into a tree of executable nodes, resolving the symbols it
+    // references against `scope`. The result is cached on the atom, so a lambda
+    // body or a macro argument evaluated over and over is compiled only once.
+    public static Node compile(Atom a, Scope scope) {
+        Type t = a.getType();
+        if(t != Type.LIST && t != Type.STRING)
+            return new ConstantNode(a);
+        Node n = a.getCompiled(scope);
+        if(n == null) {
+            n = t == Type.STRING ? compileSymbol(a, scope) : compileList(a, scope);
+            a.setCompiled(scope, n);
+        }
+        return n;
+    }
+
+    private static Node compileSymbol(Atom a, Scope scope) {
+        Symbol key = a.getSymbol();
+        int depth = 0;
+        for(Scope s = scope; s != Scope.GLOBAL; s = s.parent, depth++) {
+            if(s.isDynamic())
+                return new SymbolNode(a);
+            int slot = s.indexOf(key);
+            if(slot != -1)
+                return new LocalNode(a, depth, slot);
+        }
+        return new GlobalNode(a);
+    }
+
+    private static Node compileList(Atom a, Scope scope) {
+        List<Atom> sexpr = a.getList();
+        if(sexpr.size() == 0) {
+            return new Node() {
+                @Override
+                public Atom evaluate(Executor env) {
+                    throw new Error("Attempted to evaluate an empty s-expression.");
+                }
+            };
+        }
+        List<Atom> rawArguments = new ArrayList<>(sexpr.subList(1, sexpr.size()));
+        return new CallNode(compile(sexpr.get(0), scope), Collections.unmodifiableList(rawArguments), scope);
+    }
+}
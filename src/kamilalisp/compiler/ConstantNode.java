@@ -0,0 +1,17 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.Atom;
+import kamilalisp.data.Executor;
+
+public class ConstantNode implements Node {
+    final Atom value;
+
+    public ConstantNode(Atom value) {
+        this.value = value;
+    }
+
+    @Override
+    public Atom evaluate(Executor env) {
+        return value;
+    }
+}
@@ -0,0 +1,8 @@
+package kamilalisp.compiler;
+
+// How compiled forms are executed: by walking a tree of nodes, or by
+// running them as bytecode on the virtual machine in `kamilalisp.vm`.
+public enum Engine {
+    TREE,
+    BYTECODE
+}
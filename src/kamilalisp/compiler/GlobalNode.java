@@ -0,0 +1,47 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.Atom;
+import kamilalisp.data.Environment;
+import kamilalisp.data.Executor;
+import kamilalisp.data.Symbol;
+
+// A symbol not bound in any enclosing lexical frame. The last lookup is
+// cached until the global scope changes.
+public class GlobalNode implements Node {
+    final Atom symbol;
+    final Symbol key;
+
+    private volatile Cached cached;
+
+    // The last lookup, in one object so that it's seen whole from any thread.
+    private static final class Cached {
+        final Environment scope;
+        final int version;
+        final Atom value;
+
+        Cached(Environment scope, int version, Atom value) {
+            this.scope = scope;
+            this.version = version;
+            this.value = value;
+        }
+    }
+
+    public GlobalNode(Atom symbol) {
+        this.symbol = symbol;
+        this.key = symbol.getSymbol();
+    }
+
+    @Override
+    public Atom evaluate(Executor env) {
+        Environment global = env.env.global;
+        Cached c = cached;
+        if(c != null && global == c.scope && global.version == c.version)
+            return c.value;
+        int version = global.version;
+        Atom value = global.data.get(key);
+        if(value == null)
+            value = symbol;
+        cached = new Cached(global, version, value);
+        return value;
+    }
+}
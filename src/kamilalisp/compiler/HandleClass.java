@@ -0,0 +1,169 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.Atom;
+import kamilalisp.data.Executor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Spins a class holding a method handle in a static final field, with a static
+// method invoking it:
+//
+//   final class JitBody$N {
+//       private static final MethodHandle target = HandleClass.take(N);
+//       public static Atom run(Executor e) { return (Atom) target.invokeExact(e); }
+//   }
+//
+// HotSpot treats static final fields as constants, so it can inline through
+// the whole handle tree when compiling `run`, which it can't do for a handle
+// stored in an ordinary field. Each class is defined by a class loader of its
+// own, so that it's unloaded once the compiled body using it is unreachable.
+// That puts it outside of this package, hence `take` is public.
+public class HandleClass {
+    private static final AtomicInteger counter = new AtomicInteger();
+    private static final ConcurrentHashMap<Integer, MethodHandle> pending = new ConcurrentHashMap<>();
+
+    // Called from the static initializer of the generated class.
+    public static MethodHandle take(int id) {
+        return pending.remove(id);
+    }
+
+    // A handle to the `run` method of a new class wrapping `target`, which
+    // must have type (Executor)Atom.
+    static MethodHandle spin(MethodHandle target) {
+        int id = counter.getAndIncrement();
+        String name = HandleClass.class.getPackageName().replace('.', '/') + "/JitBody$" + id;
+        pending.put(id, target);
+        try {
+            Loader loader = new Loader();
+            Class<?> c = loader.define(name.replace('/', '.'), classFile(name, id));
+            // run the static initializer now, while `target` is pending.
+            Class.forName(c.getName(), true, loader);
+            return MethodHandles.publicLookup().findStatic(c, "run", MethodType.methodType(Atom.class, Executor.class));
+        } catch(ReflectiveOperationException e) {
+            throw new Error("Unable to define a compiled lambda body.", e);
+        } finally {
+            pending.remove(id);
+        }
+    }
+
+    private static final class Loader extends ClassLoader {
+        Loader() {
+            super(HandleClass.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] b) {
+            return defineClass(name, b, 0, b.length);
+        }
+    }
+
+    private static byte[] classFile(String name, int id) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            // constant pool.
+            out.writeShort(26);
+            utf8(out, name);                                        // 1
+            classRef(out, 1);                                       // 2
+            utf8(out, "java/lang/Object");                          // 3
+            classRef(out, 3);                                       // 4
+            utf8(out, "target");                                    // 5
+            utf8(out, "Ljava/lang/invoke/MethodHandle;");           // 6
+            utf8(out, "<clinit>");                                  // 7
+            utf8(out, "()V");                                       // 8
+            utf8(out, "Code");                                      // 9
+            out.writeByte(3); out.writeInt(id);                     // 10: Integer
+            utf8(out, HandleClass.class.getName().replace('.', '/')); // 11
+            classRef(out, 11);                                      // 12
+            utf8(out, "take");                                      // 13
+            utf8(out, "(I)Ljava/lang/invoke/MethodHandle;");        // 14
+            nameAndType(out, 13, 14);                               // 15
+            memberRef(out, 10, 12, 15);                             // 16: Methodref
+            nameAndType(out, 5, 6);                                 // 17
+            memberRef(out, 9, 2, 17);                               // 18: Fieldref
+            utf8(out, "run");                                       // 19
+            utf8(out, "(Lkamilalisp/data/Executor;)Lkamilalisp/data/Atom;"); // 20
+            utf8(out, "java/lang/invoke/MethodHandle");             // 21
+            classRef(out, 21);                                      // 22
+            utf8(out, "invokeExact");                               // 23
+            nameAndType(out, 23, 20);                               // 24
+            memberRef(out, 10, 22, 24);                             // 25: Methodref
+            // final super class, no interfaces.
+            out.writeShort(0x0031);
+            out.writeShort(2);
+            out.writeShort(4);
+            out.writeShort(0);
+            // private static final MethodHandle target;
+            out.writeShort(1);
+            out.writeShort(0x001A);
+            out.writeShort(5);
+            out.writeShort(6);
+            out.writeShort(0);
+            out.writeShort(2);
+            // static { target = HandleClass.take(id); }
+            method(out, 0x0008, 7, 8, 1, 0, new byte[] {
+                    0x12, 10,                    // ldc #10
+                    (byte) 0xB8, 0, 16,          // invokestatic #16
+                    (byte) 0xB3, 0, 18,          // putstatic #18
+                    (byte) 0xB1                  // return
+            });
+            // public static Atom run(Executor e) { return target.invokeExact(e); }
+            method(out, 0x0009, 19, 20, 2, 1, new byte[] {
+                    (byte) 0xB2, 0, 18,          // getstatic #18
+                    0x2A,                        // aload_0
+                    (byte) 0xB6, 0, 25,          // invokevirtual #25
+                    (byte) 0xB0                  // areturn
+            });
+            // no class attributes.
+            out.writeShort(0);
+        } catch(IOException e) {
+            throw new Error(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void utf8(DataOutputStream out, String s) throws IOException {
+        out.writeByte(1);
+        out.writeUTF(s);
+    }
+
+    private static void classRef(DataOutputStream out, int name) throws IOException {
+        out.writeByte(7);
+        out.writeShort(name);
+    }
+
+    private static void nameAndType(DataOutputStream out, int name, int type) throws IOException {
+        out.writeByte(12);
+        out.writeShort(name);
+        out.writeShort(type);
+    }
+
+    private static void memberRef(DataOutputStream out, int tag, int owner, int nameAndType) throws IOException {
+        out.writeByte(tag);
+        out.writeShort(owner);
+        out.writeShort(nameAndType);
+    }
+
+    private static void method(DataOutputStream out, int access, int name, int type, int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(type);
+        out.writeShort(1);
+        out.writeShort(9);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+}
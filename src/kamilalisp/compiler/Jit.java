@@ -0,0 +1,135 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// The second tier. Once a lambda has been called `threshold` times, its body
+// is translated from a node tree into a method handle tree, with the global
+// bindings it references folded in as constants. The translation is only
+// valid while the global scope stays unchanged, which `JitNode` checks on
+// entry, falling back to the interpreter otherwise.
+public class Jit {
+    // Calls before a lambda body is compiled; negative disables the tier.
+    public static volatile int threshold = 1000;
+
+    private static final MethodHandle NODE_EVALUATE, CLOSURE_APPLY, CALLABLE_APPLY, LOCAL, IF, AS_LIST;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType type = MethodType.methodType(Atom.class, Executor.class);
+            NODE_EVALUATE = lookup.findVirtual(Node.class, "evaluate", type);
+            CLOSURE_APPLY = lookup.findVirtual(Closure.class, "apply", MethodType.methodType(Atom.class, Executor.class, List.class));
+            CALLABLE_APPLY = lookup.findVirtual(Callable.class, "apply", MethodType.methodType(Atom.class, Executor.class, List.class));
+            LOCAL = lookup.findStatic(Jit.class, "local", MethodType.methodType(Atom.class, LocalNode.class, Executor.class));
+            IF = lookup.findStatic(Jit.class, "tailIf", MethodType.methodType(Atom.class, MethodHandle.class, MethodHandle.class, MethodHandle.class, Executor.class));
+            AS_LIST = lookup.findStatic(Arrays.class, "asList", MethodType.methodType(List.class, Object[].class));
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // The body to use for a lambda that just became hot.
+    static Node compile(Node body, Environment global) {
+        if(!(body instanceof CallNode))
+            return body;
+        CallNode n = (CallNode) body;
+        synchronized(n) {
+            if(n.jit == null)
+                n.jit = new JitNode(n, global);
+            return n.jit;
+        }
+    }
+
+    // A handle of type (Executor)Atom evaluating `n` in the current state of
+    // `global`.
+    static MethodHandle translate(Node n, Environment global) {
+        if(n instanceof ConstantNode)
+            return constant(((ConstantNode) n).value);
+        if(n instanceof GlobalNode)
+            return constant(globalValue((GlobalNode) n, global));
+        if(n instanceof LocalNode)
+            return LOCAL.bindTo(n);
+        if(n instanceof CallNode)
+            return translateCall((CallNode) n, global);
+        return NODE_EVALUATE.bindTo(n);
+    }
+
+    private static MethodHandle translateCall(CallNode n, Environment global) {
+        Atom head;
+        if(n.head instanceof GlobalNode)
+            head = globalValue((GlobalNode) n.head, global);
+        else if(n.head instanceof ConstantNode)
+            head = ((ConstantNode) n.head).value;
+        else
+            return NODE_EVALUATE.bindTo(n);
+        // don't force a lazy global to find out what it is.
+        Type t = head.knownType();
+        if(t == Type.MACRO) {
+            Macro m = head.getMacro();
+            if(m.specialForm() == Symbol.IF && n.rawArguments.size() == 3) {
+                MethodHandle[] branches = new MethodHandle[3];
+                for(int i = 0; i < 3; i++)
+                    branches[i] = translate(Compiler.compile(n.rawArguments.get(i), n.scope), global);
+                return MethodHandles.insertArguments(IF, 0, (Object[]) branches);
+            }
+            return MethodHandles.insertArguments(CALLABLE_APPLY.bindTo(m), 1, n.rawArguments);
+        }
+        if(t != Type.CLOSURE)
+            return NODE_EVALUATE.bindTo(n);
+        Node[] arguments = n.arguments == null ? n.compileArguments() : n.arguments;
+        MethodHandle[] values = new MethodHandle[arguments.length];
+        for(int i = 0; i < values.length; i++)
+            values[i] = translate(arguments[i], global);
+        // (Executor) -> List of argument values.
+        MethodHandle list = AS_LIST.asCollector(Object[].class, values.length)
+                .asType(MethodType.methodType(List.class, Collections.<Class<?>>nCopies(values.length, Atom.class)));
+        list = MethodHandles.filterArguments(list, 0, values);
+        list = MethodHandles.permuteArguments(list, MethodType.methodType(List.class, Executor.class), new int[values.length]);
+        MethodHandle call = MethodHandles.filterArguments(CLOSURE_APPLY.bindTo(head.getClosure()), 1, list);
+        return MethodHandles.permuteArguments(call, MethodType.methodType(Atom.class, Executor.class), 0, 0);
+    }
+
+    private static Atom globalValue(GlobalNode n, Environment global) {
+        Atom value = global.data.get(n.key);
+        return value == null ? n.symbol : value;
+    }
+
+    private static MethodHandle constant(Atom a) {
+        return MethodHandles.dropArguments(MethodHandles.constant(Atom.class, a), 0, Executor.class);
+    }
+
+    private static Atom local(LocalNode n, Executor env) {
+        Environment frame = env.env;
+        for(int i = 0; i < n.depth; i++)
+            frame = frame.ancestor;
+        Atom value = frame.slots[n.slot];
+        return value != null ? value : n.evaluate(env);
+    }
+
+    // `if` stays lazy and in tail position, like the macro.
+    private static Atom tailIf(MethodHandle cond, MethodHandle iftrue, MethodHandle iffalse, Executor env) {
+        return new Atom(LbcSupplier.tail(() -> {
+            if(invoke(cond, env).coerceBool())
+                return invoke(iftrue, env);
+            else
+                return invoke(iffalse, env);
+        }));
+    }
+
+    static Atom invoke(MethodHandle h, Executor env) {
+        try {
+            return (Atom) h.invokeExact(env);
+        } catch(RuntimeException | Error e) {
+            throw e;
+        } catch(Throwable t) {
+            throw new Error(t);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.Atom;
+import kamilalisp.data.Environment;
+import kamilalisp.data.Executor;
+
+import java.lang.invoke.MethodHandle;
+
+// A lambda body compiled by the JIT, guarded by the version of the global
+// scope it was compiled against. If the guard fails, the body is interpreted;
+// if it keeps failing, it's compiled again against the new global scope.
+public class JitNode implements Node {
+    private static final int MAX_RECOMPILATIONS = 4;
+
+    private final Node interpreted;
+    private volatile Compiled compiled;
+    private int misses, recompilations;
+
+    // The entry point with the scope and version it was compiled against, in
+    // one object so that it's seen whole from any thread.
+    private static final class Compiled {
+        final Environment global;
+        final int version;
+        final MethodHandle entry;
+
+        Compiled(Environment global, int version, MethodHandle entry) {
+            this.global = global;
+            this.version = version;
+            this.entry = entry;
+        }
+    }
+
+    JitNode(Node interpreted, Environment global) {
+        this.interpreted = interpreted;
+        compile(global);
+    }
+
+    private void compile(Environment global) {
+        int version = global.version;
+        this.compiled = new Compiled(global, version, HandleClass.spin(Jit.translate(interpreted, global)));
+    }
+
+    @Override
+    public Atom evaluate(Executor env) {
+        Environment g = env.env.global;
+        Compiled c = compiled;
+        if(g == c.global && g.version == c.version)
+            return Jit.invoke(c.entry, env);
+        if(++misses >= Jit.threshold && recompilations < MAX_RECOMPILATIONS) {
+            misses = 0;
+            recompilations++;
+            compile(g);
+            return Jit.invoke(compiled.entry, env);
+        }
+        return interpreted.evaluate(env);
+    }
+}
@@ -0,0 +1,92 @@
+package kamilalisp.compiler;
+
+import com.google.common.collect.Lists;
+import kamilalisp.data.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// A closure created by `lambda`. The body has already been compiled against
+// the scope of the parameter frame, by whichever engine created the closure.
+// Calls are counted, and a hot body is handed over to the JIT. The body is
+// run as a tail step of the call's value, so that a call in tail position
+// doesn't grow the stack.
+public class Lambda implements Closure {
+    private final Environment outerEnv;
+    private final List<Atom> params;
+    private final Atom code;
+    private final Scope scope;
+    private volatile Node body;
+    private int calls;
+    private final long optional;
+    private final boolean misplaced;
+
+    public Lambda(Environment outerEnv, List<Atom> params, Atom code, Scope scope, Node body) {
+        this.outerEnv = outerEnv;
+        this.params = params;
+        this.code = code;
+        this.scope = scope;
+        this.body = body;
+        // process optional arguments.
+        this.optional = Lists.reverse(params).stream().takeWhile(x -> x.getString().startsWith("?")).count();
+        this.misplaced = optional != Lists.reverse(params).stream().filter(x -> x.getString().startsWith("?")).count();
+    }
+
+    // The slot names of the parameter frame, with the optional marker stripped.
+    public static Symbol[] parameterNames(List<Atom> params) {
+        return params.stream().map(x -> x.getString().startsWith("?") ? Symbol.of(x.getString().substring(1)) : x.getSymbol()).toArray(Symbol[]::new);
+    }
+
+    @Override
+    public String representation() {
+        return "(λ " + params.stream().map(x -> x.getString()).collect(Collectors.joining(" ")) + " . " + code.toString() + ")";
+    }
+
+    @Override
+    public List<Atom> requote() {
+        return List.of(new Atom(params), code);
+    }
+
+    @Override
+    public Atom apply(Executor env, List<Atom> innerArgs) {
+        Environment newEnv = outerEnv.descendant("Lambda expression", scope);
+        newEnv.owner = new Atom(this);
+        if(misplaced)
+            throw new Error("Misplaced optional lambda argument in parameter list.");
+        // a cancelled future stops here.
+        if(Thread.currentThread().isInterrupted())
+            throw new Error("Evaluation cancelled.");
+        // evaluate parameters, missing optional ones are nil.
+        if(innerArgs.size() > params.size() || innerArgs.size() < params.size() - optional)
+            throw new Error("Invalid invocation to a lambda expression.");
+        if(calls <= Jit.threshold && calls++ == Jit.threshold)
+            body = Jit.compile(body, outerEnv.global);
+        for(int i = 0; i < scope.names.length; i++)
+            newEnv.slots[i] = i < innerArgs.size() ? innerArgs.get(i) : Atom.NULL;
+        return new Atom(LbcSupplier.tail(new Call(newEnv)));
+    }
+
+    private final class Call implements LbcSupplier.Call {
+        private final Environment frame;
+
+        Call(Environment frame) {
+            this.frame = frame;
+        }
+
+        @Override
+        public Object callee() {
+            return Lambda.this;
+        }
+
+        @Override
+        public void forceArguments() {
+            for(Atom a : frame.slots)
+                a.eager();
+        }
+
+        @Override
+        public Atom get() {
+            return body.evaluate(new Executor(frame));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.Atom;
+import kamilalisp.data.Environment;
+import kamilalisp.data.Executor;
+import kamilalisp.data.Symbol;
+
+// A symbol bound in a lexical frame, addressed by the number of frames to
+// walk up and the slot in that frame.
+public class LocalNode implements Node {
+    final Atom symbol;
+    final Symbol key;
+    final int depth, slot;
+
+    public LocalNode(Atom symbol, int depth, int slot) {
+        this.symbol = symbol;
+        this.key = symbol.getSymbol();
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    @Override
+    public Atom evaluate(Executor env) {
+        Environment frame = env.env;
+        for(int i = 0; i < depth; i++)
+            frame = frame.ancestor;
+        Atom value = frame.slots[slot];
+        if(value != null)
+            return value;
+        // A `let-seq` binding referenced before its definition.
+        value = frame.ancestor.lookup(key);
+        return value == null ? symbol : value;
+    }
+}
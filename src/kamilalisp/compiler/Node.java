@@ -0,0 +1,10 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.Atom;
+import kamilalisp.data.Executor;
+
+public interface Node {
+    // An s-expression after the compile pass. Evaluating a node is
+    // equivalent to evaluating the form it was compiled from.
+    Atom evaluate(Executor env);
+}
@@ -0,0 +1,22 @@
+package kamilalisp.compiler;
+
+import kamilalisp.data.Atom;
+import kamilalisp.data.Executor;
+import kamilalisp.data.Symbol;
+
+// A symbol that can't be resolved statically, looked up by name.
+public class SymbolNode implements Node {
+    private final Atom symbol;
+    private final Symbol key;
+
+    public SymbolNode(Atom symbol) {
+        this.symbol = symbol;
+        this.key = symbol.getSymbol();
+    }
+
+    @Override
+    public Atom evaluate(Executor env) {
+        Atom value = env.env.lookup(key);
+        return value == null ? symbol : value;
+    }
+}
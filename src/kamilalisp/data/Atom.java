@@ -2,71 +2,155 @@ package kamilalisp.data;
 
 import ch.obermuhlner.math.big.BigComplex;
 import com.google.common.base.Joiner;
+import kamilalisp.compiler.Node;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 public class Atom {
-    public Atom() { this.content = new LbcSupplier<>(() -> new LinkedList<Atom>()); this.type = Type.LIST; }
-    public Atom(BigDecimal atom) { this.content = new LbcSupplier<>(() -> atom); this.type = Type.NUMBER; }
-    public Atom(String atom) { this.content = new LbcSupplier<>(() -> atom); this.type = Type.STRING; }
-    public Atom(StringConstant atom) { this.content = new LbcSupplier<>(() -> atom); this.type = Type.STRING_CONSTANT; }
-    public Atom(List<Atom> atom) { this.content = new LbcSupplier<>(() -> atom); this.type = Type.LIST; }
-    public Atom(Closure atom) { this.content = new LbcSupplier<>(() -> atom); this.type = Type.CLOSURE; }
-    public Atom(Macro atom) { this.content = new LbcSupplier<>(() -> atom); this.type = Type.MACRO; }
-    public Atom(BigComplex atom) { this.content = new LbcSupplier<>(() -> atom); this.type = Type.COMPLEX; }
-    public Atom(Matrix atom) { this.content = new LbcSupplier<>(() -> atom); this.type = Type.MATRIX; }
-    public Atom(LbcSupplier<?> atom, Type t) { this.content = atom; this.type = t; }
-    public Atom(LbcSupplier<?> atom) { this.content = atom; this.type = null; }
-
-    public LbcSupplier<BigDecimal> getNumber() { assert getType() == Type.NUMBER; return (LbcSupplier<BigDecimal>) content; }
-    public LbcSupplier<String> getString() { assert getType() == Type.STRING; return (LbcSupplier<String>) content; }
-    public LbcSupplier<StringConstant> getStringConstant() { assert getType() == Type.STRING_CONSTANT; return (LbcSupplier<StringConstant>) content; }
-    public LbcSupplier<List<Atom>> getList() { assert getType() == Type.LIST; return (LbcSupplier<List<Atom>>) content; }
-    public LbcSupplier<Closure> getClosure() { assert getType() == Type.CLOSURE; return (LbcSupplier<Closure>) content; }
-    public LbcSupplier<Callable> getCallable() { assert isCallable(); return (LbcSupplier<Callable>) content; }
-    public LbcSupplier<Macro> getMacro() { assert getType() == Type.MACRO; return (LbcSupplier<Macro>) content; }
-    public LbcSupplier<BigComplex> getComplex() { assert getType() == Type.COMPLEX; return (LbcSupplier<BigComplex>) content; }
-    public LbcSupplier<Matrix> getMatrix() { assert getType() == Type.MATRIX; return (LbcSupplier<Matrix>) content; }
-    public LbcSupplier<?> get() { return content; }
+    public Atom() { this.value = PersistentVector.empty(); this.type = Type.LIST; }
+    public Atom(BigDecimal atom) { this.value = atom; this.type = Type.NUMBER; }
+    public Atom(long atom) { this.value = atom; this.type = Type.NUMBER; }
+    public Atom(double atom) { this.value = atom; this.type = Type.NUMBER; }
+    public Atom(String atom) { this(Symbol.of(atom)); }
+    public Atom(Symbol atom) { this.value = atom; this.type = Type.STRING; }
+    public Atom(StringConstant atom) { this.value = atom; this.type = Type.STRING_CONSTANT; }
+    public Atom(List<Atom> atom) { this.value = atom; this.type = Type.LIST; }
+    public Atom(Closure atom) { this.value = atom; this.type = Type.CLOSURE; }
+    public Atom(Macro atom) { this.value = atom; this.type = Type.MACRO; }
+    public Atom(BigComplex atom) { this.value = atom; this.type = Type.COMPLEX; }
+    public Atom(Matrix atom) { this.value = atom; this.type = Type.MATRIX; }
+    public Atom(NDArray atom) { this.value = atom; this.type = Type.ARRAY; }
+    public Atom(LbcSupplier<?> atom, Type t) { this.thunk = atom; this.type = t; }
+    public Atom(LbcSupplier<?> atom) { this.thunk = atom; this.type = null; }
+
+    public BigDecimal getNumber() {
+        assert getType() == Type.NUMBER;
+        return (BigDecimal) get();
+    }
+    public Symbol getSymbol() { assert getType() == Type.STRING; return (Symbol) payload(); }
+    public String getString() { return getSymbol().getName(); }
+    public StringConstant getStringConstant() { assert getType() == Type.STRING_CONSTANT; return (StringConstant) payload(); }
+    public List<Atom> getList() { assert getType() == Type.LIST; return (List<Atom>) payload(); }
+    public Closure getClosure() { assert getType() == Type.CLOSURE; return (Closure) payload(); }
+    public Callable getCallable() { assert isCallable(); return (Callable) payload(); }
+    public Macro getMacro() { assert getType() == Type.MACRO; return (Macro) payload(); }
+    public BigComplex getComplex() { assert getType() == Type.COMPLEX; return (BigComplex) payload(); }
+    public Matrix getMatrix() { assert getType() == Type.MATRIX; return (Matrix) payload(); }
+    public NDArray getArray() { assert getType() == Type.ARRAY; return (NDArray) payload(); }
+
+    // A number parsed or computed as an integer; see `Fixnum`.
+    public static Atom number(BigDecimal d) {
+        return Fixnum.fits(d) ? new Atom(d.longValue()) : new Atom(d);
+    }
+
+    // The value of the atom, forcing it if it's lazy. Fixnums and flonums are
+    // handed out as BigDecimal, like any other number.
+    public Object get() {
+        Object v = payload();
+        if(v instanceof Long)
+            return BigDecimal.valueOf((Long) v);
+        if(v instanceof Double)
+            return Flonum.toBigDecimal((Double) v);
+        return v;
+    }
+
+    // Whether this is a number stored as a long; see `Fixnum`.
+    public boolean isFixnum() { return payload() instanceof Long; }
+    public long getFixnum() { assert isFixnum(); return (Long) value; }
+
+    // Whether this is a number stored as a double; see `Flonum`.
+    public boolean isFlonum() { return payload() instanceof Double; }
+    public double getFlonum() { assert isFlonum(); return (Double) value; }
+
+    // The value as stored, which is a Long for a fixnum and a Double for a flonum.
+    Object payload() { return thunk == null ? value : force(); }
+
     public Type getType() {
-        if(type != null)
-            return type;
+        if(type == null)
+            force();
+        return type;
+    }
 
-        Object data = content.get();
+    // The type if it's known without forcing the value, null otherwise.
+    public Type knownType() { return type; }
+
+    // The pending computation of a lazy atom, null once it has been forced.
+    LbcSupplier<?> thunk() { return thunk; }
+
+    // Racing threads may both force an atom; the thunk computes its value
+    // once, and clearing it publishes the fields set here.
+    private Object force() {
+        LbcSupplier<?> t = thunk;
+        if(t == null)
+            return value;
+        Object data = t.get();
+        // a supplier may hand over another atom, which keeps its payload as is.
+        if(data instanceof Atom)
+            data = ((Atom) data).payload();
+        if(data instanceof String)
+            data = Symbol.of((String) data);
+        else if(data instanceof BigDecimal)
+            data = Fixnum.narrow((BigDecimal) data);
+        if(type == null)
+            type = typeOf(data);
+        value = data;
+        thunk = null;
+        return data;
+    }
 
-        if (data instanceof BigDecimal)
-            type = Type.NUMBER;
-        else if (data instanceof String)
-            type = Type.STRING;
+    private static Type typeOf(Object data) {
+        if (data instanceof BigDecimal || data instanceof Long || data instanceof Double)
+            return Type.NUMBER;
+        else if (data instanceof Symbol)
+            return Type.STRING;
         else if (data instanceof StringConstant)
-            type = Type.STRING_CONSTANT;
+            return Type.STRING_CONSTANT;
         else if (data instanceof List)
-            type = Type.LIST;
+            return Type.LIST;
         else if (data instanceof Closure)
-            type = Type.CLOSURE;
+            return Type.CLOSURE;
         else if (data instanceof Macro)
-            type = Type.MACRO;
+            return Type.MACRO;
         else if (data instanceof BigComplex)
-            type = Type.COMPLEX;
+            return Type.COMPLEX;
         else if (data instanceof Matrix)
-            type = Type.MATRIX;
+            return Type.MATRIX;
+        else if (data instanceof NDArray)
+            return Type.ARRAY;
         else
             throw new Error("Unknown type: " + data.getClass().getSimpleName());
-
-        content = new LbcSupplier<>(() -> data);
-
-        return type;
     }
 
-    private LbcSupplier<?> content;
+    // A forced atom holds its value directly; a lazy one holds the thunk
+    // computing it, and possibly its type, until it's forced.
+    private Object value;
     private Type type;
+    private volatile LbcSupplier<?> thunk;
+    private Compiled compiled;
+
+    // The node compiled for a scope, kept as one object so that no thread
+    // sees the node of one scope paired with another.
+    private static final class Compiled {
+        final Scope scope;
+        final Node node;
+
+        Compiled(Scope scope, Node node) {
+            this.scope = scope;
+            this.node = node;
+        }
+    }
+
+    public Node getCompiled(Scope scope) {
+        Compiled c = compiled;
+        return c != null && c.scope == scope ? c.node : null;
+    }
+    public void setCompiled(Scope scope, Node n) { compiled = new Compiled(scope, n); }
 
-    public static Atom NULL = new Atom();
+    public static final Atom NULL = new Atom();
 
     public boolean isCallable() {
         return getType() == Type.CLOSURE || getType() == Type.MACRO;
@@ -78,18 +162,19 @@ public class Atom {
     @Override
     public String toString() {
         switch(getType()) {
-            case CLOSURE: return getClosure().get().representation();
-            case MACRO: return getMacro().get().representation();
-            case STRING_CONSTANT: return "\"" + getStringConstant().get().get() + "\"";
-            case NUMBER: return getNumber().get().stripTrailingZeros().toPlainString();
-            case MATRIX: return getMatrix().get().toString();
+            case CLOSURE: return getClosure().representation();
+            case MACRO: return getMacro().representation();
+            case STRING_CONSTANT: return "\"" + getStringConstant().get() + "\"";
+            case NUMBER: return getNumber().stripTrailingZeros().toPlainString();
+            case MATRIX: return getMatrix().toString();
+            case ARRAY: return getArray().toString();
             case COMPLEX: {
-                BigComplex c = getComplex().get();
+                BigComplex c = getComplex();
                 return c.re + "J" + c.im;
             }
-            case STRING: return getString().get();
+            case STRING: return getString();
             case LIST:
-                return "(" + getList().get().stream().map(x -> {
+                return "(" + getList().stream().map(x -> {
                     String s = x.toString();
                     if(s.contains("\n"))
                         return "\n" + s + "\n";
@@ -108,16 +193,17 @@ public class Atom {
         Atom other = (Atom) o;
         if(!getType().equals(other.getType()))
             return false;
-        if((getType() == Type.STRING_CONSTANT && other.getStringConstant().get().get().equals(getStringConstant().get().get()))
-                || (getType() == Type.STRING && other.getString().get().equals(getString().get()))
-                || (getType() == Type.NUMBER && other.getNumber().get().compareTo(getNumber().get()) == 0)
-                || (getType() == Type.CLOSURE && other.getClosure().get().equals(getClosure().get()))
-                || (getType() == Type.MACRO && other.getMacro().get().equals(getMacro().get()))
-                || (getType() == Type.MATRIX && other.getMatrix().get().equals(getMatrix().get()))
-                || (getType() == Type.COMPLEX && other.getComplex().get().equals(getComplex().get())))
+        if((getType() == Type.STRING_CONSTANT && other.getStringConstant().get().equals(getStringConstant().get()))
+                || (getType() == Type.STRING && other.getSymbol() == getSymbol())
+                || (getType() == Type.NUMBER && Fixnum.compare(other, this) == 0)
+                || (getType() == Type.CLOSURE && other.getClosure().equals(getClosure()))
+                || (getType() == Type.MACRO && other.getMacro().equals(getMacro()))
+                || (getType() == Type.MATRIX && other.getMatrix().equals(getMatrix()))
+                || (getType() == Type.ARRAY && other.getArray().equals(getArray()))
+                || (getType() == Type.COMPLEX && other.getComplex().equals(getComplex())))
             return true;
-        else if(getType() == Type.LIST && other.getList().get().size() == getList().get().size()) {
-            List<Atom> l1 = other.getList().get(), l2 = getList().get();
+        else if(getType() == Type.LIST && other.getList().size() == getList().size()) {
+            List<Atom> l1 = other.getList(), l2 = getList();
             for(int i = 0; i < l1.size(); i++)
                 if(!l1.get(i).equals(l2.get(i)))
                     return false;
@@ -129,14 +215,15 @@ public class Atom {
     @Override
     public int hashCode() {
         switch(getType()) {
-            case CLOSURE: return getClosure().get().representation().hashCode();
-            case MACRO: return getMacro().get().representation().hashCode();
-            case STRING_CONSTANT: return getStringConstant().get().get().hashCode();
-            case NUMBER: return getNumber().get().toString().hashCode();
-            case MATRIX: return Objects.hash(getMatrix().get().ravel().hashCode(), getMatrix().get().getCols(), getMatrix().get().getRows());
-            case COMPLEX: return getComplex().get().toString().hashCode();
-            case STRING: return getString().get().hashCode();
-            case LIST: return getList().get().hashCode();
+            case CLOSURE: return getClosure().representation().hashCode();
+            case MACRO: return getMacro().representation().hashCode();
+            case STRING_CONSTANT: return getStringConstant().get().hashCode();
+            case NUMBER: return isFixnum() ? Long.toString(getFixnum()).hashCode() : getNumber().toString().hashCode();
+            case MATRIX: return Objects.hash(getMatrix().ravel().hashCode(), getMatrix().getCols(), getMatrix().getRows());
+            case ARRAY: return getArray().hashCode();
+            case COMPLEX: return getComplex().toString().hashCode();
+            case STRING: return getSymbol().hashCode();
+            case LIST: return getList().hashCode();
         }
 
         throw new Error("Attempting to hash an atom of unknown type.");
@@ -153,14 +240,15 @@ public class Atom {
     }
 
     public boolean coerceBool() {
-        return (this.getType() == Type.NUMBER && this.getNumber().get().compareTo(BigDecimal.ZERO) != 0)
-            || (this.getType() == Type.STRING_CONSTANT && this.getStringConstant().get().get().length() > 0)
-            || (this.getType() == Type.COMPLEX && this.getComplex().get().re.compareTo(BigDecimal.ZERO) != 0);
+        if(isFixnum())
+            return getFixnum() != 0;
+        return (this.getType() == Type.NUMBER && this.getNumber().compareTo(BigDecimal.ZERO) != 0)
+            || (this.getType() == Type.STRING_CONSTANT && this.getStringConstant().get().length() > 0)
+            || (this.getType() == Type.COMPLEX && this.getComplex().re.compareTo(BigDecimal.ZERO) != 0);
     }
 
     public Atom eager() {
-        Object data = content.get();
-        content = new LbcSupplier<>(() -> data);
+        payload();
         return this;
     }
 }
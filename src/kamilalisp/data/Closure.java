@@ -5,6 +5,6 @@ import java.util.List;
 public interface Closure extends Callable {
     // A tuple of parameters and code.
     default List<Atom> requote() {
-        return Atom.NULL.getList().get();
+        return Atom.NULL.getList();
     }
 }
@@ -0,0 +1,360 @@
+package kamilalisp.data;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// A matrix of real numbers stored row-major in one flat array: a `long[]` of
+// fixnums, a `double[]` of flonums or a `BigDecimal[]` of anything else. The
+// kernels below loop over the arrays and give the same results as combining
+// the cells one at a time; they return null where they can't, and the caller
+// falls back to the general code. Products are in `DenseProduct`.
+public final class DenseMatrix extends Matrix {
+    // tile size of the blocked loops, so that a few tiles fit in L1.
+    static final int BLOCK = 64;
+
+    final int rows, cols;
+    final long[] longs;
+    final double[] doubles;
+    final BigDecimal[] decimals;
+
+    private DenseMatrix(int rows, int cols, long[] longs, double[] doubles, BigDecimal[] decimals) {
+        this.rows = rows;
+        this.cols = cols;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.decimals = decimals;
+    }
+
+    public static DenseMatrix of(long[] data, int rows, int cols) {
+        return new DenseMatrix(rows, cols, data, null, null);
+    }
+
+    public static DenseMatrix of(double[] data, int rows, int cols) {
+        return new DenseMatrix(rows, cols, null, data, null);
+    }
+
+    public static DenseMatrix of(BigDecimal[] data, int rows, int cols) {
+        return new DenseMatrix(rows, cols, null, null, data);
+    }
+
+    // `ravel` packed, or null unless it's made of evaluated real numbers that
+    // are either all flonums or all not. Nothing is forced.
+    public static DenseMatrix pack(List<Atom> ravel, int rows, int cols) {
+        int n = ravel.size();
+        if(n != rows * cols || n == 0)
+            return null;
+        if(ravel instanceof NumericVector) {
+            NumericVector v = (NumericVector) ravel;
+            if(v.isFixnum()) {
+                long[] l = new long[n];
+                for(int i = 0; i < n; i++)
+                    l[i] = v.getLong(i);
+                return of(l, rows, cols);
+            }
+            double[] d = new double[n];
+            for(int i = 0; i < n; i++)
+                d[i] = v.getDouble(i);
+            return of(d, rows, cols);
+        }
+        Object[] values = new Object[n];
+        boolean flonums = false, fixnums = true;
+        for(int i = 0; i < n; i++) {
+            Atom a = ravel.get(i);
+            if(a.thunk() != null)
+                return null;
+            Object v = a.payload();
+            if(v instanceof BigDecimal && Fixnum.fits((BigDecimal) v))
+                v = ((BigDecimal) v).longValue();
+            else if(!(v instanceof Long || v instanceof Double || v instanceof BigDecimal))
+                return null;
+            if(i > 0 && flonums != v instanceof Double)
+                return null;
+            flonums = v instanceof Double;
+            fixnums &= v instanceof Long;
+            values[i] = v;
+        }
+        if(flonums) {
+            double[] d = new double[n];
+            for(int i = 0; i < n; i++)
+                d[i] = (Double) values[i];
+            return of(d, rows, cols);
+        } else if(fixnums) {
+            long[] l = new long[n];
+            for(int i = 0; i < n; i++)
+                l[i] = (Long) values[i];
+            return of(l, rows, cols);
+        }
+        BigDecimal[] b = new BigDecimal[n];
+        for(int i = 0; i < n; i++)
+            b[i] = values[i] instanceof Long ? BigDecimal.valueOf((Long) values[i]) : (BigDecimal) values[i];
+        return of(b, rows, cols);
+    }
+
+    // `m` itself if it's packed, otherwise packed like a ravel. Matrices are
+    // built lazily, so one can be packable only once its cells were used.
+    public static DenseMatrix pack(Matrix m) {
+        if(m instanceof DenseMatrix)
+            return (DenseMatrix) m;
+        if(m instanceof MatrixView)
+            return ((MatrixView) m).pack();
+        if(m instanceof SparseMatrix)
+            return ((SparseMatrix) m).dense();
+        return pack(m.ravel(), m.getRows(), m.getCols());
+    }
+
+    // `m` packed after forcing its cells, which a product uses all of anyway.
+    public static DenseMatrix forced(Matrix m) {
+        if(m instanceof DenseMatrix || m instanceof SparseMatrix)
+            return pack(m);
+        for(Atom a : m.ravel())
+            if(a.getType() != Type.NUMBER)
+                return null;
+        return pack(m);
+    }
+
+    public boolean isFixnum() {
+        return longs != null;
+    }
+
+    public boolean isFlonum() {
+        return doubles != null;
+    }
+
+    // Whether the cells convert to doubles without losing digits.
+    boolean fitsDouble() {
+        for(int i = 0; longs != null && i < longs.length; i++)
+            if(!Flonum.fits(longs[i]))
+                return false;
+        for(int i = 0; decimals != null && i < decimals.length; i++)
+            if(!Flonum.fits(decimals[i]))
+                return false;
+        return true;
+    }
+
+    double getDouble(int i) {
+        return doubles != null ? doubles[i] : longs != null ? longs[i] : decimals[i].doubleValue();
+    }
+
+    BigDecimal getDecimal(int i) {
+        return longs != null ? BigDecimal.valueOf(longs[i]) : decimals[i];
+    }
+
+    boolean isZero(int i) {
+        return longs != null ? longs[i] == 0 : doubles != null ? doubles[i] == 0 : decimals[i].signum() == 0;
+    }
+
+    // The cells at `index` as a `rows` by `cols` matrix, with zeros where the
+    // index is negative.
+    DenseMatrix select(int[] index, int rows, int cols) {
+        if(longs != null) {
+            long[] r = new long[index.length];
+            for(int i = 0; i < r.length; i++)
+                r[i] = index[i] < 0 ? 0 : longs[index[i]];
+            return of(r, rows, cols);
+        } else if(doubles != null) {
+            double[] r = new double[index.length];
+            for(int i = 0; i < r.length; i++)
+                r[i] = index[i] < 0 ? 0 : doubles[index[i]];
+            return of(r, rows, cols);
+        }
+        BigDecimal[] r = new BigDecimal[index.length];
+        for(int i = 0; i < r.length; i++)
+            r[i] = index[i] < 0 ? BigDecimal.ZERO : decimals[index[i]];
+        return of(r, rows, cols);
+    }
+
+    DenseMatrix select(int[] index) {
+        return select(index, 1, index.length);
+    }
+
+    Atom atom(int i) {
+        if(longs != null)
+            return new Atom(longs[i]);
+        if(doubles != null)
+            return new Atom(doubles[i]);
+        return Atom.number(decimals[i]);
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public Atom get(int row, int col) {
+        if(row < 0 || row >= rows || col < 0 || col >= cols)
+            throw new IndexOutOfBoundsException("Index: " + row + ", " + col + ", Size: " + rows + "x" + cols);
+        return atom(row * cols + col);
+    }
+
+    // Only numbers the storage holds exactly can be written.
+    @Override
+    public void set(int row, int col, Atom a) {
+        if(a.getType() != Type.NUMBER)
+            throw new Error("Can't store a " + a.getType().name() + " in a numeric matrix.");
+        int i = row * cols + col;
+        if(doubles != null) {
+            if(!a.isFlonum())
+                throw new Error("Can't store an exact number in a floating point matrix.");
+            doubles[i] = a.getFlonum();
+        } else if(a.isFlonum()) {
+            throw new Error("Can't store a floating point number in an exact matrix.");
+        } else if(longs != null) {
+            if(!a.isFixnum() && !Fixnum.fits(a.getNumber()))
+                throw new Error("Can't store " + a + " in an integer matrix.");
+            longs[i] = a.getNumber().longValue();
+        } else {
+            decimals[i] = a.getNumber();
+        }
+        changed();
+    }
+
+    @Override
+    public List<Atom> ravel() {
+        if(longs != null)
+            return NumericVector.of(longs);
+        if(doubles != null)
+            return NumericVector.of(doubles);
+        return new AbstractList<>() {
+            @Override
+            public Atom get(int index) {
+                return atom(index);
+            }
+
+            @Override
+            public int size() {
+                return decimals.length;
+            }
+        };
+    }
+
+    @Override
+    public Stream<List<Atom>> rows() {
+        List<Atom> ravel = ravel();
+        return IntStream.range(0, rows).mapToObj(i -> ravel.subList(i * cols, (i + 1) * cols));
+    }
+
+    @Override
+    public Stream<List<Atom>> cols() {
+        return IntStream.range(0, cols).mapToObj(j -> {
+            List<Atom> col = new ArrayList<>(rows);
+            for(int i = 0; i < rows; i++)
+                col.add(atom(i * cols + j));
+            return col;
+        });
+    }
+
+    @Override
+    public Matrix reshape(int rows, int cols, boolean recycle) {
+        return MatrixView.of(this).reshape(rows, cols, recycle);
+    }
+
+    @Override
+    public Matrix transpose() {
+        return MatrixView.of(this).transpose();
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return true;
+    }
+
+    // `a op b` cell by cell, with matrices of the same shape.
+    public static DenseMatrix apply(NumericOp op, DenseMatrix a, DenseMatrix b) {
+        if(a.rows != b.rows || a.cols != b.cols)
+            return null;
+        return apply(op, a, 1, b, 1, a.rows, a.cols);
+    }
+
+    // `m op x`, or `x op m` if `scalarFirst`, for every cell of `m`.
+    public static DenseMatrix apply(NumericOp op, DenseMatrix m, Atom x, boolean scalarFirst) {
+        DenseMatrix s = pack(List.of(x), 1, 1);
+        if(s == null)
+            return null;
+        return scalarFirst ? apply(op, s, 0, m, 1, m.rows, m.cols) : apply(op, m, 1, s, 0, m.rows, m.cols);
+    }
+
+    // The cells are read at `i * step`, so a step of 0 repeats a scalar.
+    private static DenseMatrix apply(NumericOp op, DenseMatrix a, int sa, DenseMatrix b, int sb, int rows, int cols) {
+        int n = rows * cols;
+        if(a.longs != null && b.longs != null) {
+            long[] r = new long[n];
+            try {
+                for(int i = 0; i < n; i++)
+                    r[i] = op.exact(a.longs[i * sa], b.longs[i * sb]);
+                return of(r, rows, cols);
+            } catch(ArithmeticException e) {
+                // redone with decimals below.
+            }
+        } else if(a.doubles != null || b.doubles != null) {
+            if(!a.fitsDouble() || !b.fitsDouble())
+                return null;
+            double[] r = new double[n];
+            for(int i = 0; i < n; i++) {
+                r[i] = op.apply(a.getDouble(i * sa), b.getDouble(i * sb));
+                if(!Double.isFinite(r[i]))
+                    return null;
+            }
+            return of(r, rows, cols);
+        }
+        BigDecimal[] r = new BigDecimal[n];
+        for(int i = 0; i < n; i++)
+            r[i] = op.apply(a.getDecimal(i * sa), b.getDecimal(i * sb));
+        return of(r, rows, cols);
+    }
+
+    // The sum of the products of corresponding cells.
+    public static Atom dot(DenseMatrix a, DenseMatrix b) {
+        if(a.rows != b.rows || a.cols != b.cols)
+            return null;
+        return sum(a, b, a.rows * a.cols, 1);
+    }
+
+    // The sum of the diagonal.
+    public Atom trace() {
+        return sum(this, null, Math.min(rows, cols), cols + 1);
+    }
+
+    // The sum of the cells of `a` at `i * step`, each multiplied by the same
+    // cell of `b` unless it's null.
+    private static Atom sum(DenseMatrix a, DenseMatrix b, int n, int step) {
+        if(n == 0)
+            return null;
+        if(a.doubles != null || (b != null && b.doubles != null)) {
+            if(!a.fitsDouble() || (b != null && !b.fitsDouble()))
+                return null;
+            double r = 0;
+            for(int i = 0; i < n; i++) {
+                r += b == null ? a.getDouble(i * step) : a.getDouble(i * step) * b.getDouble(i * step);
+                if(!Double.isFinite(r))
+                    return null;
+            }
+            return new Atom(r);
+        }
+        if(a.longs != null && (b == null || b.longs != null)) {
+            try {
+                long r = 0;
+                for(int i = 0; i < n; i++)
+                    r = Math.addExact(r, b == null ? a.longs[i * step] : Math.multiplyExact(a.longs[i * step], b.longs[i * step]));
+                return new Atom(r);
+            } catch(ArithmeticException e) {
+                // redone with decimals below.
+            }
+        }
+        BigDecimal r = null;
+        for(int i = 0; i < n; i++) {
+            BigDecimal t = b == null ? a.getDecimal(i * step) : a.getDecimal(i * step).multiply(b.getDecimal(i * step));
+            r = r == null ? t : r.add(t);
+        }
+        return Atom.number(r);
+    }
+}
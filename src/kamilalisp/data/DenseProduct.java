@@ -0,0 +1,246 @@
+package kamilalisp.data;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+// Products of `DenseMatrix`es over the semirings `inner-prod` is used with
+// most: + and *, min and +, max and +. The loops are blocked like the other
+// dense kernels, blocks of rows run in parallel on the common pool once the
+// product is large enough, and large exact products use Strassen's
+// algorithm. Each cell comes out as if it was folded left to right over the
+// inner index, so results match `inner-prod` with any other functions.
+public final class DenseProduct {
+    public enum Semiring { PLUS_TIMES, MIN_PLUS, MAX_PLUS }
+
+    private static final int BLOCK = DenseMatrix.BLOCK;
+    // inner loop iterations from which rows are computed in parallel.
+    private static final long PARALLEL = 1 << 20;
+    // the smallest side for which exact products use Strassen's algorithm,
+    // and the largest one it leaves to the plain loops.
+    private static final int STRASSEN = 128, LEAF = 64;
+
+    private DenseProduct() { }
+
+    // The product, or null if it has to be computed cell by cell.
+    public static DenseMatrix multiply(Semiring s, DenseMatrix a, DenseMatrix b) {
+        if(a.cols != b.rows || a.cols == 0)
+            return null;
+        if(a.doubles != null || b.doubles != null)
+            return a.fitsDouble() && b.fitsDouble() ? doubles(s, a, b) : null;
+        if(a.longs != null && b.longs != null) {
+            try {
+                return longs(s, a, b);
+            } catch(ArithmeticException e) {
+                // redone with decimals below.
+            }
+        }
+        return decimals(s, a, b);
+    }
+
+    // Calls `block` with the first row of each block of rows.
+    private static void forEachBlock(int rows, long work, IntConsumer block) {
+        IntStream blocks = IntStream.range(0, (rows + BLOCK - 1) / BLOCK);
+        (work >= PARALLEL ? blocks.parallel() : blocks).forEach(i -> block.accept(i * BLOCK));
+    }
+
+    private static DenseMatrix doubles(Semiring s, DenseMatrix a, DenseMatrix b) {
+        int n = a.rows, m = a.cols, p = b.cols;
+        double[] x = toDoubles(a), y = toDoubles(b), r = new double[n * p];
+        if(s != Semiring.PLUS_TIMES)
+            Arrays.fill(r, s == Semiring.MIN_PLUS ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+        forEachBlock(n, (long) n * m * p, i0 -> {
+            for(int k0 = 0; k0 < m; k0 += BLOCK)
+                for(int j0 = 0; j0 < p; j0 += BLOCK)
+                    for(int i = i0; i < Math.min(n, i0 + BLOCK); i++)
+                        for(int k = k0; k < Math.min(m, k0 + BLOCK); k++) {
+                            double aik = x[i * m + k];
+                            int j1 = Math.min(p, j0 + BLOCK);
+                            if(s == Semiring.PLUS_TIMES)
+                                for(int j = j0; j < j1; j++)
+                                    r[i * p + j] += aik * y[k * p + j];
+                            else if(s == Semiring.MIN_PLUS)
+                                for(int j = j0; j < j1; j++)
+                                    r[i * p + j] = Math.min(r[i * p + j], aik + y[k * p + j]);
+                            else
+                                for(int j = j0; j < j1; j++)
+                                    r[i * p + j] = Math.max(r[i * p + j], aik + y[k * p + j]);
+                        }
+        });
+        for(double d : r)
+            if(!Double.isFinite(d))
+                return null;
+        if(s == Semiring.PLUS_TIMES || m == 1)
+            return DenseMatrix.of(r, n, p);
+        // min and max hand out BigDecimals.
+        BigDecimal[] d = new BigDecimal[r.length];
+        for(int i = 0; i < r.length; i++)
+            d[i] = Flonum.toBigDecimal(r[i]);
+        return DenseMatrix.of(d, n, p);
+    }
+
+    private static double[] toDoubles(DenseMatrix a) {
+        if(a.doubles != null)
+            return a.doubles;
+        double[] r = new double[a.rows * a.cols];
+        for(int i = 0; i < r.length; i++)
+            r[i] = a.getDouble(i);
+        return r;
+    }
+
+    private static DenseMatrix longs(Semiring s, DenseMatrix a, DenseMatrix b) {
+        int n = a.rows, m = a.cols, p = b.cols;
+        long[] x = a.longs, y = b.longs, r = new long[n * p];
+        if(s != Semiring.PLUS_TIMES)
+            Arrays.fill(r, s == Semiring.MIN_PLUS ? Long.MAX_VALUE : Long.MIN_VALUE);
+        forEachBlock(n, (long) n * m * p, i0 -> {
+            for(int k0 = 0; k0 < m; k0 += BLOCK)
+                for(int j0 = 0; j0 < p; j0 += BLOCK)
+                    for(int i = i0; i < Math.min(n, i0 + BLOCK); i++)
+                        for(int k = k0; k < Math.min(m, k0 + BLOCK); k++) {
+                            long aik = x[i * m + k];
+                            int j1 = Math.min(p, j0 + BLOCK);
+                            if(s == Semiring.PLUS_TIMES)
+                                for(int j = j0; j < j1; j++)
+                                    r[i * p + j] = Math.addExact(r[i * p + j], Math.multiplyExact(aik, y[k * p + j]));
+                            else if(s == Semiring.MIN_PLUS)
+                                for(int j = j0; j < j1; j++)
+                                    r[i * p + j] = Math.min(r[i * p + j], Math.addExact(aik, y[k * p + j]));
+                            else
+                                for(int j = j0; j < j1; j++)
+                                    r[i * p + j] = Math.max(r[i * p + j], Math.addExact(aik, y[k * p + j]));
+                        }
+        });
+        return DenseMatrix.of(r, n, p);
+    }
+
+    private static DenseMatrix decimals(Semiring s, DenseMatrix a, DenseMatrix b) {
+        int n = a.rows, m = a.cols, p = b.cols;
+        BigDecimal[] x = toDecimals(a), y = toDecimals(b);
+        if(s == Semiring.PLUS_TIMES && Math.min(n, Math.min(m, p)) >= STRASSEN)
+            return DenseMatrix.of(strassen(x, y, n, m, p), n, p);
+        BigDecimal[] r = new BigDecimal[n * p];
+        forEachBlock(n, (long) n * m * p, i0 -> {
+            for(int i = i0; i < Math.min(n, i0 + BLOCK); i++)
+                for(int k = 0; k < m; k++) {
+                    BigDecimal aik = x[i * m + k];
+                    for(int j = 0; j < p; j++) {
+                        BigDecimal t, c = r[i * p + j];
+                        if(s == Semiring.PLUS_TIMES) {
+                            t = aik.multiply(y[k * p + j]);
+                            r[i * p + j] = k == 0 ? t : c.add(t);
+                        } else {
+                            t = aik.add(y[k * p + j]);
+                            // ties keep the earlier value, like `min` and `max`.
+                            if(k == 0 || (s == Semiring.MIN_PLUS ? c.compareTo(t) > 0 : c.compareTo(t) < 0))
+                                r[i * p + j] = t;
+                        }
+                    }
+                }
+        });
+        return DenseMatrix.of(r, n, p);
+    }
+
+    private static BigDecimal[] toDecimals(DenseMatrix a) {
+        if(a.decimals != null)
+            return a.decimals;
+        BigDecimal[] r = new BigDecimal[a.rows * a.cols];
+        for(int i = 0; i < r.length; i++)
+            r[i] = a.getDecimal(i);
+        return r;
+    }
+
+    // x (n by m) times y (m by p). Both are padded with zeros to a square of
+    // side `leaf * 2^k`, with `leaf` at most LEAF. The sums come out in a
+    // different order, so each cell is set to the scale the left fold would
+    // give it, max over k of scale(x_ik) + scale(y_kj).
+    private static BigDecimal[] strassen(BigDecimal[] x, BigDecimal[] y, int n, int m, int p) {
+        int side = Math.max(n, Math.max(m, p)), levels = 0;
+        while((side + (1 << levels) - 1) >> levels > LEAF)
+            levels++;
+        int size = ((side + (1 << levels) - 1) >> levels) << levels;
+        BigDecimal[] z = strassen(pad(x, n, m, size), pad(y, m, p, size), size);
+
+        long[] sx = new long[n * m], sy = new long[m * p];
+        for(int i = 0; i < sx.length; i++)
+            sx[i] = x[i].scale();
+        for(int i = 0; i < sy.length; i++)
+            sy[i] = y[i].scale();
+        long[] scales = longs(Semiring.MAX_PLUS, DenseMatrix.of(sx, n, m), DenseMatrix.of(sy, m, p)).longs;
+
+        BigDecimal[] r = new BigDecimal[n * p];
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < p; j++)
+                r[i * p + j] = z[i * size + j].setScale((int) scales[i * p + j]);
+        return r;
+    }
+
+    private static BigDecimal[] pad(BigDecimal[] a, int rows, int cols, int size) {
+        BigDecimal[] r = new BigDecimal[size * size];
+        Arrays.fill(r, BigDecimal.ZERO);
+        for(int i = 0; i < rows; i++)
+            System.arraycopy(a, i * cols, r, i * size, cols);
+        return r;
+    }
+
+    private static BigDecimal[] strassen(BigDecimal[] a, BigDecimal[] b, int n) {
+        if(n <= LEAF) {
+            BigDecimal[] r = new BigDecimal[n * n];
+            Arrays.fill(r, BigDecimal.ZERO);
+            for(int i = 0; i < n; i++)
+                for(int k = 0; k < n; k++) {
+                    BigDecimal aik = a[i * n + k];
+                    if(aik.signum() != 0)
+                        for(int j = 0; j < n; j++)
+                            r[i * n + j] = r[i * n + j].add(aik.multiply(b[k * n + j]));
+                }
+            return r;
+        }
+        int h = n / 2;
+        BigDecimal[] a11 = quarter(a, n, 0, 0), a12 = quarter(a, n, 0, h), a21 = quarter(a, n, h, 0), a22 = quarter(a, n, h, h);
+        BigDecimal[] b11 = quarter(b, n, 0, 0), b12 = quarter(b, n, 0, h), b21 = quarter(b, n, h, 0), b22 = quarter(b, n, h, h);
+        BigDecimal[][] f = {
+                add(a11, a22), add(a21, a22), a11, a22, add(a11, a12), subtract(a21, a11), subtract(a12, a22)
+        };
+        BigDecimal[][] g = {
+                add(b11, b22), b11, subtract(b12, b22), subtract(b21, b11), b22, add(b11, b12), add(b21, b22)
+        };
+        BigDecimal[][] q = new BigDecimal[7][];
+        IntStream.range(0, 7).parallel().forEach(i -> q[i] = strassen(f[i], g[i], h));
+        BigDecimal[] c11 = add(subtract(add(q[0], q[3]), q[4]), q[6]);
+        BigDecimal[] c12 = add(q[2], q[4]);
+        BigDecimal[] c21 = add(q[1], q[3]);
+        BigDecimal[] c22 = add(add(subtract(q[0], q[1]), q[2]), q[5]);
+        BigDecimal[] r = new BigDecimal[n * n];
+        for(int i = 0; i < h; i++) {
+            System.arraycopy(c11, i * h, r, i * n, h);
+            System.arraycopy(c12, i * h, r, i * n + h, h);
+            System.arraycopy(c21, i * h, r, (i + h) * n, h);
+            System.arraycopy(c22, i * h, r, (i + h) * n + h, h);
+        }
+        return r;
+    }
+
+    private static BigDecimal[] quarter(BigDecimal[] a, int n, int row, int col) {
+        int h = n / 2;
+        BigDecimal[] r = new BigDecimal[h * h];
+        for(int i = 0; i < h; i++)
+            System.arraycopy(a, (row + i) * n + col, r, i * h, h);
+        return r;
+    }
+
+    private static BigDecimal[] add(BigDecimal[] a, BigDecimal[] b) {
+        BigDecimal[] r = new BigDecimal[a.length];
+        for(int i = 0; i < r.length; i++)
+            r[i] = a[i].add(b[i]);
+        return r;
+    }
+
+    private static BigDecimal[] subtract(BigDecimal[] a, BigDecimal[] b) {
+        BigDecimal[] r = new BigDecimal[a.length];
+        for(int i = 0; i < r.length; i++)
+            r[i] = a[i].subtract(b[i]);
+        return r;
+    }
+}
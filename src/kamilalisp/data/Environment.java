@@ -3,65 +3,122 @@ package kamilalisp.data;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 public class Environment {
-    public HashMap<String, Atom> data = new HashMap<>();
+    // Bindings of the global scope and of dynamic frames. The global one is
+    // read from any thread without locking, and written to under a lock.
+    public Map<Symbol, Atom> data;
+    // Bindings of lexical frames, laid out as described by `scope`.
+    public Atom[] slots;
+    public Scope scope;
     public Environment ancestor;
+    public Environment global;
     public String name;
     public Atom owner;
+    // Bumped whenever a global binding changes, so that compiled code can
+    // cache global lookups. It's read before the bindings, so that a lookup
+    // cached with it is never newer than the value.
+    public volatile int version;
 
     public Environment(String name) {
         this.name = name;
         this.ancestor = null;
+        this.global = this;
+        this.scope = Scope.GLOBAL;
+        this.data = new ConcurrentHashMap<>();
     }
 
-    public void push(String key, Atom value) {
-        if(data.containsKey(key))
-            data.replace(key, value);
+    private Environment(String name, Environment ancestor, Scope scope) {
+        this.name = name;
+        this.ancestor = ancestor;
+        this.global = ancestor.global;
+        this.scope = scope;
+        if(scope.isDynamic())
+            this.data = new HashMap<>();
         else
-            data.put(key, value);
+            this.slots = new Atom[scope.names.length];
+    }
+
+    public void push(String key, Atom value) {
+        push(Symbol.of(key), value);
+    }
+
+    public void push(Symbol key, Atom value) {
+        if(slots != null) {
+            int slot = scope.indexOf(key);
+            if(slot == -1)
+                throw new Error("'" + key + "' is not bound in " + name + ".");
+            slots[slot] = value;
+        } else {
+            synchronized(this) {
+                data.put(key, value);
+                version++;
+            }
+        }
     }
 
     public List<String> entries() {
-        return new LinkedList<>(data.keySet());
+        if(slots == null)
+            return data.keySet().stream().map(Symbol::getName).collect(Collectors.toCollection(LinkedList::new));
+        List<String> result = new LinkedList<>();
+        for(int i = 0; i < slots.length; i++)
+            if(slots[i] != null && !result.contains(scope.names[i].getName()))
+                result.add(scope.names[i].getName());
+        return result;
     }
 
-    public Atom get(String key) {
+    // Find the value bound to `key` in this frame or its ancestors, or null.
+    public Atom lookup(Symbol key) {
         Environment currentEnv = this;
 
         while(currentEnv != null) {
-            if(currentEnv.data.containsKey(key))
-                return currentEnv.data.get(key);
+            Atom value;
+            if(currentEnv.slots != null) {
+                int slot = currentEnv.scope.indexOf(key);
+                value = slot == -1 ? null : currentEnv.slots[slot];
+            } else
+                value = currentEnv.data.get(key);
+
+            if(value != null)
+                return value;
 
             currentEnv = currentEnv.ancestor;
         }
 
-        return Atom.NULL;
+        return null;
     }
 
-    public boolean has(String key) {
-        Environment currentEnv = this;
-
-        while(currentEnv != null) {
-            if(currentEnv.data.containsKey(key))
-                return true;
+    public Atom get(String key) {
+        return get(Symbol.of(key));
+    }
 
-            currentEnv = currentEnv.ancestor;
-        }
+    public Atom get(Symbol key) {
+        Atom value = lookup(key);
+        return value == null ? Atom.NULL : value;
+    }
 
-        return false;
+    public boolean has(String key) {
+        return lookup(Symbol.of(key)) != null;
     }
 
     public Environment descendant(String name) {
-        Environment env = new Environment(name);
-        env.ancestor = this;
-        return env;
+        return new Environment(name, this, scope.dynamic());
+    }
+
+    // A lexical frame with one slot per name. Slots start out unbound.
+    public Environment descendant(String name, Symbol[] names) {
+        return new Environment(name, this, scope.child(names));
+    }
+
+    public Environment descendant(String name, Scope scope) {
+        assert scope.parent == this.scope;
+        return new Environment(name, this, scope);
     }
 
     public Environment getTopmostAncestor() {
-        Environment cur = this;
-        while(cur.ancestor != null)
-            cur = cur.ancestor;
-        return cur;
+        return global;
     }
 }
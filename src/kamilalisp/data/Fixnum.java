@@ -0,0 +1,74 @@
+package kamilalisp.data;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+// Integers that fit in a machine word are kept as a `Long` payload instead of
+// a `BigDecimal`. Arithmetic on two of them stays on longs, and switches over
+// to `BigDecimal` when the result would overflow, so results don't change.
+public final class Fixnum {
+    private Fixnum() { }
+
+    // Whether `d` is an integer small enough to be stored as a long.
+    public static boolean fits(BigDecimal d) {
+        return d.scale() == 0 && d.precision() < 19;
+    }
+
+    public static Object narrow(BigDecimal d) {
+        return fits(d) ? (Object) d.longValue() : d;
+    }
+
+    // Compares two atoms of type NUMBER.
+    public static int compare(Atom a, Atom b) {
+        if(a.isFixnum() && b.isFixnum())
+            return Long.compare(a.getFixnum(), b.getFixnum());
+        if(a.isFlonum() || b.isFlonum())
+            return Flonum.compare(a, b);
+        return a.getNumber().compareTo(b.getNumber());
+    }
+
+    public static Object add(long a, long b) {
+        long r = a + b;
+        if(((a ^ r) & (b ^ r)) < 0)
+            return BigDecimal.valueOf(a).add(BigDecimal.valueOf(b));
+        return r;
+    }
+
+    public static Object subtract(long a, long b) {
+        long r = a - b;
+        if(((a ^ b) & (a ^ r)) < 0)
+            return BigDecimal.valueOf(a).subtract(BigDecimal.valueOf(b));
+        return r;
+    }
+
+    public static Object multiply(long a, long b) {
+        long hi = Math.multiplyHigh(a, b), lo = a * b;
+        if((hi == 0 && lo >= 0) || (hi == -1 && lo < 0))
+            return lo;
+        return BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b));
+    }
+
+    // The quotient if it's an integer that `mc` wouldn't round, null otherwise.
+    public static Long exactQuotient(long a, long b, MathContext mc) {
+        if(b == 0 || (a == Long.MIN_VALUE && b == -1) || a % b != 0)
+            return null;
+        long q = a / b;
+        if(mc.getPrecision() != 0 && mc.getPrecision() < 19 && Math.abs(q) >= LIMITS[mc.getPrecision()])
+            return null;
+        return q;
+    }
+
+    private static final long[] LIMITS = new long[19];
+    static {
+        LIMITS[0] = 1;
+        for(int i = 1; i < LIMITS.length; i++)
+            LIMITS[i] = LIMITS[i - 1] * 10;
+    }
+
+    public static Object remainder(long a, long b) {
+        // Long.MIN_VALUE % -1 is fine, only division by zero has to go the slow way.
+        if(b == 0)
+            return BigDecimal.valueOf(a).remainder(BigDecimal.ZERO);
+        return a % b;
+    }
+}
@@ -0,0 +1,94 @@
+package kamilalisp.data;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+// Numbers computed with doubles, kept as a `Double` payload. They come from
+// division and the elementary functions when `fr` is at most `DIGITS`, and
+// spread to the results of arithmetic they take part in, unless an exact
+// operand has more digits than a double holds. A result that isn't finite is
+// left to the BigDecimal code, so errors and complex results don't change.
+public final class Flonum {
+    // The largest `fr` for which doubles are precise enough.
+    public static final int DIGITS = 15;
+    private static final MathContext CONTEXT = new MathContext(DIGITS, RoundingMode.HALF_EVEN);
+    private static final long LIMIT = 1_000_000_000_000_000L;
+    // Numbers below 1E-307 may be subnormal doubles, or underflow to 0.
+    private static final int MIN_DIGITS = -307;
+
+    private Flonum() { }
+
+    public static BigDecimal toBigDecimal(double d) {
+        return new BigDecimal(d, CONTEXT);
+    }
+
+    // The value of an atom of type NUMBER as a double.
+    public static double value(Atom a) {
+        if(a.isFlonum())
+            return a.getFlonum();
+        if(a.isFixnum())
+            return a.getFixnum();
+        return a.getNumber().doubleValue();
+    }
+
+    // Whether an exact number converts to a double without losing digits,
+    // i.e. it has at most `DIGITS` of them and is within the normal range.
+    public static boolean fits(long l) {
+        return -LIMIT < l && l < LIMIT;
+    }
+
+    public static boolean fits(BigDecimal d) {
+        int digits = d.precision() - d.scale();
+        return d.precision() <= DIGITS && digits <= DIGITS && (d.signum() == 0 || digits > MIN_DIGITS);
+    }
+
+    // Whether the number `a` is a flonum or an exact number that fits.
+    public static boolean fits(Atom a) {
+        if(a.isFlonum())
+            return true;
+        return a.isFixnum() ? fits(a.getFixnum()) : fits(a.getNumber());
+    }
+
+    // Whether arithmetic on `a` and `b` should be done with doubles.
+    public static boolean either(Atom a, Atom b) {
+        return a.getType() == Type.NUMBER && b.getType() == Type.NUMBER && (a.isFlonum() || b.isFlonum()) && fits(a) && fits(b);
+    }
+
+    // Compares two atoms of type NUMBER, at least one of them a flonum, as
+    // they're printed: rounded to `DIGITS` digits.
+    public static int compare(Atom a, Atom b) {
+        if(a.isFlonum() && b.isFlonum()) {
+            double x = a.getFlonum(), y = b.getFlonum();
+            if(x == y)
+                return 0;
+            // doubles this far apart differ in the first `DIGITS` digits.
+            if(Math.abs(x - y) > 1e-14 * Math.max(Math.abs(x), Math.abs(y)))
+                return Double.compare(x, y);
+        }
+        return a.getNumber().compareTo(b.getNumber());
+    }
+
+    // The result to keep, or null if the caller should fall back to BigDecimal.
+    public static Double of(double d) {
+        return Double.isFinite(d) ? d : null;
+    }
+
+    // Results that underflowed to 0 or a subnormal from nonzero operands are
+    // also left to BigDecimal.
+    public static Double apply(Atom a, DoubleUnaryOperator f) {
+        if(!fits(a))
+            return null;
+        double x = value(a), r = f.applyAsDouble(x);
+        return x != 0 && Math.abs(r) < Double.MIN_NORMAL ? null : of(r);
+    }
+
+    public static Double apply(Atom a, Atom b, DoubleBinaryOperator f) {
+        if(!fits(a) || !fits(b))
+            return null;
+        double x = value(a), y = value(b), r = f.applyAsDouble(x, y);
+        return x != 0 && y != 0 && Math.abs(r) < Double.MIN_NORMAL ? null : of(r);
+    }
+}
@@ -0,0 +1,178 @@
+package kamilalisp.data;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// A sequence whose values are computed as they're pulled, once each: a
+// generator can be read through only once, and keeps none of the values it
+// has handed out. Calling it pulls the next value.
+public final class Generator implements Closure {
+    private static final ThreadLocal<Channel> current = new ThreadLocal<>();
+    private static final Cleaner cleaner = Cleaner.create();
+    private static final ExecutorService producers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "generator");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // The next value, or null past the end.
+    private final Supplier<Atom> source;
+
+    private Generator(Supplier<Atom> source) {
+        this.source = source;
+    }
+
+    // The generator `a` holds, or null.
+    public static Generator of(Atom a) {
+        if(a.getType() == Type.CLOSURE && a.getClosure() instanceof Generator)
+            return (Generator) a.getClosure();
+        return null;
+    }
+
+    // A generator of the values `body` passes to `yield`, computed on a
+    // thread of its own. The thread starts at the first pull and waits for
+    // the next one after each value, and is stopped once the generator is
+    // unreachable.
+    public static Generator produce(Runnable body) {
+        Channel c = new Channel(body);
+        Generator g = new Generator(c::pull);
+        cleaner.register(g, c::close);
+        return g;
+    }
+
+    // Hands `a` over to whoever pulled from the generator running on this
+    // thread, and waits to be pulled from again.
+    public static void yield(Atom a) {
+        Channel c = current.get();
+        if(c == null)
+            throw new Error("'yield' outside of a generator.");
+        c.yield(a);
+    }
+
+    // Values handed over one at a time between the producer and the
+    // generator's reader.
+    private static final class Channel implements Runnable {
+        private static final Object END = new Object();
+        private final SynchronousQueue<Object> values = new SynchronousQueue<>();
+        private final SynchronousQueue<Boolean> demand = new SynchronousQueue<>();
+        private final Runnable body;
+        private volatile Future<?> task;
+        private boolean done;
+        private volatile boolean closed;
+
+        Channel(Runnable body) {
+            this.body = body;
+        }
+
+        Atom pull() {
+            if(done)
+                return null;
+            Object o;
+            try {
+                if(task == null)
+                    task = producers.submit(this);
+                else
+                    demand.put(Boolean.TRUE);
+                o = values.take();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new Error("Interrupted while pulling from a generator.");
+            }
+            if(o instanceof Atom)
+                return (Atom) o;
+            done = true;
+            if(o instanceof Error)
+                throw (Error) o;
+            if(o instanceof RuntimeException)
+                throw (RuntimeException) o;
+            return null;
+        }
+
+        void yield(Atom a) {
+            try {
+                values.put(a);
+                demand.take();
+            } catch(InterruptedException e) {
+                throw new Error("Generator closed.");
+            }
+        }
+
+        @Override
+        public void run() {
+            current.set(this);
+            Object result = END;
+            try {
+                body.run();
+            } catch(RuntimeException | Error e) {
+                result = e;
+            } finally {
+                current.remove();
+            }
+            try {
+                if(!closed)
+                    values.put(result);
+            } catch(InterruptedException e) {
+                // nobody is going to pull from a closed generator.
+            }
+        }
+
+        void close() {
+            closed = true;
+            if(task != null)
+                task.cancel(true);
+        }
+    }
+
+    // The next value, or null past the end.
+    public synchronized Atom next() {
+        return source.get();
+    }
+
+    // Up to `n` next values.
+    public List<Atom> take(int n) {
+        List<Atom> result = new ArrayList<>();
+        Atom a;
+        while(result.size() < n && (a = next()) != null)
+            result.add(a);
+        return result;
+    }
+
+    // Generators reading from this one, which they keep reachable.
+    public Generator map(Function<Atom, Atom> f) {
+        return new Generator(() -> {
+            Atom a = next();
+            return a == null ? null : f.apply(a);
+        });
+    }
+
+    public Generator filter(Predicate<Atom> p) {
+        return new Generator(() -> {
+            Atom a;
+            while((a = next()) != null && !p.test(a));
+            return a;
+        });
+    }
+
+    @Override
+    public Atom apply(Executor env, List<Atom> arguments) {
+        if(!arguments.isEmpty())
+            throw new Error("Invalid invocation to a generator.");
+        Atom a = next();
+        if(a == null)
+            throw new Error("The generator is exhausted.");
+        return a;
+    }
+
+    @Override
+    public String representation() {
+        return "generator";
+    }
+}
@@ -1,25 +1,137 @@
 package kamilalisp.data;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 
+// A value computed at most once, by whichever thread asks for it first.
+// Others asking meanwhile wait for it; once `done` is set, the value is
+// read without locking.
 public class LbcSupplier<T> {
-    private Supplier<T> supplier; private Optional<T> value;
+    private Supplier<T> supplier; private T value; private volatile boolean done;
+    // Set for values computed in tail position, see `tail`.
+    private Supplier<Atom> tail; private volatile LbcSupplier<?> redirect;
 
     public LbcSupplier(Supplier<T> s) {
-        this.supplier = s; this.value = Optional.empty();
+        this.supplier = s;
     }
 
     public LbcSupplier(T t) {
-        this.supplier = null; this.value = Optional.of(t);
+        this.value = t; this.done = true;
     }
 
+    private LbcSupplier() {
+    }
+
+    // A value defined as the value of the atom `next` yields. Forcing a chain
+    // of such values (e.g. a recursive function whose body is an `if`) runs in
+    // constant stack space: each step is taken in a loop instead of forcing
+    // the next atom from inside the current supplier.
+    public static <T> LbcSupplier<T> tail(Supplier<Atom> next) {
+        LbcSupplier<T> s = new LbcSupplier<>();
+        s.tail = next;
+        return s;
+    }
+
+    // A step that applies a function. When a function calls itself in tail
+    // position, the arguments of the call are forced before the step is
+    // taken, so that an accumulator doesn't pile up unevaluated thunks.
+    public interface Call extends Supplier<Atom> {
+        Object callee();
+        void forceArguments();
+    }
+
+    // A step that needs to know which value it's taken for: `root` is the
+    // value whose trampoline runs it, see `computedBy`.
+    public interface Step extends Supplier<Atom> {
+        Atom step(LbcSupplier<?> root);
+
+        @Override
+        default Atom get() {
+            return step(null);
+        }
+    }
+
+    // Whether this value is computed by `root`'s trampoline: it's `root`
+    // itself or was taken over by it.
+    public boolean computedBy(LbcSupplier<?> root) {
+        for(LbcSupplier<?> s = this; s != null; s = s.redirect)
+            if(s == root)
+                return true;
+        return false;
+    }
+
+    // Only `tail` values hold an atom's payload, whose type the caller of
+    // `tail` chose as T, so the casts below can't be checked.
+    @SuppressWarnings("unchecked")
     public T get() {
-        if(value.isEmpty()) {
-            value = Optional.of(supplier.get());
-            supplier = null;
+        if(done)
+            return value;
+        LbcSupplier<?> r;
+        synchronized(this) {
+            r = redirect;
+            if(!done && r == null) {
+                if(tail != null) {
+                    value = (T) trampoline(tail);
+                    tail = null;
+                } else {
+                    value = supplier.get();
+                    supplier = null;
+                }
+                done = true;
+            }
         }
+        // the lock isn't held while waiting for the value we were taken over by.
+        return done ? value : (T) r.get();
+    }
 
-        return value.get();
+    // A step that throws leaves this value and the ones taken over as they
+    // were, so that forcing them again raises the error again.
+    private Object trampoline(Supplier<Atom> step) {
+        List<LbcSupplier<?>> taken = null;
+        List<Supplier<Atom>> steps = null;
+        Object callee = null;
+        try {
+            while(true) {
+                if(step instanceof Call) {
+                    Call c = (Call) step;
+                    if(c.callee() == callee)
+                        c.forceArguments();
+                    callee = c.callee();
+                }
+                Atom a = step instanceof Step ? ((Step) step).step(this) : step.get();
+                LbcSupplier<?> next = a.thunk();
+                if(next == null || next == this)
+                    return a.payload();
+                // The intermediate values are the same as ours, once we know it.
+                // One being computed elsewhere is waited for instead.
+                synchronized(next) {
+                    if(next.done || next.tail == null || next.redirect != null)
+                        step = null;
+                    else {
+                        step = next.tail;
+                        next.tail = null;
+                        next.redirect = this;
+                    }
+                }
+                if(step == null)
+                    return a.payload();
+                if(taken == null) {
+                    taken = new ArrayList<>();
+                    steps = new ArrayList<>();
+                }
+                taken.add(next);
+                steps.add(step);
+            }
+        } catch(RuntimeException | Error e) {
+            for(int i = 0; taken != null && i < taken.size(); i++) {
+                LbcSupplier<?> t = taken.get(i);
+                synchronized(t) {
+                    t.tail = steps.get(i);
+                    t.redirect = null;
+                }
+            }
+            throw e;
+        }
     }
 }
@@ -3,4 +3,10 @@ package kamilalisp.data;
 import java.util.List;
 
 public interface Macro extends Callable {
+    // The name of the special form implemented by this macro, if any. Lets an
+    // execution engine that compiles special forms itself check that a symbol
+    // still refers to the builtin.
+    default Symbol specialForm() {
+        return null;
+    }
 }
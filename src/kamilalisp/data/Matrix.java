@@ -6,6 +6,8 @@ import com.google.common.collect.Streams;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -26,10 +28,45 @@ public abstract class Matrix {
 
     public abstract Matrix transpose();
 
+    // The `rows` by `cols` block from (row, col) on, sharing the cells.
+    public Matrix sub(int row, int col, int rows, int cols) {
+        return MatrixView.of(this).sub(row, col, rows, cols);
+    }
+
     public abstract boolean isNumeric();
 
+    // Values computed from the cells, like factorizations, kept with the
+    // matrix so that each is computed once. `set` drops them.
+    private volatile Map<Object, Object> derived;
+
+    @SuppressWarnings("unchecked")
+    public <T> T derive(Object key, Function<Matrix, T> f) {
+        Map<Object, Object> d = derived;
+        if(d == null) {
+            synchronized(this) {
+                if(derived == null)
+                    derived = new ConcurrentHashMap<>();
+                d = derived;
+            }
+        }
+        // not computeIfAbsent, since `f` may derive other values itself.
+        Object v = d.get(key);
+        if(v == null) {
+            v = f.apply(this);
+            Object old = d.putIfAbsent(key, v);
+            if(old != null)
+                v = old;
+        }
+        return (T) v;
+    }
+
+    protected void changed() {
+        derived = null;
+    }
+
+    // A copy that any atom can be stored in.
     public Matrix copy() {
-        return from(new ArrayList<>(ravel()), getRows(), getCols());
+        return new MatrixImpl(new ArrayList<>(ravel()), getRows(), getCols());
     }
 
     public Matrix transmogrifyRank0(Function<Atom, Atom> f) {
@@ -76,12 +113,16 @@ public abstract class Matrix {
         return rows().map(reductor).collect(Collectors.toList());
     }
 
+    // Matrices of evaluated real numbers are packed into a `DenseMatrix`.
     public static Matrix from(List<List<Atom>> a) {
-        return new MatrixImpl(a);
+        MatrixImpl m = new MatrixImpl(a);
+        DenseMatrix d = DenseMatrix.pack(m.ravel(), m.getRows(), m.getCols());
+        return d != null ? d : m;
     }
 
     public static Matrix from(List<Atom> a, int rows, int cols) {
-        return new MatrixImpl(a, rows, cols);
+        DenseMatrix d = DenseMatrix.pack(a, rows, cols);
+        return d != null ? d : new MatrixImpl(a, rows, cols);
     }
 
     public static Matrix of(BiFunction<Integer, Integer, Atom> generator, int rows, int cols) {
@@ -91,7 +132,7 @@ public abstract class Matrix {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Matrix)) return false;
 
         Matrix matrix = (Matrix) o;
 
@@ -1,9 +1,5 @@
 package kamilalisp.data;
 
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Streams;
-
-import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -54,6 +50,7 @@ public class MatrixImpl extends Matrix {
     @Override
     public void set(int row, int col, Atom a) {
         ravelData.set(row * iCols + col, a);
+        changed();
     }
 
     @Override
@@ -81,83 +78,11 @@ public class MatrixImpl extends Matrix {
 
     @Override
     public Matrix reshape(int rows, int cols, boolean recycle) {
-        List<Atom> currentRavel = ravelData;
-        if(!recycle) {
-            if (currentRavel.size() < rows * cols)
-                return new MatrixImpl(Stream.concat(currentRavel.stream(), Stream.generate(() -> isNumeric() ? new Atom(BigDecimal.ZERO) : Atom.NULL).limit(rows * cols - currentRavel.size())).collect(Collectors.toList()), rows, cols);
-        } else {
-            if (currentRavel.size() < rows * cols)
-                return new MatrixImpl(Streams.stream(Iterables.cycle(currentRavel)).limit(rows * cols).collect(Collectors.toList()), rows, cols);
-        }
-        if (currentRavel.size() > rows * cols)
-            return new MatrixImpl(currentRavel.subList(0, rows * cols), rows, cols);
-        else
-            return new MatrixImpl(currentRavel, rows, cols);
+        return MatrixView.of(this).reshape(rows, cols, recycle);
     }
 
     @Override
     public Matrix transpose() {
-        return new Matrix() {
-            @Override
-            public int getRows() {
-                return MatrixImpl.this.getCols();
-            }
-
-            @Override
-            public int getCols() {
-                return MatrixImpl.this.getRows();
-            }
-
-            @Override
-            public Atom get(int row, int col) {
-                return MatrixImpl.this.get(col, row);
-            }
-
-            @Override
-            public void set(int row, int col, Atom a) {
-                MatrixImpl.this.set(row, col, a);
-            }
-
-            @Override
-            public List<Atom> ravel() {
-                return MatrixImpl.this.cols().flatMap(Collection::stream).collect(Collectors.toList());
-            }
-
-            @Override
-            public Stream<List<Atom>> rows() {
-                return MatrixImpl.this.cols();
-            }
-
-            @Override
-            public Stream<List<Atom>> cols() {
-                return MatrixImpl.this.rows();
-            }
-
-            @Override
-            public Matrix reshape(int rows, int cols, boolean recycle) {
-                List<Atom> currentRavel = ravelData;
-                if(!recycle) {
-                    if (currentRavel.size() < rows * cols)
-                        return new MatrixImpl(Stream.concat(currentRavel.stream(), Stream.generate(() -> isNumeric() ? new Atom(BigDecimal.ZERO) : Atom.NULL).limit(rows * cols - currentRavel.size())).collect(Collectors.toList()), rows, cols).transpose();
-                } else {
-                    if (currentRavel.size() < rows * cols)
-                        return new MatrixImpl(Streams.stream(Iterables.cycle(currentRavel)).limit(rows * cols).collect(Collectors.toList()), rows, cols).transpose();
-                }
-                if (currentRavel.size() > rows * cols)
-                    return new MatrixImpl(currentRavel.subList(0, rows * cols), rows, cols).transpose();
-                else
-                    return new MatrixImpl(currentRavel, rows, cols).transpose();
-            }
-
-            @Override
-            public Matrix transpose() {
-                return MatrixImpl.this;
-            }
-
-            @Override
-            public boolean isNumeric() {
-                return MatrixImpl.this.isNumeric();
-            }
-        };
+        return MatrixView.of(this).transpose();
     }
 }
@@ -0,0 +1,215 @@
+package kamilalisp.data;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// A matrix over the cells of a ravel it shares with others: cell (i, j) is
+// the one at `offset + i * rowStride + j * colStride`, wrapping around the
+// ravel if the view recycles it. Transposing, slicing or reshaping a view
+// makes another one over the same ravel. The cells are copied only when the
+// view is written to, or packed for the numeric kernels, which is done once.
+public final class MatrixView extends Matrix {
+    private final int rows, cols;
+    private List<Atom> data;
+    private int offset, rowStride, colStride;
+    private boolean cycle, owned;
+    private volatile DenseMatrix packed;
+
+    private MatrixView(List<Atom> data, int offset, int rowStride, int colStride, int rows, int cols, boolean cycle) {
+        this.data = data;
+        this.offset = offset;
+        this.rowStride = rowStride;
+        this.colStride = colStride;
+        this.rows = rows;
+        this.cols = cols;
+        this.cycle = cycle;
+    }
+
+    // `ravel` read row by row as a `rows` by `cols` matrix.
+    public static MatrixView of(List<Atom> ravel, int rows, int cols) {
+        if(ravel.size() < rows * cols)
+            throw new IllegalArgumentException("The size of the ravel data must be at least the product of rows and cols");
+        return new MatrixView(ravel, 0, cols, 1, rows, cols, false);
+    }
+
+    static MatrixView strided(List<Atom> data, int offset, int rowStride, int colStride, int rows, int cols, boolean cycle) {
+        return new MatrixView(data, offset, rowStride, colStride, rows, cols, cycle);
+    }
+
+    public static MatrixView of(Matrix m) {
+        if(m instanceof MatrixView)
+            return (MatrixView) m;
+        return of(m.ravel(), m.getRows(), m.getCols());
+    }
+
+    private int index(int row, int col) {
+        int i = offset + row * rowStride + col * colStride;
+        return cycle ? i % data.size() : i;
+    }
+
+    private boolean isContiguous() {
+        return rowStride == cols && colStride == 1 && !cycle;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public Atom get(int row, int col) {
+        if(row < 0 || row >= rows || col < 0 || col >= cols)
+            throw new IndexOutOfBoundsException("Index: " + row + ", " + col + ", Size: " + rows + "x" + cols);
+        return data.get(index(row, col));
+    }
+
+    // The first write gives the view cells of its own.
+    @Override
+    public synchronized void set(int row, int col, Atom a) {
+        if(row < 0 || row >= rows || col < 0 || col >= cols)
+            throw new IndexOutOfBoundsException("Index: " + row + ", " + col + ", Size: " + rows + "x" + cols);
+        if(!owned) {
+            data = new ArrayList<>(ravel());
+            owned = true;
+            offset = 0;
+            rowStride = cols;
+            colStride = 1;
+            cycle = false;
+        }
+        data.set(index(row, col), a);
+        packed = null;
+        changed();
+    }
+
+    // `size` cells of the ravel, from `start` on and `step` apart.
+    private final class Line extends AbstractList<Atom> implements RandomAccess {
+        private final int start, step, size;
+
+        Line(int start, int step, int size) {
+            this.start = start;
+            this.step = step;
+            this.size = size;
+        }
+
+        @Override
+        public Atom get(int index) {
+            if(index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            int i = start + index * step;
+            return data.get(cycle ? i % data.size() : i);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    @Override
+    public List<Atom> ravel() {
+        int n = rows * cols;
+        if(isContiguous())
+            return offset == 0 && data.size() == n ? data : data.subList(offset, offset + n);
+        if(colStride * cols == rowStride)
+            return new Line(offset, colStride, n);
+        return new AbstractList<>() {
+            @Override
+            public Atom get(int index) {
+                if(index < 0 || index >= n)
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + n);
+                return data.get(index(index / cols, index % cols));
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+
+    @Override
+    public Stream<List<Atom>> rows() {
+        return IntStream.range(0, rows).mapToObj(i -> new Line(offset + i * rowStride, colStride, cols));
+    }
+
+    @Override
+    public Stream<List<Atom>> cols() {
+        return IntStream.range(0, cols).mapToObj(j -> new Line(offset + j * colStride, rowStride, rows));
+    }
+
+    @Override
+    public Matrix transpose() {
+        return new MatrixView(data, offset, colStride, rowStride, cols, rows, cycle);
+    }
+
+    @Override
+    public Matrix sub(int row, int col, int rows, int cols) {
+        if(row < 0 || col < 0 || rows < 0 || cols < 0 || row + rows > this.rows || col + cols > this.cols)
+            throw new IndexOutOfBoundsException("Submatrix: " + rows + "x" + cols + " at " + row + ", " + col + ", Size: " + this.rows + "x" + this.cols);
+        return new MatrixView(data, offset + row * rowStride + col * colStride, rowStride, colStride, rows, cols, cycle);
+    }
+
+    // Cells past the end are the first ones again if `recycle`, and zeros
+    // (or nils if some cells aren't numbers) otherwise, which are copied.
+    @Override
+    public Matrix reshape(int rows, int cols, boolean recycle) {
+        int n = this.rows * this.cols;
+        if(rows * cols <= n) {
+            if(rowStride == this.cols && colStride == 1)
+                return new MatrixView(data, offset, cols, 1, rows, cols, cycle);
+            return new MatrixView(ravel(), 0, cols, 1, rows, cols, false);
+        }
+        if(recycle) {
+            if(n == 0)
+                throw new Error("Can't recycle the cells of an empty matrix.");
+            return new MatrixView(ravel(), 0, cols, 1, rows, cols, true);
+        }
+        Atom pad = isNumeric() ? new Atom(BigDecimal.ZERO) : Atom.NULL;
+        return Matrix.from(Stream.concat(ravel().stream(), Stream.generate(() -> pad).limit(rows * cols - n)).collect(Collectors.toList()), rows, cols);
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return ravel().stream().allMatch(x -> x.getType() == Type.NUMBER || x.getType() == Type.COMPLEX);
+    }
+
+    // The cells in a `DenseMatrix`, or null if they can't be. Views of packed
+    // matrices are gathered straight from the arrays, tile by tile so that
+    // transposed ones are read along cache lines.
+    DenseMatrix pack() {
+        DenseMatrix p = packed;
+        if(p != null)
+            return p;
+        if(data instanceof NumericVector && rows * cols > 0) {
+            NumericVector v = (NumericVector) data;
+            long[] longs = v.isFixnum() ? new long[rows * cols] : null;
+            double[] doubles = longs == null ? new double[rows * cols] : null;
+            for(int i0 = 0; i0 < rows; i0 += DenseMatrix.BLOCK)
+                for(int j0 = 0; j0 < cols; j0 += DenseMatrix.BLOCK)
+                    for(int i = i0; i < Math.min(rows, i0 + DenseMatrix.BLOCK); i++)
+                        for(int j = j0; j < Math.min(cols, j0 + DenseMatrix.BLOCK); j++) {
+                            if(longs != null)
+                                longs[i * cols + j] = v.getLong(index(i, j));
+                            else
+                                doubles[i * cols + j] = v.getDouble(index(i, j));
+                        }
+            p = longs != null ? DenseMatrix.of(longs, rows, cols) : DenseMatrix.of(doubles, rows, cols);
+        } else {
+            p = DenseMatrix.pack(ravel(), rows, cols);
+        }
+        if(p != null)
+            packed = p;
+        return p;
+    }
+}
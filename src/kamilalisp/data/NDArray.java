@@ -0,0 +1,276 @@
+package kamilalisp.data;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// An array of any rank over a ravel it shares with others: the cell at
+// (i0, ..., ik) is the one at `offset + i0 * strides[0] + ... + ik *
+// strides[k]`, wrapping around the ravel if the array recycles it. Axes are
+// kept outermost first, so a rank 2 array is a matrix's rows and columns.
+// Numbers are packed into one block when an array is built, and reshaping
+// or transposing only makes new strides over it.
+public final class NDArray {
+    private final List<Atom> data;
+    private final int offset;
+    private final int[] shape, strides;
+    private final boolean cycle;
+
+    private NDArray(List<Atom> data, int offset, int[] shape, int[] strides, boolean cycle) {
+        this.data = data;
+        this.offset = offset;
+        this.shape = shape;
+        this.strides = strides;
+        this.cycle = cycle;
+    }
+
+    private static int size(int[] shape) {
+        long n = 1;
+        for(int d : shape) {
+            if(d < 0)
+                throw new Error("Invalid array dimension: " + d + ".");
+            n *= d;
+            if(n > Integer.MAX_VALUE)
+                throw new Error("An array of shape " + Arrays.toString(shape) + " is too large.");
+        }
+        return (int) n;
+    }
+
+    // The strides of a ravel read in order.
+    private static int[] strides(int[] shape) {
+        int[] s = new int[shape.length];
+        for(int i = shape.length - 1, step = 1; i >= 0; step *= shape[i], i--)
+            s[i] = step;
+        return s;
+    }
+
+    // `ravel` read in order into an array of `shape`, packed if it holds
+    // real numbers.
+    public static NDArray from(List<Atom> ravel, int[] shape) {
+        int n = size(shape);
+        if(ravel.size() != n)
+            throw new IllegalArgumentException("The size of the ravel data must be equal to the product of the dimensions");
+        DenseMatrix d = DenseMatrix.pack(ravel, 1, n);
+        return new NDArray(d != null ? d.ravel() : ravel, 0, shape.clone(), strides(shape), false);
+    }
+
+    public static NDArray of(Matrix m) {
+        return new NDArray(m.ravel(), 0, new int[] { m.getRows(), m.getCols() }, new int[] { m.getCols(), 1 }, false);
+    }
+
+    public int rank() {
+        return shape.length;
+    }
+
+    public int[] shape() {
+        return shape.clone();
+    }
+
+    public int size() {
+        return size(shape);
+    }
+
+    private boolean isContiguous() {
+        return !cycle && Arrays.equals(strides, strides(shape));
+    }
+
+    private int at(int i) {
+        return cycle ? i % data.size() : i;
+    }
+
+    public Atom get(int... index) {
+        if(index.length != shape.length)
+            throw new Error("Can't index a rank " + shape.length + " array with " + index.length + " indices.");
+        int i = offset;
+        for(int k = 0; k < index.length; k++) {
+            if(index[k] < 0 || index[k] >= shape[k])
+                throw new IndexOutOfBoundsException("Index: " + Arrays.toString(index) + ", Shape: " + Arrays.toString(shape));
+            i += index[k] * strides[k];
+        }
+        return data.get(at(i));
+    }
+
+    public List<Atom> ravel() {
+        int n = size();
+        if(isContiguous())
+            return offset == 0 && data.size() == n ? data : data.subList(offset, offset + n);
+        return new Cells(n);
+    }
+
+    // The cells in order, found by splitting each position into indices.
+    private final class Cells extends AbstractList<Atom> implements RandomAccess {
+        private final int size;
+
+        Cells(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Atom get(int index) {
+            if(index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            int i = offset;
+            for(int k = shape.length - 1; k >= 0; k--) {
+                i += index % shape[k] * strides[k];
+                index /= shape[k];
+            }
+            return data.get(at(i));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // Cells past the end are the first ones again if `recycle`, and zeros
+    // (or nils if some cells aren't numbers) otherwise, which are copied.
+    public NDArray reshape(int[] shape, boolean recycle) {
+        int n = size(), total = size(shape);
+        if(total <= n) {
+            if(isContiguous())
+                return new NDArray(data, offset, shape.clone(), strides(shape), false);
+            return new NDArray(ravel(), 0, shape.clone(), strides(shape), false);
+        }
+        if(recycle) {
+            if(n == 0)
+                throw new Error("Can't recycle the cells of an empty array.");
+            return new NDArray(ravel(), 0, shape.clone(), strides(shape), true);
+        }
+        List<Atom> ravel = ravel();
+        Atom pad = ravel.stream().allMatch(Atom::isNumeric) ? new Atom(BigDecimal.ZERO) : Atom.NULL;
+        return from(Stream.concat(ravel.stream(), Stream.generate(() -> pad).limit(total - n)).collect(Collectors.toList()), shape);
+    }
+
+    // Axis i of the result is axis perm[i] of this array.
+    public NDArray transpose(int[] perm) {
+        if(perm.length != shape.length)
+            throw new Error("Can't permute the axes of a rank " + shape.length + " array with " + perm.length + " axes.");
+        boolean[] seen = new boolean[perm.length];
+        int[] shape = new int[perm.length], strides = new int[perm.length];
+        for(int i = 0; i < perm.length; i++) {
+            if(perm[i] < 0 || perm[i] >= perm.length || seen[perm[i]])
+                throw new Error("Invalid axis permutation: " + Arrays.toString(perm) + ".");
+            seen[perm[i]] = true;
+            shape[i] = this.shape[perm[i]];
+            strides[i] = this.strides[perm[i]];
+        }
+        return new NDArray(data, offset, shape, strides, cycle);
+    }
+
+    // The axes in reverse order.
+    public NDArray transpose() {
+        int[] perm = new int[shape.length];
+        for(int i = 0; i < perm.length; i++)
+            perm[i] = perm.length - 1 - i;
+        return transpose(perm);
+    }
+
+    public NDArray map(Function<Atom, Atom> f) {
+        return from(ravel().stream().map(f).collect(Collectors.toList()), shape);
+    }
+
+    public NDArray zip(BiFunction<Atom, Atom, Atom> f, NDArray other) {
+        if(!Arrays.equals(shape, other.shape))
+            throw new Error("Array shapes must match: " + Arrays.toString(shape) + " and " + Arrays.toString(other.shape) + ".");
+        List<Atom> a = ravel(), b = other.ravel();
+        List<Atom> r = new ArrayList<>(a.size());
+        for(int i = 0; i < a.size(); i++)
+            r.add(f.apply(a.get(i), b.get(i)));
+        return from(r, shape);
+    }
+
+    // `a op b` cell by cell, or null unless both hold real numbers only.
+    public static NDArray apply(NumericOp op, NDArray a, NDArray b) {
+        if(!Arrays.equals(a.shape, b.shape))
+            throw new Error("Array shapes must match: " + Arrays.toString(a.shape) + " and " + Arrays.toString(b.shape) + ".");
+        int n = a.size();
+        DenseMatrix da = DenseMatrix.pack(a.ravel(), 1, n), db = da == null ? null : DenseMatrix.pack(b.ravel(), 1, n);
+        if(da == null || db == null)
+            return null;
+        DenseMatrix r = DenseMatrix.apply(op, da, db);
+        return r == null ? null : new NDArray(r.ravel(), 0, a.shape.clone(), strides(a.shape), false);
+    }
+
+    // `a op x`, or `x op a` if `scalarFirst`, for every cell of `a`.
+    public static NDArray apply(NumericOp op, NDArray a, Atom x, boolean scalarFirst) {
+        DenseMatrix d = DenseMatrix.pack(a.ravel(), 1, a.size());
+        if(d == null)
+            return null;
+        DenseMatrix r = DenseMatrix.apply(op, d, x, scalarFirst);
+        return r == null ? null : new NDArray(r.ravel(), 0, a.shape.clone(), strides(a.shape), false);
+    }
+
+    // Whether `a` and `b` combine cell by cell: an array with an array, or
+    // with a single number.
+    public static boolean combines(Atom a, Atom b) {
+        return (a.getType() == Type.ARRAY || b.getType() == Type.ARRAY)
+                && (a.getType() == Type.ARRAY || a.isNumeric()) && (b.getType() == Type.ARRAY || b.isNumeric());
+    }
+
+    // `f` cell by cell, done by `op` at once for real numbers unless it's
+    // null.
+    public static NDArray combine(NumericOp op, Atom a, Atom b, BiFunction<Atom, Atom, Atom> f) {
+        NDArray r = null;
+        if(a.getType() == Type.ARRAY && b.getType() == Type.ARRAY) {
+            if(op != null)
+                r = apply(op, a.getArray(), b.getArray());
+            return r != null ? r : a.getArray().zip(f, b.getArray());
+        } else if(a.getType() == Type.ARRAY) {
+            if(op != null)
+                r = apply(op, a.getArray(), b, false);
+            return r != null ? r : a.getArray().map(x -> f.apply(x, b));
+        }
+        if(op != null)
+            r = apply(op, b.getArray(), a, true);
+        return r != null ? r : b.getArray().map(x -> f.apply(a, x));
+    }
+
+    // Arrays of rank 2 are matrices and those of rank 1 lists, sharing the
+    // cells either way.
+    public Atom toAtom() {
+        if(shape.length == 1)
+            return new Atom(ravel());
+        if(shape.length == 2)
+            return new Atom(MatrixView.strided(data, offset, strides[0], strides[1], shape[0], shape[1], cycle));
+        return new Atom(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof NDArray)) return false;
+        NDArray other = (NDArray) o;
+        return Arrays.equals(shape, other.shape) && ravel().equals(other.ravel());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(shape) + ravel().hashCode();
+    }
+
+    // The matrices along the last two axes, in order, a blank line apart.
+    @Override
+    public String toString() {
+        int r = shape.length, slices = 1;
+        for(int k = 0; k < r - 2; k++)
+            slices *= shape[k];
+        List<String> parts = new ArrayList<>(slices);
+        for(int s = 0; s < slices; s++) {
+            int i = offset, index = s;
+            for(int k = r - 3; k >= 0; k--) {
+                i += index % shape[k] * strides[k];
+                index /= shape[k];
+            }
+            parts.add(MatrixView.strided(data, i, strides[r - 2], strides[r - 1], shape[r - 2], shape[r - 1], cycle).toString());
+        }
+        return String.join("\n\n", parts);
+    }
+}
@@ -0,0 +1,28 @@
+package kamilalisp.data;
+
+import java.math.BigDecimal;
+
+// The arithmetic of +, - and * on each number representation, for kernels
+// looping over packed data. `exact` throws ArithmeticException on overflow,
+// where the caller moves on to BigDecimal.
+public enum NumericOp {
+    ADD {
+        public long exact(long a, long b) { return Math.addExact(a, b); }
+        public double apply(double a, double b) { return a + b; }
+        public BigDecimal apply(BigDecimal a, BigDecimal b) { return a.add(b); }
+    },
+    SUBTRACT {
+        public long exact(long a, long b) { return Math.subtractExact(a, b); }
+        public double apply(double a, double b) { return a - b; }
+        public BigDecimal apply(BigDecimal a, BigDecimal b) { return a.subtract(b); }
+    },
+    MULTIPLY {
+        public long exact(long a, long b) { return Math.multiplyExact(a, b); }
+        public double apply(double a, double b) { return a * b; }
+        public BigDecimal apply(BigDecimal a, BigDecimal b) { return a.multiply(b); }
+    };
+
+    public abstract long exact(long a, long b);
+    public abstract double apply(double a, double b);
+    public abstract BigDecimal apply(BigDecimal a, BigDecimal b);
+}
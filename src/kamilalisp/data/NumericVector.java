@@ -0,0 +1,102 @@
+package kamilalisp.data;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+// An immutable list of numbers packed into a `long[]` of fixnums or a
+// `double[]` of flonums, so that numeric kernels can loop over the array
+// instead of a list of atoms. The atoms are only created when the list is
+// read element by element.
+public final class NumericVector extends AbstractList<Atom> implements RandomAccess {
+    private final long[] longs;
+    private final double[] doubles;
+    private final int offset, size;
+
+    private NumericVector(long[] longs, double[] doubles, int offset, int size) {
+        this.longs = longs;
+        this.doubles = doubles;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public static NumericVector of(long[] data) {
+        return new NumericVector(data, null, 0, data.length);
+    }
+
+    public static NumericVector of(double[] data) {
+        return new NumericVector(null, data, 0, data.length);
+    }
+
+    // `l` packed, or null unless it's made of evaluated fixnums only or of
+    // evaluated flonums only. Nothing is forced.
+    public static NumericVector pack(List<Atom> l) {
+        if(l instanceof NumericVector)
+            return (NumericVector) l;
+        if(l.isEmpty() || l.get(0).thunk() != null)
+            return null;
+        if(l.get(0).payload() instanceof Long) {
+            long[] data = new long[l.size()];
+            int i = 0;
+            for(Atom a : l) {
+                if(a.thunk() != null || !(a.payload() instanceof Long))
+                    return null;
+                data[i++] = (Long) a.payload();
+            }
+            return of(data);
+        } else if(l.get(0).payload() instanceof Double) {
+            double[] data = new double[l.size()];
+            int i = 0;
+            for(Atom a : l) {
+                if(a.thunk() != null || !(a.payload() instanceof Double))
+                    return null;
+                data[i++] = (Double) a.payload();
+            }
+            return of(data);
+        }
+        return null;
+    }
+
+    public boolean isFixnum() {
+        return longs != null;
+    }
+
+    public long getLong(int index) {
+        return longs[offset + index];
+    }
+
+    // Either kind of element as a double.
+    public double getDouble(int index) {
+        return longs != null ? longs[offset + index] : doubles[offset + index];
+    }
+
+    @Override
+    public Atom get(int index) {
+        if(index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return longs != null ? new Atom(longs[offset + index]) : new Atom(doubles[offset + index]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public NumericVector subList(int from, int to) {
+        if(from < 0 || to > size || from > to)
+            throw new IndexOutOfBoundsException("Range: " + from + ".." + to + ", Size: " + size);
+        return new NumericVector(longs, doubles, offset + from, to - from);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(o instanceof NumericVector) {
+            NumericVector v = (NumericVector) o;
+            if(longs != null && v.longs != null)
+                return Arrays.equals(longs, offset, offset + size, v.longs, v.offset, v.offset + v.size);
+        }
+        return super.equals(o);
+    }
+}
@@ -0,0 +1,270 @@
+package kamilalisp.data;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+// An immutable list backing `Type.LIST`. Elements are kept in chunks of up to
+// CHUNK elements at the leaves of a height-balanced tree, so indexing, adding
+// an element at either end, concatenation and slicing all take O(log n) and
+// share the untouched parts of the tree with the original list.
+public final class PersistentVector<T> extends AbstractList<T> implements RandomAccess {
+    private static final int CHUNK = 32;
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(null);
+
+    private final Node root;
+
+    private PersistentVector(Node root) {
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    // `c` itself if it's already a vector, otherwise a copy of it.
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> of(Collection<? extends T> c) {
+        if(c instanceof PersistentVector)
+            return (PersistentVector<T>) c;
+        if(c.isEmpty())
+            return empty();
+        Object[] items = c.toArray();
+        List<Node> leaves = new ArrayList<>(items.length / CHUNK + 1);
+        for(int i = 0; i < items.length; i += CHUNK)
+            leaves.add(new Leaf(Arrays.copyOfRange(items, i, Math.min(items.length, i + CHUNK))));
+        return new PersistentVector<>(build(leaves, 0, leaves.size()));
+    }
+
+    @Override
+    public int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if(index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        Node n = root;
+        while(n instanceof Branch) {
+            Branch b = (Branch) n;
+            if(index < b.left.size) {
+                n = b.left;
+            } else {
+                index -= b.left.size;
+                n = b.right;
+            }
+        }
+        return (T) ((Leaf) n).items[index];
+    }
+
+    public PersistentVector<T> prepend(T x) {
+        if(root == null)
+            return new PersistentVector<>(new Leaf(new Object[] { x }));
+        return new PersistentVector<>(prepend(root, x));
+    }
+
+    public PersistentVector<T> append(T x) {
+        if(root == null)
+            return new PersistentVector<>(new Leaf(new Object[] { x }));
+        return new PersistentVector<>(append(root, x));
+    }
+
+    public PersistentVector<T> concat(Collection<? extends T> other) {
+        PersistentVector<T> v = of(other);
+        if(v.root == null)
+            return this;
+        if(root == null)
+            return v;
+        return new PersistentVector<>(join(root, v.root));
+    }
+
+    @Override
+    public PersistentVector<T> subList(int from, int to) {
+        if(from < 0 || to > size() || from > to)
+            throw new IndexOutOfBoundsException("Range: " + from + ".." + to + ", Size: " + size());
+        if(from == to)
+            return empty();
+        return new PersistentVector<>(drop(take(root, to), from));
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            // the path to the current leaf, without it.
+            private final Deque<Branch> path = new ArrayDeque<>();
+            private Object[] leaf = root == null ? new Object[0] : descend(root);
+            private int index = 0;
+
+            private Object[] descend(Node n) {
+                while(n instanceof Branch) {
+                    path.push((Branch) n);
+                    n = ((Branch) n).left;
+                }
+                return ((Leaf) n).items;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < leaf.length || !path.isEmpty();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if(index == leaf.length) {
+                    if(path.isEmpty())
+                        throw new NoSuchElementException();
+                    leaf = descend(path.pop().right);
+                    index = 0;
+                }
+                return (T) leaf[index++];
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        if(root != null)
+            forEach(root, (Consumer<Object>) action);
+    }
+
+    private static void forEach(Node n, Consumer<Object> action) {
+        while(n instanceof Branch) {
+            forEach(((Branch) n).left, action);
+            n = ((Branch) n).right;
+        }
+        for(Object o : ((Leaf) n).items)
+            action.accept(o);
+    }
+
+    private abstract static class Node {
+        final int size, height;
+
+        Node(int size, int height) {
+            this.size = size;
+            this.height = height;
+        }
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] items;
+
+        Leaf(Object[] items) {
+            super(items.length, 0);
+            this.items = items;
+        }
+    }
+
+    private static final class Branch extends Node {
+        final Node left, right;
+
+        Branch(Node left, Node right) {
+            super(left.size + right.size, Math.max(left.height, right.height) + 1);
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private static Node build(List<Node> leaves, int from, int to) {
+        if(to - from == 1)
+            return leaves.get(from);
+        int mid = (from + to) >>> 1;
+        return new Branch(build(leaves, from, mid), build(leaves, mid, to));
+    }
+
+    private static Node prepend(Node n, Object x) {
+        if(n instanceof Leaf) {
+            Object[] items = ((Leaf) n).items;
+            if(items.length == CHUNK)
+                return new Branch(new Leaf(new Object[] { x }), n);
+            Object[] result = new Object[items.length + 1];
+            result[0] = x;
+            System.arraycopy(items, 0, result, 1, items.length);
+            return new Leaf(result);
+        }
+        Branch b = (Branch) n;
+        return balance(prepend(b.left, x), b.right);
+    }
+
+    private static Node append(Node n, Object x) {
+        if(n instanceof Leaf) {
+            Object[] items = ((Leaf) n).items;
+            if(items.length == CHUNK)
+                return new Branch(n, new Leaf(new Object[] { x }));
+            Object[] result = Arrays.copyOf(items, items.length + 1);
+            result[items.length] = x;
+            return new Leaf(result);
+        }
+        Branch b = (Branch) n;
+        return balance(b.left, append(b.right, x));
+    }
+
+    // The concatenation of two non-empty trees.
+    private static Node join(Node l, Node r) {
+        if(l.height > r.height + 1) {
+            Branch b = (Branch) l;
+            return balance(b.left, join(b.right, r));
+        }
+        if(r.height > l.height + 1) {
+            Branch b = (Branch) r;
+            return balance(join(l, b.left), b.right);
+        }
+        if(l instanceof Leaf && r instanceof Leaf && l.size + r.size <= CHUNK) {
+            Object[] result = Arrays.copyOf(((Leaf) l).items, l.size + r.size);
+            System.arraycopy(((Leaf) r).items, 0, result, l.size, r.size);
+            return new Leaf(result);
+        }
+        return new Branch(l, r);
+    }
+
+    // A branch of `l` and `r`, rotated if their heights differ by two.
+    private static Node balance(Node l, Node r) {
+        if(l.height > r.height + 1) {
+            Branch b = (Branch) l;
+            if(b.left.height >= b.right.height)
+                return new Branch(b.left, new Branch(b.right, r));
+            Branch c = (Branch) b.right;
+            return new Branch(new Branch(b.left, c.left), new Branch(c.right, r));
+        }
+        if(r.height > l.height + 1) {
+            Branch b = (Branch) r;
+            if(b.right.height >= b.left.height)
+                return new Branch(new Branch(l, b.left), b.right);
+            Branch c = (Branch) b.left;
+            return new Branch(new Branch(l, c.left), new Branch(c.right, b.right));
+        }
+        return new Branch(l, r);
+    }
+
+    // The first `k` elements, 0 < k <= n.size.
+    private static Node take(Node n, int k) {
+        if(k == n.size)
+            return n;
+        if(n instanceof Leaf)
+            return new Leaf(Arrays.copyOf(((Leaf) n).items, k));
+        Branch b = (Branch) n;
+        if(k <= b.left.size)
+            return take(b.left, k);
+        return join(b.left, take(b.right, k - b.left.size));
+    }
+
+    // All but the first `k` elements, 0 <= k < n.size.
+    private static Node drop(Node n, int k) {
+        if(k == 0)
+            return n;
+        if(n instanceof Leaf)
+            return new Leaf(Arrays.copyOfRange(((Leaf) n).items, k, n.size));
+        Branch b = (Branch) n;
+        if(k >= b.left.size)
+            return drop(b.right, k - b.left.size);
+        return join(drop(b.left, k), b.right);
+    }
+}
@@ -0,0 +1,62 @@
+package kamilalisp.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The static shape of an environment chain. Every lexical frame (lambda and
+// macro parameters, `let` and `let-seq` bindings) has a scope listing the
+// names of its slots, so that the compiler can address a local variable by
+// (depth, slot) instead of looking it up by name. Frames with bindings only
+// known at runtime (e.g. `match` handlers) have a dynamic scope, which the
+// compiler can't see through. Scopes are interned, so two frames created by
+// the same form share the same scope object.
+public class Scope {
+    public static final Scope GLOBAL = new Scope(null, new Symbol[0]);
+
+    public final Scope parent;
+    public final Symbol[] names;
+
+    private final Map<List<Symbol>, Scope> children = new ConcurrentHashMap<>();
+    private volatile Scope dynamicChild;
+
+    private Scope(Scope parent, Symbol[] names) {
+        this.parent = parent;
+        this.names = names;
+    }
+
+    public Scope child(Symbol[] names) {
+        return children.computeIfAbsent(List.of(names), x -> new Scope(this, names.clone()));
+    }
+
+    public Scope dynamic() {
+        Scope d = dynamicChild;
+        if(d == null) {
+            synchronized(this) {
+                if(dynamicChild == null)
+                    dynamicChild = new Scope(this, null);
+                d = dynamicChild;
+            }
+        }
+        return d;
+    }
+
+    public boolean isDynamic() {
+        return names == null;
+    }
+
+    // The index of the slot bound to `name`. Later bindings shadow earlier
+    // ones, like repeated `push` calls on a dynamic frame would.
+    public int indexOf(Symbol name) {
+        for(int i = names.length - 1; i >= 0; i--)
+            if(names[i] == name)
+                return i;
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return names == null ? "<dynamic>" : Arrays.toString(names);
+    }
+}
@@ -0,0 +1,450 @@
+package kamilalisp.data;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// A matrix of real numbers in compressed sparse row form: the nonzero cells
+// of row i are `values` from rowStart[i] to rowStart[i + 1], in `colIndex`
+// order. The values are packed in a 1 by nnz `DenseMatrix`, so they are all
+// fixnums, all flonums or all decimals, and combine like its cells do. The
+// kernels below take time and space in the number of nonzeros.
+public final class SparseMatrix extends Matrix {
+    private final int rows, cols;
+    private int[] rowStart, colIndex;
+    private DenseMatrix values;
+
+    private SparseMatrix(int rows, int cols, int[] rowStart, int[] colIndex, DenseMatrix values) {
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStart = rowStart;
+        this.colIndex = colIndex;
+        this.values = values;
+    }
+
+    // The nonzero cells of `m`, or null unless it holds real numbers only.
+    public static SparseMatrix from(Matrix m) {
+        if(m instanceof SparseMatrix)
+            return (SparseMatrix) m;
+        DenseMatrix d = DenseMatrix.forced(m);
+        if(d == null)
+            return null;
+        int[] rowStart = new int[d.rows + 1];
+        int[] cells = new int[d.rows * d.cols];
+        int nnz = 0;
+        for(int i = 0; i < d.rows; i++) {
+            for(int j = 0; j < d.cols; j++)
+                if(!d.isZero(i * d.cols + j))
+                    cells[nnz++] = i * d.cols + j;
+            rowStart[i + 1] = nnz;
+        }
+        int[] colIndex = new int[nnz];
+        for(int k = 0; k < nnz; k++)
+            colIndex[k] = cells[k] % d.cols;
+        return new SparseMatrix(d.rows, d.cols, rowStart, colIndex, d.select(Arrays.copyOf(cells, nnz)));
+    }
+
+    // A `rows` by `cols` matrix with `values[k]` at (row[k], col[k]). Cells
+    // given more than once are summed.
+    public static SparseMatrix of(int rows, int cols, int[] row, int[] col, List<Atom> values) {
+        int n = row.length;
+        for(int k = 0; k < n; k++)
+            if(row[k] < 0 || row[k] >= rows || col[k] < 0 || col[k] >= cols)
+                throw new IndexOutOfBoundsException("Index: " + row[k] + ", " + col[k] + ", Size: " + rows + "x" + cols);
+        for(Atom a : values)
+            a.guardType("Sparse matrix element", Type.NUMBER);
+        DenseMatrix v = DenseMatrix.pack(values, 1, n);
+        if(v == null && n > 0) {
+            // flonums mixed with exact numbers.
+            double[] d = new double[n];
+            for(int k = 0; k < n; k++)
+                d[k] = Flonum.value(values.get(k));
+            v = DenseMatrix.of(d, 1, n);
+        } else if(v == null) {
+            v = DenseMatrix.of(new long[0], 1, 0);
+        }
+        Integer[] order = new Integer[n];
+        for(int k = 0; k < n; k++)
+            order[k] = k;
+        Arrays.sort(order, (x, y) -> row[x] != row[y] ? Integer.compare(row[x], row[y]) : Integer.compare(col[x], col[y]));
+        // the l-th cell given for each position goes to layer l, and the
+        // layers are added up.
+        List<List<Integer>> layers = new ArrayList<>();
+        for(int k = 0, l = 0; k < n; k++) {
+            int c = order[k];
+            l = k > 0 && row[order[k - 1]] == row[c] && col[order[k - 1]] == col[c] ? l + 1 : 0;
+            if(l == layers.size())
+                layers.add(new ArrayList<>());
+            layers.get(l).add(c);
+        }
+        SparseMatrix r = new SparseMatrix(rows, cols, new int[rows + 1], new int[0], DenseMatrix.of(new long[0], 1, 0));
+        for(List<Integer> layer : layers) {
+            int[] rowStart = new int[rows + 1], colIndex = new int[layer.size()], cells = new int[layer.size()];
+            for(int t = 0; t < cells.length; t++) {
+                cells[t] = layer.get(t);
+                colIndex[t] = col[cells[t]];
+                rowStart[row[cells[t]] + 1]++;
+            }
+            for(int i = 0; i < rows; i++)
+                rowStart[i + 1] += rowStart[i];
+            SparseMatrix s = new SparseMatrix(rows, cols, rowStart, colIndex, v.select(cells));
+            r = r.nonzeros() == 0 ? s : apply(NumericOp.ADD, r, s);
+            if(r == null)
+                throw new Error("Sparse matrix elements overflow a flonum.");
+        }
+        return r.compact();
+    }
+
+    // The same matrix without the cells that hold zeros.
+    private SparseMatrix compact() {
+        int nnz = colIndex.length, kept = 0;
+        for(int k = 0; k < nnz; k++)
+            if(!values.isZero(k))
+                kept++;
+        if(kept == nnz)
+            return this;
+        int[] rowStart = new int[rows + 1], colIndex = new int[kept], cells = new int[kept];
+        int t = 0;
+        for(int i = 0; i < rows; i++) {
+            for(int k = this.rowStart[i]; k < this.rowStart[i + 1]; k++)
+                if(!values.isZero(k)) {
+                    colIndex[t] = this.colIndex[k];
+                    cells[t++] = k;
+                }
+            rowStart[i + 1] = t;
+        }
+        return new SparseMatrix(rows, cols, rowStart, colIndex, values.select(cells));
+    }
+
+    public int nonzeros() {
+        return colIndex.length;
+    }
+
+    // The cells as a `DenseMatrix`.
+    public DenseMatrix dense() {
+        int[] cells = new int[rows * cols];
+        Arrays.fill(cells, -1);
+        for(int i = 0; i < rows; i++)
+            for(int k = rowStart[i]; k < rowStart[i + 1]; k++)
+                cells[i * cols + colIndex[k]] = k;
+        return values.select(cells, rows, cols);
+    }
+
+    private Atom zero() {
+        return values.isFlonum() ? new Atom(0.0) : new Atom(0L);
+    }
+
+    // Where (row, col) is in `colIndex`, or -1 if it's zero.
+    private int find(int row, int col) {
+        int k = Arrays.binarySearch(colIndex, rowStart[row], rowStart[row + 1], col);
+        return k < 0 ? -1 : k;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public Atom get(int row, int col) {
+        if(row < 0 || row >= rows || col < 0 || col >= cols)
+            throw new IndexOutOfBoundsException("Index: " + row + ", " + col + ", Size: " + rows + "x" + cols);
+        int k = find(row, col);
+        return k < 0 ? zero() : values.atom(k);
+    }
+
+    // Writing a new nonzero moves the cells after it.
+    @Override
+    public synchronized void set(int row, int col, Atom a) {
+        if(row < 0 || row >= rows || col < 0 || col >= cols)
+            throw new IndexOutOfBoundsException("Index: " + row + ", " + col + ", Size: " + rows + "x" + cols);
+        int k = find(row, col);
+        if(k < 0) {
+            k = -Arrays.binarySearch(colIndex, rowStart[row], rowStart[row + 1], col) - 1;
+            int[] cells = new int[colIndex.length + 1];
+            for(int t = 0; t < cells.length; t++)
+                cells[t] = t < k ? t : t == k ? -1 : t - 1;
+            int[] colIndex = new int[cells.length];
+            System.arraycopy(this.colIndex, 0, colIndex, 0, k);
+            colIndex[k] = col;
+            System.arraycopy(this.colIndex, k, colIndex, k + 1, this.colIndex.length - k);
+            // the arrays may be shared with matrices computed from this one.
+            rowStart = rowStart.clone();
+            for(int i = row + 1; i <= rows; i++)
+                rowStart[i]++;
+            this.colIndex = colIndex;
+            values = values.select(cells);
+        } else {
+            values = values.select(IntStream.range(0, colIndex.length).toArray());
+        }
+        values.set(0, k, a);
+        changed();
+    }
+
+    @Override
+    public List<Atom> ravel() {
+        return new Cells();
+    }
+
+    private final class Cells extends AbstractList<Atom> implements RandomAccess {
+        @Override
+        public Atom get(int index) {
+            if(index < 0 || index >= rows * cols)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + rows * cols);
+            return SparseMatrix.this.get(index / cols, index % cols);
+        }
+
+        @Override
+        public int size() {
+            return rows * cols;
+        }
+    }
+
+    private List<Atom> row(int i) {
+        Atom zero = zero();
+        List<Atom> r = new ArrayList<>(Collections.nCopies(cols, zero));
+        for(int k = rowStart[i]; k < rowStart[i + 1]; k++)
+            r.set(colIndex[k], values.atom(k));
+        return r;
+    }
+
+    @Override
+    public Stream<List<Atom>> rows() {
+        return IntStream.range(0, rows).mapToObj(this::row);
+    }
+
+    @Override
+    public Stream<List<Atom>> cols() {
+        SparseMatrix t = transpose();
+        return IntStream.range(0, cols).mapToObj(t::row);
+    }
+
+    // Cells are moved by their position in the ravel, which keeps them in
+    // order.
+    @Override
+    public Matrix reshape(int rows, int cols, boolean recycle) {
+        long n = (long) this.rows * this.cols, total = (long) rows * cols;
+        if(recycle && n == 0 && total > 0)
+            throw new Error("Can't recycle the cells of an empty matrix.");
+        int nnz = colIndex.length;
+        long repeats = recycle && total > n ? (total + n - 1) / n : 1;
+        int[] rowStart = new int[rows + 1];
+        int[] colIndex = new int[(int) Math.min(nnz * repeats, total)];
+        int[] cells = new int[colIndex.length];
+        int t = 0;
+        for(long r = 0; r < repeats; r++)
+            for(int i = 0; i < this.rows; i++)
+                for(int k = this.rowStart[i]; k < this.rowStart[i + 1]; k++) {
+                    long p = r * n + (long) i * this.cols + this.colIndex[k];
+                    if(p >= total)
+                        continue;
+                    rowStart[(int) (p / cols) + 1]++;
+                    colIndex[t] = (int) (p % cols);
+                    cells[t++] = k;
+                }
+        for(int i = 0; i < rows; i++)
+            rowStart[i + 1] += rowStart[i];
+        return new SparseMatrix(rows, cols, rowStart, Arrays.copyOf(colIndex, t), values.select(Arrays.copyOf(cells, t)));
+    }
+
+    // Counts the cells of each column, then places them row by row.
+    @Override
+    public SparseMatrix transpose() {
+        int nnz = colIndex.length;
+        int[] start = new int[cols + 1];
+        for(int c : colIndex)
+            start[c + 1]++;
+        for(int j = 0; j < cols; j++)
+            start[j + 1] += start[j];
+        int[] next = Arrays.copyOf(start, cols), rowIndex = new int[nnz], cells = new int[nnz];
+        for(int i = 0; i < rows; i++)
+            for(int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                int t = next[colIndex[k]]++;
+                rowIndex[t] = i;
+                cells[t] = k;
+            }
+        return new SparseMatrix(cols, rows, start, rowIndex, values.select(cells));
+    }
+
+    @Override
+    public Matrix sub(int row, int col, int rows, int cols) {
+        if(row < 0 || col < 0 || rows < 0 || cols < 0 || row + rows > this.rows || col + cols > this.cols)
+            throw new IndexOutOfBoundsException("Submatrix: " + rows + "x" + cols + " at " + row + ", " + col + ", Size: " + this.rows + "x" + this.cols);
+        int[] rowStart = new int[rows + 1];
+        int[] colIndex = new int[this.colIndex.length], cells = new int[this.colIndex.length];
+        int t = 0;
+        for(int i = 0; i < rows; i++) {
+            for(int k = this.rowStart[row + i]; k < this.rowStart[row + i + 1]; k++)
+                if(this.colIndex[k] >= col && this.colIndex[k] < col + cols) {
+                    colIndex[t] = this.colIndex[k] - col;
+                    cells[t++] = k;
+                }
+            rowStart[i + 1] = t;
+        }
+        return new SparseMatrix(rows, cols, rowStart, Arrays.copyOf(colIndex, t), values.select(Arrays.copyOf(cells, t)));
+    }
+
+    @Override
+    public boolean isNumeric() {
+        return true;
+    }
+
+    // `a op b` cell by cell for + and -, over the cells that are nonzero in
+    // either.
+    public static SparseMatrix apply(NumericOp op, SparseMatrix a, SparseMatrix b) {
+        if(a.rows != b.rows || a.cols != b.cols || op == NumericOp.MULTIPLY)
+            return null;
+        int max = a.colIndex.length + b.colIndex.length;
+        int[] rowStart = new int[a.rows + 1], colIndex = new int[max], ia = new int[max], ib = new int[max];
+        int t = 0;
+        for(int i = 0; i < a.rows; i++) {
+            int x = a.rowStart[i], y = b.rowStart[i], xe = a.rowStart[i + 1], ye = b.rowStart[i + 1];
+            while(x < xe || y < ye) {
+                int cx = x < xe ? a.colIndex[x] : Integer.MAX_VALUE, cy = y < ye ? b.colIndex[y] : Integer.MAX_VALUE;
+                colIndex[t] = Math.min(cx, cy);
+                ia[t] = cx <= cy ? x++ : -1;
+                ib[t] = cy <= cx ? y++ : -1;
+                t++;
+            }
+            rowStart[i + 1] = t;
+        }
+        DenseMatrix va = a.values.select(Arrays.copyOf(ia, t)), vb = b.values.select(Arrays.copyOf(ib, t));
+        DenseMatrix r = DenseMatrix.apply(op, va, vb);
+        if(r == null)
+            return null;
+        return new SparseMatrix(a.rows, a.cols, rowStart, Arrays.copyOf(colIndex, t), r).compact();
+    }
+
+    // `m * x` for a real number `x`, or null.
+    public static SparseMatrix scale(SparseMatrix m, Atom x) {
+        DenseMatrix r = DenseMatrix.apply(NumericOp.MULTIPLY, m.values, x, false);
+        if(r == null)
+            return null;
+        return new SparseMatrix(m.rows, m.cols, m.rowStart, m.colIndex, r).compact();
+    }
+
+    // The product of `a` and `b`, one of them sparse: sparse if both are,
+    // a `DenseMatrix` otherwise. Null if the other one doesn't hold real
+    // numbers or the result doesn't fit in flonums.
+    public static Matrix multiply(Matrix a, Matrix b) {
+        if(a.getCols() != b.getRows())
+            return null;
+        SparseMatrix sa = from(a), sb = sa == null ? null : from(b);
+        if(sa == null || sb == null)
+            return null;
+        SparseMatrix r = multiply(sa, sb);
+        if(r == null)
+            return null;
+        return a instanceof SparseMatrix && b instanceof SparseMatrix ? r : r.dense();
+    }
+
+    // Row i of the product is the sum of the rows of `b` picked by the
+    // nonzeros of row i of `a`: first the columns each row gets, then the
+    // sums, kept in a dense row as long as `b` is wide.
+    private static SparseMatrix multiply(SparseMatrix a, SparseMatrix b) {
+        int[] rowStart = new int[a.rows + 1], mark = new int[b.cols];
+        Arrays.fill(mark, -1);
+        int[] colIndex = new int[Math.max(16, a.colIndex.length + b.colIndex.length)];
+        int t = 0;
+        for(int i = 0; i < a.rows; i++) {
+            int from = t;
+            for(int ka = a.rowStart[i]; ka < a.rowStart[i + 1]; ka++) {
+                int k = a.colIndex[ka];
+                for(int kb = b.rowStart[k]; kb < b.rowStart[k + 1]; kb++) {
+                    int j = b.colIndex[kb];
+                    if(mark[j] != i) {
+                        mark[j] = i;
+                        if(t == colIndex.length)
+                            colIndex = Arrays.copyOf(colIndex, (int) Math.min(Integer.MAX_VALUE - 8, 2L * t));
+                        colIndex[t++] = j;
+                    }
+                }
+            }
+            Arrays.sort(colIndex, from, t);
+            rowStart[i + 1] = t;
+        }
+        colIndex = Arrays.copyOf(colIndex, t);
+        DenseMatrix values = null;
+        if(a.values.longs != null && b.values.longs != null) {
+            try {
+                values = DenseMatrix.of(multiplyExact(a, b, rowStart, colIndex), 1, t);
+            } catch(ArithmeticException e) {
+                // redone with decimals below.
+            }
+        } else if(a.values.doubles != null || b.values.doubles != null) {
+            double[] r = multiplyDoubles(a, b, rowStart, colIndex);
+            for(double d : r)
+                if(!Double.isFinite(d))
+                    return null;
+            values = DenseMatrix.of(r, 1, t);
+        }
+        if(values == null)
+            values = DenseMatrix.of(multiplyDecimals(a, b, rowStart, colIndex), 1, t);
+        return new SparseMatrix(a.rows, b.cols, rowStart, colIndex, values).compact();
+    }
+
+    private static long[] multiplyExact(SparseMatrix a, SparseMatrix b, int[] rowStart, int[] colIndex) {
+        long[] acc = new long[b.cols], r = new long[colIndex.length];
+        for(int i = 0; i < a.rows; i++) {
+            for(int ka = a.rowStart[i]; ka < a.rowStart[i + 1]; ka++) {
+                long x = a.values.longs[ka];
+                int k = a.colIndex[ka];
+                for(int kb = b.rowStart[k]; kb < b.rowStart[k + 1]; kb++)
+                    acc[b.colIndex[kb]] = Math.addExact(acc[b.colIndex[kb]], Math.multiplyExact(x, b.values.longs[kb]));
+            }
+            for(int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                r[k] = acc[colIndex[k]];
+                acc[colIndex[k]] = 0;
+            }
+        }
+        return r;
+    }
+
+    private static double[] multiplyDoubles(SparseMatrix a, SparseMatrix b, int[] rowStart, int[] colIndex) {
+        double[] acc = new double[b.cols], r = new double[colIndex.length];
+        for(int i = 0; i < a.rows; i++) {
+            for(int ka = a.rowStart[i]; ka < a.rowStart[i + 1]; ka++) {
+                double x = a.values.getDouble(ka);
+                int k = a.colIndex[ka];
+                for(int kb = b.rowStart[k]; kb < b.rowStart[k + 1]; kb++)
+                    acc[b.colIndex[kb]] += x * b.values.getDouble(kb);
+            }
+            for(int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                r[k] = acc[colIndex[k]];
+                acc[colIndex[k]] = 0;
+            }
+        }
+        return r;
+    }
+
+    private static BigDecimal[] multiplyDecimals(SparseMatrix a, SparseMatrix b, int[] rowStart, int[] colIndex) {
+        BigDecimal[] acc = new BigDecimal[b.cols], r = new BigDecimal[colIndex.length];
+        for(int i = 0; i < a.rows; i++) {
+            for(int ka = a.rowStart[i]; ka < a.rowStart[i + 1]; ka++) {
+                BigDecimal x = a.values.getDecimal(ka);
+                int k = a.colIndex[ka];
+                for(int kb = b.rowStart[k]; kb < b.rowStart[k + 1]; kb++) {
+                    int j = b.colIndex[kb];
+                    BigDecimal p = x.multiply(b.values.getDecimal(kb));
+                    acc[j] = acc[j] == null ? p : acc[j].add(p);
+                }
+            }
+            for(int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                r[k] = acc[colIndex[k]];
+                acc[colIndex[k]] = null;
+            }
+        }
+        return r;
+    }
+}
@@ -0,0 +1,59 @@
+package kamilalisp.data;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// An interned symbol name. There is exactly one Symbol per name, so symbols
+// compare by identity and hash by a precomputed value.
+public final class Symbol {
+    private static final ConcurrentHashMap<String, Symbol> table = new ConcurrentHashMap<>();
+
+    public static final Symbol LAMBDA = of("lambda");
+    public static final Symbol MACRO = of("macro");
+    public static final Symbol DEF = of("def");
+    public static final Symbol DEFUN = of("defun");
+    public static final Symbol DEFMACRO = of("defmacro");
+    public static final Symbol IF = of("if");
+    public static final Symbol COND = of("cond");
+    public static final Symbol LET = of("let");
+    public static final Symbol LET_SEQ = of("let-seq");
+    public static final Symbol RECUR = of("recur");
+    public static final Symbol QUOTE = of("quote");
+    public static final Symbol PLACEHOLDER = of("_");
+    public static final Symbol PARTITION = of("\\");
+    public static final Symbol X = of("x");
+    public static final Symbol Y = of("y");
+
+    private final String name;
+    private final int hash;
+
+    private Symbol(String name) {
+        this.name = name;
+        this.hash = name.hashCode();
+    }
+
+    public static Symbol of(String name) {
+        Symbol s = table.get(name);
+        if(s == null)
+            s = table.computeIfAbsent(name, Symbol::new);
+        return s;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o == this;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
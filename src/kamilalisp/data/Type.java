@@ -1,5 +1,5 @@
 package kamilalisp.data;
 
 public enum Type {
-    NUMBER, STRING, LIST, CLOSURE, MACRO, STRING_CONSTANT, COMPLEX, MATRIX
+    NUMBER, STRING, LIST, CLOSURE, MACRO, STRING_CONSTANT, COMPLEX, MATRIX, ARRAY
 }
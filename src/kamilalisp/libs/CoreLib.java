@@ -6,7 +6,11 @@ import com.google.common.collect.Streams;
 import com.google.common.io.Resources;
 import com.google.common.primitives.Chars;
 import kamilalisp.api.Evaluation;
+import kamilalisp.compiler.Compiler;
+import kamilalisp.compiler.Lambda;
+import kamilalisp.compiler.Node;
 import kamilalisp.data.*;
+import kamilalisp.libs.primitives.list.Kernels;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -16,11 +20,84 @@ import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class CoreLib {
+    // An evaluation of `loop`. Each iteration gets a fresh frame, which binds
+    // `recur` to this loop's own closure, so that `recur` refers to the loop
+    // it lexically appears in. A `recur` call yields a step running the next
+    // iteration, which is only taken in tail position of the loop's body: a
+    // value forced by anything but the loop's trampoline is an error.
+    private static final class Loop implements Supplier<Atom> {
+        private final Executor env;
+        private final List<Atom> bindings;
+        private final Atom body;
+        private final Atom owner;
+        private final Atom recur;
+        private final LbcSupplier<Atom> value = LbcSupplier.tail(this);
+        private Scope scope;
+
+        Loop(Executor env, List<Atom> bindings, Atom body, Atom owner) {
+            this.env = env;
+            this.bindings = bindings;
+            this.body = body;
+            this.owner = owner;
+            this.recur = new Atom(new Closure() {
+                @Override
+                public Atom apply(Executor env, List<Atom> arguments) {
+                    if(arguments.size() != bindings.size())
+                        throw new Error("'recur' expects " + bindings.size() + " arguments, got " + arguments.size() + ".");
+                    return new Atom(LbcSupplier.tail((LbcSupplier.Step) root -> {
+                        if(!value.computedBy(root))
+                            throw new Error("'recur' used outside of tail position.");
+                        // a fresh frame, since closures created by the previous iteration may refer to the old one.
+                        Environment newEnv = Loop.this.env.env.descendant("Loop expression", scope);
+                        for(int i = 0; i < arguments.size(); i++)
+                            newEnv.slots[i + 1] = arguments.get(i).eager();
+                        return iterate(newEnv);
+                    }));
+                }
+            });
+        }
+
+        @Override
+        public Atom get() {
+            Symbol[] bound = bindingNames("loop", bindings);
+            Symbol[] names = new Symbol[bound.length + 1];
+            names[0] = Symbol.RECUR;
+            System.arraycopy(bound, 0, names, 1, bound.length);
+            Environment newEnv = env.env.descendant("Loop expression", names);
+            scope = newEnv.scope;
+            for(int i = 0; i < bindings.size(); i++)
+                newEnv.slots[i + 1] = env.evaluate(bindings.get(i).getList().get(1));
+            return iterate(newEnv);
+        }
+
+        private Atom iterate(Environment newEnv) {
+            newEnv.slots[0] = recur;
+            newEnv.owner = owner;
+            return new Executor(newEnv).evaluate(body);
+        }
+    }
+
+    private static Symbol[] bindingNames(String form, List<Atom> bindings) {
+        Symbol[] names = new Symbol[bindings.size()];
+        for(int i = 0; i < bindings.size(); i++) {
+            if(bindings.get(i).getType() != Type.LIST)
+                throw new Error("Invalid invocation to '" + form + "'.");
+            List<Atom> binding = bindings.get(i).getList();
+            if(binding.size() % 2 != 0)
+                throw new Error("Invalid invocation to '" + form + "'.");
+            if(binding.get(0).getType() != Type.STRING)
+                throw new Error("Invalid invocation to '" + form + "'.");
+            names[i] = binding.get(0).getSymbol();
+        }
+        return names;
+    }
+
     public static void install(Environment env) {
         env.push("lambda", new Atom(new Macro() {
             @Override
@@ -28,47 +105,18 @@ public class CoreLib {
                 List<Atom> params; Atom code;
                 if(arguments.size() != 2 || arguments.get(0).getType() != Type.LIST)
                     throw new Error("Invalid invocation to `lambda`.");
-                params = arguments.get(0).getList().get(); code = arguments.get(1);
+                params = arguments.get(0).getList(); code = arguments.get(1);
                 if(params.stream().anyMatch(x -> x.getType() != Type.STRING))
                     throw new Error("Invalid lambda argument name.");
-                Atom result = new Atom(new Closure() {
-                    @Override
-                    public String representation() {
-                        return "(λ " + params.stream().map(x -> x.getString().get()).collect(Collectors.joining(" ")) + " . " + code.toString() + ")";
-                    }
-
-                    @Override
-                    public List<Atom> requote() {
-                        return List.of(new Atom(params), code);
-                    }
+                Symbol[] names = Lambda.parameterNames(params);
+                Scope scope = outerEnv.env.scope.child(names);
+                Node body = Compiler.compile(code, scope, outerEnv.env.global);
+                return new Atom(new Lambda(outerEnv.env, params, code, scope, body));
+            }
 
-                    @Override
-                    public Atom apply(Executor env, List<Atom> innerArgs) {
-                        Environment newEnv = outerEnv.env.descendant("Lambda expression");
-                        newEnv.owner = new Atom(this);
-                        // process optional arguments.
-                        long optional = Lists.reverse(params).stream().takeWhile(x -> x.getString().get().startsWith("?")).count();
-                        if(optional != Lists.reverse(params).stream().filter(x -> x.getString().get().startsWith("?")).count())
-                            throw new Error("Misplaced optional lambda argument in parameter list.");
-                        // evaluate parameters.
-                        if(innerArgs.size() > params.size() || innerArgs.size() < params.size() - optional)
-                            throw new Error("Invalid invocation to a lambda expression.");
-                        for(int i = 0; i < params.size() - optional; i++) {
-                            newEnv.push(params.get(i).getString().get(), innerArgs.get(i));
-                        }
-                        // process optional arguments.
-                        for(int i = 0; i < optional; i++) {
-                            String name = params.get((int) (params.size() - optional + i)).getString().get().substring(1);
-                            if(i + params.size() - optional < innerArgs.size())
-                                newEnv.push(name, innerArgs.get((int) (i + params.size() - optional)));
-                            else
-                                newEnv.push(name, Atom.NULL);
-                        }
-                        Executor lambdaExecutor = new Executor(newEnv);
-                        return lambdaExecutor.evaluate(code);
-                    }
-                });
-                return result;
+            @Override
+            public Symbol specialForm() {
+                return Symbol.LAMBDA;
             }
         }));
 
@@ -78,7 +126,12 @@ public class CoreLib {
                 if(arguments.size() != 1)
                     throw new Error("Invalid invocation to `import`.");
                 arguments.get(0).guardType("Argument to 'import'", Type.STRING_CONSTANT);
-                String name = arguments.get(0).getStringConstant().get().get();
+                String name = arguments.get(0).getStringConstant().get();
+                List<Atom> forms = Evaluation.preparsed(name);
+                if(forms != null) {
+                    Evaluation.evalAtoms(env.env, forms);
+                    return Atom.NULL;
+                }
                 String code;
                 if(name.startsWith("!")) {
                     name = name.substring(1);
@@ -89,9 +142,9 @@ public class CoreLib {
                     }
                 } else {
                     try {
-                        code = Files.readString(Path.of(arguments.get(0).getStringConstant().get().get()));
+                        code = Files.readString(Path.of(arguments.get(0).getStringConstant().get()));
                     } catch(Exception e) {
-                        throw new Error("Could not read file '" + arguments.get(0).getStringConstant().get().get() + "'.");
+                        throw new Error("Could not read file '" + arguments.get(0).getStringConstant().get() + "'.");
                     }
                 }
                 Evaluation.evalString(env.env, code);
@@ -113,9 +166,9 @@ public class CoreLib {
                             List<Atom> forkData = tmp.subList(1, tmp.size()).stream().map(x -> {
                                 Atom a = env.evaluate(x);
                                 a.guardType("fork child", Type.CLOSURE, Type.MACRO);
-                                return a.getCallable().get().apply(innerEnv, arguments);
+                                return a.getCallable().apply(innerEnv, arguments);
                             }).collect(Collectors.toList());
-                            return first.getCallable().get().apply(innerEnv, forkData).get().get();
+                            return first.getCallable().apply(innerEnv, forkData);
                         }));
                     }
                 });
@@ -129,10 +182,10 @@ public class CoreLib {
                     @Override
                     public Atom apply(Executor innerEnv, List<Atom> arguments) {
                         return new Atom(new LbcSupplier<>(() -> {
-                            Atom x = env.evaluate(components.get(0)).getCallable().get().apply(innerEnv, arguments);
+                            Atom x = env.evaluate(components.get(0)).getCallable().apply(innerEnv, arguments);
                             for(int i = 1; i < components.size(); i++)
-                                x = env.evaluate(components.get(i)).getCallable().get().apply(innerEnv, List.of(x));
-                            return x.get().get();
+                                x = env.evaluate(components.get(i)).getCallable().apply(innerEnv, List.of(x));
+                            return x.get();
                         }));
                     }
                 });
@@ -145,13 +198,19 @@ public class CoreLib {
                 List<Atom> params; Atom code;
                 if(arguments.size() != 2 || arguments.get(0).getType() != Type.LIST)
                     throw new Error("Invalid invocation to `macro`.");
-                params = arguments.get(0).getList().get(); code = arguments.get(1);
+                params = arguments.get(0).getList(); code = arguments.get(1);
                 if(params.stream().anyMatch(x -> x.getType() != Type.STRING))
                     throw new Error("Invalid macro argument name.");
+                // process optional arguments.
+                long optional = Lists.reverse(params).stream().takeWhile(x -> x.getString().startsWith("?")).count();
+                boolean misplaced = optional != Lists.reverse(params).stream().filter(x -> x.getString().startsWith("?")).count();
+                Symbol[] names = Lambda.parameterNames(params);
+                Scope scope = outerEnv.env.getTopmostAncestor().scope.child(names);
+                Node body = Compiler.compile(code, scope, outerEnv.env.global);
                 Atom result = new Atom(new Closure() {
                     @Override
                     public String representation() {
-                        return "(macro " + params.stream().map(x -> x.getString().get()).collect(Collectors.joining(" ")) + " . " + code.toString() + ")";
+                        return "(macro " + params.stream().map(x -> x.getString()).collect(Collectors.joining(" ")) + " . " + code.toString() + ")";
                     }
 
                     @Override
@@ -161,27 +220,16 @@ public class CoreLib {
 
                     @Override
                     public Atom apply(Executor env, List<Atom> innerArgs) {
-                        Environment newEnv = outerEnv.env.getTopmostAncestor().descendant("Macro");
-                        // process optional arguments.
-                        long optional = Lists.reverse(params).stream().takeWhile(x -> x.getString().get().startsWith("?")).count();
-                        if(optional != Lists.reverse(params).stream().filter(x -> x.getString().get().startsWith("?")).count())
+                        Environment newEnv = outerEnv.env.getTopmostAncestor().descendant("Macro", scope);
+                        if(misplaced)
                             throw new Error("Misplaced optional macro argument in parameter list.");
-                        // evaluate parameters.
+                        // evaluate parameters, missing optional ones are nil.
                         if(innerArgs.size() > params.size() || innerArgs.size() < params.size() - optional)
                             throw new Error("Invalid invocation to a macro expression.");
-                        for(int i = 0; i < params.size() - optional; i++) {
-                            newEnv.push(params.get(i).getString().get(), innerArgs.get(i));
-                        }
-                        // process optional arguments.
-                        for(int i = 0; i < optional; i++) {
-                            String name = params.get((int) (params.size() - optional + i)).getString().get().substring(1);
-                            if(i + params.size() - optional < innerArgs.size())
-                                newEnv.push(name, innerArgs.get((int) (i + params.size() - optional)));
-                            else
-                                newEnv.push(name, Atom.NULL);
-                        }
+                        for(int i = 0; i < names.length; i++)
+                            newEnv.slots[i] = i < innerArgs.size() ? innerArgs.get(i) : Atom.NULL;
                         Executor lambdaExecutor = new Executor(newEnv);
-                        return lambdaExecutor.evaluate(code);
+                        return body.evaluate(lambdaExecutor);
                     }
                 });
                 return result;
@@ -193,13 +241,18 @@ public class CoreLib {
             public Atom apply(Executor env, List<Atom> arguments) {
                 if(arguments.size() != 2)
                     throw new Error("Invalid invocation to 'def'.");
-                String key = arguments.get(0).getString().get();
+                Symbol key = arguments.get(0).getSymbol();
                 Atom value = env.evaluate(arguments.get(1));
                 if(env.env.ancestor != null)
                     throw new Error("Unable to define a global variable outside of global scope.");
                 env.env.push(key, value);
                 return value;
             }
+
+            @Override
+            public Symbol specialForm() {
+                return Symbol.DEF;
+            }
         }));
 
         env.push("with-repr", new Atom(new Closure() {
@@ -214,12 +267,12 @@ public class CoreLib {
                 return new Atom(new Closure() {
                     @Override
                     public String representation() {
-                        return repr.getStringConstant().get().get();
+                        return repr.getStringConstant().get();
                     }
 
                     @Override
                     public Atom apply(Executor env, List<Atom> arguments) {
-                        return closure.getCallable().get().apply(env, arguments);
+                        return closure.getCallable().apply(env, arguments);
                     }
                 });
             }
@@ -233,7 +286,7 @@ public class CoreLib {
                 Atom key = arguments.get(0);
                 Atom params = arguments.get(1);
                 Atom code = arguments.get(2);
-                return env.evaluate(new Atom(List.of(new Atom("def"), key, new Atom(List.of(new Atom("lambda"), params, code)))));
+                return env.evaluate(new Atom(List.of(new Atom(Symbol.DEF), key, new Atom(List.of(new Atom(Symbol.LAMBDA), params, code)))));
             }
         }));
 
@@ -245,7 +298,7 @@ public class CoreLib {
                 Atom key = arguments.get(0);
                 Atom params = arguments.get(1);
                 Atom code = arguments.get(2);
-                return env.evaluate(new Atom(List.of(new Atom("def"), key, new Atom(List.of(new Atom("macro"), params, code)))));
+                return env.evaluate(new Atom(List.of(new Atom(Symbol.DEF), key, new Atom(List.of(new Atom(Symbol.MACRO), params, code)))));
             }
         }));
 
@@ -263,7 +316,7 @@ public class CoreLib {
             public Atom apply(Executor env, List<Atom> arguments) {
                 if(arguments.size() != 1)
                     throw new Error("Invalid invocation to 'monad'.");
-                return env.evaluate(new Atom(List.of(new Atom("lambda"), new Atom(List.of(new Atom("x"))), arguments.get(0))));
+                return env.evaluate(new Atom(List.of(new Atom(Symbol.LAMBDA), new Atom(List.of(new Atom(Symbol.X))), arguments.get(0))));
             }
         }));
 
@@ -272,7 +325,7 @@ public class CoreLib {
             public Atom apply(Executor env, List<Atom> arguments) {
                 if(arguments.size() != 1)
                     throw new Error("Invalid invocation to 'dyad'.");
-                return env.evaluate(new Atom(List.of(new Atom("lambda"), new Atom(List.of(new Atom("x"), new Atom("y"))), arguments.get(0))));
+                return env.evaluate(new Atom(List.of(new Atom(Symbol.LAMBDA), new Atom(List.of(new Atom(Symbol.X), new Atom(Symbol.Y))), arguments.get(0))));
             }
         }));
 
@@ -281,7 +334,7 @@ public class CoreLib {
             public Atom apply(Executor env, List<Atom> arguments) {
                 if(arguments.size() != 1)
                     throw new Error("Invalid invocation to 'bruijn'.");
-                int depth = arguments.get(0).getNumber().get().intValue();
+                int depth = arguments.get(0).getNumber().intValue();
                 Environment currentEnv = env.env;
                 for(int i = 0; i < depth; i++)
                     currentEnv = currentEnv.ancestor;
@@ -297,13 +350,18 @@ public class CoreLib {
                 Atom cond = arguments.get(0);
                 Atom iftrue = arguments.get(1);
                 Atom iffalse = arguments.get(2);
-                return new Atom(new LbcSupplier<>(() -> {
+                return new Atom(LbcSupplier.tail(() -> {
                     if(env.evaluate(cond).coerceBool())
-                        return env.evaluate(iftrue).get().get();
+                        return env.evaluate(iftrue);
                     else
-                        return env.evaluate(iffalse).get().get();
+                        return env.evaluate(iffalse);
                 }));
             }
+
+            @Override
+            public Symbol specialForm() {
+                return Symbol.IF;
+            }
         }));
 
         env.push("map", new Atom(new Closure() {
@@ -314,30 +372,40 @@ public class CoreLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'map'", Type.CLOSURE, Type.MACRO);
                     if(arguments.size() == 2) {
-                        if (arguments.get(1).getType() == Type.LIST) {
-                            return arguments.get(1).getList().get().stream().map(x ->
+                        Generator g = Generator.of(arguments.get(1));
+                        if(g != null) {
+                            return g.map(x -> new Atom(new LbcSupplier<>(() ->
+                                    arguments.get(0).getCallable().apply(env, Collections.singletonList(x))
+                            )));
+                        } else if (arguments.get(1).getType() == Type.LIST) {
+                            return arguments.get(1).getList().stream().map(x ->
                                     new Atom(new LbcSupplier<>(() ->
-                                            arguments.get(0).getCallable().get().apply(env, Collections.singletonList(x)).get().get()
+                                            arguments.get(0).getCallable().apply(env, Collections.singletonList(x))
                                     ))
                             ).collect(Collectors.toList());
                         } else if (arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                            return Chars.asList(arguments.get(1).getStringConstant().get().get().toCharArray()).stream().map(x ->
+                            return Chars.asList(arguments.get(1).getStringConstant().get().toCharArray()).stream().map(x ->
                                     new Atom(new LbcSupplier<>(() ->
-                                            arguments.get(0).getCallable().get().apply(env, Collections.singletonList(new Atom(new StringConstant(String.valueOf(x))))).get().get()
+                                            arguments.get(0).getCallable().apply(env, Collections.singletonList(new Atom(new StringConstant(String.valueOf(x)))))
                                     ))
                             ).collect(Collectors.toList());
                         } else {
-                            return arguments.get(0).getCallable().get().apply(env, List.of(arguments.get(1))).get().get();
+                            return arguments.get(0).getCallable().apply(env, List.of(arguments.get(1)));
                         }
                     } else {
-                        Callable f = arguments.get(0).getCallable().get();
+                        Callable f = arguments.get(0).getCallable();
                         AtomicInteger minLen = new AtomicInteger(-1);
                         List<List<Atom>> sl = arguments.subList(1, arguments.size()).stream().map(x -> {
                             x.guardType("Arguments to 'map'", Type.LIST);
-                            if(minLen.get() > x.getList().get().size() || minLen.get() == -1)
-                                minLen.set(x.getList().get().size());
-                            return x.getList().get();
+                            if(minLen.get() > x.getList().size() || minLen.get() == -1)
+                                minLen.set(x.getList().size());
+                            return x.getList();
                         }).map(x -> x.subList(0, minLen.get())).collect(Collectors.toList());
+                        if(sl.size() == 2) {
+                            List<Atom> packed = Kernels.map(f, sl.get(0), sl.get(1));
+                            if(packed != null)
+                                return packed;
+                        }
                         return IntStream.range(0, minLen.get())
                                 .mapToObj(i -> f.apply(env, sl.stream().map(x -> x.get(i)).collect(Collectors.toList())))
                                 .collect(Collectors.toList());
@@ -353,9 +421,12 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'filter'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'filter'", Type.CLOSURE, Type.MACRO);
+                    Generator g = Generator.of(arguments.get(1));
+                    if(g != null)
+                        return g.filter(x -> arguments.get(0).getCallable().apply(env, Collections.singletonList(x)).coerceBool());
                     arguments.get(1).guardType("Second argument to 'filter'", Type.LIST);
-                    return arguments.get(1).getList().get().stream().filter(x ->
-                            arguments.get(0).getCallable().get().apply(env, Collections.singletonList(x)).coerceBool()
+                    return arguments.get(1).getList().stream().filter(x ->
+                            arguments.get(0).getCallable().apply(env, Collections.singletonList(x)).coerceBool()
                     ).collect(Collectors.toList());
                 }));
             }
@@ -369,8 +440,8 @@ public class CoreLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'count'", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'count'", Type.LIST);
-                    return new BigDecimal(arguments.get(1).getList().get().stream().filter(x ->
-                            arguments.get(0).getCallable().get().apply(env, Collections.singletonList(x)).coerceBool()
+                    return new BigDecimal(arguments.get(1).getList().stream().filter(x ->
+                            arguments.get(0).getCallable().apply(env, Collections.singletonList(x)).coerceBool()
                     ).count());
                 }));
             }
@@ -381,21 +452,26 @@ public class CoreLib {
             public Atom apply(Executor env, List<Atom> arguments) {
                 if(arguments.size() < 2)
                     throw new Error("Invalid invocation to 'cond'.");
-                return new Atom(new LbcSupplier<>(() -> {
+                return new Atom(LbcSupplier.tail(() -> {
                     List<Atom> args = arguments.stream().map(x -> x.getType() == Type.LIST ? x : env.evaluate(x)).collect(Collectors.toList());
                     for(Atom a : args) {
-                        List<Atom> clause = a.getList().get();
+                        List<Atom> clause = a.getList();
                         if(clause.size() != 1 && clause.size() != 2)
                             throw new Error("Invalid invocation to 'cond'.");
                         if(clause.size() == 1)
-                            return env.evaluate(clause.get(0)).get().get();
+                            return env.evaluate(clause.get(0));
                         if(env.evaluate(clause.get(0)).coerceBool())
-                            return env.evaluate(clause.get(1)).get().get();
+                            return env.evaluate(clause.get(1));
                     }
 
                     throw new Error("Non-exhaustive 'cond'.");
                 }));
             }
+
+            @Override
+            public Symbol specialForm() {
+                return Symbol.COND;
+            }
         }));
 
         env.push("type", new Atom(new Closure() {
@@ -412,23 +488,39 @@ public class CoreLib {
             public Atom apply(Executor env, List<Atom> arguments) {
                 if(arguments.size() < 2)
                     throw new Error("Invalid invocation to 'let'.");
-                List<Atom> args = arguments.get(0).getList().get();
-                return new Atom(new LbcSupplier<>(() -> {
-                    Environment newEnv = env.env.descendant("Let expression");
-                    for(int i = 0; i < args.size(); i++) {
-                        if(args.get(i).getType() != Type.LIST)
-                            throw new Error("Invalid invocation to 'let'.");
-                        List<Atom> binding = args.get(i).getList().get();
-                        if(binding.size() % 2 != 0)
-                            throw new Error("Invalid invocation to 'let'.");
-                        if(binding.get(0).getType() != Type.STRING)
-                            throw new Error("Invalid invocation to 'let'.");
-                        newEnv.push(binding.get(0).getString().get(), env.evaluate(binding.get(1)));
-                    }
+                List<Atom> args = arguments.get(0).getList();
+                return new Atom(LbcSupplier.tail(() -> {
+                    Symbol[] names = bindingNames("let", args);
+                    Environment newEnv = env.env.descendant("Let expression", names);
+                    for(int i = 0; i < args.size(); i++)
+                        newEnv.slots[i] = env.evaluate(args.get(i).getList().get(1));
                     newEnv.owner = new Atom(this);
-                    return new Executor(newEnv).evaluate(arguments.get(1)).get().get();
+                    return new Executor(newEnv).evaluate(arguments.get(1));
                 }));
             }
+
+            @Override
+            public Symbol specialForm() {
+                return Symbol.LET;
+            }
+        }));
+
+        // (loop ((i 0) (acc 0))
+        //   (if (= i 10) acc (recur (+ i 1) (+ acc i))))
+        env.push("loop", new Atom(new Macro() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 2 || arguments.get(0).getType() != Type.LIST)
+                    throw new Error("Invalid invocation to 'loop'.");
+                return new Atom(new Loop(env, arguments.get(0).getList(), arguments.get(1), new Atom(this)).value);
+            }
+        }));
+
+        env.push("recur", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                throw new Error("'recur' used outside of a 'loop'.");
+            }
         }));
 
         env.push("eval", new Atom(new Closure() {
@@ -436,7 +528,7 @@ public class CoreLib {
             public Atom apply(Executor env, List<Atom> arguments) {
                 if(arguments.size() != 1)
                     throw new Error("Invalid invocation to 'eval'.");
-                return new Atom(new LbcSupplier<>(() -> env.evaluate(arguments.get(0)).get().get()));
+                return new Atom(new LbcSupplier<>(() -> env.evaluate(arguments.get(0))));
             }
         }));
 
@@ -447,7 +539,7 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'parse'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'parse'.", Type.STRING_CONSTANT);
-                    String s = arguments.get(0).getString().get();
+                    String s = arguments.get(0).getString();
                     return Evaluation.evalString(env.env, s);
                 }));
             }
@@ -460,9 +552,9 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'every'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(1).guardType("Argument to 'every'.", Type.LIST);
-                    List<Atom> l = arguments.get(1).getList().get();
+                    List<Atom> l = arguments.get(1).getList();
                     arguments.get(0).guardType("Argument to 'every'.", Type.CLOSURE, Type.MACRO);
-                    Callable c = arguments.get(0).getCallable().get();
+                    Callable c = arguments.get(0).getCallable();
                     for (int i = 0; i < l.size(); i++) {
                         if(!c.apply(env, Arrays.asList(l.get(i))).coerceBool())
                             return BigDecimal.ZERO;
@@ -494,10 +586,10 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'flat-map'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(1).guardType("Argument to 'flat-map'.", Type.LIST);
-                    List<Atom> l = arguments.get(1).getList().get();
+                    List<Atom> l = arguments.get(1).getList();
                     arguments.get(0).guardType("Argument to 'flat-map'.", Type.CLOSURE, Type.MACRO);
-                    Callable c = arguments.get(0).getCallable().get();
-                    return flat(l.stream().map(x -> c.apply(env, List.of(x))).map(x -> x.getType() == Type.LIST ? x.getList().get() : List.of(x)).collect(Collectors.toList()));
+                    Callable c = arguments.get(0).getCallable();
+                    return flat(l.stream().map(x -> c.apply(env, List.of(x))).map(x -> x.getType() == Type.LIST ? x.getList() : List.of(x)).collect(Collectors.toList()));
                 }));
             }
         }));
@@ -507,7 +599,7 @@ public class CoreLib {
             public Atom apply(Executor env, List<Atom> arguments) {
                 if(arguments.size() != 1)
                     throw new Error("Invalid invocation to 'seq'.");
-                return new Atom(new LbcSupplier<>(() -> arguments.get(0).get().get()));
+                return new Atom(new LbcSupplier<>(() -> arguments.get(0)));
             }
         }));
 
@@ -536,8 +628,8 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'commute'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'commute'.", Type.CLOSURE, Type.MACRO);
-                    Callable c = arguments.get(0).getCallable().get();
-                    return c.apply(env, Lists.reverse(arguments.subList(1, arguments.size()))).get().get();
+                    Callable c = arguments.get(0).getCallable();
+                    return c.apply(env, Lists.reverse(arguments.subList(1, arguments.size())));
                 }));
             }
         }));
@@ -550,9 +642,9 @@ public class CoreLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'lift'.", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Argument to 'lift'.", Type.LIST);
-                    Callable c = arguments.get(0).getCallable().get();
-                    List<Atom> l = arguments.get(1).getList().get();
-                    return c.apply(env, l).get().get();
+                    Callable c = arguments.get(0).getCallable();
+                    List<Atom> l = arguments.get(1).getList();
+                    return c.apply(env, l);
                 }));
             }
         }));
@@ -564,16 +656,16 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'iterate'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(1).guardType("Argument to 'iterate'.", Type.CLOSURE, Type.MACRO);
-                    Callable c = arguments.get(1).getCallable().get();
+                    Callable c = arguments.get(1).getCallable();
                     LinkedList<Atom> rest = new LinkedList<>(arguments.subList(3, arguments.size()));
                     rest.addFirst(arguments.get(2));
 
                     if(arguments.get(0).getType() == Type.NUMBER) {
-                        int n = arguments.get(0).getNumber().get().intValue();
+                        int n = arguments.get(0).getNumber().intValue();
                         for (int i = 0; i < n; i++)
                             rest.set(0, c.apply(env, rest).eager());
                     } else if(arguments.get(0).isCallable()) {
-                        Callable f = arguments.get(0).getCallable().get();
+                        Callable f = arguments.get(0).getCallable();
                         Atom prev = Atom.NULL;
                         while(f.apply(env, List.of(prev, rest.get(0))).coerceBool()) {
                             prev = rest.get(0);
@@ -581,7 +673,7 @@ public class CoreLib {
                         }
                     }
 
-                    return rest.get(0).get().get();
+                    return rest.get(0);
                 }));
             }
         }));
@@ -593,17 +685,17 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'scanterate'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'scanterate'.", Type.CLOSURE, Type.MACRO);
-                    Callable c = arguments.get(0).getCallable().get();
+                    Callable c = arguments.get(0).getCallable();
                     LinkedList<Atom> rest = new LinkedList<>(arguments.subList(3, arguments.size()));
                     rest.addFirst(arguments.get(2));
-                    List<Atom> result = new LinkedList<>();
+                    List<Atom> result = new ArrayList<>();
 
                     if(arguments.get(1).getType() == Type.NUMBER) {
-                        int n = arguments.get(1).getNumber().get().intValue();
+                        int n = arguments.get(1).getNumber().intValue();
                         for (int i = 0; i < n; i++)
                             result.add(rest.set(0, c.apply(env, rest).eager()));
                     } else if(arguments.get(1).isCallable()) {
-                        Callable f = arguments.get(1).getCallable().get();
+                        Callable f = arguments.get(1).getCallable();
                         while(f.apply(env, List.of(result.size() > 0 ? result.get(result.size() - 1) : Atom.NULL, rest.get(0))).coerceBool())
                             result.add(rest.set(0, c.apply(env, rest).eager()));
                     } else
@@ -630,8 +722,8 @@ public class CoreLib {
                         first.guardType("'over' head", Type.CLOSURE, Type.MACRO);
                         second.guardType("'over' child", Type.CLOSURE, Type.MACRO);
 
-                        return first.getCallable().get().apply(innerEnv, arguments.stream()
-                                .map(x -> second.getCallable().get().apply(innerEnv, List.of(x)))
+                        return first.getCallable().apply(innerEnv, arguments.stream()
+                                .map(x -> second.getCallable().apply(innerEnv, List.of(x)))
                                 .collect(Collectors.toList()));
                     }
                 });
@@ -646,7 +738,7 @@ public class CoreLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     Atom arg0 = env.evaluate(arguments.get(0));
                     arg0.guardType("First argument to 'bind'.", Type.CLOSURE, Type.MACRO);
-                    Callable c = arg0.getCallable().get();
+                    Callable c = arg0.getCallable();
                     List<Atom> rest = arguments.subList(1, arguments.size());
                     return new Closure() {
                         @Override
@@ -654,7 +746,7 @@ public class CoreLib {
                             return new Atom(new LbcSupplier<>(() -> {
                                 AtomicReference<Integer> consumed = new AtomicReference<>(0);
                                 List<Atom> data = rest.stream().map(x -> {
-                                    if(x.getType() == Type.STRING && x.getString().get().equals("_")) {
+                                    if(x.getType() == Type.STRING && x.getSymbol() == Symbol.PLACEHOLDER) {
                                         // handle placeholder.
                                         if(consumed.get() >= args.size())
                                             throw new Error("Too few arguments to partially applied function. Stopped on " + consumed.get() + " placeholder.");
@@ -664,7 +756,7 @@ public class CoreLib {
                                     }
                                 }).collect(Collectors.toList());
                                 data.addAll(args.subList(consumed.get(), args.size()));
-                                return c.apply(env, data).get().get();
+                                return c.apply(env, data);
                             }));
                         }
                     };
@@ -688,7 +780,7 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'parse-num'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'parse-num'.", Type.STRING_CONSTANT);
-                    String s = arguments.get(0).getStringConstant().get().get();
+                    String s = arguments.get(0).getStringConstant().get();
 
                     try {
                         return new BigDecimal(s);
@@ -709,7 +801,7 @@ public class CoreLib {
                         Random r = new Random();
                         return arguments.stream().map(x -> {
                             x.guardType("Argument to 'rng-roll'.", Type.NUMBER);
-                            BigInteger size = x.getNumber().get().toBigInteger();
+                            BigInteger size = x.getNumber().toBigInteger();
                             BigInteger randomNumber;
                             do {
                                 randomNumber = new BigInteger(size.bitLength(), r);
@@ -727,8 +819,11 @@ public class CoreLib {
                     Random r = new Random();
                     arguments.get(0).guardType("First argument to 'rng-deal'.", Type.NUMBER);
                     arguments.get(1).guardType("Second argument to 'rng-deal'.", Type.NUMBER);
-                    BigInteger cap = arguments.get(1).getNumber().get().toBigInteger();
-                    return IntStream.range(0, arguments.get(0).getNumber().get().toBigInteger().intValue()).mapToObj(i -> {
+                    BigInteger cap = arguments.get(1).getNumber().toBigInteger();
+                    int n = arguments.get(0).getNumber().toBigInteger().intValue();
+                    if(n >= 0 && cap.signum() > 0 && cap.bitLength() < 64)
+                        return NumericVector.of(r.longs(n, 0, cap.longValue()).toArray());
+                    return IntStream.range(0, arguments.get(0).getNumber().toBigInteger().intValue()).mapToObj(i -> {
                         BigInteger randomNumber;
                         do {
                             randomNumber = new BigInteger(cap.bitLength(), r);
@@ -753,7 +848,7 @@ public class CoreLib {
                             if(memo.containsKey(arguments))
                                 return memo.get(arguments);
                             else {
-                                Atom result = parentArgs.get(0).getClosure().get().apply(env, arguments);
+                                Atom result = parentArgs.get(0).getClosure().apply(env, arguments);
                                 memo.put(arguments, result);
                                 return result;
                             }
@@ -782,7 +877,7 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'str-trim'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'str-trim'.", Type.STRING_CONSTANT);
-                    return new StringConstant(arguments.get(0).getStringConstant().get().get().trim());
+                    return new StringConstant(arguments.get(0).getStringConstant().get().trim());
                 }));
             }
         }));
@@ -795,20 +890,25 @@ public class CoreLib {
         env.push("let-seq", new Atom(new Macro() {
             @Override
             public Atom apply(Executor env, List<Atom> arguments) {
-                return new Atom(new LbcSupplier<>(() -> {
-                    Environment e = env.env.descendant("let-seq environment.");
+                return new Atom(LbcSupplier.tail(() -> {
+                    // one slot for every name defined in the sequence.
+                    Symbol[] names = arguments.stream().filter(a -> a.getType() == Type.LIST).map(a -> a.getList())
+                            .filter(l -> l.size() > 1 && l.get(0).getType() == Type.STRING && l.get(1).getType() == Type.STRING)
+                            .filter(l -> l.get(0).getSymbol() == Symbol.DEF || l.get(0).getSymbol() == Symbol.DEFUN || l.get(0).getSymbol() == Symbol.DEFMACRO)
+                            .map(l -> l.get(1).getSymbol()).distinct().toArray(Symbol[]::new);
+                    Environment e = env.env.descendant("let-seq environment.", names);
                     Executor exec = new Executor(e);
                     loop: for(Atom a : arguments) {
                         if(a.getType() == Type.LIST) {
-                            List<Atom> list = a.getList().get();
+                            List<Atom> list = a.getList();
                             if(list.size() > 0 && list.get(0).getType() == Type.STRING) {
-                                String name = list.get(0).getString().get();
+                                String name = list.get(0).getString();
                                 switch(name) {
                                     case "def":
                                         if(list.size() != 3)
                                             throw new Error("Invalid invocation to 'def' in 'let-seq'.");
                                         list.get(1).guardType("First argument to 'def' in 'let-seq'.", Type.STRING);
-                                        String varName = list.get(1).getString().get();
+                                        Symbol varName = list.get(1).getSymbol();
                                         Atom value = exec.evaluate(list.get(2));
                                         e.push(varName, value);
                                         continue loop;
@@ -816,29 +916,34 @@ public class CoreLib {
                                         if(list.size() != 4)
                                             throw new Error("Invalid invocation to 'defun' in 'let-seq'.");
                                         list.get(1).guardType("First argument to 'defun' in 'let-seq'.", Type.STRING);
-                                        String funcName = list.get(1).getString().get();
+                                        Symbol funcName = list.get(1).getSymbol();
                                         Atom params = list.get(2);
                                         Atom code = list.get(3);
-                                        e.push(funcName, exec.evaluate(new Atom(List.of(new Atom("lambda"), params, code))));
+                                        e.push(funcName, exec.evaluate(new Atom(List.of(new Atom(Symbol.LAMBDA), params, code))));
                                         continue loop;
                                     case "defmacro":
                                         if(list.size() != 4)
                                             throw new Error("Invalid invocation to 'defmacro' in 'let-seq'.");
                                         list.get(1).guardType("First argument to 'defmacro' in 'let-seq'.", Type.STRING);
-                                        String macroName = list.get(1).getString().get();
+                                        Symbol macroName = list.get(1).getSymbol();
                                         Atom mparams = list.get(2);
                                         Atom mcode = list.get(3);
-                                        e.push(macroName, exec.evaluate(new Atom(List.of(new Atom("macro"), mparams, mcode))));
+                                        e.push(macroName, exec.evaluate(new Atom(List.of(new Atom(Symbol.MACRO), mparams, mcode))));
                                         continue loop;
                                 }
                             }
                         }
 
-                        return exec.evaluate(a).get().get();
+                        return exec.evaluate(a);
                     }
-                    return Atom.NULL.get().get();
+                    return Atom.NULL;
                 }));
             }
+
+            @Override
+            public Symbol specialForm() {
+                return Symbol.LET_SEQ;
+            }
         }));
 
         env.push("requote", new Atom(new Closure() {
@@ -848,7 +953,7 @@ public class CoreLib {
                     throw new Error("Invalid invocation to 'requote'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'requote'.", Type.CLOSURE);
-                    return arguments.get(0).getClosure().get().requote();
+                    return arguments.get(0).getClosure().requote();
                 }));
             }
         }));
@@ -3,9 +3,10 @@ package kamilalisp.libs;
 import com.google.common.collect.Lists;
 import kamilalisp.api.Evaluation;
 import kamilalisp.data.*;
+import kamilalisp.libs.primitives.list.Kernels;
 
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -21,14 +22,17 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'foldl'", Type.CLOSURE, Type.MACRO);
                     arguments.get(2).guardType("Third argument to 'foldl'", Type.LIST);
-                    List<Atom> data = arguments.get(2).getList().get();
+                    List<Atom> data = arguments.get(2).getList();
                     Atom acc = arguments.get(1);
                     if(data.isEmpty())
-                        return acc.get().get();
+                        return acc.get();
+                    Atom packed = Kernels.foldl(arguments.get(0).getCallable(), acc, data);
+                    if(packed != null)
+                        return packed;
                     else {
                         return Stream.concat(Stream.of(acc), data.stream()).reduce((x, y) ->
-                                arguments.get(0).getCallable().get().apply(env, Arrays.asList(x, y))
-                        ).get().get().get();
+                                arguments.get(0).getCallable().apply(env, Arrays.asList(x, y))
+                        ).get().get();
                     }
                 }));
             }
@@ -44,14 +48,14 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'foldr'", Type.CLOSURE, Type.MACRO);
                     arguments.get(2).guardType("Third argument to 'foldr'", Type.LIST);
-                    List<Atom> data = arguments.get(2).getList().get();
+                    List<Atom> data = arguments.get(2).getList();
                     Atom acc = arguments.get(1);
                     if(data.isEmpty())
-                        return acc.get().get();
+                        return acc.get();
                     else {
                         return Stream.concat(Stream.of(acc), Lists.reverse(data).stream()).reduce((x, y) ->
-                                arguments.get(0).getCallable().get().apply(env, Arrays.asList(y, x))
-                        ).get().get().get();
+                                arguments.get(0).getCallable().apply(env, Arrays.asList(y, x))
+                        ).get().get();
                     }
                 }));
             }
@@ -66,15 +70,26 @@ public class FoldLib {
                     throw new Error("Invalid invocation to 'foldl''.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'foldl''", Type.CLOSURE, Type.MACRO);
+                    Generator g = Generator.of(arguments.get(2));
+                    if(g != null) {
+                        // the values are folded as they're pulled, and not kept.
+                        Atom acc = arguments.get(1).eager();
+                        for(Atom x = g.next(); x != null; x = g.next())
+                            acc = arguments.get(0).getCallable().apply(env, Arrays.asList(acc, x.eager())).eager();
+                        return acc;
+                    }
                     arguments.get(2).guardType("Third argument to 'foldl''", Type.LIST);
-                    List<Atom> data = arguments.get(2).getList().get();
+                    List<Atom> data = arguments.get(2).getList();
                     Atom acc = arguments.get(1);
                     if(data.isEmpty())
-                        return acc.get().get();
+                        return acc.get();
+                    Atom packed = Kernels.foldl(arguments.get(0).getCallable(), acc, data);
+                    if(packed != null)
+                        return packed;
                     else {
                         return Stream.concat(Stream.of(acc), data.stream()).reduce((x, y) ->
-                                arguments.get(0).getCallable().get().apply(env, Arrays.asList(x.eager(), y.eager())).eager()
-                        ).get().get().get();
+                                arguments.get(0).getCallable().apply(env, Arrays.asList(x.eager(), y.eager())).eager()
+                        ).get().get();
                     }
                 }));
             }
@@ -90,14 +105,14 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'foldr''", Type.CLOSURE, Type.MACRO);
                     arguments.get(2).guardType("Third argument to 'foldr''", Type.LIST);
-                    List<Atom> data = arguments.get(2).getList().get();
+                    List<Atom> data = arguments.get(2).getList();
                     Atom acc = arguments.get(1);
                     if(data.isEmpty())
-                        return acc.get().get();
+                        return acc.get();
                     else {
                         return Stream.concat(Stream.of(acc), Lists.reverse(data).stream()).reduce((x, y) ->
-                                arguments.get(0).getCallable().get().apply(env, Arrays.asList(y.eager(), x.eager())).eager()
-                        ).get().get().get();
+                                arguments.get(0).getCallable().apply(env, Arrays.asList(y.eager(), x.eager())).eager()
+                        ).get().get();
                     }
                 }));
             }
@@ -113,18 +128,21 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'scanl'", Type.CLOSURE, Type.MACRO);
                     arguments.get(2).guardType("Third argument to 'scanl'", Type.LIST);
-                    List<Atom> data = arguments.get(2).getList().get();
+                    List<Atom> data = arguments.get(2).getList();
                     Atom acc = arguments.get(1);
-                    List<Atom> result = new LinkedList<>();
+                    List<Atom> result = new ArrayList<>();
                     result.add(acc);
                     if(data.isEmpty())
-                        return acc.get().get();
+                        return acc.get();
+                    List<Atom> packed = Kernels.scanl(arguments.get(0).getCallable(), acc, data);
+                    if(packed != null)
+                        return packed;
                     else {
                         Stream.concat(Stream.of(acc), data.stream()).reduce((x, y) -> {
-                            Atom a = arguments.get(0).getCallable().get().apply(env, Arrays.asList(x, y));
+                            Atom a = arguments.get(0).getCallable().apply(env, Arrays.asList(x, y));
                             result.add(a);
                             return a;
-                        }).get().get().get();
+                        }).get().get();
                         return result;
                     }
                 }));
@@ -139,18 +157,18 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'scanr'", Type.CLOSURE, Type.MACRO);
                     arguments.get(2).guardType("Third argument to 'scanr'", Type.LIST);
-                    List<Atom> data = arguments.get(2).getList().get();
+                    List<Atom> data = arguments.get(2).getList();
                     Atom acc = arguments.get(1);
-                    List<Atom> result = new LinkedList<>();
+                    List<Atom> result = new ArrayList<>();
                     result.add(acc);
                     if(data.isEmpty())
-                        return acc.get().get();
+                        return acc.get();
                     else {
                         Stream.concat(Stream.of(acc), Lists.reverse(data).stream()).reduce((x, y) -> {
-                            Atom a = arguments.get(0).getCallable().get().apply(env, Arrays.asList(y, x));
+                            Atom a = arguments.get(0).getCallable().apply(env, Arrays.asList(y, x));
                             result.add(a);
                             return a;
-                        }).get().get().get();
+                        }).get().get();
                         return Lists.reverse(result);
                     }
                 }));
@@ -165,18 +183,21 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'scanl''", Type.CLOSURE, Type.MACRO);
                     arguments.get(2).guardType("Third argument to 'scanl''", Type.LIST);
-                    List<Atom> data = arguments.get(2).getList().get();
+                    List<Atom> data = arguments.get(2).getList();
                     Atom acc = arguments.get(1);
-                    List<Atom> result = new LinkedList<>();
+                    List<Atom> result = new ArrayList<>();
                     result.add(acc);
                     if(data.isEmpty())
-                        return acc.get().get();
+                        return acc.get();
+                    List<Atom> packed = Kernels.scanl(arguments.get(0).getCallable(), acc, data);
+                    if(packed != null)
+                        return packed;
                     else {
                         Stream.concat(Stream.of(acc), data.stream()).reduce((x, y) -> {
-                            Atom a = arguments.get(0).getCallable().get().apply(env, Arrays.asList(x.eager(), y.eager())).eager();
+                            Atom a = arguments.get(0).getCallable().apply(env, Arrays.asList(x.eager(), y.eager())).eager();
                             result.add(a);
                             return a;
-                        }).get().get().get();
+                        }).get().get();
                         return result;
                     }
                 }));
@@ -191,18 +212,18 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'scanr''", Type.CLOSURE, Type.MACRO);
                     arguments.get(2).guardType("Third argument to 'scanr''", Type.LIST);
-                    List<Atom> data = arguments.get(2).getList().get();
+                    List<Atom> data = arguments.get(2).getList();
                     Atom acc = arguments.get(1);
-                    List<Atom> result = new LinkedList<>();
+                    List<Atom> result = new ArrayList<>();
                     result.add(acc);
                     if(data.isEmpty())
-                        return acc.get().get();
+                        return acc.get();
                     else {
                         Stream.concat(Stream.of(acc), Lists.reverse(data).stream()).reduce((x, y) -> {
-                            Atom a = arguments.get(0).getCallable().get().apply(env, Arrays.asList(y.eager(), x.eager())).eager();
+                            Atom a = arguments.get(0).getCallable().apply(env, Arrays.asList(y.eager(), x.eager())).eager();
                             result.add(a);
                             return a;
-                        }).get().get().get();
+                        }).get().get();
                         return Lists.reverse(result);
                     }
                 }));
@@ -219,15 +240,18 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'foldl1'", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'foldl1'", Type.LIST);
-                    List<Atom> data = arguments.get(1).getList().get();
+                    List<Atom> data = arguments.get(1).getList();
                     if(data.isEmpty())
                         throw new Error("Cannot fold an empty list.");
                     else if(data.size() == 1)
-                        return data.get(0).get().get();
+                        return data.get(0);
+                    Atom packed = Kernels.foldl1(arguments.get(0).getCallable(), data);
+                    if(packed != null)
+                        return packed;
                     else {
                         return data.stream().reduce((x, y) ->
-                                arguments.get(0).getCallable().get().apply(env, Arrays.asList(x, y))
-                        ).get().get().get();
+                                arguments.get(0).getCallable().apply(env, Arrays.asList(x, y))
+                        ).get().get();
                     }
                 }));
             }
@@ -243,15 +267,15 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'foldr1'", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'foldr1'", Type.LIST);
-                    List<Atom> data = arguments.get(1).getList().get();
+                    List<Atom> data = arguments.get(1).getList();
                     if(data.isEmpty())
                         throw new Error("Cannot fold an empty list.");
                     else if(data.size() == 1)
-                        return data.get(0).get().get();
+                        return data.get(0);
                     else {
                         return Lists.reverse(data).stream().reduce((x, y) ->
-                                arguments.get(0).getCallable().get().apply(env, Arrays.asList(y, x))
-                        ).get().get().get();
+                                arguments.get(0).getCallable().apply(env, Arrays.asList(y, x))
+                        ).get().get();
                     }
                 }));
             }
@@ -267,15 +291,18 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'foldl1''", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'foldl1''", Type.LIST);
-                    List<Atom> data = arguments.get(1).getList().get();
+                    List<Atom> data = arguments.get(1).getList();
                     if(data.isEmpty())
                         throw new Error("Cannot fold an empty list.");
                     else if(data.size() == 1)
-                        return data.get(0).get().get();
+                        return data.get(0);
+                    Atom packed = Kernels.foldl1(arguments.get(0).getCallable(), data);
+                    if(packed != null)
+                        return packed;
                     else {
                         return data.stream().reduce((x, y) ->
-                                arguments.get(0).getCallable().get().apply(env, Arrays.asList(x.eager(), y.eager())).eager()
-                        ).get().get().get();
+                                arguments.get(0).getCallable().apply(env, Arrays.asList(x.eager(), y.eager())).eager()
+                        ).get().get();
                     }
                 }));
             }
@@ -291,15 +318,15 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'foldr1''", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'foldr1''", Type.LIST);
-                    List<Atom> data = arguments.get(1).getList().get();
+                    List<Atom> data = arguments.get(1).getList();
                     if(data.isEmpty())
                         throw new Error("Cannot fold an empty list.");
                     else if(data.size() == 1)
-                        return data.get(0).get().get();
+                        return data.get(0);
                     else {
                         return Lists.reverse(data).stream().reduce((x, y) ->
-                                arguments.get(0).getCallable().get().apply(env, Arrays.asList(y.eager(), x.eager())).eager()
-                        ).get().get().get();
+                                arguments.get(0).getCallable().apply(env, Arrays.asList(y.eager(), x.eager())).eager()
+                        ).get().get();
                     }
                 }));
             }
@@ -315,19 +342,19 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'scanl1'", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'scanl1'", Type.LIST);
-                    List<Atom> data = arguments.get(1).getList().get();
-                    List<Atom> result = new LinkedList<>();
+                    List<Atom> data = arguments.get(1).getList();
+                    List<Atom> result = new ArrayList<>();
                     if(data.isEmpty())
-                        return Atom.NULL.get().get();
+                        return Atom.NULL.get();
                     else if(data.size() == 1)
-                        return data.get(0).get().get();
+                        return data.get(0);
                     else {
                         result.add(data.get(0));
                         data.stream().reduce((x, y) -> {
-                            Atom a = arguments.get(0).getCallable().get().apply(env, Arrays.asList(x, y));
+                            Atom a = arguments.get(0).getCallable().apply(env, Arrays.asList(x, y));
                             result.add(a);
                             return a;
-                        }).get().get().get();
+                        }).get().get();
                         return result;
                     }
                 }));
@@ -342,19 +369,19 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'scanr1'", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'scanr1'", Type.LIST);
-                    List<Atom> data = arguments.get(1).getList().get();
-                    List<Atom> result = new LinkedList<>();
+                    List<Atom> data = arguments.get(1).getList();
+                    List<Atom> result = new ArrayList<>();
                     if(data.isEmpty())
-                        return Atom.NULL.get().get();
+                        return Atom.NULL.get();
                     else if(data.size() == 1)
-                        return data.get(0).get().get();
+                        return data.get(0);
                     else {
                         result.add(data.get(data.size() - 1));
                         Lists.reverse(data).stream().reduce((x, y) -> {
-                            Atom a = arguments.get(0).getCallable().get().apply(env, Arrays.asList(y, x));
+                            Atom a = arguments.get(0).getCallable().apply(env, Arrays.asList(y, x));
                             result.add(a);
                             return a;
-                        }).get().get().get();
+                        }).get().get();
                         return Lists.reverse(result);
                     }
                 }));
@@ -369,19 +396,19 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'scanl1''", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Third argument to 'scanl1''", Type.LIST);
-                    List<Atom> data = arguments.get(1).getList().get();
-                    List<Atom> result = new LinkedList<>();
+                    List<Atom> data = arguments.get(1).getList();
+                    List<Atom> result = new ArrayList<>();
                     if(data.isEmpty())
-                        return Atom.NULL.get().get();
+                        return Atom.NULL.get();
                     else if(data.size() == 1)
-                        return data.get(0).get().get();
+                        return data.get(0);
                     else {
                         result.add(data.get(0));
                         data.stream().reduce((x, y) -> {
-                            Atom a = arguments.get(0).getCallable().get().apply(env, Arrays.asList(x.eager(), y.eager())).eager();
+                            Atom a = arguments.get(0).getCallable().apply(env, Arrays.asList(x.eager(), y.eager())).eager();
                             result.add(a);
                             return a;
-                        }).get().get().get();
+                        }).get().get();
                         return result;
                     }
                 }));
@@ -396,19 +423,19 @@ public class FoldLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'scanr1''", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'scanr1''", Type.LIST);
-                    List<Atom> data = arguments.get(1).getList().get();
-                    List<Atom> result = new LinkedList<>();
+                    List<Atom> data = arguments.get(1).getList();
+                    List<Atom> result = new ArrayList<>();
                     if(data.isEmpty())
-                        return Atom.NULL.get().get();
+                        return Atom.NULL.get();
                     else if(data.size() == 1)
-                        return data.get(0).get().get();
+                        return data.get(0);
                     else {
                         result.add(data.get(data.size() - 1));
                         Lists.reverse(data).stream().reduce((x, y) -> {
-                            Atom a = arguments.get(0).getCallable().get().apply(env, Arrays.asList(y.eager(), x.eager())).eager();
+                            Atom a = arguments.get(0).getCallable().apply(env, Arrays.asList(y.eager(), x.eager())).eager();
                             result.add(a);
                             return a;
-                        }).get().get().get();
+                        }).get().get();
                         return Lists.reverse(result);
                     }
                 }));
@@ -17,7 +17,7 @@ public class IOLib {
                 if(arguments.size() != 1)
                     throw new Error("'println' expects exactly one argument");
                 if(arguments.get(0).getType() == Type.STRING_CONSTANT)
-                    System.out.println(arguments.get(0).getStringConstant().get().get());
+                    System.out.println(arguments.get(0).getStringConstant().get());
                 else
                     System.out.println(arguments.get(0).toString());
                 return arguments.get(0);
@@ -30,7 +30,7 @@ public class IOLib {
                 if(arguments.size() != 1)
                     throw new Error("'prompt' expects exactly one argument");
                 arguments.get(0).guardType("First argument to 'prompt'", Type.STRING_CONSTANT);
-                System.out.print(arguments.get(0).getStringConstant().get().get());
+                System.out.print(arguments.get(0).getStringConstant().get());
                 Scanner s = new Scanner(System.in);
                 return Evaluation.evalAtom(env.env, s.nextLine());
             }
@@ -42,7 +42,7 @@ public class IOLib {
                 if(arguments.size() != 1)
                     throw new Error("'prompt-str' expects exactly one argument");
                 arguments.get(0).guardType("First argument to 'prompt-str'", Type.STRING_CONSTANT);
-                System.out.print(arguments.get(0).getStringConstant().get().get());
+                System.out.print(arguments.get(0).getStringConstant().get());
                 Scanner s = new Scanner(System.in);
                 return new Atom(new StringConstant(s.nextLine()));
             }
@@ -72,7 +72,7 @@ public class IOLib {
                 arguments.get(0).guardType("First argument to 'file-get'", Type.STRING_CONSTANT);
 
                 try {
-                    return new Atom(new StringConstant(Files.readString(Path.of(arguments.get(0).getStringConstant().get().get()))));
+                    return new Atom(new StringConstant(Files.readString(Path.of(arguments.get(0).getStringConstant().get()))));
                 } catch (IOException e) {
                     return Atom.NULL;
                 }
@@ -4,6 +4,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
 import kamilalisp.api.Evaluation;
 import kamilalisp.data.*;
+import kamilalisp.libs.primitives.list.Kernels;
 import kamilalisp.libs.primitives.list.Sort;
 import kamilalisp.data.Matrix;
 
@@ -12,6 +13,7 @@ import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 public class ListLib {
@@ -37,10 +39,10 @@ public class ListLib {
 
     public static void install(Environment env) {
         env.push("iota", new Atom(new Closure() {
-            private List<BigDecimal> iota(long n) {
-                List<BigDecimal> result = new ArrayList<>();
+            private List<Long> iota(long n) {
+                List<Long> result = new ArrayList<>();
                 for(long i = 0; i < n; i++)
-                    result.add(BigDecimal.valueOf(i));
+                    result.add(i);
                 return result;
             }
 
@@ -50,14 +52,13 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'iota'.");
                 if(arguments.get(0).getType() == Type.NUMBER)
                     return new Atom(new LbcSupplier<>(() ->
-                            iota(arguments.get(0).getNumber().get().toBigInteger().intValue())
-                                    .stream().map(Atom::new).collect(Collectors.toList())));
+                            NumericVector.of(LongStream.range(0, arguments.get(0).getNumber().toBigInteger().intValue()).toArray())));
                 else if(arguments.get(0).getType() == Type.LIST) {
                     return new Atom(new LbcSupplier<>(() -> {
-                        List<List<BigDecimal>> iotas = arguments.get(0).getList().get().stream().map(x -> {
+                        List<List<Long>> iotas = arguments.get(0).getList().stream().map(x -> {
                             if(x.getType() != Type.NUMBER)
                                 throw new Error("Invalid invocation to 'iota'. Expected a list of numbers.");
-                            return iota(x.getNumber().get().toBigInteger().intValue());
+                            return iota(x.getNumber().toBigInteger().intValue());
                         }).collect(Collectors.toList());
 
                         return cartesianProduct(iotas)
@@ -78,14 +79,14 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'nth'.", Type.NUMBER);
                     if(arguments.get(1).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(1).getList().get();
-                        int n = arguments.get(0).getNumber().get().intValue();
+                        List<Atom> l = arguments.get(1).getList();
+                        int n = arguments.get(0).getNumber().intValue();
                         if (n < 0 || n >= l.size())
                             throw new Error("Index out of bounds.");
-                        return l.get(n).get().get();
+                        return l.get(n);
                     } else if(arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        String s = arguments.get(1).getStringConstant().get().get();
-                        int n = arguments.get(0).getNumber().get().intValue();
+                        String s = arguments.get(1).getStringConstant().get();
+                        int n = arguments.get(0).getNumber().intValue();
                         if (n < 0 || n >= s.length())
                             throw new Error("Index out of bounds.");
                         return new StringConstant("" + s.charAt(n));
@@ -116,8 +117,8 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'flatten'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'flatten'.", Type.LIST);
-                    List<Atom> l = arguments.get(0).getList().get();
-                    return flat(l.stream().map(x -> x.getType() == Type.LIST ? x.getList().get() : List.of(x)).collect(Collectors.toList()));
+                    List<Atom> l = arguments.get(0).getList();
+                    return flat(l.stream().map(x -> x.getType() == Type.LIST ? x.getList() : List.of(x)).collect(Collectors.toList()));
                 }));
             }
         }));
@@ -129,13 +130,13 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'reverse'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(0).getList().get();
+                        List<Atom> l = arguments.get(0).getList();
                         List<Atom> r = new ArrayList<>();
                         for (int i = l.size() - 1; i >= 0; i--)
                             r.add(l.get(i));
                         return r;
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT) {
-                        String s = arguments.get(0).getStringConstant().get().get();
+                        String s = arguments.get(0).getStringConstant().get();
                         String r = "";
                         for (int i = s.length() - 1; i >= 0; i--)
                             r += s.charAt(i);
@@ -154,8 +155,8 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'rotate'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(0).getList().get();
-                        int n = arguments.get(1).getNumber().get().intValue();
+                        List<Atom> l = arguments.get(0).getList();
+                        int n = arguments.get(1).getNumber().intValue();
                         if(n < 0)
                             n += l.size();
                         if(n >= l.size())
@@ -167,8 +168,8 @@ public class ListLib {
                             r.add(l.get(i));
                         return r;
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT) {
-                        String s = arguments.get(0).getStringConstant().get().get();
-                        int n = arguments.get(1).getNumber().get().intValue();
+                        String s = arguments.get(0).getStringConstant().get();
+                        int n = arguments.get(1).getNumber().intValue();
                         if(n < 0)
                             n += s.length();
                         if(n >= s.length())
@@ -194,8 +195,8 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'zip'", Type.LIST);
                     arguments.get(1).guardType("Second argument to 'zip'", Type.LIST);
-                    List<Atom> a = arguments.get(0).getList().get();
-                    List<Atom> b = arguments.get(1).getList().get();
+                    List<Atom> a = arguments.get(0).getList();
+                    List<Atom> b = arguments.get(1).getList();
                     return Streams.zip(a.stream(), b.stream(), (x, y) -> new Atom(new LbcSupplier<>(() -> List.of(x, y)))).collect(Collectors.toList());
                 }));
             }
@@ -209,14 +210,14 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'first'", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'first'", Type.LIST);
-                    Callable c = arguments.get(0).getCallable().get();
-                    List<Atom> l = arguments.get(1).getList().get();
+                    Callable c = arguments.get(0).getCallable();
+                    List<Atom> l = arguments.get(1).getList();
                     for(int i = 0; i < l.size(); i++) {
                         Atom a = l.get(i);
                         if (c.apply(env, List.of(a)).coerceBool())
-                            return a.get().get();
+                            return a.get();
                     }
-                    return Atom.NULL.get().get();
+                    return Atom.NULL.get();
                 }));
             }
         }));
@@ -229,14 +230,14 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'first'", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'first'", Type.LIST);
-                    Callable c = arguments.get(0).getCallable().get();
-                    List<Atom> l = arguments.get(1).getList().get();
+                    Callable c = arguments.get(0).getCallable();
+                    List<Atom> l = arguments.get(1).getList();
                     for(int i = 0; i < l.size(); i++) {
                         Atom a = l.get(i);
                         if (c.apply(env, List.of(a)).coerceBool())
                             return new BigDecimal(i);
                     }
-                    return Atom.NULL.get().get();
+                    return Atom.NULL.get();
                 }));
             }
         }));
@@ -250,12 +251,12 @@ public class ListLib {
                     if(arguments.size() == 2) {
                         arguments.get(0).guardType("First argument to 'any'", Type.CLOSURE, Type.MACRO);
                         arguments.get(1).guardType("Second argument to 'any'", Type.LIST);
-                        return arguments.get(1).getList().get().stream().anyMatch(x ->
-                                arguments.get(0).getCallable().get().apply(env, Collections.singletonList(x)).coerceBool()
+                        return arguments.get(1).getList().stream().anyMatch(x ->
+                                arguments.get(0).getCallable().apply(env, Collections.singletonList(x)).coerceBool()
                         ) ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else {
                         arguments.get(0).guardType("First argument to 'any'", Type.LIST);
-                        return arguments.get(0).getList().get().stream().anyMatch(Atom::coerceBool) ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return arguments.get(0).getList().stream().anyMatch(Atom::coerceBool) ? BigDecimal.ONE : BigDecimal.ZERO;
                     }
                 }));
             }
@@ -268,9 +269,9 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'cdr'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'cdr'", Type.LIST);
-                    List<Atom> data = arguments.get(0).getList().get();
+                    List<Atom> data = arguments.get(0).getList();
                     if(data.isEmpty())
-                        return Atom.NULL.get().get();
+                        return Atom.NULL.get();
                     else
                         return data.subList(1, data.size());
                 }));
@@ -285,8 +286,8 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'str-split'", Type.STRING_CONSTANT);
                     arguments.get(1).guardType("Second argument to 'str-split'", Type.STRING_CONSTANT);
-                    String s = arguments.get(0).getStringConstant().get().get();
-                    String delim = arguments.get(1).getStringConstant().get().get();
+                    String s = arguments.get(0).getStringConstant().get();
+                    String delim = arguments.get(1).getStringConstant().get();
                     return Arrays.stream(s.split(delim)).map(x -> new Atom(new StringConstant(x))).collect(Collectors.toList());
                 }));
             }
@@ -295,9 +296,7 @@ public class ListLib {
         env.push("cons", new Atom(new Closure() {
             private List<Atom> cons2(Atom element, Atom list) {
                 list.guardType("Second argument to 'cons'", Type.LIST);
-                LinkedList<Atom> l = new LinkedList<>(list.getList().get());
-                l.addFirst(element);
-                return l;
+                return PersistentVector.of(list.getList()).prepend(element);
             }
 
             @Override
@@ -312,9 +311,7 @@ public class ListLib {
         env.push("append", new Atom(new Closure() {
             private List<Atom> append2(Atom list, Atom tail) {
                 list.guardType("Argument to 'append'", Type.LIST);
-                LinkedList<Atom> l = new LinkedList<Atom>(list.getList().get());
-                l.addLast(tail);
-                return l;
+                return PersistentVector.of(list.getList()).append(tail);
             }
 
             @Override
@@ -326,9 +323,7 @@ public class ListLib {
                 else
                     return new Atom(new LbcSupplier(() -> {
                         arguments.get(0).guardType("Argument to 'append'", Type.LIST);
-                        List<Atom> l = new LinkedList<>(arguments.get(0).getList().get());
-                        l.addAll(arguments.stream().skip(1).collect(Collectors.toList()));
-                        return l;
+                        return PersistentVector.of(arguments.get(0).getList()).concat(arguments.subList(1, arguments.size()));
                     }));
             }
         }));
@@ -336,7 +331,7 @@ public class ListLib {
         env.push("car", new Atom(new Closure() {
             private Atom car(Atom l) {
                 l.guardType("Argument to 'car'", Type.LIST);
-                List<Atom> data = l.getList().get();
+                List<Atom> data = l.getList();
                 if(data.isEmpty())
                     return Atom.NULL;
                 else
@@ -346,7 +341,7 @@ public class ListLib {
             @Override
             public Atom apply(Executor env, List<Atom> arguments) {
                 if(arguments.size() == 1) {
-                    return new Atom(new LbcSupplier(() -> car(arguments.get(0)).get().get()));
+                    return new Atom(new LbcSupplier(() -> car(arguments.get(0))));
                 } else if(arguments.size() >= 2) {
                     return new Atom(new LbcSupplier(() -> arguments.stream().map(x -> car(x)).collect(Collectors.toList())));
                 } else
@@ -363,9 +358,9 @@ public class ListLib {
                     arguments.get(0).guardType("Argument to 'size'", Type.LIST, Type.STRING_CONSTANT);
 
                     if(arguments.get(0).getType() == Type.LIST)
-                        return BigDecimal.valueOf(arguments.get(0).getList().get().size());
+                        return BigDecimal.valueOf(arguments.get(0).getList().size());
                     else if(arguments.get(0).getType() == Type.STRING_CONSTANT)
-                        return BigDecimal.valueOf(arguments.get(0).getStringConstant().get().get().length());
+                        return BigDecimal.valueOf(arguments.get(0).getStringConstant().get().length());
 
                     throw new Error("Invalid invocation to 'size'.");
                 }));
@@ -381,24 +376,24 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'grade-up'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.size() == 1 && arguments.get(0).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(0).getList().get();
+                        List<Atom> l = arguments.get(0).getList();
                         return IntStream.range(0, l.size()).boxed().sorted(new Comparator<Integer>() {
                             @Override
                             public int compare(Integer o1, Integer o2) {
                                 return new AtomComparator().compare(l.get(o1), l.get(o2));
                             }
-                        }).map(x -> new Atom(BigDecimal.valueOf(x))).collect(Collectors.toList());
+                        }).map(x -> new Atom((long) x)).collect(Collectors.toList());
                     } else if(arguments.size() == 2 && arguments.get(0).isCallable() && arguments.get(1).getType() == Type.LIST) {
-                        Callable c = arguments.get(0).getCallable().get();
-                        List<Atom> l = arguments.get(1).getList().get();
+                        Callable c = arguments.get(0).getCallable();
+                        List<Atom> l = arguments.get(1).getList();
                         return IntStream.range(0, l.size()).boxed().sorted(new Comparator<Integer>() {
                             @Override
                             public int compare(Integer o1, Integer o2) {
                                 Atom r = c.apply(env, List.of(l.get(o1), l.get(o2)));
                                 r.guardType("'grade-up' comparator", Type.NUMBER);
-                                return r.getNumber().get().intValue();
+                                return r.getNumber().intValue();
                             }
-                        }).map(x -> new Atom(BigDecimal.valueOf(x))).collect(Collectors.toList());
+                        }).map(x -> new Atom((long) x)).collect(Collectors.toList());
                     } else
                         throw new Error("'grade-up' expects (closure, list) arguments or a list");
                 }));
@@ -412,24 +407,24 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'grade-down'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.size() == 1 && arguments.get(0).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(0).getList().get();
+                        List<Atom> l = arguments.get(0).getList();
                         return IntStream.range(0, l.size()).boxed().sorted(new Comparator<Integer>() {
                             @Override
                             public int compare(Integer o1, Integer o2) {
                                 return new AtomComparator().compare(l.get(o2), l.get(o1));
                             }
-                        }).map(x -> new Atom(BigDecimal.valueOf(x))).collect(Collectors.toList());
+                        }).map(x -> new Atom((long) x)).collect(Collectors.toList());
                     } else if(arguments.size() == 2 && arguments.get(0).isCallable() && arguments.get(1).getType() == Type.LIST) {
-                        Callable c = arguments.get(0).getCallable().get();
-                        List<Atom> l = arguments.get(1).getList().get();
+                        Callable c = arguments.get(0).getCallable();
+                        List<Atom> l = arguments.get(1).getList();
                         return IntStream.range(0, l.size()).boxed().sorted(new Comparator<Integer>() {
                             @Override
                             public int compare(Integer o1, Integer o2) {
                                 Atom r = c.apply(env, List.of(l.get(o2), l.get(o1)));
                                 r.guardType("'grade-down' comparator", Type.NUMBER);
-                                return r.getNumber().get().intValue();
+                                return r.getNumber().intValue();
                             }
-                        }).map(x -> new Atom(BigDecimal.valueOf(x))).collect(Collectors.toList());
+                        }).map(x -> new Atom((long) x)).collect(Collectors.toList());
                     } else
                         throw new Error("'grade-down' expects (closure, list) arguments or a list");
                 }));
@@ -446,12 +441,12 @@ public class ListLib {
                     Atom b = arguments.get(1);
                     a.guardType("First argument to 'index'", Type.LIST);
                     b.guardType("Second argument to 'index'", Type.LIST, Type.STRING_CONSTANT);
-                    List<Atom> l = a.getList().get();
+                    List<Atom> l = a.getList();
                     l.forEach(x -> x.guardType("First 'index' list", Type.NUMBER));
                     if(b.getType() == Type.LIST) {
-                        return l.stream().map(x -> b.getList().get().get(x.getNumber().get().intValue())).collect(Collectors.toList());
+                        return l.stream().map(x -> b.getList().get(x.getNumber().intValue())).collect(Collectors.toList());
                     } else {
-                        return l.stream().map(x -> String.valueOf(b.getStringConstant().get().get().charAt(x.getNumber().get().intValue()))).collect(Collectors.toList());
+                        return l.stream().map(x -> String.valueOf(b.getStringConstant().get().charAt(x.getNumber().intValue()))).collect(Collectors.toList());
                     }
                 }));
             }
@@ -466,11 +461,11 @@ public class ListLib {
                     arguments.get(0).guardType("First argument to 'at'", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'at'", Type.LIST, Type.CLOSURE, Type.MACRO);
                     arguments.get(2).guardType("Third argument to 'at'", Type.LIST);
-                    Callable proc = arguments.get(0).getCallable().get();
+                    Callable proc = arguments.get(0).getCallable();
 
                     if(arguments.get(1).isCallable()) {
-                        Callable cond = arguments.get(1).getCallable().get();
-                        List<Atom> l = arguments.get(2).getList().get();
+                        Callable cond = arguments.get(1).getCallable();
+                        List<Atom> l = arguments.get(2).getList();
                         List<Atom> rightSpots = l.stream().map(x -> cond.apply(env, List.of(x))).collect(Collectors.toList());
                         return Streams.zip(l.stream(), rightSpots.stream(), (x, y) -> {
                             if(y.coerceBool())
@@ -479,11 +474,11 @@ public class ListLib {
                                 return x;
                         }).collect(Collectors.toList());
                     } else if(arguments.get(1).getType() == Type.LIST) {
-                        List<Integer> l = arguments.get(1).getList().get().stream().map(x -> {
+                        List<Integer> l = arguments.get(1).getList().stream().map(x -> {
                             x.guardType("Second 'at' list", Type.NUMBER);
-                            return x.getNumber().get().intValue();
+                            return x.getNumber().intValue();
                         }).collect(Collectors.toList());
-                        List<Atom> r = new LinkedList<>(arguments.get(2).getList().get());
+                        List<Atom> r = new ArrayList<>(arguments.get(2).getList());
                         l.forEach(x -> r.set(x, proc.apply(env, List.of(r.get(x)))));
                         return r;
                     }
@@ -501,7 +496,7 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.LIST) {
                         // XXX: Stream.distinct() is broken.
-                        List<Atom> l = new LinkedList<>(arguments.get(0).getList().get());
+                        List<Atom> l = new ArrayList<>(arguments.get(0).getList());
                         for(int i = 0; i < l.size(); i++)
                             for(int j = i + 1; j < l.size(); j++)
                                 if(l.get(i).equals(l.get(j)))
@@ -510,8 +505,7 @@ public class ListLib {
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT) {
                         return arguments
                                 .get(0)
-                                .getStringConstant()
-                                .get().get()
+                                .getStringConstant().get()
                                 .codePoints()
                                 .distinct()
                                 .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
@@ -534,18 +528,16 @@ public class ListLib {
                             arguments
                                     .get(0)
                                     .getList()
-                                    .get()
                                     .stream()
                                     .map(x -> {
                                         x.guardType("'where' argument list contents", Type.NUMBER);
-                                        return x.getNumber().get().intValue();
+                                        return x.getNumber().intValue();
                                     }),
                             IntStream.range(0,
                                     arguments
                                             .get(0)
                                             .getList()
-                                            .get()
-                                            .size()).mapToObj(x -> new Atom(BigDecimal.valueOf(x))),
+                                            .size()).mapToObj(x -> new Atom(x)),
                             (x, y) -> Collections.nCopies(x, y)).flatMap(Collection::stream).collect(Collectors.toList());
                 }));
             }
@@ -559,19 +551,19 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.NUMBER) {
                         if (arguments.get(1).getType() != Type.LIST) {
-                            return Collections.nCopies(arguments.get(0).getNumber().get().intValue(), arguments.get(1));
+                            return Collections.nCopies(arguments.get(0).getNumber().intValue(), arguments.get(1));
                         } else {
-                            return arguments.get(1).getList().get().stream().map(x -> {
-                                return Collections.nCopies(arguments.get(0).getNumber().get().intValue(), x);
+                            return arguments.get(1).getList().stream().map(x -> {
+                                return Collections.nCopies(arguments.get(0).getNumber().intValue(), x);
                             }).flatMap(Collection::stream).collect(Collectors.toList());
                         }
                     } else if(arguments.get(0).getType() == Type.LIST) {
-                        List<Integer> l1 = arguments.get(0).getList().get().stream().map(x -> {
+                        List<Integer> l1 = arguments.get(0).getList().stream().map(x -> {
                             x.guardType("'replicate' argument list contents", Type.NUMBER);
-                            return x.getNumber().get().intValue();
+                            return x.getNumber().intValue();
                         }).collect(Collectors.toList());
                         arguments.get(1).guardType("'replicate' argument", Type.LIST);
-                        List<Atom> l2 = arguments.get(1).getList().get();
+                        List<Atom> l2 = arguments.get(1).getList();
                         if(l1.size() != l2.size())
                             throw new Error("'replicate' expects two lists of the same size.");
                         return Streams.zip(l1.stream(), l2.stream(), (x, y) -> Collections.nCopies(x, y)).flatMap(Collection::stream).collect(Collectors.toList());
@@ -590,15 +582,15 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'drop'", Type.NUMBER);
                     arguments.get(1).guardType("Second argument to 'drop'", Type.LIST);
-                    int n = arguments.get(0).getNumber().get().intValue();
-                    if(n > arguments.get(1).getList().get().size())
+                    int n = arguments.get(0).getNumber().intValue();
+                    if(n > arguments.get(1).getList().size())
                         throw new Error("'drop' argument 1 is greater than the size of argument 2.");
                     if(n == 0)
                         return arguments.get(1);
                     else if(n > 0)
-                        return arguments.get(1).getList().get().stream().skip(n).collect(Collectors.toList());
+                        return arguments.get(1).getList().stream().skip(n).collect(Collectors.toList());
                     else
-                        return Lists.reverse(Lists.reverse(arguments.get(1).getList().get()).stream().skip(-n).collect(Collectors.toList()));
+                        return Lists.reverse(Lists.reverse(arguments.get(1).getList()).stream().skip(-n).collect(Collectors.toList()));
                 }));
             }
         }));
@@ -610,9 +602,9 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'intersperse'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(1).guardType("Second argument to 'intersperse'", Type.LIST);
-                    List<Atom> l2 = arguments.get(1).getList().get();
+                    List<Atom> l2 = arguments.get(1).getList();
                     if(arguments.get(0).getType() == Type.LIST) {
-                        List<Atom> l1 = arguments.get(0).getList().get();
+                        List<Atom> l1 = arguments.get(0).getList();
                         if (l1.size() != l2.size())
                             throw new Error("'intersperse' expects two lists of the same size.");
                         return Streams.zip(l1.stream(), l2.stream(), (x, y) -> Lists.newArrayList(x, y)).flatMap(Collection::stream).collect(Collectors.toList());
@@ -632,12 +624,12 @@ public class ListLib {
                     Atom a = arguments.get(0);
                     if(a.getType() == Type.LIST) {
                         // XXX: See `unique` implementation.
-                        List<Atom> l = new LinkedList<>(a.getList().get());
+                        List<Atom> l = new ArrayList<>(a.getList());
                         for(int i = 0; i < l.size(); i++)
                             for(int j = i + 1; j < l.size(); j++)
                                 if(l.get(i).equals(l.get(j)))
                                     l.remove(j--);
-                        return a.getList().get().stream().map(x -> {
+                        return a.getList().stream().map(x -> {
                             if(l.contains(x)) {
                                 l.remove(x);
                                 return new Atom(BigDecimal.ONE);
@@ -646,9 +638,9 @@ public class ListLib {
                             }
                         }).collect(Collectors.toList());
                     } else if(a.getType() == Type.STRING_CONSTANT) {
-                        List<Integer> l = a.getStringConstant().get().get()
+                        List<Integer> l = a.getStringConstant().get()
                                 .codePoints().distinct().boxed().collect(Collectors.toList());
-                        return a.getStringConstant().get().get().codePoints().mapToObj(x -> {
+                        return a.getStringConstant().get().codePoints().mapToObj(x -> {
                             if(l.contains(x)) {
                                 l.remove(x);
                                 return new Atom(BigDecimal.ONE);
@@ -669,10 +661,10 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'prefixes'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(0).getList().get();
+                        List<Atom> l = arguments.get(0).getList();
                         return IntStream.range(0, l.size()).mapToObj(i -> new Atom(l.subList(0, i + 1))).collect(Collectors.toList());
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT) {
-                        List<Integer> l = arguments.get(0).getStringConstant().get().get().codePoints().boxed().collect(Collectors.toList());
+                        List<Integer> l = arguments.get(0).getStringConstant().get().codePoints().boxed().collect(Collectors.toList());
                         return IntStream.range(0, l.size())
                                 .mapToObj(i ->
                                         new Atom(new StringConstant(
@@ -694,10 +686,10 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'suffixes'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(0).getList().get();
+                        List<Atom> l = arguments.get(0).getList();
                         return Lists.reverse(IntStream.range(0, l.size()).mapToObj(i -> new Atom(l.subList(i, l.size()))).collect(Collectors.toList()));
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT) {
-                        List<Integer> l = arguments.get(0).getStringConstant().get().get().codePoints().boxed().collect(Collectors.toList());
+                        List<Integer> l = arguments.get(0).getStringConstant().get().codePoints().boxed().collect(Collectors.toList());
                         return Lists.reverse(IntStream.range(0, l.size())
                                 .mapToObj(i ->
                                         new Atom(new StringConstant(
@@ -720,9 +712,9 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'partition'.", Type.LIST);
                     arguments.get(1).guardType("Second argument to 'partition'.", Type.LIST);
-                    List<Boolean> l1 = Stream.concat(arguments.get(0).getList().get().stream().map(x -> x.coerceBool()), Stream.of(Boolean.TRUE))
+                    List<Boolean> l1 = Stream.concat(arguments.get(0).getList().stream().map(x -> x.coerceBool()), Stream.of(Boolean.TRUE))
                             .collect(Collectors.toList());
-                    List<Atom> l2 = arguments.get(1).getList().get();
+                    List<Atom> l2 = arguments.get(1).getList();
                     // Java needs explicit generic specification because the compiler is extremely dumb.
                     // Equivalent APL code:
                     // ⍸
@@ -748,12 +740,12 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'window'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'window'.", Type.NUMBER);
-                    int windowSize = arguments.get(0).getNumber().get().intValue();
+                    int windowSize = arguments.get(0).getNumber().intValue();
                     if(arguments.get(1).getType() == Type.LIST) {
-                        List<Atom> data = arguments.get(1).getList().get();
+                        List<Atom> data = arguments.get(1).getList();
                         return IntStream.range(0, data.size() - windowSize + 1).mapToObj(i -> new Atom(data.subList(i, i + windowSize))).collect(Collectors.toList());
                     } else if(arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        String data = arguments.get(1).getStringConstant().get().get();
+                        String data = arguments.get(1).getStringConstant().get();
                         return IntStream.range(0, data.length() - windowSize + 1).mapToObj(i -> new Atom(new StringConstant(data.substring(i, i + windowSize)))).collect(Collectors.toList());
                     } else
                         throw new Error("Invalid invocation to 'window'. The second argument was expected to be either a list or a string constant.");
@@ -774,26 +766,40 @@ public class ListLib {
                     if(arguments.get(2).getType() != arguments.get(3).getType())
                         throw new Error("Invalid invocation to 'inner-prod'. Expected two matrices or lists.");
                     if(arguments.get(2).getType() == Type.LIST) {
-                        List<Atom> l1 = arguments.get(2).getList().get();
-                        List<Atom> l2 = arguments.get(3).getList().get();
-                        Callable f = arguments.get(0).getCallable().get();
-                        Callable g = arguments.get(1).getCallable().get();
+                        List<Atom> l1 = arguments.get(2).getList();
+                        List<Atom> l2 = arguments.get(3).getList();
+                        Callable f = arguments.get(0).getCallable();
+                        Callable g = arguments.get(1).getCallable();
                         if (l1.size() != l2.size())
                             throw new Error("The length of lists provided to 'inner-prod' doesn't match.");
                         else if (l1.size() == 0)
-                            return Atom.NULL.get().get();
+                            return Atom.NULL.get();
                         else if (l1.size() == 1)
-                            return g.apply(env, List.of(l1.get(0), l2.get(0))).get().get();
+                            return g.apply(env, List.of(l1.get(0), l2.get(0)));
                         else
                             return Streams.zip(l1.stream(), l2.stream(), (x, y) -> g.apply(env, List.of(x, y)))
-                                    .reduce((x, y) -> f.apply(env, List.of(x, y))).get().get().get();
+                                    .reduce((x, y) -> f.apply(env, List.of(x, y))).get().get();
                     } else {
-                        Matrix a = arguments.get(2).getMatrix().get();
-                        Matrix b = arguments.get(3).getMatrix().get();
-                        Callable f = arguments.get(0).getCallable().get();
-                        Callable g = arguments.get(1).getCallable().get();
-                        if(a.getRows() != b.getCols())
+                        Matrix a = arguments.get(2).getMatrix();
+                        Matrix b = arguments.get(3).getMatrix();
+                        Callable f = arguments.get(0).getCallable();
+                        Callable g = arguments.get(1).getCallable();
+                        if(a.getCols() != b.getRows())
                             throw new Error("Invalid matrix inner product: " + a.getRows() + "x" + a.getCols() + " and " + b.getRows() + "x" + b.getCols() + ".");
+                        DenseProduct.Semiring s = Kernels.semiring(f, g);
+                        if(s == DenseProduct.Semiring.PLUS_TIMES && (a instanceof SparseMatrix || b instanceof SparseMatrix)) {
+                            Matrix r = SparseMatrix.multiply(a, b);
+                            if(r != null)
+                                return r;
+                        }
+                        if(s != null) {
+                            DenseMatrix da = DenseMatrix.forced(a), db = da == null ? null : DenseMatrix.forced(b);
+                            if(da != null && db != null) {
+                                DenseMatrix r = DenseProduct.multiply(s, da, db);
+                                if(r != null)
+                                    return r;
+                            }
+                        }
                         List<List<Atom>> lRows = a.rows().collect(Collectors.toList());
                         List<List<Atom>> lCols = b.cols().collect(Collectors.toList());
                         return Matrix.of((row, col) ->
@@ -813,9 +819,9 @@ public class ListLib {
                     arguments.get(0).guardType("First argument to 'outer-prod'", Type.CLOSURE, Type.MACRO);
                     arguments.get(1).guardType("Second argument to 'outer-prod'", Type.LIST);
                     arguments.get(2).guardType("Third argument to 'outer-prod'", Type.LIST);
-                    List<Atom> l1 = arguments.get(1).getList().get();
-                    List<Atom> l2 = arguments.get(2).getList().get();
-                    Callable f = arguments.get(0).getCallable().get();
+                    List<Atom> l1 = arguments.get(1).getList();
+                    List<Atom> l2 = arguments.get(2).getList();
+                    Callable f = arguments.get(0).getCallable();
                     return cartesianProduct(List.of(l1, l2)).stream().map(x -> f.apply(env, x)).collect(Collectors.toList());
                 }));
             }
@@ -829,8 +835,10 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'range'", Type.NUMBER);
                     arguments.get(1).guardType("First argument to 'range'", Type.NUMBER);
-                    BigDecimal start = arguments.get(0).getNumber().get();
-                    BigDecimal end = arguments.get(1).getNumber().get();
+                    if(arguments.get(0).isFixnum() && arguments.get(1).isFixnum())
+                        return NumericVector.of(LongStream.range(arguments.get(0).getFixnum(), arguments.get(1).getFixnum()).toArray());
+                    BigDecimal start = arguments.get(0).getNumber();
+                    BigDecimal end = arguments.get(1).getNumber();
                     return Stream.iterate(start, x -> x.compareTo(end) < 0, x -> x.add(BigDecimal.ONE)).map(Atom::new).collect(Collectors.toList());
                 }));
             }
@@ -846,12 +854,12 @@ public class ListLib {
                     a1 = arguments.get(0);
                     a2 = arguments.get(1);
                     if(a1.getType() == Type.LIST && a2.getType() == Type.LIST) {
-                        List<Atom> l1 = a1.getList().get();
-                        List<Atom> l2 = a2.getList().get();
+                        List<Atom> l1 = a1.getList();
+                        List<Atom> l2 = a2.getList();
                         return new BigDecimal(Streams.zip(l1.stream(), l2.stream(), (x, y) -> x.equals(y)).anyMatch(x -> !x) ? 0 : 1);
                     } else if(a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.STRING_CONSTANT) {
-                        String s1 = a1.getStringConstant().get().get();
-                        String s2 = a2.getStringConstant().get().get();
+                        String s1 = a1.getStringConstant().get();
+                        String s2 = a2.getStringConstant().get();
                         return s2.startsWith(s1) ? BigDecimal.ZERO : BigDecimal.ONE;
                     } else {
                         throw new Error("Invalid invocation to 'starts-with'. Expected two strings or two lists, got " + a1.getType() + " and " + a2.getType() + ".");
@@ -868,19 +876,19 @@ public class ListLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.LIST) {
                         // XXX: See implementation notes for 'unique'.
-                        List<Atom> l = new LinkedList<>(arguments.get(0).getList().get());
+                        List<Atom> l = new ArrayList<>(arguments.get(0).getList());
                         for(int i = 0; i < l.size(); i++)
                             for(int j = i + 1; j < l.size(); j++)
                                 if(l.get(i).equals(l.get(j)))
                                     l.remove(j--);
-                        List<Atom> atoms = new LinkedList<>();
-                        List<List<Atom>> values = new LinkedList<>();
+                        List<Atom> atoms = new ArrayList<>();
+                        List<List<Atom>> values = new ArrayList<>();
                         for(Atom a : l) {
                             atoms.add(a);
-                            values.add(new LinkedList<>());
+                            values.add(new ArrayList<>());
                         }
                         AtomicInteger position = new AtomicInteger(0);
-                        arguments.get(0).getList().get().forEach(x -> {
+                        arguments.get(0).getList().forEach(x -> {
                             for(int i = 0; i < atoms.size(); i++) {
                                 if(atoms.get(i).equals(x)) {
                                     values.get(i).add(new Atom(new BigDecimal(position.get())));
@@ -891,7 +899,7 @@ public class ListLib {
                         });
                         return Streams.zip(atoms.stream(), values.stream(), (x, y) -> new Atom(List.of(x, new Atom(y)))).collect(Collectors.toList());
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT) {
-                        String s = arguments.get(0).getStringConstant().get().get();
+                        String s = arguments.get(0).getStringConstant().get();
                         IntStream uniques = s.codePoints().distinct();
                         LinkedHashMap<Integer, List<Atom>> o = new LinkedHashMap<>();
                         uniques.forEach(x -> o.put(x, new LinkedList<>()));
@@ -918,13 +926,13 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'index-of'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.LIST && arguments.get(1).getType() == Type.LIST) {
-                        List<Atom> l1 = arguments.get(0).getList().get();
-                        List<Atom> l2 = arguments.get(1).getList().get();
+                        List<Atom> l1 = arguments.get(0).getList();
+                        List<Atom> l2 = arguments.get(1).getList();
                         return l1.stream().map(x -> new Atom(new BigDecimal(l2.indexOf(x)))).collect(Collectors.toList());
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT && arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        String l1 = arguments.get(0).getStringConstant().get().get();
-                        String l2 = arguments.get(1).getStringConstant().get().get();
-                        LinkedList<Atom> l = new LinkedList<>();
+                        String l1 = arguments.get(0).getStringConstant().get();
+                        String l2 = arguments.get(1).getStringConstant().get();
+                        List<Atom> l = new ArrayList<>();
                         for(char c : l1.toCharArray())
                             l.add(new Atom(new BigDecimal(l2.indexOf(c))));
                         return l;
@@ -941,13 +949,13 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'ucs'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.STRING_CONSTANT) {
-                        String s = arguments.get(0).getStringConstant().get().get();
+                        String s = arguments.get(0).getStringConstant().get();
                         return s.codePoints().mapToObj(x -> new Atom(new BigDecimal(x))).collect(Collectors.toList());
                     } else if(arguments.get(0).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(0).getList().get();
+                        List<Atom> l = arguments.get(0).getList();
                         return new StringConstant(l.stream().mapToInt(x -> {
                             x.guardType("List argument to 'ucs'", Type.NUMBER);
-                            return x.getNumber().get().intValue();
+                            return x.getNumber().intValue();
                         }).collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString());
                     } else
                         throw new Error("'ucs' expects a list or string as its argument.");
@@ -962,14 +970,14 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'in?'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.STRING_CONSTANT && arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        String l1 = arguments.get(0).getStringConstant().get().get();
-                        String l2 = arguments.get(1).getStringConstant().get().get();
-                        LinkedList<Atom> l = new LinkedList<>();
+                        String l1 = arguments.get(0).getStringConstant().get();
+                        String l2 = arguments.get(1).getStringConstant().get();
+                        List<Atom> l = new ArrayList<>();
                         for(char c : l1.toCharArray())
                             l.add(new Atom(new BigDecimal(l2.indexOf(c) != -1 ? 1 : 0)));
                         return l;
                     } else if(arguments.get(1).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(1).getList().get();
+                        List<Atom> l = arguments.get(1).getList();
                         return new BigDecimal(l.contains(arguments.get(0)) ? 1 : 0);
                     } else
                         throw new Error("'in?' expects two lists and strings as its arguments.");
@@ -984,15 +992,15 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'find-seq'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.STRING_CONSTANT && arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        String needle = arguments.get(0).getStringConstant().get().get();
-                        String haystack = arguments.get(1).getStringConstant().get().get();
+                        String needle = arguments.get(0).getStringConstant().get();
+                        String haystack = arguments.get(1).getStringConstant().get();
                         int windowSize = needle.length();
                         Stream<String> s = IntStream.range(0, haystack.length() - windowSize + 1).mapToObj(i -> haystack.substring(i, i + windowSize));
                         return Stream.concat(s.map(x -> x.equals(needle) ? BigDecimal.ONE : BigDecimal.ZERO), Collections.nCopies(windowSize - 1, BigDecimal.ZERO).stream())
                                 .map(Atom::new).collect(Collectors.toList());
                     } else if(arguments.get(0).getType() == Type.LIST && arguments.get(1).getType() == Type.LIST) {
-                        List<Atom> needle = arguments.get(0).getList().get();
-                        List<Atom> haystack = arguments.get(1).getList().get();
+                        List<Atom> needle = arguments.get(0).getList();
+                        List<Atom> haystack = arguments.get(1).getList();
                         int windowSize = needle.size();
                         Stream<List<Atom>> s = IntStream.range(0, haystack.size() - windowSize + 1).mapToObj(i -> haystack.subList(i, i + windowSize));
                         return Stream.concat(s.map(x -> x.equals(needle) ? BigDecimal.ONE : BigDecimal.ZERO), Collections.nCopies(windowSize - 1, BigDecimal.ZERO).stream())
@@ -1010,9 +1018,10 @@ public class ListLib {
                     throw new Error("Invalid invocation to 'shuffle'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.LIST) {
-                        List<Atom> l = arguments.get(0).getList().get();
-                        Collections.shuffle(l);
-                        return l;
+                        List<Atom> l = arguments.get(0).getList();
+                        List<Atom> r = new ArrayList<>(l);
+                        Collections.shuffle(r);
+                        return r;
                     } else
                         throw new Error("'shuffle' expects a list as its argument.");
                 }));
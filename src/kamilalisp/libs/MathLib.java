@@ -41,9 +41,9 @@ public class MathLib {
     public static BigComplex asComplex(Atom a) {
         a.guardType("Argument to 'asComplex'", Type.NUMBER, Type.COMPLEX);
         if(a.getType() == Type.NUMBER)
-            return BigComplex.valueOf(a.getNumber().get(), BigDecimal.ZERO);
+            return BigComplex.valueOf(a.getNumber(), BigDecimal.ZERO);
         else
-            return a.getComplex().get();
+            return a.getComplex();
     }
 
     private static int decimalPlaces(BigDecimal number) {
@@ -55,8 +55,8 @@ public class MathLib {
         a1.guardType("First argument to 'gcd'", Type.NUMBER, Type.COMPLEX);
         a2.guardType("Second argument to 'gcd'", Type.NUMBER, Type.COMPLEX);
         if(a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-            BigDecimal a = a1.getNumber().get();
-            BigDecimal b = a2.getNumber().get();
+            BigDecimal a = a1.getNumber();
+            BigDecimal b = a2.getNumber();
             BigDecimal base = BigDecimal.ONE;
             int dpA = decimalPlaces(a);
             if(dpA > 0) {
@@ -75,10 +75,10 @@ public class MathLib {
             return new Atom(new BigDecimal(a.toBigInteger().gcd(b.toBigInteger())).divide(base, Constant.getFr(env)));
         } else {
             BigComplex a, b;
-            if(a1.getType() == Type.NUMBER) { a = BigComplex.valueOf(a1.getNumber().get(), BigDecimal.ZERO); }
-            else { a = a1.getComplex().get(); }
-            if(a2.getType() == Type.NUMBER) { b = BigComplex.valueOf(a2.getNumber().get(), BigDecimal.ZERO); }
-            else { b = a2.getComplex().get(); }
+            if(a1.getType() == Type.NUMBER) { a = BigComplex.valueOf(a1.getNumber(), BigDecimal.ZERO); }
+            else { a = a1.getComplex(); }
+            if(a2.getType() == Type.NUMBER) { b = BigComplex.valueOf(a2.getNumber(), BigDecimal.ZERO); }
+            else { b = a2.getComplex(); }
             assertGaussian(a);
             assertGaussian(b);
             // compute gcd(a, b).
@@ -143,15 +143,15 @@ public class MathLib {
                     throw new Error("Invalid invocation to '<'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.NUMBER && arguments.get(1).getType() == Type.NUMBER) {
-                        return arguments.get(0).getNumber().get().compareTo(arguments.get(1).getNumber().get()) < 0 ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return Fixnum.compare(arguments.get(0), arguments.get(1)) < 0 ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else if(arguments.get(0).getType() == Type.COMPLEX && arguments.get(1).getType() == Type.COMPLEX) {
-                        return Remainder.norm(env.env, arguments.get(0).getComplex().get()).compareTo(Remainder.norm(env.env, arguments.get(1).getComplex().get())) < 0 ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return Remainder.norm(env.env, arguments.get(0).getComplex()).compareTo(Remainder.norm(env.env, arguments.get(1).getComplex())) < 0 ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT && arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        return arguments.get(0).getStringConstant().get().get().compareTo(arguments.get(1).getStringConstant().get().get()) < 0 ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return arguments.get(0).getStringConstant().get().compareTo(arguments.get(1).getStringConstant().get()) < 0 ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT && arguments.get(1).getType() == Type.NUMBER) {
-                        return arguments.get(0).getStringConstant().get().get().length() < arguments.get(1).getNumber().get().intValue() ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return arguments.get(0).getStringConstant().get().length() < arguments.get(1).getNumber().intValue() ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else if(arguments.get(0).getType() == Type.NUMBER && arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        return arguments.get(1).getStringConstant().get().get().length() < arguments.get(0).getNumber().get().intValue() ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return arguments.get(1).getStringConstant().get().length() < arguments.get(0).getNumber().intValue() ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else {
                         throw new Error("Invalid invocation to '<'. Expected two numbers or two strings.");
                     }
@@ -166,15 +166,15 @@ public class MathLib {
                     throw new Error("Invalid invocation to '>'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     if(arguments.get(0).getType() == Type.NUMBER && arguments.get(1).getType() == Type.NUMBER) {
-                        return arguments.get(0).getNumber().get().compareTo(arguments.get(1).getNumber().get()) > 0 ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return Fixnum.compare(arguments.get(0), arguments.get(1)) > 0 ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else if(arguments.get(0).getType() == Type.COMPLEX && arguments.get(1).getType() == Type.COMPLEX) {
-                        return Remainder.norm(env.env, arguments.get(0).getComplex().get()).compareTo(Remainder.norm(env.env, arguments.get(1).getComplex().get())) > 0 ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return Remainder.norm(env.env, arguments.get(0).getComplex()).compareTo(Remainder.norm(env.env, arguments.get(1).getComplex())) > 0 ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT && arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        return arguments.get(0).getStringConstant().get().get().compareTo(arguments.get(1).getStringConstant().get().get()) > 0 ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return arguments.get(0).getStringConstant().get().compareTo(arguments.get(1).getStringConstant().get()) > 0 ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT && arguments.get(1).getType() == Type.NUMBER) {
-                        return arguments.get(0).getStringConstant().get().get().length() > arguments.get(1).getNumber().get().intValue() ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return arguments.get(0).getStringConstant().get().length() > arguments.get(1).getNumber().intValue() ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else if(arguments.get(0).getType() == Type.NUMBER && arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        return arguments.get(1).getStringConstant().get().get().length() > arguments.get(0).getNumber().get().intValue() ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return arguments.get(1).getStringConstant().get().length() > arguments.get(0).getNumber().intValue() ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else {
                         throw new Error("Invalid invocation to '>'. Expected two numbers or two strings.");
                     }
@@ -193,19 +193,18 @@ public class MathLib {
                                 arguments
                                         .get(0)
                                         .getNumber()
-                                        .get()
                                         .toBigInteger()
-                                        .or(arguments.get(1).getNumber().get().toBigInteger()));
+                                        .or(arguments.get(1).getNumber().toBigInteger()));
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT && arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        return new StringConstant(arguments.get(0).getStringConstant().get().get().concat(arguments.get(1).getStringConstant().get().get())
+                        return new StringConstant(arguments.get(0).getStringConstant().get().concat(arguments.get(1).getStringConstant().get())
                                         .codePoints()
                                         .distinct()
                                         .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
                                         .toString());
                     } else if(arguments.get(0).getType() == Type.LIST && arguments.get(1).getType() == Type.LIST) {
                         Set<Object> result = new LinkedHashSet<>();
-                        result.addAll(arguments.get(0).getList().get().stream().map(x -> x.get().get()).collect(Collectors.toList()));
-                        result.addAll(arguments.get(1).getList().get().stream().map(x -> x.get().get()).collect(Collectors.toList()));
+                        result.addAll(arguments.get(0).getList().stream().map(x -> x.get()).collect(Collectors.toList()));
+                        result.addAll(arguments.get(1).getList().stream().map(x -> x.get()).collect(Collectors.toList()));
                         return result.stream().map(x -> new Atom(new LbcSupplier<>(() -> x))).collect(Collectors.toList());
                     } else
                         throw new Error("Invalid invocation to '|'. Expected two numbers, two strings or two lists.");
@@ -222,7 +221,7 @@ public class MathLib {
                     throw new Error("Invalid invocation to 'bernoulli'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'bernoulli'", Type.NUMBER);
-                    BigDecimal p = arguments.get(0).getNumber().get();
+                    BigDecimal p = arguments.get(0).getNumber();
                     Rational r = b.at(p.intValue());
                     return List.of(new Atom(new BigDecimal(r.numer())), new Atom(new BigDecimal(r.denom())));
                 }));
@@ -275,24 +274,23 @@ public class MathLib {
                                 arguments
                                         .get(0)
                                         .getNumber()
-                                        .get()
                                         .toBigInteger()
-                                        .xor(arguments.get(1).getNumber().get().toBigInteger()));
+                                        .xor(arguments.get(1).getNumber().toBigInteger()));
                     } else if(arguments.get(0).getType() == Type.STRING_CONSTANT && arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        return new StringConstant(arguments.get(0).getStringConstant().get().get().concat(arguments.get(1).getStringConstant().get().get())
+                        return new StringConstant(arguments.get(0).getStringConstant().get().concat(arguments.get(1).getStringConstant().get())
                                 .codePoints()
                                 .distinct()
-                                .filter(x -> arguments.get(0).getStringConstant().get().get().codePoints().anyMatch(y -> y == x)
-                                          || arguments.get(1).getStringConstant().get().get().codePoints().anyMatch(y -> y == x))
+                                .filter(x -> arguments.get(0).getStringConstant().get().codePoints().anyMatch(y -> y == x)
+                                          || arguments.get(1).getStringConstant().get().codePoints().anyMatch(y -> y == x))
                                 .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
                                 .toString());
                     } else if(arguments.get(0).getType() == Type.LIST && arguments.get(1).getType() == Type.LIST) {
                         Set<Object> result = new LinkedHashSet<>();
-                        result.addAll(arguments.get(0).getList().get().stream().map(x -> x.get().get()).collect(Collectors.toList()));
-                        result.addAll(arguments.get(1).getList().get().stream().map(x -> x.get().get()).collect(Collectors.toList()));
+                        result.addAll(arguments.get(0).getList().stream().map(x -> x.get()).collect(Collectors.toList()));
+                        result.addAll(arguments.get(1).getList().stream().map(x -> x.get()).collect(Collectors.toList()));
                         Set<Object> intersection = new LinkedHashSet<>();
-                        intersection.addAll(arguments.get(0).getList().get().stream().map(x -> x.get().get()).collect(Collectors.toList()));
-                        intersection.retainAll(arguments.get(1).getList().get().stream().map(x -> x.get().get()).collect(Collectors.toList()));
+                        intersection.addAll(arguments.get(0).getList().stream().map(x -> x.get()).collect(Collectors.toList()));
+                        intersection.retainAll(arguments.get(1).getList().stream().map(x -> x.get()).collect(Collectors.toList()));
                         result.removeAll(intersection);
                         return result.stream().map(x -> new Atom(new LbcSupplier<>(() -> x))).collect(Collectors.toList());
                     } else
@@ -313,7 +311,7 @@ public class MathLib {
                             new Atom("|"),
                             new Atom(List.of(new Atom("="), a1, a2)),
                             new Atom(List.of(new Atom(">"), a1, a2))
-                    ))).get().get();
+                    ))).get();
                 }));
             }
         }));
@@ -330,7 +328,7 @@ public class MathLib {
                             new Atom("|"),
                             new Atom(List.of(new Atom("="), a1, a2)),
                             new Atom(List.of(new Atom("<"), a1, a2))
-                    ))).get().get();
+                    ))).get();
                 }));
             }
         }));
@@ -363,7 +361,7 @@ public class MathLib {
                     throw new Error("Invalid invocation to 'brown'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'brown'", Type.NUMBER);
-                    return brown(arguments.get(0).getNumber().get().toBigInteger(), env.env);
+                    return brown(arguments.get(0).getNumber().toBigInteger(), env.env);
                 }));
             }
         }));
@@ -386,10 +384,10 @@ public class MathLib {
                     arguments.get(0).guardType("Argument to 'odd-f'", Type.NUMBER, Type.COMPLEX);
                     Atom a = arguments.get(0);
                     if(a.getType() == Type.NUMBER) {
-                        BigDecimal n = a.getNumber().get();
+                        BigDecimal n = a.getNumber();
                         return n.multiply(BigDecimal.valueOf(2)).add(BigDecimal.ONE);
                     } else {
-                        BigComplex n = a.getComplex().get();
+                        BigComplex n = a.getComplex();
                         return n.multiply(BigComplex.valueOf(new BigDecimal(2), new BigDecimal(2))).add(BigComplex.valueOf(BigDecimal.ONE, BigDecimal.ONE));
                     }
                 }));
@@ -405,59 +403,19 @@ public class MathLib {
                     arguments.get(0).guardType("Argument to 'even-f'", Type.NUMBER, Type.COMPLEX);
                     Atom a = arguments.get(0);
                     if(a.getType() == Type.NUMBER) {
-                        BigDecimal n = a.getNumber().get();
+                        BigDecimal n = a.getNumber();
                         return n.multiply(BigDecimal.valueOf(2));
                     } else {
-                        BigComplex n = a.getComplex().get();
+                        BigComplex n = a.getComplex();
                         return n.multiply(BigComplex.valueOf(new BigDecimal(2), new BigDecimal(2)));
                     }
                 }));
             }
         }));
 
-        env.push("min", DyadicMultivariateFunction.of(new Closure() {
-            @Override
-            public Atom apply(Executor env, List<Atom> arguments) {
-                if(arguments.size() != 2)
-                    throw new Error("Invalid invocation to 'min'.");
-                return new Atom(new LbcSupplier<>(() -> {
-                    Atom a1 = arguments.get(0);
-                    Atom a2 = arguments.get(1);
-                    if(a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-                        return a1.getNumber().get().min(a2.getNumber().get());
-                    } else if(a1.getType() == Type.COMPLEX && a2.getType() == Type.COMPLEX) {
-                        return Remainder.norm(env.env, a1.getComplex().get()).compareTo(Remainder.norm(env.env, a2.getComplex().get())) < 0 ? a1.get().get() : a2.get().get();
-                    } else if(a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.STRING_CONSTANT) {
-                        return a1.getStringConstant().get().get().compareTo(a2.getStringConstant().get().get()) < 0 ? a1.get().get() : a2.get().get();
-                    } else if(a1.getType() == Type.LIST && a2.getType() == Type.LIST) {
-                        return a1.getList().get().size() < a2.getList().get().size() ? a1.get().get() : a2.get().get();
-                    }
-                    throw new Error("Invalid invocation to 'min': expected two lists, two strings or two numbers.");
-                }));
-            }
-        }));
+        env.push("min", DyadicMultivariateFunction.of(new Min()));
 
-        env.push("max", DyadicMultivariateFunction.of(new Closure() {
-            @Override
-            public Atom apply(Executor env, List<Atom> arguments) {
-                if(arguments.size() != 2)
-                    throw new Error("Invalid invocation to 'max'.");
-                return new Atom(new LbcSupplier<>(() -> {
-                    Atom a1 = arguments.get(0);
-                    Atom a2 = arguments.get(1);
-                    if(a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-                        return a1.getNumber().get().max(a2.getNumber().get());
-                    } else if(a1.getType() == Type.COMPLEX && a2.getType() == Type.COMPLEX) {
-                        return Remainder.norm(env.env, a1.getComplex().get()).compareTo(Remainder.norm(env.env, a2.getComplex().get())) > 0 ? a1.get().get() : a2.get().get();
-                    } else if(a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.STRING_CONSTANT) {
-                        return a1.getStringConstant().get().get().compareTo(a2.getStringConstant().get().get()) > 0 ? a1.get().get() : a2.get().get();
-                    } else if(a1.getType() == Type.LIST && a2.getType() == Type.LIST) {
-                        return a1.getList().get().size() > a2.getList().get().size() ? a1.get().get() : a2.get().get();
-                    }
-                    throw new Error("Invalid invocation to 'max': expected two lists, two strings or two numbers.");
-                }));
-            }
-        }));
+        env.push("max", DyadicMultivariateFunction.of(new Max()));
 
         env.push("approx-eq", new Atom(new Closure() {
             @Override
@@ -471,7 +429,7 @@ public class MathLib {
                     a.guardType("First argument to 'approx-eq'", Type.NUMBER);
                     b.guardType("Second argument to 'approx-eq'", Type.NUMBER);
                     epsilon.guardType("Third argument to 'approx-eq'", Type.NUMBER);
-                    return a.getNumber().get().subtract(b.getNumber().get()).abs().compareTo(epsilon.getNumber().get()) < 0 ? BigDecimal.ONE : BigDecimal.ZERO;
+                    return a.getNumber().subtract(b.getNumber()).abs().compareTo(epsilon.getNumber()) < 0 ? BigDecimal.ONE : BigDecimal.ZERO;
                 }));
             }
         }));
@@ -487,9 +445,12 @@ public class MathLib {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'exp'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.exp(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::exp);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.exp(a.getNumber(), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.exp(a.getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.exp(a.getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -506,12 +467,12 @@ public class MathLib {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to '!'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        if(decimalPlaces(a.getNumber().get()) > 0)
-                            return BigDecimalMath.factorial(a.getNumber().get(), Constant.getFr(env.env));
+                        if(decimalPlaces(a.getNumber()) > 0)
+                            return BigDecimalMath.factorial(a.getNumber(), Constant.getFr(env.env));
                         else
-                            return BigDecimalMath.factorial(a.getNumber().get().intValue());
+                            return BigDecimalMath.factorial(a.getNumber().intValue());
                     } else {
-                        return BigComplexMath.factorial(a.getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.factorial(a.getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -525,10 +486,10 @@ public class MathLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'pvec'", Type.NUMBER);
-                    int n = a.getNumber().get().intValue();
+                    int n = a.getNumber().intValue();
                     return new ArrayList<>(Collections2.permutations(
                                 IntStream.range(0, n)
-                                        .mapToObj(x -> new Atom(new BigDecimal(x)))
+                                        .mapToObj(x -> new Atom(x))
                                         .collect(Collectors.toList())))
                             .stream().map(Atom::new).collect(Collectors.toList());
                 }));
@@ -545,10 +506,10 @@ public class MathLib {
                     Atom b = arguments.get(1);
                     a.guardType("First argument to 'cvec'", Type.NUMBER);
                     b.guardType("Second argument to 'cvec'", Type.NUMBER);
-                    int pick = a.getNumber().get().intValue();
-                    int all = b.getNumber().get().intValue();
+                    int pick = a.getNumber().intValue();
+                    int all = b.getNumber().intValue();
                     Set<Set<Atom>> combinations = Sets.combinations(IntStream.range(0, all)
-                            .mapToObj(x -> new Atom(new BigDecimal(x)))
+                            .mapToObj(x -> new Atom(x))
                             .collect(Collectors.toSet()), pick);
                     return combinations.stream().map(x -> new Atom(Lists.newArrayList(x))).collect(Collectors.toList());
                 }));
@@ -565,9 +526,9 @@ public class MathLib {
                     Atom b = arguments.get(1);
                     a.guardType("First argument to 'binomial'", Type.NUMBER);
                     b.guardType("Second argument to 'binomial'", Type.NUMBER);
-                    BigDecimal aBang = BigDecimalMath.factorial(a.getNumber().get(), Constant.getFr(env.env));
-                    BigDecimal bBang = BigDecimalMath.factorial(b.getNumber().get(), Constant.getFr(env.env));
-                    BigDecimal abBang = BigDecimalMath.factorial(a.getNumber().get().subtract(b.getNumber().get()), Constant.getFr(env.env));
+                    BigDecimal aBang = BigDecimalMath.factorial(a.getNumber(), Constant.getFr(env.env));
+                    BigDecimal bBang = BigDecimalMath.factorial(b.getNumber(), Constant.getFr(env.env));
+                    BigDecimal abBang = BigDecimalMath.factorial(a.getNumber().subtract(b.getNumber()), Constant.getFr(env.env));
                     return aBang.divide(bBang.multiply(abBang), Constant.getFr(env.env));
                 }));
             }
@@ -584,10 +545,10 @@ public class MathLib {
                     a.guardType("First argument to 'root'", Type.NUMBER, Type.COMPLEX);
                     b.guardType("Second argument to 'root'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER && b.getType() == Type.NUMBER) {
-                        return BigDecimalMath.root(b.getNumber().get(), a.getNumber().get(), Constant.getFr(env.env));
+                        return BigDecimalMath.root(b.getNumber(), a.getNumber(), Constant.getFr(env.env));
                     } else {
-                        BigComplex x = a.getComplex().get();
-                        BigComplex y = b.getComplex().get();
+                        BigComplex x = a.getComplex();
+                        BigComplex y = b.getComplex();
                         return BigComplexMath.root(x, y, Constant.getFr(env.env));
                     }
                 }));
@@ -605,16 +566,16 @@ public class MathLib {
                     if(a.getType() == Type.NUMBER) {
                         if(arguments.size() == 2) {
                             arguments.get(1).guardType("Second argument to 'floor'", Type.NUMBER);
-                            return a.getNumber().get().setScale(arguments.get(1).getNumber().get().intValue(), RoundingMode.FLOOR);
+                            return a.getNumber().setScale(arguments.get(1).getNumber().intValue(), RoundingMode.FLOOR);
                         } else
-                            return a.getNumber().get().setScale(0, RoundingMode.FLOOR);
+                            return a.getNumber().setScale(0, RoundingMode.FLOOR);
                     } else {
                         int scale = 0;
-                        BigComplex x = a.getComplex().get();
+                        BigComplex x = a.getComplex();
 
                         if(arguments.size() == 2) {
                             arguments.get(1).guardType("Second argument to 'floor'", Type.NUMBER);
-                            scale = arguments.get(1).getNumber().get().intValue();
+                            scale = arguments.get(1).getNumber().intValue();
                         }
 
                         return BigComplex.valueOf(x.re.setScale(scale, RoundingMode.FLOOR), x.im.setScale(scale, RoundingMode.FLOOR));
@@ -634,16 +595,16 @@ public class MathLib {
                     if(a.getType() == Type.NUMBER) {
                         if(arguments.size() == 2) {
                             arguments.get(1).guardType("Second argument to 'ceil'", Type.NUMBER);
-                            return a.getNumber().get().setScale(arguments.get(1).getNumber().get().intValue(), RoundingMode.CEILING);
+                            return a.getNumber().setScale(arguments.get(1).getNumber().intValue(), RoundingMode.CEILING);
                         } else
-                            return a.getNumber().get().setScale(0, RoundingMode.CEILING);
+                            return a.getNumber().setScale(0, RoundingMode.CEILING);
                     } else {
                         int scale = 0;
-                        BigComplex x = a.getComplex().get();
+                        BigComplex x = a.getComplex();
 
                         if(arguments.size() == 2) {
                             arguments.get(1).guardType("Second argument to 'ceil'", Type.NUMBER);
-                            scale = arguments.get(1).getNumber().get().intValue();
+                            scale = arguments.get(1).getNumber().intValue();
                         }
 
                         return BigComplex.valueOf(x.re.setScale(scale, RoundingMode.CEILING), x.im.setScale(scale, RoundingMode.CEILING));
@@ -661,10 +622,10 @@ public class MathLib {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'is-prime'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return a.getNumber().get().toBigInteger().isProbablePrime(50) ? BigDecimal.ONE : BigDecimal.ZERO;
+                        return a.getNumber().toBigInteger().isProbablePrime(50) ? BigDecimal.ONE : BigDecimal.ZERO;
                     } else {
-                        assertGaussian(a.getComplex().get());
-                        return isPrime(env.env, a.getComplex().get()) ? BigDecimal.ONE : BigDecimal.ZERO;
+                        assertGaussian(a.getComplex());
+                        return isPrime(env.env, a.getComplex()) ? BigDecimal.ONE : BigDecimal.ZERO;
                     }
                 }));
             }
@@ -677,7 +638,7 @@ public class MathLib {
                     throw new Error("Invalid invocation to 'hamming-weight'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'hamming-weight'", Type.NUMBER);
-                    BigInteger value = arguments.get(0).getNumber().get().toBigInteger();
+                    BigInteger value = arguments.get(0).getNumber().toBigInteger();
                     BigInteger weight = new BigInteger("0");
                     for (int i = 0; i <= value.bitLength(); i++)
                         if (value.testBit(i))
@@ -698,26 +659,26 @@ public class MathLib {
                     b.guardType("Second argument to 'poly'", Type.LIST);
                     if(a.getType() == Type.NUMBER) {
                         BigDecimal n = new BigDecimal(1);
-                        BigDecimal base = a.getNumber().get();
+                        BigDecimal base = a.getNumber();
                         BigDecimal s = new BigDecimal(0);
-                        List<Atom> l = Lists.reverse(b.getList().get());
+                        List<Atom> l = Lists.reverse(b.getList());
                         for(int i = 0; i < l.size(); i++) {
                             l.get(i).guardType("Element in list argument to 'poly'", Type.NUMBER);
-                            s = s.add(l.get(i).getNumber().get().multiply(n));
+                            s = s.add(l.get(i).getNumber().multiply(n));
                             n = n.multiply(base);
                         }
                         return s;
                     } else if(a.getType() == Type.LIST) {
-                        List<BigDecimal> ns = a.getList().get().stream().map(x -> {
+                        List<BigDecimal> ns = a.getList().stream().map(x -> {
                             x.guardType("Element in list argument to 'poly'", Type.NUMBER);
-                            return x.getNumber().get();
+                            return x.getNumber();
                         }).collect(Collectors.toList());
                         BigDecimal s = new BigDecimal(0);
                         BigDecimal n = new BigDecimal(1);
-                        List<Atom> l = b.getList().get();
+                        List<Atom> l = b.getList();
                         for(int i = l.size() - 1; i >= 0; i--) {
                             l.get(i).guardType("Element in list argument to 'poly'", Type.NUMBER);
-                            s = s.add(l.get(i).getNumber().get().multiply(n));
+                            s = s.add(l.get(i).getNumber().multiply(n));
                             n = n.multiply(ns.get(i));
                         }
                         return s;
@@ -737,8 +698,8 @@ public class MathLib {
                     Atom b = arguments.get(1);
                     a.guardType("First argument to 'encode'", Type.NUMBER);
                     b.guardType("Second argument to 'encode'", Type.NUMBER);
-                    BigInteger base = a.getNumber().get().toBigInteger();
-                    BigInteger s = b.getNumber().get().toBigInteger();
+                    BigInteger base = a.getNumber().toBigInteger();
+                    BigInteger s = b.getNumber().toBigInteger();
                     List<Atom> l = Lists.reverse(new ArrayList<>());
                     while(s.compareTo(BigInteger.ZERO) != 0) {
                         l.add(new Atom(new BigDecimal(s.remainder(base))));
@@ -756,11 +717,11 @@ public class MathLib {
                     throw new Error("Invalid invocation to 'p-until'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'p-until'", Type.NUMBER);
-                    BigInteger n = arguments.get(0).getNumber().get().toBigInteger();
+                    BigInteger n = arguments.get(0).getNumber().toBigInteger();
                     List<Atom> primes = new LinkedList<>();
                     for(BigInteger i = new BigInteger("2"); i.compareTo(n) < 0; i = i.add(BigInteger.ONE)) {
                         if(i.isProbablePrime(50))
-                            primes.add(new Atom(new BigDecimal(i)));
+                            primes.add(Atom.number(new BigDecimal(i)));
                     }
                     return primes;
                 }));
@@ -774,11 +735,11 @@ public class MathLib {
                     throw new Error("Invalid invocation to 'p-no'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'p-no'", Type.NUMBER);
-                    int n = arguments.get(0).getNumber().get().intValue();
+                    int n = arguments.get(0).getNumber().intValue();
                     List<Atom> primes = new LinkedList<>();
                     for(BigInteger i = new BigInteger("2"); primes.size() != n; i = i.add(BigInteger.ONE)) {
                         if(i.isProbablePrime(50))
-                            primes.add(new Atom(new BigDecimal(i)));
+                            primes.add(Atom.number(new BigDecimal(i)));
                     }
                     return primes;
                 }));
@@ -790,15 +751,15 @@ public class MathLib {
                 if(pattern.getType() == Type.LIST) {
                     if(source.getType() != Type.LIST)
                         return false;
-                    List<Atom> p = pattern.getList().get();
-                    List<Atom> s = source.getList().get();
+                    List<Atom> p = pattern.getList();
+                    List<Atom> s = source.getList();
 
                     if(p.size() < s.size() && p.size() > 0) {
                         // Check for kleene star presence.
                         Atom pLast = p.get(p.size() - 1);
-                        if(pLast.getType() != Type.STRING || !pLast.getString().get().endsWith("..."))
+                        if(pLast.getType() != Type.STRING || !pLast.getString().endsWith("..."))
                             return false;
-                        String name = pLast.getString().get().substring(0, pLast.getString().get().length() - 3);
+                        String name = pLast.getString().substring(0, pLast.getString().length() - 3);
                         if(!boundNames.contains(name) && !valueMap.containsKey(name)) {
                             // eek, it's a verbatim value.
                             // don't match because the size is wrong.
@@ -817,7 +778,7 @@ public class MathLib {
                         if(visit(new Atom(part1P), new Atom(part1S), boundNames, valueMap)) {
                             // put part2S bound as a..., or verify if matched correctly.
                             if(valueMap.containsKey(name))
-                                return valueMap.get(name).getList().get().equals(part2S);
+                                return valueMap.get(name).getList().equals(part2S);
                             boundNames.remove(name);
                             valueMap.put(name, new Atom(part2S));
                             return true;
@@ -829,7 +790,7 @@ public class MathLib {
                     if(p.size() == 0)
                         return true;
                     Atom pLast = p.get(p.size() - 1);
-                    if(pLast.getType() != Type.STRING || !pLast.getString().get().endsWith("..."))
+                    if(pLast.getType() != Type.STRING || !pLast.getString().endsWith("..."))
                         return Streams.zip(p.stream(), s.stream(), (x, y) -> visit(x, y, boundNames, valueMap)).noneMatch(x -> x.booleanValue() == false);
                     else {
                         // kleene star in lists of equal size.
@@ -840,7 +801,7 @@ public class MathLib {
                         // p: ((1 0) 1 a...)
 
                         // First pair: bound variable and corresponding element
-                        Atom x1 = new Atom(pLast.getString().get().substring(0, pLast.getString().get().length() - 3));
+                        Atom x1 = new Atom(pLast.getString().substring(0, pLast.getString().length() - 3));
                         Atom x2 = s.get(s.size() - 1);
                         // Second pair: corresponding lists.
                         Atom y1 = new Atom(p.subList(0, p.size() - 1));
@@ -852,7 +813,7 @@ public class MathLib {
                         return visit(x1, x2, boundNames, valueMap);
                     }
                 } else if(pattern.getType() == Type.STRING) {
-                    String s = pattern.getString().get();
+                    String s = pattern.getString();
                     if(valueMap.containsKey(s) && !valueMap.get(s).equals(source))
                         return false;
                     if(!boundNames.contains(s))
@@ -875,9 +836,9 @@ public class MathLib {
 
                     for(Atom clause : clauses) {
                         clause.guardType("'match' case", Type.LIST);
-                        List<Atom> data = clause.getList().get();
+                        List<Atom> data = clause.getList();
                         if(data.size() == 1)
-                            return env.evaluate(data.get(0)).get().get();
+                            return env.evaluate(data.get(0));
                         else if(data.size() == 3) {
                             Atom binds = data.get(0);
                             Atom pattern = data.get(1);
@@ -886,24 +847,24 @@ public class MathLib {
                             HashMap<String, Atom> bindings = new HashMap<>();
                             binds.guardType("Bind section of the 'match' case", Type.STRING, Type.LIST);
                             if (binds.getType() == Type.LIST)
-                                boundNames = binds.getList().get().stream().map(x -> {
+                                boundNames = binds.getList().stream().map(x -> {
                                     x.guardType("Bound variable in 'match' case", Type.STRING);
-                                    return x.getString().get();
+                                    return x.getString();
                                 }).collect(Collectors.toList());
                             else
-                                boundNames = new LinkedList<>(List.of(binds.getString().get()));
+                                boundNames = new LinkedList<>(List.of(binds.getString()));
                             // Now, match `pattern` against `source`.
                             // Ignore all entries present in `boundNames`.
                             if (visit(pattern, source, boundNames, bindings) && boundNames.isEmpty()) {
                                 Environment de = env.env.descendant("'match' handler section");
                                 bindings.forEach(de::push);
-                                return new Executor(de).evaluate(handler).get().get();
+                                return new Executor(de).evaluate(handler).get();
                             }
                         } else if(data.size() == 2) {
                             Atom pattern = data.get(0);
                             Atom handler = data.get(1);
                             if(pattern.equals(source))
-                                return new Executor(env.env.descendant("'match' handler section")).evaluate(handler).get().get();
+                                return new Executor(env.env.descendant("'match' handler section")).evaluate(handler).get();
                         } else
                             throw new Error("'match' case clause must have 1, 2 or 3 elements.");
                     }
@@ -924,7 +885,7 @@ public class MathLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     Atom source = arguments.get(0);
                     source.guardType("'stddev' argument", Type.LIST);
-                    return Sqrt.sqrt(Variance.variance(source, env), env).get().get();
+                    return Sqrt.sqrt(Variance.variance(source, env), env);
                 }));
             }
         }));
@@ -941,8 +902,8 @@ public class MathLib {
                     Atom k = arguments.get(1);
                     source.guardType("'maxk' argument", Type.LIST);
                     k.guardType("'maxk' argument", Type.NUMBER);
-                    List<Atom> l = source.getList().get();
-                    int mv = arguments.get(1).getNumber().get().intValue();
+                    List<Atom> l = source.getList();
+                    int mv = arguments.get(1).getNumber().intValue();
                     return Lists.reverse(Sort.sort(l)).subList(0, mv);
                 }));
             }
@@ -958,8 +919,8 @@ public class MathLib {
                     Atom k = arguments.get(1);
                     source.guardType("'mink' argument", Type.LIST);
                     k.guardType("'mink' argument", Type.NUMBER);
-                    List<Atom> l = source.getList().get();
-                    int mv = arguments.get(1).getNumber().get().intValue();
+                    List<Atom> l = source.getList();
+                    int mv = arguments.get(1).getNumber().intValue();
                     return Sort.sort(l).subList(0, mv);
                 }));
             }
@@ -974,9 +935,9 @@ public class MathLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     Atom source = arguments.get(0);
                     source.guardType("'enp2' argument", Type.NUMBER);
-                    if(decimalPlaces(source.getNumber().get()) != 0)
+                    if(decimalPlaces(source.getNumber()) != 0)
                         throw new Error("'enp2' argument must be an integer.");
-                    return new BigDecimal(source.getNumber().get().toBigInteger().bitLength());
+                    return new BigDecimal(source.getNumber().toBigInteger().bitLength());
                 }));
             }
         }));
@@ -991,9 +952,9 @@ public class MathLib {
                     Atom source = arguments.get(0);
                     source.guardType("'re' argument", Type.COMPLEX, Type.NUMBER);
                     if(source.getType() == Type.COMPLEX)
-                        return source.getComplex().get().re;
+                        return source.getComplex().re;
                     else
-                        return source.getNumber().get();
+                        return source.getNumber();
                 }));
             }
         }));
@@ -1007,7 +968,7 @@ public class MathLib {
                     Atom source = arguments.get(0);
                     source.guardType("'im' argument", Type.COMPLEX, Type.NUMBER);
                     if(source.getType() == Type.COMPLEX)
-                        return source.getComplex().get().im;
+                        return source.getComplex().im;
                     else
                         return BigDecimal.ZERO;
                 }));
@@ -1024,7 +985,7 @@ public class MathLib {
                     source.guardType("'phasor' argument", Type.COMPLEX, Type.NUMBER);
                     BigComplex z;
                     if(source.getType() == Type.COMPLEX)
-                        z = source.getComplex().get();
+                        z = source.getComplex();
                     else
                         return BigDecimal.ZERO;
                     return z.angle(Constant.getFr(env.env));
@@ -1040,7 +1001,7 @@ public class MathLib {
                     throw new Error("'mkpoly' expects exactly one argument.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("'mkpoly' argument", Type.LIST);
-                    List<Atom> roots = arguments.get(0).getList().get();
+                    List<Atom> roots = arguments.get(0).getList();
                     LinkedList<Atom> p = new LinkedList<>();
                     p.add(new Atom(BigDecimal.ONE));
                     for(Atom r : roots) {
@@ -1066,7 +1027,7 @@ public class MathLib {
                     throw new Error("'p-dirchlet' expects exactly one argument.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("'p-dirchlet' argument", Type.NUMBER);
-                    BigInteger n = arguments.get(0).getNumber().get().toBigInteger();
+                    BigInteger n = arguments.get(0).getNumber().toBigInteger();
                     if(n.compareTo(BigInteger.valueOf(6)) < 0)
                         throw new Error("'p-dirchlet' argument must be at least 6.");
                     BigInteger nn = n.multiply(BigInteger.valueOf(2));
@@ -1079,7 +1040,7 @@ public class MathLib {
                     List<Atom> primes = new ArrayList<>();
                     for(BigInteger i = m; i.compareTo(k) <= 0; i = i.add(BigInteger.valueOf(1)))
                         if(i.isProbablePrime(100))
-                            primes.add(new Atom(new BigDecimal(i)));
+                            primes.add(Atom.number(new BigDecimal(i)));
                     return primes;
                 }));
             }
@@ -7,6 +7,11 @@ import kamilalisp.data.*;
 import kamilalisp.libs.primitives.linalg.Adjoint;
 import kamilalisp.libs.primitives.linalg.Determinant;
 import kamilalisp.libs.primitives.linalg.Identity;
+import kamilalisp.libs.primitives.linalg.Inverse;
+import kamilalisp.libs.primitives.linalg.LUDecomposition;
+import kamilalisp.libs.primitives.linalg.QRDecomposition;
+import kamilalisp.libs.primitives.linalg.Solve;
+import kamilalisp.libs.primitives.linalg.Sparse;
 import kamilalisp.libs.primitives.linalg.Trace;
 import kamilalisp.libs.primitives.math.Add;
 import kamilalisp.libs.primitives.math.Product;
@@ -23,6 +28,31 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class MatrixLib {
+    // A shape or a list of axes, innermost axis first like the arguments of
+    // 'reshape', in the outermost first order of `NDArray`.
+    private static int[] axes(Atom a, String cause) {
+        a.guardType(cause, Type.LIST);
+        List<Atom> l = a.getList();
+        if(l.isEmpty())
+            throw new Error(cause + ": expected at least one axis.");
+        int[] r = new int[l.size()];
+        for(int i = 0; i < r.length; i++) {
+            l.get(i).guardType(cause, Type.NUMBER);
+            r[r.length - 1 - i] = l.get(i).getNumber().intValue();
+        }
+        return r;
+    }
+
+    // Lists are rank 1 arrays, and anything else a single cell.
+    private static NDArray array(Atom x) {
+        switch(x.getType()) {
+            case ARRAY: return x.getArray();
+            case MATRIX: return NDArray.of(x.getMatrix());
+            case LIST: return NDArray.from(x.getList(), new int[] { x.getList().size() });
+            default: return NDArray.from(List.of(x), new int[] { 1 });
+        }
+    }
+
     public static void install(Environment env) {
         env.push("mat-mix", new Atom(new Closure() {
             @Override
@@ -31,9 +61,9 @@ public class MatrixLib {
                     throw new Error("Invalid invocation to 'mat-mix'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'mat-mix'", Type.LIST);
-                    List<List<Atom>> rawData = arguments.get(0).getList().get().stream().map(x -> {
+                    List<List<Atom>> rawData = arguments.get(0).getList().stream().map(x -> {
                         x.guardType("Element in argument to 'mat-mix'", Type.LIST);
-                        return x.getList().get();
+                        return x.getList();
                     }).collect(Collectors.toList());
                     return Matrix.from(rawData);
                 }));
@@ -43,11 +73,23 @@ public class MatrixLib {
         env.push("transpose", new Atom(new Closure() {
             @Override
             public Atom apply(Executor env, List<Atom> arguments) {
-                if(arguments.size() != 1)
+                if(arguments.size() != 1 && arguments.size() != 2)
                     throw new Error("Invalid invocation to 'transpose'.");
                 return new Atom(new LbcSupplier<>(() -> {
-                    arguments.get(0).guardType("First argument to 'transpose'", Type.MATRIX);
-                    return arguments.get(0).getMatrix().get().transpose();
+                    if(arguments.size() == 2) {
+                        // axis i of the result is axis perm[i] of the argument.
+                        arguments.get(1).guardType("Second argument to 'transpose'", Type.MATRIX, Type.ARRAY);
+                        int[] perm = axes(arguments.get(0), "First argument to 'transpose'");
+                        int r = perm.length;
+                        int[] p = new int[r];
+                        for(int i = 0; i < r; i++)
+                            p[i] = r - 1 - perm[i];
+                        return array(arguments.get(1)).transpose(p).toAtom();
+                    }
+                    arguments.get(0).guardType("First argument to 'transpose'", Type.MATRIX, Type.ARRAY);
+                    if(arguments.get(0).getType() == Type.ARRAY)
+                        return arguments.get(0).getArray().transpose().toAtom();
+                    return arguments.get(0).getMatrix().transpose();
                 }));
             }
         }));
@@ -63,14 +105,16 @@ public class MatrixLib {
                     arguments.get(2).guardType("Third argument to 'mat-sub'", Type.NUMBER);
                     arguments.get(3).guardType("Fourth argument to 'mat-sub'", Type.NUMBER);
                     arguments.get(4).guardType("Fifth argument to 'mat-sub'", Type.NUMBER);
-                    Matrix m = arguments.get(0).getMatrix().get();
-                    int r0 = arguments.get(1).getNumber().get().intValue();
-                    int c0 = arguments.get(2).getNumber().get().intValue();
-                    int r1 = arguments.get(3).getNumber().get().intValue();
-                    int c1 = arguments.get(4).getNumber().get().intValue();
+                    Matrix m = arguments.get(0).getMatrix();
+                    int r0 = arguments.get(1).getNumber().intValue();
+                    int c0 = arguments.get(2).getNumber().intValue();
+                    int r1 = arguments.get(3).getNumber().intValue();
+                    int c1 = arguments.get(4).getNumber().intValue();
                     if(r1 < r0 || c1 < c0)
                         throw new Error("'mat-sub': submatrix end row/col larger than start row/col.");
-                    return Matrix.of((row, col) -> m.get(r0 + row, c0 + col), r1 - r0 + 1, c1 - c0 + 1);
+                    if(r0 < 0 || c0 < 0 || r1 >= m.getRows() || c1 >= m.getCols())
+                        throw new Error("'mat-sub': submatrix out of the bounds of a " + m.getRows() + "x" + m.getCols() + " matrix.");
+                    return m.sub(r0, c0, r1 - r0 + 1, c1 - c0 + 1);
                 }));
             }
         }));
@@ -83,15 +127,15 @@ public class MatrixLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'mat-blit'", Type.MATRIX);
                     arguments.get(1).guardType("Second argument to 'mat-blit'", Type.MATRIX);
-                    Matrix m1 = arguments.get(0).getMatrix().get();
-                    Matrix m2 = arguments.get(1).getMatrix().get();
+                    Matrix m1 = arguments.get(0).getMatrix();
+                    Matrix m2 = arguments.get(1).getMatrix();
                     int r0, c0;
                     Callable processor;
                     if(arguments.size() == 4) {
                         arguments.get(2).guardType("Third argument to 'mat-blit'", Type.NUMBER);
                         arguments.get(3).guardType("Fourth argument to 'mat-blit'", Type.NUMBER);
-                        r0 = arguments.get(2).getNumber().get().intValue();
-                        c0 = arguments.get(3).getNumber().get().intValue();
+                        r0 = arguments.get(2).getNumber().intValue();
+                        c0 = arguments.get(3).getNumber().intValue();
                         processor = new Closure() {
                             @Override
                             public Atom apply(Executor env, List<Atom> arguments) {
@@ -102,15 +146,15 @@ public class MatrixLib {
                         arguments.get(2).guardType("Third argument to 'mat-blit'", Type.CLOSURE, Type.MACRO);
                         arguments.get(3).guardType("Fourth argument to 'mat-blit'", Type.NUMBER);
                         arguments.get(4).guardType("Fifth argument to 'mat-blit'", Type.NUMBER);
-                        r0 = arguments.get(3).getNumber().get().intValue();
-                        c0 = arguments.get(4).getNumber().get().intValue();
-                        processor = arguments.get(2).getCallable().get();
+                        r0 = arguments.get(3).getNumber().intValue();
+                        c0 = arguments.get(4).getNumber().intValue();
+                        processor = arguments.get(2).getCallable();
                     }
                     return Matrix.of((row, col) -> {
                         if(row >= r0 && row < r0 + m2.getRows() && col >= c0 && col < c0 + m2.getCols())
                             return processor.apply(env, List.of(
-                                    new Atom(new LbcSupplier<>(() -> m1.get(row - r0, col - c0).get().get())),
-                                    new Atom(new LbcSupplier<>(() -> m2.get(row - r0, col - c0).get().get()))));
+                                    new Atom(new LbcSupplier<>(() -> m1.get(row - r0, col - c0))),
+                                    new Atom(new LbcSupplier<>(() -> m2.get(row - r0, col - c0)))));
                         else
                             return m1.get(row, col);
                     }, m1.getRows(), m1.getCols());
@@ -133,11 +177,11 @@ public class MatrixLib {
                     arguments.get(2).guardType("Argument to 'mat-bresenham'", Type.NUMBER);
                     arguments.get(3).guardType("Argument to 'mat-bresenham'", Type.NUMBER);
                     arguments.get(4).guardType("Final argument to 'mat-bresenham'", Type.MATRIX);
-                    x1 = arguments.get(0).getNumber().get().toBigInteger().intValue();
-                    y1 = arguments.get(1).getNumber().get().toBigInteger().intValue();
-                    x2 = arguments.get(2).getNumber().get().toBigInteger().intValue();
-                    y2 = arguments.get(3).getNumber().get().toBigInteger().intValue();
-                    mat = arguments.get(4).getMatrix().get().copy();
+                    x1 = arguments.get(0).getNumber().toBigInteger().intValue();
+                    y1 = arguments.get(1).getNumber().toBigInteger().intValue();
+                    x2 = arguments.get(2).getNumber().toBigInteger().intValue();
+                    y2 = arguments.get(3).getNumber().toBigInteger().intValue();
+                    mat = arguments.get(4).getMatrix().copy();
 
                     int dx = x2 - x1;
                     int dy = y2 - y1;
@@ -167,35 +211,41 @@ public class MatrixLib {
                     if(arguments.size() == 2) {
                         arguments.get(0).guardType("First argument to 'frobenius-prod'", Type.MATRIX);
                         arguments.get(1).guardType("Second argument to 'frobenius-prod'", Type.MATRIX);
-                        Matrix m1 = arguments.get(0).getMatrix().get();
-                        Matrix m2 = arguments.get(1).getMatrix().get();
+                        Matrix m1 = arguments.get(0).getMatrix();
+                        Matrix m2 = arguments.get(1).getMatrix();
                         if (m1.getRows() != m2.getRows() || m1.getCols() != m2.getCols())
                             throw new Error("'frobenius-prod': matrices must have same dimensions.");
+                        DenseMatrix d1 = DenseMatrix.pack(m1), d2 = DenseMatrix.pack(m2);
+                        if (d1 != null && d2 != null) {
+                            Atom r = DenseMatrix.dot(d1, d2);
+                            if (r != null)
+                                return r;
+                        }
                         List<Atom> m1r = m1.ravel().stream().map(x -> {
                             if(x.getType() == Type.COMPLEX)
-                                return new Atom(new LbcSupplier<>(() -> x.getComplex().get().conjugate()));
+                                return new Atom(new LbcSupplier<>(() -> x.getComplex().conjugate()));
                             else if(x.getType() == Type.NUMBER)
                                 return x;
                             else
                                 throw new Error("'frobenius-prod': invalid type in matrix.");
                         }).collect(Collectors.toList()), m2r = m2.ravel();
-                        return Streams.zip(m1r.stream(), m2r.stream(), Product::mul2).reduce(Add::add2).orElse(new Atom(BigDecimal.ZERO)).get().get();
+                        return Streams.zip(m1r.stream(), m2r.stream(), Product::mul2).reduce(Add::add2).orElse(new Atom(BigDecimal.ZERO));
                     } else {
                         arguments.get(0).guardType("First argument to 'frobenius-prod'", Type.MATRIX);
                         arguments.get(1).guardType("Second argument to 'frobenius-prod'", Type.MATRIX);
                         arguments.get(2).guardType("Third argument to 'frobenius-prod'", Type.CLOSURE, Type.MACRO);
                         arguments.get(3).guardType("Fourth argument to 'frobenius-prod'", Type.CLOSURE, Type.MACRO);
                         arguments.get(4).guardType("Fifth argument to 'frobenius-prod'", Type.CLOSURE, Type.MACRO);
-                        Matrix m1 = arguments.get(0).getMatrix().get();
-                        Matrix m2 = arguments.get(1).getMatrix().get();
-                        Callable c = arguments.get(2).getCallable().get();
-                        Callable d = arguments.get(3).getCallable().get();
-                        Callable e = arguments.get(4).getCallable().get();
+                        Matrix m1 = arguments.get(0).getMatrix();
+                        Matrix m2 = arguments.get(1).getMatrix();
+                        Callable c = arguments.get(2).getCallable();
+                        Callable d = arguments.get(3).getCallable();
+                        Callable e = arguments.get(4).getCallable();
                         if (m1.getRows() != m2.getRows() || m1.getCols() != m2.getCols())
                             throw new Error("'frobenius-prod': matrices must have same dimensions.");
                         List<Atom> m1r = m1.ravel().stream().map(x -> e.apply(env, List.of(x))).collect(Collectors.toList()), m2r = m2.ravel();
                         return Streams.zip(m1r.stream(), m2r.stream(), (a, b) -> c.apply(env, List.of(a, b)))
-                                .reduce((a, b) -> d.apply(env, List.of(a, b))).orElse(new Atom(BigDecimal.ZERO)).get().get();
+                                .reduce((a, b) -> d.apply(env, List.of(a, b))).orElse(new Atom(BigDecimal.ZERO)).get();
                     }
                 }));
             }
@@ -209,29 +259,40 @@ public class MatrixLib {
                 if(arguments.size() != 2 && arguments.size() != 3)
                     throw new Error("Invalid invocation to 'take'.");
                 return new Atom(new LbcSupplier<>(() -> {
+                    if(arguments.size() == 2 && arguments.get(0).getType() == Type.LIST)
+                        return array(arguments.get(1)).reshape(axes(arguments.get(0), "First argument to 'take'"), false).toAtom();
                     int rowDim = -1, colDim = -1;
                     Atom x;
                     if(arguments.size() == 2) {
                         arguments.get(0).guardType("First argument to 'take'", Type.NUMBER);
-                        colDim = arguments.get(0).getNumber().get().intValue();
+                        colDim = arguments.get(0).getNumber().intValue();
                         x = arguments.get(1);
                     } else {
                         arguments.get(0).guardType("First argument to 'take'", Type.NUMBER);
                         arguments.get(1).guardType("Second argument to 'take'", Type.NUMBER);
-                        colDim = arguments.get(0).getNumber().get().intValue();
-                        rowDim = arguments.get(1).getNumber().get().intValue();
+                        colDim = arguments.get(0).getNumber().intValue();
+                        rowDim = arguments.get(1).getNumber().intValue();
                         x = arguments.get(2);
                     }
-                    if(x.getType() == Type.MATRIX) {
+                    Generator g = Generator.of(x);
+                    if(g != null && rowDim == -1) {
+                        // the next values, however few are left.
+                        return g.take(colDim);
+                    } else if(x.getType() == Type.MATRIX) {
                         if(rowDim == -1) {
                             // turn a matrix into a list of size N
-                            return x.getMatrix().get().ravel().subList(0, colDim);
+                            return x.getMatrix().ravel().subList(0, colDim);
                         } else {
                             // simply reshape a matrix.
-                            return x.getMatrix().get().reshape(rowDim, colDim, false);
+                            return x.getMatrix().reshape(rowDim, colDim, false);
                         }
+                    } else if(x.getType() == Type.ARRAY) {
+                        if(rowDim == -1)
+                            return x.getArray().ravel().subList(0, colDim);
+                        else
+                            return x.getArray().reshape(new int[] { rowDim, colDim }, false).toAtom();
                     } else if(x.getType() == Type.LIST) {
-                        List<Atom> l = x.getList().get();
+                        List<Atom> l = x.getList();
                         if(rowDim == -1) {
                             // trim/extend a vector with 0 (numeric) or NIL (other).
                             if(colDim >= 0) {
@@ -271,6 +332,10 @@ public class MatrixLib {
         }));
 
         env.push("det", new Atom(new Determinant()));
+        env.push("solve", new Atom(new Solve()));
+        env.push("mat-inv", new Atom(new Inverse()));
+        env.push("lu", new Atom(new LUDecomposition()));
+        env.push("qr", new Atom(new QRDecomposition()));
 
         env.push("reshape", new Atom(new Closure() {
             @Override
@@ -278,31 +343,38 @@ public class MatrixLib {
                 if(arguments.size() != 2 && arguments.size() != 3)
                     throw new Error("Invalid invocation to 'reshape'.");
                 return new Atom(new LbcSupplier<>(() -> {
+                    if(arguments.size() == 2 && arguments.get(0).getType() == Type.LIST)
+                        return array(arguments.get(1)).reshape(axes(arguments.get(0), "First argument to 'reshape'"), true).toAtom();
                     int rowDim = -1, colDim = -1;
                     Atom x;
                     if(arguments.size() == 2) {
                         arguments.get(0).guardType("First argument to 'reshape'", Type.NUMBER);
-                        colDim = arguments.get(0).getNumber().get().intValue();
+                        colDim = arguments.get(0).getNumber().intValue();
                         x = arguments.get(1);
                     } else {
                         arguments.get(0).guardType("First argument to 'reshape'", Type.NUMBER);
                         arguments.get(1).guardType("Second argument to 'reshape'", Type.NUMBER);
-                        colDim = arguments.get(0).getNumber().get().intValue();
-                        rowDim = arguments.get(1).getNumber().get().intValue();
+                        colDim = arguments.get(0).getNumber().intValue();
+                        rowDim = arguments.get(1).getNumber().intValue();
                         x = arguments.get(2);
                     }
                     if(x.getType() == Type.MATRIX) {
                         if(rowDim == -1) {
                             // turn a matrix into a list of size N
-                            return x.getMatrix().get().ravel().subList(0, colDim);
+                            return x.getMatrix().ravel().subList(0, colDim);
                         } else {
                             // simply reshape a matrix.
-                            return x.getMatrix().get().reshape(rowDim, colDim, true);
+                            return x.getMatrix().reshape(rowDim, colDim, true);
                         }
+                    } else if(x.getType() == Type.ARRAY) {
+                        if(rowDim == -1)
+                            return x.getArray().ravel().subList(0, colDim);
+                        else
+                            return x.getArray().reshape(new int[] { rowDim, colDim }, true).toAtom();
                     } else if(x.getType() == Type.LIST) {
                         if(rowDim == -1) {
                             // trim/extend a vector with 0 (numeric) or NIL (other).
-                            List<Atom> l = x.getList().get();
+                            List<Atom> l = x.getList();
                             if(colDim < l.size())
                                 return l.subList(0, colDim);
                             else {
@@ -310,7 +382,7 @@ public class MatrixLib {
                             }
                         } else {
                             // reshape a list into a matrix using matrix reshape.
-                            List<Atom> l = x.getList().get();
+                            List<Atom> l = x.getList();
                             return Matrix.from(Streams.stream(Iterables.cycle(l)).limit(colDim * rowDim).collect(Collectors.toList()), rowDim, colDim);
                         }
                     } else {
@@ -336,22 +408,52 @@ public class MatrixLib {
                     throw new Error("Invalid invocation to 'mat-conjtran'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'mat-conjtran'", Type.MATRIX);
-                    if(!arguments.get(0).getMatrix().get().isNumeric())
+                    if(!arguments.get(0).getMatrix().isNumeric())
                         throw new Error("Argument to 'mat-conjtran' must be numeric.");
-                    return arguments.get(0).getMatrix().get().transmogrifyRank0(a -> Add.add1(a)).transpose();
+                    return arguments.get(0).getMatrix().transmogrifyRank0(a -> Add.add1(a)).transpose();
                 }));
             }
         }));
 
         env.push("mat-id", new Atom(new Identity()));
 
+        env.push("mat-sparse", new Atom(new Sparse()));
+
+        env.push("mat-dense", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 1)
+                    throw new Error("Invalid invocation to 'mat-dense'.");
+                return new Atom(new LbcSupplier<>(() -> {
+                    arguments.get(0).guardType("Argument to 'mat-dense'", Type.MATRIX);
+                    Matrix m = arguments.get(0).getMatrix();
+                    return m instanceof SparseMatrix ? ((SparseMatrix) m).dense() : m;
+                }));
+            }
+        }));
+
+        env.push("mat-nnz", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 1)
+                    throw new Error("Invalid invocation to 'mat-nnz'.");
+                return new Atom(new LbcSupplier<>(() -> {
+                    arguments.get(0).guardType("Argument to 'mat-nnz'", Type.MATRIX);
+                    Matrix m = arguments.get(0).getMatrix();
+                    if(m instanceof SparseMatrix)
+                        return (long) ((SparseMatrix) m).nonzeros();
+                    return m.ravel().stream().filter(x -> x.getType() != Type.NUMBER || x.getNumber().signum() != 0).count();
+                }));
+            }
+        }));
+
         env.push("faddeev-leverrier", new Atom(new Closure() {
             private BigDecimal getC(int idx, Matrix A, Matrix M, Executor env) {
                 // c_idx = -trace(A * M_idx) / idx
                 return Quotient.div2(env.env,
-                                Subtract.sub1(Trace.trace(Product.mul2(new Atom(A), new Atom(M)).getMatrix().get(), env)),
+                                Subtract.sub1(Trace.trace(Product.mul2(new Atom(A), new Atom(M)).getMatrix(), env)),
                                 new Atom(new BigDecimal(idx)))
-                        .getNumber().get();
+                        .getNumber();
             }
 
             @Override
@@ -360,7 +462,7 @@ public class MatrixLib {
                     throw new Error("Invalid invocation to 'faddeev-leverrier'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'faddeev-leverrier'", Type.MATRIX);
-                    Matrix m = arguments.get(0).getMatrix().get();
+                    Matrix m = arguments.get(0).getMatrix();
                     if(!m.isNumeric())
                         throw new Error("Argument to 'faddeev-leverrier' must be numeric.");
                     if(m.getRows() != m.getCols())
@@ -376,12 +478,15 @@ public class MatrixLib {
                     for(int i = 1; i <= m.getRows(); i++) {
                         // M_k = A * M_k-1 + c_n+k-1 * I
                         Atom cA = new Atom(c);
-                        M = Add.add2(Product.mul2(arguments.get(0), new Atom(M)), Product.mul2(cA, id)).getMatrix().get();
+                        M = Add.add2(Product.mul2(arguments.get(0), new Atom(M)), Product.mul2(cA, id)).getMatrix();
                         cs.add(cA);
-                        c = getC(i, m, M, env);
+                        if(i < m.getRows())
+                            c = getC(i, m, M, env);
                     }
 
-                    cs.add(new Atom(c));
+                    // c_0 = (-1)^n * det(A), found exactly by elimination.
+                    Atom det = Determinant.det(m);
+                    cs.add(m.getRows() % 2 == 0 ? det : Subtract.sub1(det));
 
                     return cs;
                 }));
@@ -395,14 +500,32 @@ public class MatrixLib {
                     throw new Error("Invalid invocation to 'rank0'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'rank0'", Type.CLOSURE);
-                    arguments.get(1).guardType("Argument to 'rank0'", Type.MATRIX);
-                    Closure c = arguments.get(0).getClosure().get();
-                    Matrix m = arguments.get(1).getMatrix().get();
+                    arguments.get(1).guardType("Argument to 'rank0'", Type.MATRIX, Type.ARRAY);
+                    Closure c = arguments.get(0).getClosure();
+                    if(arguments.get(1).getType() == Type.ARRAY)
+                        return arguments.get(1).getArray().map(f -> c.apply(env, List.of(f)));
+                    Matrix m = arguments.get(1).getMatrix();
                     return m.transmogrifyRank0(f -> c.apply(env, List.of(f)));
                 }));
             }
         }));
 
+        env.push("shape", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 1)
+                    throw new Error("Invalid invocation to 'shape'.");
+                return new Atom(new LbcSupplier<>(() -> {
+                    arguments.get(0).guardType("Argument to 'shape'", Type.LIST, Type.MATRIX, Type.ARRAY);
+                    int[] shape = array(arguments.get(0)).shape();
+                    List<Atom> r = new ArrayList<>(shape.length);
+                    for(int i = shape.length - 1; i >= 0; i--)
+                        r.add(new Atom((long) shape[i]));
+                    return r;
+                }));
+            }
+        }));
+
         env.push("diag", new Atom(new Closure() {
             @Override
             public Atom apply(Executor env, List<Atom> arguments) {
@@ -410,8 +533,8 @@ public class MatrixLib {
                     throw new Error("Invalid invocation to 'diag'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'diag'", Type.LIST);
-                    List<Atom> l = arguments.get(0).getList().get();
-                    return Matrix.of((x, y) -> x == y ? l.get(x) : new Atom(BigDecimal.ZERO), l.size(), l.size());
+                    List<Atom> l = arguments.get(0).getList();
+                    return Matrix.of((x, y) -> x.equals(y) ? l.get(x) : new Atom(BigDecimal.ZERO), l.size(), l.size());
                 }));
             }
         }));
@@ -0,0 +1,406 @@
+package kamilalisp.libs;
+
+import kamilalisp.data.*;
+import kamilalisp.libs.primitives.list.Kernels;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ParallelLib {
+    private static final Symbol PARALLELISM = Symbol.of("parallelism");
+    private static final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+
+    // The pool with as many workers as `parallelism` says.
+    public static ForkJoinPool pool(Environment env) {
+        Atom p = env.get(PARALLELISM);
+        p.guardType("'parallelism'", Type.NUMBER);
+        int n = p.getNumber().intValue();
+        if(n < 1)
+            throw new Error("'parallelism' must be at least 1, got " + n + ".");
+        return pools.computeIfAbsent(n, ForkJoinPool::new);
+    }
+
+    // The smallest range worth a task of its own: a few per worker, so that
+    // those done early can steal from the others.
+    private static int grain(ForkJoinPool pool, int n) {
+        return Math.max(1, n / (pool.getParallelism() * 4));
+    }
+
+    // Runs `task` in `pool`, rethrowing what it threw as it was thrown and not
+    // wrapped into another throwable of the same class.
+    public static <T> T invoke(ForkJoinPool pool, RecursiveTask<T> task) {
+        try {
+            return pool.invoke(task);
+        } catch(RuntimeException | Error e) {
+            Throwable cause = e.getCause();
+            if(cause != null && cause.getClass() == e.getClass()) {
+                if(cause instanceof Error)
+                    throw (Error) cause;
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    // `f` on the positions from `lo` up to `hi`. The range is halved while
+    // it's larger than `grain` and the worker hasn't got spare tasks queued
+    // already, so chunks grow when the others are busy anyway.
+    private static final class Chunk extends RecursiveTask<Void> {
+        private static final long serialVersionUID = 1L;
+        private final int lo, hi, grain;
+        private final IntConsumer f;
+
+        Chunk(int lo, int hi, int grain, IntConsumer f) {
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+            this.f = f;
+        }
+
+        @Override
+        protected Void compute() {
+            if(hi - lo > grain && getSurplusQueuedTaskCount() <= 2) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Chunk(lo, mid, grain, f), new Chunk(mid, hi, grain, f));
+            } else {
+                for(int i = lo; i < hi; i++)
+                    f.accept(i);
+            }
+            return null;
+        }
+    }
+
+    public static void forEach(ForkJoinPool pool, int n, IntConsumer f) {
+        if(n > 0)
+            invoke(pool, new Chunk(0, n, grain(pool, n), f));
+    }
+
+    // `f` folded over each chunk from `identity` on, and the chunks' results
+    // folded pairwise, which is `foldl'` for an associative `f`.
+    private static final class Fold extends RecursiveTask<Atom> {
+        private static final long serialVersionUID = 1L;
+        private final Executor env;
+        private final Callable f;
+        private final Atom identity;
+        private final List<Atom> data;
+        private final int grain;
+
+        Fold(Executor env, Callable f, Atom identity, List<Atom> data, int grain) {
+            this.env = env;
+            this.f = f;
+            this.identity = identity;
+            this.data = data;
+            this.grain = grain;
+        }
+
+        @Override
+        protected Atom compute() {
+            int n = data.size();
+            if(n > grain && getSurplusQueuedTaskCount() <= 2) {
+                Fold left = new Fold(env, f, identity, data.subList(0, n / 2), grain);
+                left.fork();
+                Atom right = new Fold(env, f, identity, data.subList(n / 2, n), grain).compute();
+                return f.apply(env, Arrays.asList(left.join(), right)).eager();
+            }
+            Atom packed = Kernels.foldl(f, identity, data);
+            if(packed != null)
+                return packed;
+            Atom acc = identity;
+            for(Atom x : data)
+                acc = f.apply(env, Arrays.asList(acc, x.eager())).eager();
+            return acc;
+        }
+    }
+
+    // Futures may block, on input or on each other, so each gets a thread.
+    private static final ExecutorService futures = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "future");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Forces `a`, and the elements of lists in it, so that the work is done
+    // by the thread computing it.
+    public static Atom force(Atom a) {
+        if(a.eager().getType() == Type.LIST)
+            for(Atom x : a.getList())
+                force(x);
+        return a;
+    }
+
+    // A value computed on a thread of its own. Calling it waits for the value,
+    // like `await`. Cancelling it interrupts the thread, which stops at the
+    // next lambda call.
+    private static final class Promise extends FutureTask<Atom> implements Closure {
+        private final List<BlockingQueue<Promise>> waiting = new CopyOnWriteArrayList<>();
+
+        Promise(Executor env, Atom expr) {
+            super(() -> force(env.evaluate(expr)));
+        }
+
+        // `q` is given this promise once it's done.
+        void notify(BlockingQueue<Promise> q) {
+            waiting.add(q);
+            if(isDone() && waiting.remove(q))
+                q.add(this);
+        }
+
+        @Override
+        protected void done() {
+            for(BlockingQueue<Promise> q : waiting)
+                if(waiting.remove(q))
+                    q.add(this);
+        }
+
+        Atom await() {
+            try {
+                return get();
+            } catch(ExecutionException e) {
+                if(e.getCause() instanceof Error)
+                    throw (Error) e.getCause();
+                if(e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                throw new Error(e.getCause());
+            } catch(CancellationException e) {
+                throw new Error("Awaiting a cancelled future.");
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new Error("Interrupted while awaiting a future.");
+            }
+        }
+
+        @Override
+        public Atom apply(Executor env, List<Atom> arguments) {
+            if(!arguments.isEmpty())
+                throw new Error("Invalid invocation to a future.");
+            return new Atom(new LbcSupplier<>(this::await));
+        }
+
+        @Override
+        public String representation() {
+            return isDone() ? "future/done" : "future/pending";
+        }
+    }
+
+    private static List<Promise> promises(List<Atom> arguments, String cause) {
+        return arguments.stream().map(x -> {
+            x.guardType(cause, Type.CLOSURE);
+            if(!(x.getClosure() instanceof Promise))
+                throw new Error(cause + ": expected a future.");
+            return (Promise) x.getClosure();
+        }).collect(Collectors.toList());
+    }
+
+    // Waits for the promises as they complete, until `stop` says the one just
+    // done settles the result. Those still running then are cancelled, so no
+    // future outlives the call that waited for it.
+    private static Promise join(List<Promise> ps, Predicate<Promise> stop) {
+        BlockingQueue<Promise> q = new LinkedBlockingQueue<>();
+        ps.forEach(p -> p.notify(q));
+        try {
+            for(int i = 0; i < ps.size(); i++) {
+                Promise p = q.take();
+                if(stop.test(p))
+                    return p;
+            }
+            return null;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Error("Interrupted while awaiting a future.");
+        } finally {
+            ps.forEach(p -> p.cancel(true));
+        }
+    }
+
+    private static boolean failed(Promise p) {
+        try {
+            p.await();
+            return false;
+        } catch(RuntimeException | Error e) {
+            return true;
+        }
+    }
+
+    public static void install(Environment env) {
+        env.push(PARALLELISM, new Atom(new BigDecimal(Runtime.getRuntime().availableProcessors())));
+
+        env.push("pmap", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() < 2)
+                    throw new Error("Invalid invocation to 'pmap'.");
+                return new Atom(new LbcSupplier<>(() -> {
+                    arguments.get(0).guardType("First argument to 'pmap'", Type.CLOSURE, Type.MACRO);
+                    Callable f = arguments.get(0).getCallable();
+                    List<List<Atom>> sl = arguments.subList(1, arguments.size()).stream().map(x -> {
+                        x.guardType("Arguments to 'pmap'", Type.LIST);
+                        return x.getList();
+                    }).collect(Collectors.toList());
+                    int n = sl.stream().mapToInt(List::size).min().getAsInt();
+                    Atom[] result = new Atom[n];
+                    forEach(pool(env.env), n, i -> result[i] = f.apply(env, sl.stream().map(x -> x.get(i)).collect(Collectors.toList())).eager());
+                    return new ArrayList<>(Arrays.asList(result));
+                }));
+            }
+        }));
+
+        env.push("pfilter", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 2)
+                    throw new Error("Invalid invocation to 'pfilter'.");
+                return new Atom(new LbcSupplier<>(() -> {
+                    arguments.get(0).guardType("First argument to 'pfilter'", Type.CLOSURE, Type.MACRO);
+                    arguments.get(1).guardType("Second argument to 'pfilter'", Type.LIST);
+                    Callable f = arguments.get(0).getCallable();
+                    List<Atom> data = arguments.get(1).getList();
+                    boolean[] keep = new boolean[data.size()];
+                    forEach(pool(env.env), data.size(), i -> keep[i] = f.apply(env, List.of(data.get(i))).coerceBool());
+                    return IntStream.range(0, data.size()).filter(i -> keep[i]).mapToObj(data::get).collect(Collectors.toList());
+                }));
+            }
+        }));
+
+        // the initial element must be an identity of the function, as each
+        // chunk is folded from it.
+        env.push("preduce", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 3)
+                    throw new Error("Invalid invocation to 'preduce'.");
+                return new Atom(new LbcSupplier<>(() -> {
+                    arguments.get(0).guardType("First argument to 'preduce'", Type.CLOSURE, Type.MACRO);
+                    arguments.get(2).guardType("Third argument to 'preduce'", Type.LIST);
+                    List<Atom> data = arguments.get(2).getList();
+                    Atom identity = arguments.get(1).eager();
+                    if(data.isEmpty())
+                        return identity;
+                    ForkJoinPool pool = pool(env.env);
+                    return invoke(pool, new Fold(env, arguments.get(0).getCallable(), identity, data, grain(pool, data.size())));
+                }));
+            }
+        }));
+
+        // like `fork`, with the children applied to the arguments at once.
+        env.push("pfork", new Atom(new Macro() {
+            @Override
+            public Atom apply(Executor env, List<Atom> tmp) {
+                if(tmp.size() < 2)
+                    throw new Error("Invalid invocation to 'pfork'.");
+                return new Atom(new Closure() {
+                    @Override
+                    public Atom apply(Executor innerEnv, List<Atom> arguments) {
+                        return new Atom(new LbcSupplier<>(() -> {
+                            Atom first = env.evaluate(tmp.get(0));
+                            first.guardType("pfork head", Type.CLOSURE, Type.MACRO);
+                            List<Callable> children = tmp.subList(1, tmp.size()).stream().map(x -> {
+                                Atom a = env.evaluate(x);
+                                a.guardType("pfork child", Type.CLOSURE, Type.MACRO);
+                                return a.getCallable();
+                            }).collect(Collectors.toList());
+                            Atom[] forkData = new Atom[children.size()];
+                            forEach(pool(innerEnv.env), forkData.length, i -> forkData[i] = force(children.get(i).apply(innerEnv, arguments)));
+                            return first.getCallable().apply(innerEnv, Arrays.asList(forkData));
+                        }));
+                    }
+                });
+            }
+        }));
+
+        // `yield` hands values over from any call made by `expr`, which the
+        // generator runs as far as the next `yield` whenever it's pulled from.
+        env.push("generator", new Atom(new Macro() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 1)
+                    throw new Error("Invalid invocation to 'generator'.");
+                return new Atom(Generator.produce(() -> force(env.evaluate(arguments.get(0)))));
+            }
+        }));
+
+        env.push("yield", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 1)
+                    throw new Error("Invalid invocation to 'yield'.");
+                Atom a = force(arguments.get(0));
+                Generator.yield(a);
+                return a;
+            }
+        }));
+
+        env.push("future", new Atom(new Macro() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 1)
+                    throw new Error("Invalid invocation to 'future'.");
+                Promise p = new Promise(env, arguments.get(0));
+                futures.execute(p);
+                return new Atom(p);
+            }
+        }));
+
+        env.push("await", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.size() != 1)
+                    throw new Error("Invalid invocation to 'await'.");
+                return new Atom(new LbcSupplier<>(() -> promises(arguments, "Argument to 'await'").get(0).await()));
+            }
+        }));
+
+        // the values of all the futures, or the first error raised by one of
+        // them, once the others are cancelled.
+        env.push("await-all", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                return new Atom(new LbcSupplier<>(() -> {
+                    List<Promise> ps = promises(arguments, "Arguments to 'await-all'");
+                    Promise p = join(ps, ParallelLib::failed);
+                    if(p != null)
+                        p.await();
+                    return ps.stream().map(Promise::await).collect(Collectors.toList());
+                }));
+            }
+        }));
+
+        // the value of the first future to succeed, the others being
+        // cancelled, or the error of the last one to fail.
+        env.push("await-any", new Atom(new Closure() {
+            @Override
+            public Atom apply(Executor env, List<Atom> arguments) {
+                if(arguments.isEmpty())
+                    throw new Error("Invalid invocation to 'await-any'.");
+                return new Atom(new LbcSupplier<>(() -> {
+                    List<Promise> ps = promises(arguments, "Arguments to 'await-any'");
+                    List<Promise> failures = new ArrayList<>();
+                    Promise p = join(ps, x -> {
+                        if(!failed(x))
+                            return true;
+                        failures.add(x);
+                        return false;
+                    });
+                    return p != null ? p.await() : failures.get(failures.size() - 1).await();
+                }));
+            }
+        }));
+    }
+}
@@ -20,13 +20,13 @@ public class RegexLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'regex-match'", Type.STRING_CONSTANT);
                     arguments.get(1).guardType("Second argument to 'regex-match'", Type.STRING_CONSTANT);
-                    String pattern = arguments.get(0).getStringConstant().get().get();
-                    String input = arguments.get(1).getStringConstant().get().get();
+                    String pattern = arguments.get(0).getStringConstant().get();
+                    String input = arguments.get(1).getStringConstant().get();
                     Pattern p = Pattern.compile(pattern);
                     Matcher reader = p.matcher(input);
                     if(arguments.size() == 3) {
                         arguments.get(2).guardType("Third argument to 'regex-match'", Type.CLOSURE, Type.MACRO);
-                        Callable c = arguments.get(2).getCallable().get();
+                        Callable c = arguments.get(2).getCallable();
                         // Preprocess the results with a closure.
                         List<Atom> results = new ArrayList<>();
                         while(reader.find()) {
@@ -56,15 +56,15 @@ public class RegexLib {
                     arguments.get(0).guardType("First argument to 'regex-replace'", Type.STRING_CONSTANT);
                     arguments.get(1).guardType("Second argument to 'regex-replace'", Type.STRING_CONSTANT, Type.MACRO, Type.CLOSURE);
                     arguments.get(2).guardType("Second argument to 'regex-replace'", Type.STRING_CONSTANT);
-                    String pattern = arguments.get(0).getStringConstant().get().get();
-                    String input = arguments.get(2).getStringConstant().get().get();
+                    String pattern = arguments.get(0).getStringConstant().get();
+                    String input = arguments.get(2).getStringConstant().get();
                     if(arguments.get(1).getType() == Type.STRING_CONSTANT) {
-                        String replacement = arguments.get(1).getStringConstant().get().get();
+                        String replacement = arguments.get(1).getStringConstant().get();
                         return new StringConstant(input.replaceAll(pattern, replacement));
                     } else {
                         Pattern p = Pattern.compile(pattern);
                         Matcher reader = p.matcher(input);
-                        Callable c = arguments.get(1).getCallable().get();
+                        Callable c = arguments.get(1).getCallable();
                         // Preprocess the results with a closure.
                         StringBuffer out = new StringBuffer();
                         while (reader.find()) {
@@ -74,7 +74,7 @@ public class RegexLib {
                             Atom application = c.apply(env, List.of(new Atom(new BigDecimal(reader.start())), new Atom(new BigDecimal(reader.end())), new Atom(args)));
                             String r;
                             if(application.getType() == Type.STRING_CONSTANT)
-                                r = application.getStringConstant().get().get();
+                                r = application.getStringConstant().get();
                             else
                                 r = application.toString();
                             reader.appendReplacement(out, r);
@@ -94,8 +94,8 @@ public class RegexLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'regex-split'", Type.STRING_CONSTANT);
                     arguments.get(1).guardType("Second argument to 'regex-split'", Type.STRING_CONSTANT);
-                    String pattern = arguments.get(0).getStringConstant().get().get();
-                    String input = arguments.get(1).getStringConstant().get().get();
+                    String pattern = arguments.get(0).getStringConstant().get();
+                    String input = arguments.get(1).getStringConstant().get();
                     return Arrays.stream(input.split(pattern)).map(x -> new Atom(new StringConstant(x))).collect(Collectors.toList());
                 }));
             }
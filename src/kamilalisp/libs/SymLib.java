@@ -27,9 +27,9 @@ public class SymLib {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'nabla'", Type.LIST);
                     arguments.get(1).guardType("Second argument to 'nabla'", Type.CLOSURE);
-                    List<Atom> variables = arguments.get(0).getList().get();
+                    List<Atom> variables = arguments.get(0).getList();
                     // Differentiate arg1 with respect to `variables'.
-                    List<Atom> fns = variables.stream().map(x -> derivativeEngine.deriv(env, arguments.get(1).getClosure().get(), x.getString().get())).collect(Collectors.toList());
+                    List<Atom> fns = variables.stream().map(x -> derivativeEngine.deriv(env, arguments.get(1).getClosure(), x.getSymbol())).collect(Collectors.toList());
                     return new Closure() {
                         @Override
                         public String representation() {
@@ -41,7 +41,7 @@ public class SymLib {
                             if(arguments.size() != variables.size())
                                 throw new Error("Invalid invocation to 'nabla' gradient vector function.");
                             return new Atom(new LbcSupplier<>(() ->
-                                fns.stream().map(x -> x.getClosure().get().apply(env, arguments)).collect(Collectors.toList())
+                                fns.stream().map(x -> x.getClosure().apply(env, arguments)).collect(Collectors.toList())
                             ));
                         }
                     };
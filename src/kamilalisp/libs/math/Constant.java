@@ -8,10 +8,25 @@ import java.math.BigInteger;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.function.DoubleUnaryOperator;
 
 public class Constant {
+    private static final Symbol FR = Symbol.of("fr");
+
     public static MathContext getFr(Environment env) {
-        return new MathContext(env.get("fr").getNumber().get().intValue(), RoundingMode.HALF_EVEN);
+        return new MathContext(env.get(FR).getNumber().intValue(), RoundingMode.HALF_EVEN);
+    }
+
+    // Whether `fr` is low enough to compute with doubles; see `Flonum`. An
+    // `fr` of 0 means exact results.
+    public static boolean isFlonum(Environment env) {
+        int fr = env.get(FR).getNumber().intValue();
+        return 0 < fr && fr <= Flonum.DIGITS;
+    }
+
+    // `f` applied to a number when computing with doubles, null otherwise.
+    public static Double flonum(Environment env, Atom a, DoubleUnaryOperator f) {
+        return isFlonum(env) ? Flonum.apply(a, f) : null;
     }
 
     public static void install(Environment env) {
@@ -23,7 +38,7 @@ public class Constant {
                 else
                     return new Atom(new LbcSupplier<>(() -> {
                         arguments.get(0).guardType("Argument to 'pi'", Type.NUMBER);
-                        return BigDecimalMath.pi(new MathContext(arguments.get(0).getNumber().get().intValue()));
+                        return BigDecimalMath.pi(new MathContext(arguments.get(0).getNumber().intValue()));
                     }));
             }
         }));
@@ -36,7 +51,7 @@ public class Constant {
                 else
                     return new Atom(new LbcSupplier<>(() -> {
                         arguments.get(0).guardType("Argument to 'e'", Type.NUMBER);
-                        return BigDecimalMath.e(new MathContext(arguments.get(0).getNumber().get().intValue()));
+                        return BigDecimalMath.e(new MathContext(arguments.get(0).getNumber().intValue()));
                     }));
             }
         }));
@@ -53,7 +68,7 @@ public class Constant {
                 else
                     return new Atom(new LbcSupplier<>(() -> {
                         arguments.get(0).guardType("Argument to 'golden-ratio'", Type.NUMBER);
-                        return goldenRatio(new MathContext(arguments.get(0).getNumber().get().intValue()));
+                        return goldenRatio(new MathContext(arguments.get(0).getNumber().intValue()));
                     }));
             }
         }));
@@ -66,7 +81,7 @@ public class Constant {
                 else
                     return new Atom(new LbcSupplier<>(() -> {
                         arguments.get(0).guardType("Argument to 'euler-gamma'", Type.NUMBER);
-                        return kamilalisp.libs.math.bigop.BigDecimalMath.gamma(new MathContext(arguments.get(0).getNumber().get().intValue()));
+                        return kamilalisp.libs.math.bigop.BigDecimalMath.gamma(new MathContext(arguments.get(0).getNumber().intValue()));
                     }));
             }
         }));
@@ -24,7 +24,7 @@ public class LambertW {
                     throw new Error("Invalid invocation to 'lambert-w'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'lambert-w'", Type.NUMBER);
-                    BigDecimal x = arguments.get(0).getNumber().get();
+                    BigDecimal x = arguments.get(0).getNumber();
                     if(x.compareTo(new BigDecimal("-0.36787944118")) == -1)
                         throw new Error("'lambert-w' domain error: x < -1/e");
                     BigDecimal w;
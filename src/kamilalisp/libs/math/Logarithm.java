@@ -18,10 +18,13 @@ public class Logarithm {
                     return new Atom(new LbcSupplier<>(() -> {
                         arguments.get(0).guardType("First argument to 'log'.", Type.NUMBER, Type.COMPLEX);
                         if(arguments.get(0).getType() == Type.NUMBER) {
-                            return BigDecimalMath.log10(arguments.get(0).getNumber().get(), Constant.getFr(env.env));
+                            Double d = Constant.flonum(env.env, arguments.get(0), Math::log10);
+                            if(d != null)
+                                return d;
+                            return BigDecimalMath.log10(arguments.get(0).getNumber(), Constant.getFr(env.env));
                         } else {
                             BigComplex log10 = BigComplexMath.log(BigComplex.valueOf(new BigDecimal(10), new BigDecimal(0)), Constant.getFr(env.env));
-                            return BigComplexMath.log(arguments.get(0).getComplex().get(), Constant.getFr(env.env)).divide(log10, Constant.getFr(env.env));
+                            return BigComplexMath.log(arguments.get(0).getComplex(), Constant.getFr(env.env)).divide(log10, Constant.getFr(env.env));
                         }
                     }));
                 else if(arguments.size() == 2)
@@ -29,20 +32,25 @@ public class Logarithm {
                         arguments.get(0).guardType("First argument to 'log'.", Type.NUMBER, Type.COMPLEX);
                         arguments.get(1).guardType("Second argument to 'log'.", Type.NUMBER, Type.COMPLEX);
                         if(arguments.get(0).getType() == Type.NUMBER && arguments.get(1).getType() == Type.NUMBER) {
-                            return BigDecimalMath.log(arguments.get(1).getNumber().get(), Constant.getFr(env.env))
-                                    .divide(BigDecimalMath.log(arguments.get(0).getNumber().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                            if(Constant.isFlonum(env.env)) {
+                                Double d = Flonum.apply(arguments.get(1), arguments.get(0), (x, y) -> Math.log(x) / Math.log(y));
+                                if(d != null)
+                                    return d;
+                            }
+                            return BigDecimalMath.log(arguments.get(1).getNumber(), Constant.getFr(env.env))
+                                    .divide(BigDecimalMath.log(arguments.get(0).getNumber(), Constant.getFr(env.env)), Constant.getFr(env.env));
                         } else {
                             BigComplex arg1;
                             if(arguments.get(0).getType() == Type.NUMBER)
-                                arg1 = BigComplex.valueOf(BigDecimalMath.log(arguments.get(0).getNumber().get(), Constant.getFr(env.env)), new BigDecimal(0));
+                                arg1 = BigComplex.valueOf(BigDecimalMath.log(arguments.get(0).getNumber(), Constant.getFr(env.env)), new BigDecimal(0));
                             else
-                                arg1 = BigComplexMath.log(arguments.get(0).getComplex().get(), Constant.getFr(env.env));
+                                arg1 = BigComplexMath.log(arguments.get(0).getComplex(), Constant.getFr(env.env));
 
                             BigComplex arg2;
                             if(arguments.get(1).getType() == Type.NUMBER)
-                                arg2 = BigComplex.valueOf(BigDecimalMath.log(arguments.get(1).getNumber().get(), Constant.getFr(env.env)), new BigDecimal(0));
+                                arg2 = BigComplex.valueOf(BigDecimalMath.log(arguments.get(1).getNumber(), Constant.getFr(env.env)), new BigDecimal(0));
                             else
-                                arg2 = BigComplexMath.log(arguments.get(1).getComplex().get(), Constant.getFr(env.env));
+                                arg2 = BigComplexMath.log(arguments.get(1).getComplex(), Constant.getFr(env.env));
 
                             return arg1.divide(arg2, Constant.getFr(env.env));
                         }
@@ -60,9 +68,12 @@ public class Logarithm {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'log'.", Type.NUMBER, Type.COMPLEX);
                     if(arguments.get(0).getType() == Type.NUMBER) {
-                        return BigDecimalMath.log2(arguments.get(0).getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, arguments.get(0), x -> Math.log(x) / Math.log(2));
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.log2(arguments.get(0).getNumber(), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.log(arguments.get(0).getComplex().get(), Constant.getFr(env.env))
+                        return BigComplexMath.log(arguments.get(0).getComplex(), Constant.getFr(env.env))
                                 .divide(BigComplexMath.log(BigComplex.valueOf(new BigDecimal(2), new BigDecimal(0)),
                                         Constant.getFr(env.env)), Constant.getFr(env.env));
                     }
@@ -78,12 +89,15 @@ public class Logarithm {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'ln'.", Type.NUMBER, Type.COMPLEX);
                     if(arguments.get(0).getType() == Type.NUMBER) {
-                        if(arguments.get(0).getNumber().get().compareTo(BigDecimal.ZERO) > 0)
-                            return BigDecimalMath.log(arguments.get(0).getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, arguments.get(0), Math::log);
+                        if(d != null)
+                            return d;
+                        if(arguments.get(0).getNumber().compareTo(BigDecimal.ZERO) > 0)
+                            return BigDecimalMath.log(arguments.get(0).getNumber(), Constant.getFr(env.env));
                         else
-                            return BigComplexMath.log(BigComplex.valueOf(arguments.get(0).getNumber().get(), new BigDecimal(0)), Constant.getFr(env.env));
+                            return BigComplexMath.log(BigComplex.valueOf(arguments.get(0).getNumber(), new BigDecimal(0)), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.log(arguments.get(0).getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.log(arguments.get(0).getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -15,7 +15,7 @@ public class MobiusMu {
                     throw new Error("Invalid invocation to 'mobius-mu'.");
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("Argument to 'mobius-mu'", Type.NUMBER);
-                    BigInteger n = arguments.get(0).getNumber().get().toBigInteger();
+                    BigInteger n = arguments.get(0).getNumber().toBigInteger();
                     if(n.compareTo(BigInteger.ONE) <= 0)
                         return n.compareTo(BigInteger.ONE) == 0 ? BigDecimal.ONE : BigDecimal.ZERO;
                     if(n.compareTo(BigInteger.valueOf(49)) >= 0) {
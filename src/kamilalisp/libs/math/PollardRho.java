@@ -55,9 +55,9 @@ public class PollardRho {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'p-factors'", Type.NUMBER);
                     PollardRho p = new PollardRho();
-                    if(arguments.get(0).getNumber().get().compareTo(BigDecimal.ZERO) == 0)
+                    if(arguments.get(0).getNumber().compareTo(BigDecimal.ZERO) == 0)
                         throw new Error("'p-factors' - can't factor 0.");
-                    p.factor(arguments.get(0).getNumber().get().toBigInteger());
+                    p.factor(arguments.get(0).getNumber().toBigInteger());
                     return p.getFactors().stream().map(x -> new Atom(new BigDecimal(x))).collect(Collectors.toList());
                 }));
             }
@@ -71,13 +71,13 @@ public class PollardRho {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'p-ufactors'", Type.NUMBER);
                     PollardRho p = new PollardRho();
-                    if(arguments.get(0).getNumber().get().compareTo(BigDecimal.ZERO) == 0)
+                    if(arguments.get(0).getNumber().compareTo(BigDecimal.ZERO) == 0)
                         throw new Error("'p-ufactors' - can't factor 0.");
-                    p.factor(arguments.get(0).getNumber().get().toBigInteger());
+                    p.factor(arguments.get(0).getNumber().toBigInteger());
                     List<Atom> factors = p.getFactors().stream().map(x -> new Atom(new BigDecimal(x))).collect(Collectors.toList());
                     HashMap<Atom, Long> map = new HashMap<>();
                     for(Atom a : factors) {
-                        if(map.containsKey(a.getNumber().get()))
+                        if(map.containsKey(a.getNumber()))
                             map.put(a, map.get(a) + 1);
                         else
                             map.put(a, 1L);
@@ -95,7 +95,7 @@ public class PollardRho {
                 }
                 for(int i = 0; i <= map.get(map.keySet().toArray()[curIndex]); i++) {
                     genDivisors(curIndex + 1, curDivisor, map, factors);
-                    curDivisor = curDivisor.multiply(((Atom) map.keySet().toArray()[curIndex]).getNumber().get().toBigInteger());
+                    curDivisor = curDivisor.multiply(((Atom) map.keySet().toArray()[curIndex]).getNumber().toBigInteger());
                 }
             }
 
@@ -106,13 +106,13 @@ public class PollardRho {
                 return new Atom(new LbcSupplier<>(() -> {
                     arguments.get(0).guardType("First argument to 'divisors'", Type.NUMBER);
                     PollardRho p = new PollardRho();
-                    if(arguments.get(0).getNumber().get().compareTo(BigDecimal.ZERO) == 0)
+                    if(arguments.get(0).getNumber().compareTo(BigDecimal.ZERO) == 0)
                         throw new Error("'divisors' - can't factor 0.");
-                    p.factor(arguments.get(0).getNumber().get().toBigInteger());
+                    p.factor(arguments.get(0).getNumber().toBigInteger());
                     List<Atom> factors = p.getFactors().stream().map(x -> new Atom(new BigDecimal(x))).collect(Collectors.toList());
                     LinkedHashMap<Atom, Long> map = new LinkedHashMap<>();
                     for(Atom a : factors) {
-                        if(map.containsKey(a.getNumber().get()))
+                        if(map.containsKey(a.getNumber()))
                             map.put(a, map.get(a) + 1);
                         else
                             map.put(a, 1L);
@@ -20,9 +20,12 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'sin'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.sin(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::sin);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.sin(a.getNumber(), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.sin(a.getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.sin(a.getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -37,10 +40,10 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'csc'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimal.valueOf(1).divide(BigDecimalMath.sin(a.getNumber().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        return BigDecimal.valueOf(1).divide(BigDecimalMath.sin(a.getNumber(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     } else {
                         return BigComplex.valueOf(BigDecimal.ONE, BigDecimal.ONE)
-                                .divide(BigComplexMath.sin(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                                .divide(BigComplexMath.sin(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -55,9 +58,12 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'cos'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.cos(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::cos);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.cos(a.getNumber(), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.cos(a.getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.cos(a.getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -72,10 +78,10 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'sec'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimal.valueOf(1).divide(BigDecimalMath.cos(a.getNumber().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        return BigDecimal.valueOf(1).divide(BigDecimalMath.cos(a.getNumber(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     } else {
                         return BigComplex.valueOf(BigDecimal.ONE, BigDecimal.ONE)
-                                .divide(BigComplexMath.cos(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                                .divide(BigComplexMath.cos(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -90,9 +96,12 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'tan'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.tan(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::tan);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.tan(a.getNumber(), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.tan(a.getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.tan(a.getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -107,10 +116,10 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'ctan'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimal.valueOf(1).divide(BigDecimalMath.tan(a.getNumber().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        return BigDecimal.valueOf(1).divide(BigDecimalMath.tan(a.getNumber(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     } else {
                         return BigComplex.valueOf(BigDecimal.ONE, BigDecimal.ONE)
-                                .divide(BigComplexMath.tan(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                                .divide(BigComplexMath.tan(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -124,7 +133,7 @@ public class Trigonometry {
                 return new Atom(new LbcSupplier<>(() -> {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'rad'", Type.NUMBER);
-                    return a.getNumber().get().multiply(BigDecimalMath.pi(Constant.getFr(env.env)).divide(BigDecimal.valueOf(180), Constant.getFr(env.env)));
+                    return a.getNumber().multiply(BigDecimalMath.pi(Constant.getFr(env.env)).divide(BigDecimal.valueOf(180), Constant.getFr(env.env)));
                 }));
             }
         }));
@@ -137,7 +146,7 @@ public class Trigonometry {
                 return new Atom(new LbcSupplier<>(() -> {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'deg'", Type.NUMBER);
-                    return a.getNumber().get().multiply(BigDecimal.valueOf(180).divide(BigDecimalMath.pi(Constant.getFr(env.env)), Constant.getFr(env.env)));
+                    return a.getNumber().multiply(BigDecimal.valueOf(180).divide(BigDecimalMath.pi(Constant.getFr(env.env)), Constant.getFr(env.env)));
                 }));
             }
         }));
@@ -151,9 +160,12 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arcsin'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.asin(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::asin);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.asin(a.getNumber(), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.asin(a.getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.asin(a.getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -168,9 +180,12 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arccos'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.acos(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::acos);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.acos(a.getNumber(), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.acos(a.getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.acos(a.getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -185,9 +200,12 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arctan'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.atan(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::atan);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.atan(a.getNumber(), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.atan(a.getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.atan(a.getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -203,7 +221,12 @@ public class Trigonometry {
                     Atom b = arguments.get(1);
                     a.guardType("First argument to 'arctan2'", Type.NUMBER);
                     b.guardType("Second argument to 'arctan2'", Type.NUMBER);
-                    return BigDecimalMath.atan2(a.getNumber().get(), b.getNumber().get(), Constant.getFr(env.env));
+                    if(Constant.isFlonum(env.env)) {
+                        Double d = Flonum.apply(a, b, Math::atan2);
+                        if(d != null)
+                            return d;
+                    }
+                    return BigDecimalMath.atan2(a.getNumber(), b.getNumber(), Constant.getFr(env.env));
                 }));
             }
         }));
@@ -217,9 +240,9 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arcctan'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.acot(a.getNumber().get(), Constant.getFr(env.env));
+                        return BigDecimalMath.acot(a.getNumber(), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.acot(a.getComplex().get(), Constant.getFr(env.env));
+                        return BigComplexMath.acot(a.getComplex(), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -234,9 +257,9 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arcsec'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.acos(BigDecimal.ONE.divide(a.getNumber().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        return BigDecimalMath.acos(BigDecimal.ONE.divide(a.getNumber(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.acos(BigComplex.ONE.divide(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        return BigComplexMath.acos(BigComplex.ONE.divide(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -251,9 +274,9 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arccsec'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.asin(BigDecimal.ONE.divide(a.getNumber().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        return BigDecimalMath.asin(BigDecimal.ONE.divide(a.getNumber(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     } else {
-                        return BigComplexMath.asin(BigComplex.ONE.divide(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        return BigComplexMath.asin(BigComplex.ONE.divide(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
                     }
                 }));
             }
@@ -268,11 +291,14 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'sinh'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.sinh(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::sinh);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.sinh(a.getNumber(), Constant.getFr(env.env));
                     } else {
                         return BigComplex.valueOf(
-                                BigDecimalMath.sinh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().get().im, Constant.getFr(env.env))),
-                                BigDecimalMath.cosh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().get().im, Constant.getFr(env.env)))
+                                BigDecimalMath.sinh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().im, Constant.getFr(env.env))),
+                                BigDecimalMath.cosh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().im, Constant.getFr(env.env)))
                         );
                     }
                 }));
@@ -288,11 +314,14 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'cosh'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.cosh(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::cosh);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.cosh(a.getNumber(), Constant.getFr(env.env));
                     } else {
                         return BigComplex.valueOf(
-                                BigDecimalMath.cosh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().get().im, Constant.getFr(env.env))),
-                                BigDecimalMath.sinh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().get().im, Constant.getFr(env.env)))
+                                BigDecimalMath.cosh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().im, Constant.getFr(env.env))),
+                                BigDecimalMath.sinh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().im, Constant.getFr(env.env)))
                         );
                     }
                 }));
@@ -308,16 +337,19 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'tanh'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.cosh(a.getNumber().get(), Constant.getFr(env.env));
+                        Double d = Constant.flonum(env.env, a, Math::cosh);
+                        if(d != null)
+                            return d;
+                        return BigDecimalMath.cosh(a.getNumber(), Constant.getFr(env.env));
                     } else {
                         BigComplex sine = BigComplex.valueOf(
-                                BigDecimalMath.sinh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().get().im, Constant.getFr(env.env))),
-                                BigDecimalMath.cosh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().get().im, Constant.getFr(env.env)))
+                                BigDecimalMath.sinh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().im, Constant.getFr(env.env))),
+                                BigDecimalMath.cosh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().im, Constant.getFr(env.env)))
                         );
 
                         BigComplex cosine = BigComplex.valueOf(
-                                BigDecimalMath.cosh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().get().im, Constant.getFr(env.env))),
-                                BigDecimalMath.sinh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().get().im, Constant.getFr(env.env)))
+                                BigDecimalMath.cosh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().im, Constant.getFr(env.env))),
+                                BigDecimalMath.sinh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().im, Constant.getFr(env.env)))
                         );
 
                         return sine.divide(cosine, Constant.getFr(env.env));
@@ -335,16 +367,16 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'ctanh'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.coth(a.getNumber().get(), Constant.getFr(env.env));
+                        return BigDecimalMath.coth(a.getNumber(), Constant.getFr(env.env));
                     } else {
                         BigComplex sine = BigComplex.valueOf(
-                                BigDecimalMath.sinh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().get().im, Constant.getFr(env.env))),
-                                BigDecimalMath.cosh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().get().im, Constant.getFr(env.env)))
+                                BigDecimalMath.sinh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().im, Constant.getFr(env.env))),
+                                BigDecimalMath.cosh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().im, Constant.getFr(env.env)))
                         );
 
                         BigComplex cosine = BigComplex.valueOf(
-                                BigDecimalMath.cosh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().get().im, Constant.getFr(env.env))),
-                                BigDecimalMath.sinh(a.getComplex().get().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().get().im, Constant.getFr(env.env)))
+                                BigDecimalMath.cosh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.cos(a.getComplex().im, Constant.getFr(env.env))),
+                                BigDecimalMath.sinh(a.getComplex().re, Constant.getFr(env.env)).multiply(BigDecimalMath.sin(a.getComplex().im, Constant.getFr(env.env)))
                         );
 
                         return cosine.divide(sine, Constant.getFr(env.env));
@@ -362,11 +394,11 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arcsinh'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.asinh(a.getNumber().get(), Constant.getFr(env.env));
+                        return BigDecimalMath.asinh(a.getNumber(), Constant.getFr(env.env));
                     } else {
                         // log(sqrt(1 + a) + a)
-                        BigComplex rt = BigComplexMath.sqrt(BigComplex.ONE.add(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
-                        BigComplex log = BigComplexMath.log(rt.add(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        BigComplex rt = BigComplexMath.sqrt(BigComplex.ONE.add(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        BigComplex log = BigComplexMath.log(rt.add(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
                         return log;
                     }
                 }));
@@ -382,12 +414,12 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arccosh'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.acosh(a.getNumber().get(), Constant.getFr(env.env));
+                        return BigDecimalMath.acosh(a.getNumber(), Constant.getFr(env.env));
                     } else {
                         // log(sqrt(a - 1) * sqrt(a + 1) + a)
-                        BigComplex rt = BigComplexMath.sqrt(a.getComplex().get().subtract(BigComplex.ONE, Constant.getFr(env.env)), Constant.getFr(env.env));
-                        BigComplex rt2 = BigComplexMath.sqrt(a.getComplex().get().add(BigComplex.ONE, Constant.getFr(env.env)), Constant.getFr(env.env));
-                        BigComplex log = BigComplexMath.log(rt.multiply(rt2, Constant.getFr(env.env)).add(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        BigComplex rt = BigComplexMath.sqrt(a.getComplex().subtract(BigComplex.ONE, Constant.getFr(env.env)), Constant.getFr(env.env));
+                        BigComplex rt2 = BigComplexMath.sqrt(a.getComplex().add(BigComplex.ONE, Constant.getFr(env.env)), Constant.getFr(env.env));
+                        BigComplex log = BigComplexMath.log(rt.multiply(rt2, Constant.getFr(env.env)).add(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
                         return log;
                     }
                 }));
@@ -403,11 +435,11 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arctanh'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.atanh(a.getNumber().get(), Constant.getFr(env.env));
+                        return BigDecimalMath.atanh(a.getNumber(), Constant.getFr(env.env));
                     } else {
                         // (log(1 + a) - log(1 - a)) / 2
-                        BigComplex l1 = BigComplexMath.log(BigComplex.ONE.add(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
-                        BigComplex l2 = BigComplexMath.log(BigComplex.ONE.subtract(a.getComplex().get(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        BigComplex l1 = BigComplexMath.log(BigComplex.ONE.add(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
+                        BigComplex l2 = BigComplexMath.log(BigComplex.ONE.subtract(a.getComplex(), Constant.getFr(env.env)), Constant.getFr(env.env));
                         BigComplex log = l1.subtract(l2, Constant.getFr(env.env)).divide(BigDecimal.valueOf(2), Constant.getFr(env.env));
                         return log;
                     }
@@ -424,10 +456,10 @@ public class Trigonometry {
                     Atom a = arguments.get(0);
                     a.guardType("First argument to 'arcctanh'", Type.NUMBER, Type.COMPLEX);
                     if(a.getType() == Type.NUMBER) {
-                        return BigDecimalMath.acoth(a.getNumber().get(), Constant.getFr(env.env));
+                        return BigDecimalMath.acoth(a.getNumber(), Constant.getFr(env.env));
                     } else {
                         // (log(1 + 1/a) - log(1 - 1/a)) / 2
-                        BigComplex arg = a.getComplex().get().reciprocal(Constant.getFr(env.env));
+                        BigComplex arg = a.getComplex().reciprocal(Constant.getFr(env.env));
                         BigComplex l1 = BigComplexMath.log(BigComplex.ONE.add(arg, Constant.getFr(env.env)), Constant.getFr(env.env));
                         BigComplex l2 = BigComplexMath.log(BigComplex.ONE.subtract(arg, Constant.getFr(env.env)), Constant.getFr(env.env));
                         BigComplex log = l1.subtract(l2, Constant.getFr(env.env)).divide(BigDecimal.valueOf(2), Constant.getFr(env.env));
@@ -1,6 +1,7 @@
 package kamilalisp.libs.primitives;
 
 import kamilalisp.data.Atom;
+import kamilalisp.data.Callable;
 import kamilalisp.data.Closure;
 import kamilalisp.data.Executor;
 import kamilalisp.data.LbcSupplier;
@@ -9,20 +10,33 @@ import java.util.Arrays;
 import java.util.List;
 
 public class DyadicMultivariateFunction {
+    private static class Variadic implements Closure {
+        private final Closure f;
+
+        Variadic(Closure f) {
+            this.f = f;
+        }
+
+        @Override
+        public Atom apply(Executor env, List<Atom> arguments) {
+            return new Atom(new LbcSupplier<>(() -> {
+                if(arguments.size() <= 2)
+                    return f.apply(env, arguments);
+                else {
+                    return arguments.stream().reduce((x, y) ->
+                            f.apply(env, Arrays.asList(x, y))
+                    ).get().get();
+                }
+            }));
+        }
+    }
+
     public static Atom of(Closure f) {
-        return new Atom(new Closure() {
-            @Override
-            public Atom apply(Executor env, List<Atom> arguments) {
-                return new Atom(new LbcSupplier<>(() -> {
-                    if(arguments.size() <= 2)
-                        return f.apply(env, arguments).get().get();
-                    else {
-                        return arguments.stream().reduce((x, y) ->
-                                f.apply(env, Arrays.asList(x, y))
-                        ).get().get().get();
-                    }
-                }));
-            }
-        });
+        return new Atom(new Variadic(f));
+    }
+
+    // The function `c` was made from by `of`, or `c` itself.
+    public static Callable unwrap(Callable c) {
+        return c instanceof Variadic ? ((Variadic) c).f : c;
     }
 }
@@ -41,6 +41,10 @@ public class Adjoint implements Closure {
             throw new Error("'mat-adjoint' expects a numeric matrix.");
         if(m.getRows() != m.getCols())
             throw new Error("'mat-adjoint' expects a square matrix.");
+        Matrix r = Elimination.adjugate(m);
+        if(r != null)
+            return r;
+        // a singular matrix: every cofactor, each a determinant of its own.
         return Matrix.of((row, col) -> {
             Matrix cfm = getCofactor(m, row, col);
             int sign = (row + col) % 2 == 0 ? 1 : -1;
@@ -54,7 +58,7 @@ public class Adjoint implements Closure {
             throw new Error("Invalid invocation to 'mat-adjoint'.");
         return new Atom(new LbcSupplier<>(() -> {
             arguments.get(0).guardType("First argument to 'mat-adjoint'", Type.MATRIX);
-            return adj(arguments.get(0).getMatrix().get());
+            return adj(arguments.get(0).getMatrix());
         }));
     }
 }
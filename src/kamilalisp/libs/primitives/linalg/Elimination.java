@@ -0,0 +1,349 @@
+package kamilalisp.libs.primitives.linalg;
+
+import ch.obermuhlner.math.big.BigComplex;
+import kamilalisp.data.*;
+import kamilalisp.data.Matrix;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Gaussian elimination for `det`, `mat-adjoint` and the matrix inverse.
+// Exact matrices, real or complex, are scaled row by row to (Gaussian)
+// integers and eliminated without fractions (Bareiss), or modulo primes for
+// the determinant of a real one, so nothing is ever rounded. Matrices with
+// flonums are factored in doubles with partial pivoting.
+public class Elimination {
+    // rows left to update from which a step is done in parallel.
+    private static final int PARALLEL = 64;
+
+    // a + bi with integer parts. Most matrices are real and leave `im` at zero.
+    private static final class Gaussian {
+        static final Gaussian ZERO = new Gaussian(BigInteger.ZERO, BigInteger.ZERO);
+        static final Gaussian ONE = new Gaussian(BigInteger.ONE, BigInteger.ZERO);
+
+        final BigInteger re, im;
+
+        Gaussian(BigInteger re, BigInteger im) {
+            this.re = re;
+            this.im = im;
+        }
+
+        boolean isZero() {
+            return re.signum() == 0 && im.signum() == 0;
+        }
+
+        boolean isReal() {
+            return im.signum() == 0;
+        }
+
+        Gaussian negate() {
+            return new Gaussian(re.negate(), im.negate());
+        }
+
+        Gaussian multiply(Gaussian o) {
+            if(isReal() && o.isReal())
+                return new Gaussian(re.multiply(o.re), BigInteger.ZERO);
+            return new Gaussian(re.multiply(o.re).subtract(im.multiply(o.im)), re.multiply(o.im).add(im.multiply(o.re)));
+        }
+
+        Gaussian subtract(Gaussian o) {
+            return new Gaussian(re.subtract(o.re), im.subtract(o.im));
+        }
+
+        // The quotient, which has to be exact.
+        Gaussian divide(Gaussian o) {
+            if(o.isReal())
+                return new Gaussian(re.divide(o.re), im.divide(o.re));
+            BigInteger norm = o.re.multiply(o.re).add(o.im.multiply(o.im));
+            Gaussian p = multiply(new Gaussian(o.re, o.im.negate()));
+            return new Gaussian(p.re.divide(norm), p.im.divide(norm));
+        }
+
+        // this / 10^scale as an atom.
+        Atom toAtom(int scale) {
+            if(isReal())
+                return Atom.number(new BigDecimal(re, scale));
+            return new Atom(BigComplex.valueOf(new BigDecimal(re, scale), new BigDecimal(im, scale)));
+        }
+    }
+
+    public static Atom det(Matrix m) {
+        int n = m.getRows();
+        if(n == 1)
+            return m.get(0, 0);
+        if(isFlonum(m)) {
+            Double d = flonumDet(m);
+            if(d != null)
+                return new Atom(d);
+        }
+        int[] scales = new int[n];
+        Gaussian[][] a = scaled(m, scales, 0);
+        int total = IntStream.of(scales).sum();
+        if(Arrays.stream(a).allMatch(row -> Arrays.stream(row).allMatch(Gaussian::isReal)))
+            return new Gaussian(modularDet(a), BigInteger.ZERO).toAtom(total);
+        return bareiss(a).toAtom(total);
+    }
+
+    // The adjugate of `m`, or null if `m` is singular.
+    public static Matrix adjugate(Matrix m) {
+        int n = m.getRows();
+        int[] scales = new int[n];
+        Gaussian[][] a = scaled(m, scales, n);
+        for(int i = 0; i < n; i++)
+            a[i][n + i] = Gaussian.ONE;
+        if(!gaussJordan(a))
+            return null;
+        // `a` was scaled to D m, and adj(D m) = det(D) adj(m) D^-1.
+        int total = IntStream.of(scales).sum();
+        List<Atom> cells = new ArrayList<>(n * n);
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < n; j++)
+                cells.add(a[i][n + j].toAtom(total - scales[j]));
+        return Matrix.from(cells, n, n);
+    }
+
+    // Whether `m` holds flonums and no complex numbers.
+    private static boolean isFlonum(Matrix m) {
+        if(m instanceof DenseMatrix)
+            return ((DenseMatrix) m).isFlonum();
+        boolean flonums = false;
+        for(Atom a : m.ravel()) {
+            if(a.getType() == Type.COMPLEX)
+                return false;
+            flonums |= a.getType() == Type.NUMBER && a.isFlonum();
+        }
+        return flonums;
+    }
+
+    // LU decomposition with partial pivoting; null if the result isn't finite.
+    private static Double flonumDet(Matrix m) {
+        int n = m.getRows();
+        double[] a = new double[n * n];
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < n; j++)
+                a[i * n + j] = Flonum.value(m.get(i, j));
+        double det = 1;
+        for(int k = 0; k < n; k++) {
+            int p = k;
+            for(int i = k + 1; i < n; i++)
+                if(Math.abs(a[i * n + k]) > Math.abs(a[p * n + k]))
+                    p = i;
+            if(a[p * n + k] == 0)
+                return 0.0;
+            if(p != k) {
+                for(int j = k; j < n; j++) {
+                    double t = a[k * n + j];
+                    a[k * n + j] = a[p * n + j];
+                    a[p * n + j] = t;
+                }
+                det = -det;
+            }
+            det *= a[k * n + k];
+            for(int i = k + 1; i < n; i++) {
+                double f = a[i * n + k] / a[k * n + k];
+                if(f != 0)
+                    for(int j = k + 1; j < n; j++)
+                        a[i * n + j] -= f * a[k * n + j];
+            }
+        }
+        return Flonum.of(det);
+    }
+
+    // The determinant of a real integer matrix. It's found modulo enough
+    // primes to pin it down by Hadamard's bound and put back together with
+    // the Chinese remainder theorem, which beats Bareiss' growing numbers.
+    private static BigInteger modularDet(Gaussian[][] a) {
+        int n = a.length;
+        BigInteger[] cells = new BigInteger[n * n];
+        boolean small = true;
+        int bits = 1;
+        for(int i = 0; i < n; i++) {
+            BigInteger norm = BigInteger.ZERO;
+            for(int j = 0; j < n; j++) {
+                BigInteger x = a[i][j].re;
+                cells[i * n + j] = x;
+                small &= x.bitLength() < 63;
+                norm = norm.add(x.multiply(x));
+            }
+            bits += norm.bitLength() / 2 + 1;
+        }
+        long[] longs = null;
+        if(small) {
+            longs = new long[n * n];
+            for(int i = 0; i < longs.length; i++)
+                longs[i] = cells[i].longValue();
+        }
+
+        List<Long> moduli = new ArrayList<>();
+        for(BigInteger product = BigInteger.ONE; product.bitLength() <= bits; ) {
+            long p = prime(moduli.size());
+            moduli.add(p);
+            product = product.multiply(BigInteger.valueOf(p));
+        }
+        long[] residues = new long[moduli.size()];
+        long[] l = longs;
+        IntStream primes = IntStream.range(0, residues.length);
+        if(n >= PARALLEL)
+            primes = primes.parallel();
+        primes.forEach(q -> {
+            long p = moduli.get(q);
+            long[] r = new long[n * n];
+            for(int i = 0; i < r.length; i++)
+                r[i] = l != null ? Math.floorMod(l[i], p) : cells[i].mod(BigInteger.valueOf(p)).longValue();
+            residues[q] = detModulo(r, n, p);
+        });
+
+        BigInteger r = BigInteger.ZERO, product = BigInteger.ONE;
+        for(int q = 0; q < residues.length; q++) {
+            BigInteger p = BigInteger.valueOf(moduli.get(q));
+            BigInteger t = BigInteger.valueOf(residues[q]).subtract(r).multiply(product.modInverse(p)).mod(p);
+            r = r.add(product.multiply(t));
+            product = product.multiply(p);
+        }
+        return r.shiftLeft(1).compareTo(product) > 0 ? r.subtract(product) : r;
+    }
+
+    private static final List<Long> primes = new ArrayList<>();
+
+    // The i-th prime below 2^31, so that products of residues fit in a long.
+    private static synchronized long prime(int i) {
+        while(primes.size() <= i) {
+            long p = primes.isEmpty() ? 1L << 31 : primes.get(primes.size() - 1);
+            do {
+                p--;
+            } while(!BigInteger.valueOf(p).isProbablePrime(32));
+            primes.add(p);
+        }
+        return primes.get(i);
+    }
+
+    // The determinant modulo `p` of the n by n matrix `a`, which is overwritten.
+    private static long detModulo(long[] a, int n, long p) {
+        long det = 1;
+        for(int k = 0; k < n; k++) {
+            int pivot = k;
+            while(pivot < n && a[pivot * n + k] == 0)
+                pivot++;
+            if(pivot == n)
+                return 0;
+            if(pivot != k) {
+                for(int j = k; j < n; j++) {
+                    long t = a[k * n + j];
+                    a[k * n + j] = a[pivot * n + j];
+                    a[pivot * n + j] = t;
+                }
+                det = p - det;
+            }
+            det = det * a[k * n + k] % p;
+            long inverse = BigInteger.valueOf(a[k * n + k]).modInverse(BigInteger.valueOf(p)).longValue();
+            for(int i = k + 1; i < n; i++) {
+                long f = a[i * n + k] * inverse % p;
+                if(f != 0)
+                    for(int j = k + 1; j < n; j++)
+                        a[i * n + j] = (a[i * n + j] + (p - f) * a[k * n + j]) % p;
+            }
+        }
+        return det;
+    }
+
+    // The rows of `m` with `extra` zero columns appended, each multiplied by
+    // the power of ten stored in `scales` that makes it integral.
+    private static Gaussian[][] scaled(Matrix m, int[] scales, int extra) {
+        int n = m.getRows();
+        Gaussian[][] a = new Gaussian[n][n + extra];
+        BigDecimal[] re = new BigDecimal[n], im = new BigDecimal[n];
+        for(int i = 0; i < n; i++) {
+            int scale = 0;
+            for(int j = 0; j < n; j++) {
+                Atom x = m.get(i, j);
+                x.guardType("Matrix element", Type.NUMBER, Type.COMPLEX);
+                if(x.getType() == Type.COMPLEX) {
+                    re[j] = x.getComplex().re;
+                    im[j] = x.getComplex().im;
+                } else {
+                    re[j] = x.getNumber();
+                    im[j] = BigDecimal.ZERO;
+                }
+                scale = Math.max(scale, Math.max(re[j].scale(), im[j].scale()));
+            }
+            scales[i] = scale;
+            for(int j = 0; j < n; j++)
+                a[i][j] = new Gaussian(re[j].setScale(scale).unscaledValue(), im[j].setScale(scale).unscaledValue());
+            for(int j = n; j < n + extra; j++)
+                a[i][j] = Gaussian.ZERO;
+        }
+        return a;
+    }
+
+    // Swaps row `k` with the first row below it with a nonzero cell in
+    // column `k`. False if there's none.
+    private static boolean pivot(Gaussian[][] a, int k) {
+        for(int i = k; i < a.length; i++) {
+            if(!a[i][k].isZero()) {
+                Gaussian[] t = a[k];
+                a[k] = a[i];
+                a[i] = t;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // a[i][j] = (a[k][k] a[i][j] - a[i][k] a[k][j]) / prev for the given
+    // rows and every column after `k`. The division is always exact.
+    private static void eliminate(Gaussian[][] a, int k, Gaussian prev, IntStream rows) {
+        int cols = a[k].length;
+        if(a.length - k >= PARALLEL)
+            rows = rows.parallel();
+        rows.forEach(i -> {
+            Gaussian aik = a[i][k];
+            for(int j = k + 1; j < cols; j++)
+                a[i][j] = a[k][k].multiply(a[i][j]).subtract(aik.multiply(a[k][j])).divide(prev);
+            a[i][k] = Gaussian.ZERO;
+        });
+    }
+
+    // The determinant of the square matrix `a`, which is overwritten.
+    private static Gaussian bareiss(Gaussian[][] a) {
+        int n = a.length;
+        boolean negate = false;
+        Gaussian prev = Gaussian.ONE;
+        for(int k = 0; k < n - 1; k++) {
+            Gaussian[] row = a[k];
+            if(!pivot(a, k))
+                return Gaussian.ZERO;
+            negate ^= row != a[k];
+            eliminate(a, k, prev, IntStream.range(k + 1, n));
+            prev = a[k][k];
+        }
+        return negate ? a[n - 1][n - 1].negate() : a[n - 1][n - 1];
+    }
+
+    // Reduces `a`, a square matrix with as many columns appended, until the
+    // square part is det(a) times the identity. The appended columns end up
+    // multiplied by the adjugate of the square part. False if it's singular.
+    private static boolean gaussJordan(Gaussian[][] a) {
+        int n = a.length;
+        boolean negate = false;
+        Gaussian prev = Gaussian.ONE;
+        for(int k = 0; k < n; k++) {
+            Gaussian[] row = a[k];
+            if(!pivot(a, k))
+                return false;
+            negate ^= row != a[k];
+            int pivot = k;
+            eliminate(a, k, prev, IntStream.range(0, n).filter(i -> i != pivot));
+            prev = a[k][k];
+        }
+        // the row swaps flipped the sign of the determinant.
+        if(negate)
+            for(Gaussian[] row : a)
+                for(int j = n; j < row.length; j++)
+                    row[j] = row[j].negate();
+        return true;
+    }
+}
@@ -0,0 +1,129 @@
+package kamilalisp.libs.primitives.linalg;
+
+import kamilalisp.data.*;
+import kamilalisp.data.Matrix;
+import kamilalisp.libs.math.Constant;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+// A factorization of a real matrix, computed in doubles when `fr` allows
+// flonums or the matrix holds some, and with BigDecimal otherwise, carrying
+// a few digits over `fr` and rounding the results to it. Factorizations are
+// kept with the matrix they came from, so solving for many right-hand sides
+// or inverting the same matrix again only does the substitutions. An `fr` of
+// 0 (unlimited) is rejected, since the results are seldom exact decimals.
+public abstract class Factorization {
+    // digits computed on top of `fr`, lost to rounding along the way.
+    private static final int GUARD = 10;
+    // multiply-adds from which the right-hand sides are solved in parallel.
+    private static final long PARALLEL = 1 << 18;
+
+    protected final Matrix source;
+    protected final MathContext fr, work;
+    protected final boolean flonum;
+
+    protected Factorization(Matrix source, MathContext fr, boolean flonum) {
+        this.source = source;
+        this.fr = fr;
+        this.work = new MathContext(fr.getPrecision() + GUARD, RoundingMode.HALF_EVEN);
+        this.flonum = flonum;
+    }
+
+    public static LU lu(Environment env, Matrix m) {
+        boolean flonum = isFlonum(env, m);
+        MathContext fr = precision(env, flonum);
+        return m.derive(key(LU.class, fr, flonum), x -> new LU(x, fr, flonum));
+    }
+
+    public static QR qr(Environment env, Matrix m) {
+        boolean flonum = isFlonum(env, m);
+        MathContext fr = precision(env, flonum);
+        return m.derive(key(QR.class, fr, flonum), x -> new QR(x, fr, flonum));
+    }
+
+    private static MathContext precision(Environment env, boolean flonum) {
+        MathContext fr = Constant.getFr(env);
+        if(fr.getPrecision() == 0 && !flonum)
+            throw new Error("Can't factorize a matrix at an unlimited 'fr'; set 'fr' to a number of digits.");
+        return fr;
+    }
+
+    // What a factorization is cached under: its kind and precision.
+    protected static Object key(Class<? extends Factorization> kind, MathContext fr, boolean flonum) {
+        return List.of(kind, flonum ? 0 : fr.getPrecision());
+    }
+
+    // The same factorization done with BigDecimal, for when doubles overflow.
+    protected abstract Factorization exact();
+
+    // The least squares solution of `source` x = b, one column of x for
+    // each column of b.
+    public abstract Matrix solve(Matrix b);
+
+    // Whether the cells of `m` are all real numbers.
+    public static boolean isReal(Matrix m) {
+        if(m instanceof DenseMatrix)
+            return true;
+        for(Atom a : m.ravel())
+            if(a.getType() != Type.NUMBER)
+                return false;
+        return true;
+    }
+
+    private static boolean isFlonum(Environment env, Matrix m) {
+        if(Constant.isFlonum(env))
+            return true;
+        if(m instanceof DenseMatrix)
+            return ((DenseMatrix) m).isFlonum();
+        return m.ravel().stream().anyMatch(a -> a.getType() == Type.NUMBER && a.isFlonum());
+    }
+
+    protected static double[] doubles(Matrix m) {
+        List<Atom> ravel = m.ravel();
+        double[] r = new double[ravel.size()];
+        for(int i = 0; i < r.length; i++) {
+            Atom a = ravel.get(i);
+            a.guardType("Matrix element", Type.NUMBER);
+            r[i] = Flonum.value(a);
+        }
+        return r;
+    }
+
+    protected static BigDecimal[] decimals(Matrix m) {
+        List<Atom> ravel = m.ravel();
+        BigDecimal[] r = new BigDecimal[ravel.size()];
+        for(int i = 0; i < r.length; i++) {
+            Atom a = ravel.get(i);
+            a.guardType("Matrix element", Type.NUMBER);
+            r[i] = a.getNumber();
+        }
+        return r;
+    }
+
+    // A matrix of flonums, or null if some aren't finite.
+    protected static Matrix result(double[] data, int rows, int cols) {
+        for(double d : data)
+            if(!Double.isFinite(d))
+                return null;
+        return DenseMatrix.of(data, rows, cols);
+    }
+
+    protected Matrix result(BigDecimal[] data, int rows, int cols) {
+        BigDecimal[] r = new BigDecimal[data.length];
+        for(int i = 0; i < r.length; i++)
+            r[i] = data[i].round(fr);
+        return DenseMatrix.of(r, rows, cols);
+    }
+
+    // Calls `column` for each of the `cols` right-hand sides, `work` being
+    // the number of multiply-adds each takes.
+    protected static void forEachColumn(int cols, long work, IntConsumer column) {
+        IntStream c = IntStream.range(0, cols);
+        (work * cols >= PARALLEL ? c.parallel() : c).forEach(column);
+    }
+}
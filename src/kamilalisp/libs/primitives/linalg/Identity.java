@@ -8,7 +8,7 @@ import java.util.List;
 
 public class Identity implements Closure {
     public static Matrix of(int size) {
-        return Matrix.of((a, b) -> a == b ? new Atom(BigDecimal.ONE) : new Atom(BigDecimal.ZERO), size, size);
+        return Matrix.of((a, b) -> a.equals(b) ? new Atom(BigDecimal.ONE) : new Atom(BigDecimal.ZERO), size, size);
     }
 
     @Override
@@ -17,7 +17,7 @@ public class Identity implements Closure {
             throw new Error("Invalid invocation to 'mat-id'.");
         return new Atom(new LbcSupplier<>(() -> {
             arguments.get(0).guardType("Argument to 'mat-id'", Type.NUMBER);
-            int size = arguments.get(0).getNumber().get().intValue();
+            int size = arguments.get(0).getNumber().intValue();
             return Identity.of(size);
         }));
     }
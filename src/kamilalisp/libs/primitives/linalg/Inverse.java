@@ -0,0 +1,42 @@
+package kamilalisp.libs.primitives.linalg;
+
+import ch.obermuhlner.math.big.BigComplex;
+import kamilalisp.data.*;
+import kamilalisp.data.Matrix;
+import kamilalisp.libs.primitives.math.Quotient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class Inverse implements Closure {
+    // Real matrices are inverted with their LU decomposition, complex ones
+    // by dividing the adjugate by the determinant.
+    public static Matrix of(Environment env, Matrix m) {
+        if(m.getRows() != m.getCols())
+            throw new Error("Can't invert a non-square " + m.getRows() + "x" + m.getCols() + " matrix.");
+        if(Factorization.isReal(m)) {
+            LU lu = Factorization.lu(env, m);
+            if(lu.isSingular())
+                throw new Error("Can't find the inverse; det(a) = 0.");
+            return lu.inverse();
+        }
+        Atom n = Determinant.det(m);
+        if((n.getType() == Type.NUMBER && n.getNumber().compareTo(BigDecimal.ZERO) == 0)
+                || (n.getType() == Type.COMPLEX && n.getComplex().equals(BigComplex.ZERO)))
+            throw new Error("Can't find the inverse; det(a) = 0.");
+        Matrix adj = Adjoint.adj(m);
+        return adj.transmogrifyRank0(x -> Quotient.div2(env, x, n));
+    }
+
+    @Override
+    public Atom apply(Executor env, List<Atom> arguments) {
+        if(arguments.size() != 1)
+            throw new Error("Invalid invocation to 'mat-inv'.");
+        return new Atom(new LbcSupplier<>(() -> {
+            arguments.get(0).guardType("Argument to 'mat-inv'", Type.MATRIX);
+            if(!arguments.get(0).getMatrix().isNumeric())
+                throw new Error("'mat-inv' expects a numeric matrix.");
+            return of(env.env, arguments.get(0).getMatrix());
+        }));
+    }
+}
@@ -0,0 +1,191 @@
+package kamilalisp.libs.primitives.linalg;
+
+import kamilalisp.data.*;
+import kamilalisp.data.Matrix;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+
+// P A = L U with partial pivoting: L is unit lower triangular, U upper
+// triangular, and both are stored in one array, L below the diagonal.
+public final class LU extends Factorization {
+    private final int n;
+    // row i of P A is row perm[i] of A.
+    private final int[] perm;
+    private final double[] doubles;
+    private final BigDecimal[] decimals;
+    private final boolean singular;
+
+    LU(Matrix m, MathContext fr, boolean flonum) {
+        super(m, fr, flonum);
+        if(m.getRows() != m.getCols())
+            throw new Error("LU decomposition of a non-square " + m.getRows() + "x" + m.getCols() + " matrix.");
+        n = m.getRows();
+        perm = new int[n];
+        for(int i = 0; i < n; i++)
+            perm[i] = i;
+        boolean singular = false;
+        if(flonum) {
+            double[] a = doubles = doubles(m);
+            decimals = null;
+            for(int k = 0; k < n; k++) {
+                int p = k;
+                for(int i = k + 1; i < n; i++)
+                    if(Math.abs(a[i * n + k]) > Math.abs(a[p * n + k]))
+                        p = i;
+                if(a[p * n + k] == 0) {
+                    singular = true;
+                    continue;
+                }
+                swap(a, k, p);
+                for(int i = k + 1; i < n; i++) {
+                    double f = a[i * n + k] /= a[k * n + k];
+                    if(f != 0)
+                        for(int j = k + 1; j < n; j++)
+                            a[i * n + j] -= f * a[k * n + j];
+                }
+            }
+        } else {
+            BigDecimal[] a = decimals = decimals(m);
+            doubles = null;
+            for(int k = 0; k < n; k++) {
+                int p = k;
+                for(int i = k + 1; i < n; i++)
+                    if(a[i * n + k].abs().compareTo(a[p * n + k].abs()) > 0)
+                        p = i;
+                if(a[p * n + k].signum() == 0) {
+                    singular = true;
+                    continue;
+                }
+                swap(a, k, p);
+                for(int i = k + 1; i < n; i++) {
+                    BigDecimal f = a[i * n + k] = a[i * n + k].divide(a[k * n + k], work);
+                    if(f.signum() != 0)
+                        for(int j = k + 1; j < n; j++)
+                            a[i * n + j] = a[i * n + j].subtract(f.multiply(a[k * n + j], work), work);
+                }
+            }
+        }
+        this.singular = singular;
+    }
+
+    // Swaps rows k and p of the factors and of P.
+    private void swap(double[] a, int k, int p) {
+        if(k == p)
+            return;
+        swap(k, p);
+        for(int j = 0; j < n; j++) {
+            double t = a[k * n + j];
+            a[k * n + j] = a[p * n + j];
+            a[p * n + j] = t;
+        }
+    }
+
+    private void swap(BigDecimal[] a, int k, int p) {
+        if(k == p)
+            return;
+        swap(k, p);
+        for(int j = 0; j < n; j++) {
+            BigDecimal t = a[k * n + j];
+            a[k * n + j] = a[p * n + j];
+            a[p * n + j] = t;
+        }
+    }
+
+    private void swap(int k, int p) {
+        int t = perm[k];
+        perm[k] = perm[p];
+        perm[p] = t;
+    }
+
+    @Override
+    protected LU exact() {
+        return source.derive(key(LU.class, fr, false), x -> new LU(x, fr, false));
+    }
+
+    public boolean isSingular() {
+        return singular;
+    }
+
+    @Override
+    public Matrix solve(Matrix b) {
+        if(b.getRows() != n)
+            throw new Error("Can't solve a system of " + n + " equations with a " + b.getRows() + "x" + b.getCols() + " right-hand side.");
+        if(singular)
+            throw new Error("Can't solve a system with a singular matrix.");
+        int cols = b.getCols();
+        if(flonum) {
+            double[] x = doubles(b), y = new double[x.length], a = doubles;
+            forEachColumn(cols, (long) n * n, c -> {
+                for(int i = 0; i < n; i++) {
+                    double s = x[perm[i] * cols + c];
+                    for(int j = 0; j < i; j++)
+                        s -= a[i * n + j] * y[j * cols + c];
+                    y[i * cols + c] = s;
+                }
+                for(int i = n - 1; i >= 0; i--) {
+                    double s = y[i * cols + c];
+                    for(int j = i + 1; j < n; j++)
+                        s -= a[i * n + j] * y[j * cols + c];
+                    y[i * cols + c] = s / a[i * n + i];
+                }
+            });
+            Matrix r = result(y, n, cols);
+            return r != null ? r : exact().solve(b);
+        }
+        BigDecimal[] x = decimals(b), y = new BigDecimal[x.length], a = decimals;
+        forEachColumn(cols, (long) n * n, c -> {
+            for(int i = 0; i < n; i++) {
+                BigDecimal s = x[perm[i] * cols + c];
+                for(int j = 0; j < i; j++)
+                    s = s.subtract(a[i * n + j].multiply(y[j * cols + c], work), work);
+                y[i * cols + c] = s;
+            }
+            for(int i = n - 1; i >= 0; i--) {
+                BigDecimal s = y[i * cols + c];
+                for(int j = i + 1; j < n; j++)
+                    s = s.subtract(a[i * n + j].multiply(y[j * cols + c], work), work);
+                y[i * cols + c] = s.divide(a[i * n + i], work);
+            }
+        });
+        return result(y, n, cols);
+    }
+
+    // Kept with the matrix like the factorization.
+    public Matrix inverse() {
+        return source.derive(List.of(Inverse.class, flonum ? 0 : fr.getPrecision()), x -> solve(Identity.of(n)));
+    }
+
+    // The lower triangle of the packed factors with ones on the diagonal,
+    // or the upper triangle.
+    private Matrix triangle(boolean lower) {
+        if(flonum) {
+            double[] r = new double[n * n];
+            for(int i = 0; i < n; i++)
+                for(int j = 0; j < n; j++)
+                    r[i * n + j] = lower ? (i > j ? doubles[i * n + j] : i == j ? 1 : 0) : (i <= j ? doubles[i * n + j] : 0);
+            return DenseMatrix.of(r, n, n);
+        }
+        BigDecimal[] r = new BigDecimal[n * n];
+        for(int i = 0; i < n; i++)
+            for(int j = 0; j < n; j++)
+                r[i * n + j] = lower ? (i > j ? decimals[i * n + j] : i == j ? BigDecimal.ONE : BigDecimal.ZERO) : (i <= j ? decimals[i * n + j] : BigDecimal.ZERO);
+        return result(r, n, n);
+    }
+
+    public Matrix l() {
+        return triangle(true);
+    }
+
+    public Matrix u() {
+        return triangle(false);
+    }
+
+    public Matrix p() {
+        long[] r = new long[n * n];
+        for(int i = 0; i < n; i++)
+            r[i * n + perm[i]] = 1;
+        return DenseMatrix.of(r, n, n);
+    }
+}
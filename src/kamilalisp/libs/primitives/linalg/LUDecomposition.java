@@ -0,0 +1,23 @@
+package kamilalisp.libs.primitives.linalg;
+
+import kamilalisp.data.*;
+import kamilalisp.data.Matrix;
+
+import java.util.List;
+
+public class LUDecomposition implements Closure {
+    // (L U P) such that P A = L U.
+    @Override
+    public Atom apply(Executor env, List<Atom> arguments) {
+        if(arguments.size() != 1)
+            throw new Error("Invalid invocation to 'lu'.");
+        return new Atom(new LbcSupplier<>(() -> {
+            arguments.get(0).guardType("Argument to 'lu'", Type.MATRIX);
+            Matrix m = arguments.get(0).getMatrix();
+            if(!Factorization.isReal(m))
+                throw new Error("'lu' expects a real matrix.");
+            LU lu = Factorization.lu(env.env, m);
+            return List.of(new Atom(lu.l()), new Atom(lu.u()), new Atom(lu.p()));
+        }));
+    }
+}
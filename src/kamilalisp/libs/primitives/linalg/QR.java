@@ -0,0 +1,183 @@
+package kamilalisp.libs.primitives.linalg;
+
+import kamilalisp.data.*;
+import kamilalisp.data.Matrix;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+// A = Q R by Householder reflections, for an m by n matrix A. With
+// k = min(m, n), Q is m by k with orthonormal columns and R is k by n upper
+// triangular. R is stored in place of A, and the reflections I - 2 v v' / v'v
+// are kept to apply Q and its transpose.
+public final class QR extends Factorization {
+    private final int m, n, k;
+    private final double[] doubles;
+    private final double[][] dv;
+    private final BigDecimal[] decimals;
+    private final BigDecimal[][] bv;
+
+    QR(Matrix a, MathContext fr, boolean flonum) {
+        super(a, fr, flonum);
+        m = a.getRows();
+        n = a.getCols();
+        k = Math.min(m, n);
+        if(flonum) {
+            double[] r = doubles = doubles(a);
+            dv = new double[k][];
+            decimals = null;
+            bv = null;
+            for(int t = 0; t < k; t++) {
+                double norm = 0;
+                for(int i = t; i < m; i++)
+                    norm += r[i * n + t] * r[i * n + t];
+                norm = Math.sqrt(norm);
+                if(norm == 0)
+                    continue;
+                double[] v = dv[t] = new double[m - t];
+                for(int i = t; i < m; i++)
+                    v[i - t] = r[i * n + t];
+                v[0] += r[t * n + t] > 0 ? norm : -norm;
+                reflect(v, r, t, n, t);
+            }
+        } else {
+            BigDecimal[] r = decimals = decimals(a);
+            bv = new BigDecimal[k][];
+            doubles = null;
+            dv = null;
+            for(int t = 0; t < k; t++) {
+                BigDecimal norm = BigDecimal.ZERO;
+                for(int i = t; i < m; i++)
+                    norm = norm.add(r[i * n + t].multiply(r[i * n + t], work), work);
+                if(norm.signum() == 0)
+                    continue;
+                norm = norm.sqrt(work);
+                BigDecimal[] v = bv[t] = new BigDecimal[m - t];
+                for(int i = t; i < m; i++)
+                    v[i - t] = r[i * n + t];
+                v[0] = r[t * n + t].signum() > 0 ? v[0].add(norm, work) : v[0].subtract(norm, work);
+                reflect(v, r, t, n, t);
+            }
+        }
+    }
+
+    // Applies the reflection `v` to rows `t` on and columns `from` on of
+    // the `cols` wide row-major `a`.
+    private static void reflect(double[] v, double[] a, int t, int cols, int from) {
+        double vv = 0;
+        for(double x : v)
+            vv += x * x;
+        for(int j = from; j < cols; j++) {
+            double s = 0;
+            for(int i = 0; i < v.length; i++)
+                s += v[i] * a[(t + i) * cols + j];
+            s = 2 * s / vv;
+            if(s != 0)
+                for(int i = 0; i < v.length; i++)
+                    a[(t + i) * cols + j] -= s * v[i];
+        }
+    }
+
+    private void reflect(BigDecimal[] v, BigDecimal[] a, int t, int cols, int from) {
+        BigDecimal vv = BigDecimal.ZERO;
+        for(BigDecimal x : v)
+            vv = vv.add(x.multiply(x, work), work);
+        for(int j = from; j < cols; j++) {
+            BigDecimal s = BigDecimal.ZERO;
+            for(int i = 0; i < v.length; i++)
+                s = s.add(v[i].multiply(a[(t + i) * cols + j], work), work);
+            s = s.add(s).divide(vv, work);
+            if(s.signum() != 0)
+                for(int i = 0; i < v.length; i++)
+                    a[(t + i) * cols + j] = a[(t + i) * cols + j].subtract(s.multiply(v[i], work), work);
+        }
+    }
+
+    @Override
+    protected QR exact() {
+        return source.derive(key(QR.class, fr, false), x -> new QR(x, fr, false));
+    }
+
+    public Matrix q() {
+        // the first k columns of the identity, reflected from the last
+        // reflection to the first.
+        if(flonum) {
+            double[] q = new double[m * k];
+            for(int i = 0; i < k; i++)
+                q[i * k + i] = 1;
+            for(int t = k - 1; t >= 0; t--)
+                if(dv[t] != null)
+                    reflect(dv[t], q, t, k, 0);
+            Matrix r = result(q, m, k);
+            return r != null ? r : exact().q();
+        }
+        BigDecimal[] q = new BigDecimal[m * k];
+        for(int i = 0; i < q.length; i++)
+            q[i] = i / k == i % k ? BigDecimal.ONE : BigDecimal.ZERO;
+        for(int t = k - 1; t >= 0; t--)
+            if(bv[t] != null)
+                reflect(bv[t], q, t, k, 0);
+        return result(q, m, k);
+    }
+
+    public Matrix r() {
+        if(flonum) {
+            double[] r = new double[k * n];
+            for(int i = 0; i < k; i++)
+                for(int j = i; j < n; j++)
+                    r[i * n + j] = doubles[i * n + j];
+            Matrix x = result(r, k, n);
+            return x != null ? x : exact().r();
+        }
+        BigDecimal[] r = new BigDecimal[k * n];
+        for(int i = 0; i < k; i++)
+            for(int j = 0; j < n; j++)
+                r[i * n + j] = j >= i ? decimals[i * n + j] : BigDecimal.ZERO;
+        return result(r, k, n);
+    }
+
+    // Least squares: R x = Q' b on the first n rows, for m at least n.
+    @Override
+    public Matrix solve(Matrix b) {
+        if(m < n)
+            throw new Error("Can't solve an underdetermined system of " + m + " equations in " + n + " unknowns.");
+        if(b.getRows() != m)
+            throw new Error("Can't solve a system of " + m + " equations with a " + b.getRows() + "x" + b.getCols() + " right-hand side.");
+        int cols = b.getCols();
+        if(flonum) {
+            for(int i = 0; i < n; i++)
+                if(doubles[i * n + i] == 0)
+                    throw new Error("Can't solve a system with a rank deficient matrix.");
+            double[] y = doubles(b), x = new double[n * cols];
+            for(int t = 0; t < k; t++)
+                if(dv[t] != null)
+                    reflect(dv[t], y, t, cols, 0);
+            forEachColumn(cols, (long) n * n, c -> {
+                for(int i = n - 1; i >= 0; i--) {
+                    double s = y[i * cols + c];
+                    for(int j = i + 1; j < n; j++)
+                        s -= doubles[i * n + j] * x[j * cols + c];
+                    x[i * cols + c] = s / doubles[i * n + i];
+                }
+            });
+            Matrix r = result(x, n, cols);
+            return r != null ? r : exact().solve(b);
+        }
+        for(int i = 0; i < n; i++)
+            if(decimals[i * n + i].signum() == 0)
+                throw new Error("Can't solve a system with a rank deficient matrix.");
+        BigDecimal[] y = decimals(b), x = new BigDecimal[n * cols];
+        for(int t = 0; t < k; t++)
+            if(bv[t] != null)
+                reflect(bv[t], y, t, cols, 0);
+        forEachColumn(cols, (long) n * n, c -> {
+            for(int i = n - 1; i >= 0; i--) {
+                BigDecimal s = y[i * cols + c];
+                for(int j = i + 1; j < n; j++)
+                    s = s.subtract(decimals[i * n + j].multiply(x[j * cols + c], work), work);
+                x[i * cols + c] = s.divide(decimals[i * n + i], work);
+            }
+        });
+        return result(x, n, cols);
+    }
+}
@@ -0,0 +1,23 @@
+package kamilalisp.libs.primitives.linalg;
+
+import kamilalisp.data.*;
+import kamilalisp.data.Matrix;
+
+import java.util.List;
+
+public class QRDecomposition implements Closure {
+    // (Q R) such that A = Q R.
+    @Override
+    public Atom apply(Executor env, List<Atom> arguments) {
+        if(arguments.size() != 1)
+            throw new Error("Invalid invocation to 'qr'.");
+        return new Atom(new LbcSupplier<>(() -> {
+            arguments.get(0).guardType("Argument to 'qr'", Type.MATRIX);
+            Matrix m = arguments.get(0).getMatrix();
+            if(!Factorization.isReal(m))
+                throw new Error("'qr' expects a real matrix.");
+            QR qr = Factorization.qr(env.env, m);
+            return List.of(new Atom(qr.q()), new Atom(qr.r()));
+        }));
+    }
+}
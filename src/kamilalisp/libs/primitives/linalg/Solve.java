@@ -0,0 +1,31 @@
+package kamilalisp.libs.primitives.linalg;
+
+import kamilalisp.data.*;
+import kamilalisp.data.Matrix;
+
+import java.util.List;
+
+public class Solve implements Closure {
+    // A x = b by the LU decomposition of a square A, or in the least squares
+    // sense by the QR decomposition of a tall one. b is a list for a single
+    // right-hand side, or a matrix with one in each column.
+    @Override
+    public Atom apply(Executor env, List<Atom> arguments) {
+        if(arguments.size() != 2)
+            throw new Error("Invalid invocation to 'solve'.");
+        return new Atom(new LbcSupplier<>(() -> {
+            arguments.get(0).guardType("First argument to 'solve'", Type.MATRIX);
+            arguments.get(1).guardType("Second argument to 'solve'", Type.MATRIX, Type.LIST);
+            Matrix a = arguments.get(0).getMatrix();
+            if(!Factorization.isReal(a))
+                throw new Error("'solve' expects a real matrix.");
+            Factorization f = a.getRows() == a.getCols() ? Factorization.lu(env.env, a) : Factorization.qr(env.env, a);
+            if(arguments.get(1).getType() == Type.MATRIX)
+                return f.solve(arguments.get(1).getMatrix());
+            List<Atom> b = arguments.get(1).getList();
+            if(b.isEmpty())
+                throw new Error("'solve' expects a non-empty right-hand side.");
+            return f.solve(Matrix.from(b, b.size(), 1)).ravel();
+        }));
+    }
+}
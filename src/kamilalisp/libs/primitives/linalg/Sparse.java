@@ -0,0 +1,49 @@
+package kamilalisp.libs.primitives.linalg;
+
+import kamilalisp.data.*;
+import kamilalisp.data.Matrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Sparse implements Closure {
+    // (mat-sparse m) keeps the nonzero cells of a real matrix, and
+    // (mat-sparse cols rows entries) builds one from (row col value) lists,
+    // adding up the values given for the same cell.
+    @Override
+    public Atom apply(Executor env, List<Atom> arguments) {
+        if(arguments.size() != 1 && arguments.size() != 3)
+            throw new Error("Invalid invocation to 'mat-sparse'.");
+        return new Atom(new LbcSupplier<>(() -> {
+            if(arguments.size() == 1) {
+                arguments.get(0).guardType("Argument to 'mat-sparse'", Type.MATRIX);
+                SparseMatrix m = SparseMatrix.from(arguments.get(0).getMatrix());
+                if(m == null)
+                    throw new Error("'mat-sparse' expects a real matrix.");
+                return m;
+            }
+            arguments.get(0).guardType("First argument to 'mat-sparse'", Type.NUMBER);
+            arguments.get(1).guardType("Second argument to 'mat-sparse'", Type.NUMBER);
+            arguments.get(2).guardType("Third argument to 'mat-sparse'", Type.LIST);
+            int cols = arguments.get(0).getNumber().intValue();
+            int rows = arguments.get(1).getNumber().intValue();
+            List<Atom> entries = arguments.get(2).getList();
+            int[] row = new int[entries.size()], col = new int[entries.size()];
+            List<Atom> values = new ArrayList<>(entries.size());
+            for(int k = 0; k < row.length; k++) {
+                entries.get(k).guardType("Entry of 'mat-sparse'", Type.LIST);
+                List<Atom> e = entries.get(k).getList();
+                if(e.size() != 3)
+                    throw new Error("'mat-sparse' expects (row col value) entries.");
+                e.get(0).guardType("Row of a 'mat-sparse' entry", Type.NUMBER);
+                e.get(1).guardType("Column of a 'mat-sparse' entry", Type.NUMBER);
+                row[k] = e.get(0).getNumber().intValue();
+                col[k] = e.get(1).getNumber().intValue();
+                if(row[k] < 0 || row[k] >= rows || col[k] < 0 || col[k] >= cols)
+                    throw new Error("'mat-sparse': entry (" + row[k] + " " + col[k] + ") out of the bounds of a " + rows + "x" + cols + " matrix.");
+                values.add(e.get(2));
+            }
+            return SparseMatrix.of(rows, cols, row, col, values);
+        }));
+    }
+}
@@ -1,6 +1,7 @@
 package kamilalisp.libs.primitives.linalg;
 
 import kamilalisp.data.*;
+import kamilalisp.libs.primitives.list.Kernels;
 import kamilalisp.libs.primitives.math.Add;
 import kamilalisp.data.Matrix;
 
@@ -8,9 +9,14 @@ import java.util.List;
 
 public class Trace implements Closure {
     public static Atom trace(Matrix m, Callable c, Executor env) {
+        if(m instanceof DenseMatrix && Kernels.op(c) == NumericOp.ADD) {
+            Atom r = ((DenseMatrix) m).trace();
+            if(r != null)
+                return r;
+        }
         Atom acc = m.get(0, 0);
         for(int i = 1; i < Math.min(m.getRows(), m.getCols()); i++)
-            acc = c.apply(env, List.of(acc, m.get(i, i)));
+            acc = c.apply(env, List.of(acc, m.get(i, i))).eager();
         return acc;
     }
 
@@ -24,12 +30,12 @@ public class Trace implements Closure {
             throw new Error("Invalid invocation to 'mat-trace'.");
         return new Atom(new LbcSupplier<>(() -> {
             arguments.get(0).guardType("First argument to 'mat-trace'", Type.MATRIX);
-            Matrix m = arguments.get(0).getMatrix().get();
+            Matrix m = arguments.get(0).getMatrix();
             if(arguments.size() == 2) {
                 arguments.get(1).guardType("Second argument to 'mat-trace'", Type.CLOSURE, Type.MACRO);
-                return trace(m, arguments.get(1).getCallable().get(), env).get().get();
+                return trace(m, arguments.get(1).getCallable(), env);
             } else {
-                return trace(m, env).get().get();
+                return trace(m, env);
             }
         }));
     }
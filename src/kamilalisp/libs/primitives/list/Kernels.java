@@ -0,0 +1,165 @@
+package kamilalisp.libs.primitives.list;
+
+import kamilalisp.data.*;
+import kamilalisp.libs.primitives.DyadicMultivariateFunction;
+import kamilalisp.libs.primitives.math.Add;
+import kamilalisp.libs.primitives.math.Max;
+import kamilalisp.libs.primitives.math.Min;
+import kamilalisp.libs.primitives.math.Product;
+import kamilalisp.libs.primitives.math.Subtract;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Loops over packed numeric lists for folds, scans and `map` with +, - or *.
+// Each method returns null when its arguments don't allow a loop, and the
+// caller goes on to apply the function element by element. The results are
+// the same either way.
+public class Kernels {
+    // The arithmetic `f` performs, if it's +, - or *.
+    public static NumericOp op(Callable f) {
+        Callable c = DyadicMultivariateFunction.unwrap(f);
+        if(c instanceof Add)
+            return NumericOp.ADD;
+        if(c instanceof Subtract)
+            return NumericOp.SUBTRACT;
+        if(c instanceof Product)
+            return NumericOp.MULTIPLY;
+        return null;
+    }
+
+    // The semiring `inner-prod` with `f` and `g` multiplies matrices over,
+    // if it's one of those `DenseProduct` knows.
+    public static DenseProduct.Semiring semiring(Callable f, Callable g) {
+        Callable a = DyadicMultivariateFunction.unwrap(f), b = DyadicMultivariateFunction.unwrap(g);
+        if(a instanceof Add && b instanceof Product)
+            return DenseProduct.Semiring.PLUS_TIMES;
+        if(a instanceof Min && b instanceof Add)
+            return DenseProduct.Semiring.MIN_PLUS;
+        if(a instanceof Max && b instanceof Add)
+            return DenseProduct.Semiring.MAX_PLUS;
+        return null;
+    }
+
+    // `data` packed after forcing its elements, which folding with an
+    // arithmetic function would do anyway.
+    private static NumericVector forced(List<Atom> data) {
+        if(data instanceof NumericVector)
+            return (NumericVector) data;
+        for(Atom a : data)
+            if(a.getType() != Type.NUMBER)
+                return null;
+        return NumericVector.pack(data);
+    }
+
+    public static Atom foldl(Callable f, Atom acc, List<Atom> data) {
+        NumericOp op = op(f);
+        if(op == null || data.isEmpty() || acc.getType() != Type.NUMBER)
+            return null;
+        NumericVector v = forced(data);
+        if(v == null)
+            return null;
+        if(v.isFixnum() && acc.isFixnum()) {
+            long r = acc.getFixnum();
+            for(int i = 0; i < v.size(); i++) {
+                try {
+                    r = op.exact(r, v.getLong(i));
+                } catch(ArithmeticException e) {
+                    BigDecimal b = BigDecimal.valueOf(r);
+                    for(; i < v.size(); i++)
+                        b = op.apply(b, BigDecimal.valueOf(v.getLong(i)));
+                    return Atom.number(b);
+                }
+            }
+            return new Atom(r);
+        }
+        if((v.isFixnum() && !acc.isFlonum()) || !Flonum.fits(acc) || !fits(v))
+            return null;
+        double r = Flonum.value(acc);
+        for(int i = 0; i < v.size(); i++) {
+            r = op.apply(r, v.getDouble(i));
+            if(!Double.isFinite(r))
+                return null;
+        }
+        return new Atom(r);
+    }
+
+    public static Atom foldl1(Callable f, List<Atom> data) {
+        if(data.size() < 2)
+            return null;
+        return foldl(f, data.get(0), data.subList(1, data.size()));
+    }
+
+    public static List<Atom> scanl(Callable f, Atom acc, List<Atom> data) {
+        NumericOp op = op(f);
+        if(op == null || data.isEmpty() || acc.getType() != Type.NUMBER)
+            return null;
+        NumericVector v = forced(data);
+        if(v == null)
+            return null;
+        if(v.isFixnum() && acc.isFixnum()) {
+            long[] r = new long[v.size() + 1];
+            r[0] = acc.getFixnum();
+            try {
+                for(int i = 0; i < v.size(); i++)
+                    r[i + 1] = op.exact(r[i], v.getLong(i));
+            } catch(ArithmeticException e) {
+                return null;
+            }
+            return NumericVector.of(r);
+        }
+        if((v.isFixnum() && !acc.isFlonum()) || !Flonum.fits(acc) || !fits(v))
+            return null;
+        List<Atom> result = new ArrayList<>(v.size() + 1);
+        result.add(acc);
+        double r = Flonum.value(acc);
+        for(int i = 0; i < v.size(); i++) {
+            r = op.apply(r, v.getDouble(i));
+            if(!Double.isFinite(r))
+                return null;
+            result.add(new Atom(r));
+        }
+        return result;
+    }
+
+    // `map` of `f` over two lists. Only lists that are already packed are
+    // used, since `map` mustn't force the elements.
+    public static List<Atom> map(Callable f, List<Atom> a, List<Atom> b) {
+        NumericOp op = op(f);
+        if(op == null)
+            return null;
+        NumericVector x = NumericVector.pack(a), y = NumericVector.pack(b);
+        if(x == null || y == null)
+            return null;
+        int n = Math.min(x.size(), y.size());
+        if(x.isFixnum() && y.isFixnum()) {
+            long[] r = new long[n];
+            try {
+                for(int i = 0; i < n; i++)
+                    r[i] = op.exact(x.getLong(i), y.getLong(i));
+            } catch(ArithmeticException e) {
+                return null;
+            }
+            return NumericVector.of(r);
+        }
+        if(!fits(x) || !fits(y))
+            return null;
+        double[] r = new double[n];
+        for(int i = 0; i < n; i++) {
+            r[i] = op.apply(x.getDouble(i), y.getDouble(i));
+            if(!Double.isFinite(r[i]))
+                return null;
+        }
+        return NumericVector.of(r);
+    }
+
+    // Whether the values of `v` convert to doubles without losing digits.
+    private static boolean fits(NumericVector v) {
+        if(v.isFixnum())
+            for(int i = 0; i < v.size(); i++)
+                if(!Flonum.fits(v.getLong(i)))
+                    return false;
+        return true;
+    }
+}
@@ -17,7 +17,7 @@ public class Sort implements Closure {
             public int compare(Atom o1, Atom o2) {
                 Atom r = c.apply(env, List.of(o1, o2));
                 r.guardType("'sort' comparator", Type.NUMBER);
-                return r.getNumber().get().intValue();
+                return r.getNumber().intValue();
             }
         }).collect(Collectors.toList());
     }
@@ -28,10 +28,10 @@ public class Sort implements Closure {
             throw new Error("Invalid invocation to 'sort'.");
         return new Atom(new LbcSupplier<>(() -> {
             if(arguments.size() == 1 && arguments.get(0).getType() == Type.LIST) {
-                return sort(arguments.get(0).getList().get());
+                return sort(arguments.get(0).getList());
             } else if(arguments.size() == 2 && arguments.get(0).isCallable() && arguments.get(1).getType() == Type.LIST) {
-                Callable c = arguments.get(0).getCallable().get();
-                List<Atom> l = arguments.get(1).getList().get();
+                Callable c = arguments.get(0).getCallable();
+                List<Atom> l = arguments.get(1).getList();
                 return sort(l, c, env);
             } else
                 throw new Error("'sort' expects (closure, list) arguments or a list");
@@ -10,25 +10,52 @@ import java.util.List;
 public class Add implements Closure {
     public static Atom add2(Atom a1, Atom a2) {
         return new Atom(new LbcSupplier<>(() -> {
+            if (a1.isFixnum() && a2.isFixnum())
+                return Fixnum.add(a1.getFixnum(), a2.getFixnum());
+            if (Flonum.either(a1, a2)) {
+                Double d = Flonum.apply(a1, a2, (x, y) -> x + y);
+                if (d != null)
+                    return d;
+            }
             if (a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-                return a1.getNumber().get().add(a2.getNumber().get());
+                return a1.getNumber().add(a2.getNumber());
             } else if (a1.getType() == Type.MATRIX && a2.getType() == Type.MATRIX) {
-                if (a1.getMatrix().get().getRows() != a2.getMatrix().get().getRows() || a1.getMatrix().get().getCols() != a2.getMatrix().get().getCols())
+                if (a1.getMatrix().getRows() != a2.getMatrix().getRows() || a1.getMatrix().getCols() != a2.getMatrix().getCols())
                     throw new Error("Matrix dimensions must match");
-                return a1.getMatrix().get().transmogrifyRank0((x, y) ->
-                        new Atom(new LbcSupplier<>(() -> add2(x, y).get().get())), a2.getMatrix().get());
+                if (a1.getMatrix() instanceof SparseMatrix && a2.getMatrix() instanceof SparseMatrix) {
+                    SparseMatrix r = SparseMatrix.apply(NumericOp.ADD, (SparseMatrix) a1.getMatrix(), (SparseMatrix) a2.getMatrix());
+                    if (r != null)
+                        return r;
+                }
+                DenseMatrix d1 = DenseMatrix.pack(a1.getMatrix()), d2 = DenseMatrix.pack(a2.getMatrix());
+                if (d1 != null && d2 != null) {
+                    DenseMatrix r = DenseMatrix.apply(NumericOp.ADD, d1, d2);
+                    if (r != null)
+                        return r;
+                }
+                return a1.getMatrix().transmogrifyRank0((x, y) ->
+                        new Atom(new LbcSupplier<>(() -> add2(x, y))), a2.getMatrix());
+            } else if (NDArray.combines(a1, a2)) {
+                return NDArray.combine(NumericOp.ADD, a1, a2, Add::add2);
             } else if(a1.getType() == Type.COMPLEX && a2.getType() == Type.NUMBER) {
-                return a1.getComplex().get().add(a2.getNumber().get());
+                return a1.getComplex().add(a2.getNumber());
             } else if(a1.getType() == Type.NUMBER && a2.getType() == Type.COMPLEX) {
-                return BigComplex.valueOf(a1.getNumber().get()).add(a2.getComplex().get());
+                return BigComplex.valueOf(a1.getNumber()).add(a2.getComplex());
             } else if ((a1.getType() == Type.MATRIX && a2.isNumeric()) || (a1.isNumeric() && a2.getType() == Type.MATRIX)) {
                 Atom number;
                 Matrix mat;
 
                 if (a1.getType() == Type.MATRIX) {
-                    mat = a1.getMatrix().get();
+                    mat = a1.getMatrix();
                 } else {
-                    mat = a2.getMatrix().get();
+                    mat = a2.getMatrix();
+                }
+
+                DenseMatrix d = DenseMatrix.pack(mat);
+                if (d != null) {
+                    DenseMatrix r = DenseMatrix.apply(NumericOp.ADD, d, a1.getType() == Type.MATRIX ? a2 : a1, a1.getType() != Type.MATRIX);
+                    if (r != null)
+                        return r;
                 }
 
                 if (a1.isNumeric()) {
@@ -38,18 +65,18 @@ public class Add implements Closure {
                 }
 
                 return mat.transmogrifyRank0(x ->
-                        new Atom(new LbcSupplier<>(() -> add2(x, number).get().get()))
+                        new Atom(new LbcSupplier<>(() -> add2(x, number)))
                 );
             } else if (a1.getType() == Type.COMPLEX && a2.getType() == Type.COMPLEX) {
-                return a1.getComplex().get().add(a2.getComplex().get());
+                return a1.getComplex().add(a2.getComplex());
             } else if (a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.STRING_CONSTANT) {
-                return new StringConstant(a1.getStringConstant().get().get() + a2.getStringConstant().get().get());
+                return new StringConstant(a1.getStringConstant().get() + a2.getStringConstant().get());
             } else if (a1.getType() == Type.NUMBER && a2.getType() == Type.STRING_CONSTANT) {
-                return new StringConstant(a1.getNumber().get().toPlainString() + a2.getStringConstant().get().get());
+                return new StringConstant(a1.getNumber().toPlainString() + a2.getStringConstant().get());
             } else if (a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.NUMBER) {
-                return new StringConstant(a1.getStringConstant().get().get() + a2.getNumber().get().toPlainString());
+                return new StringConstant(a1.getStringConstant().get() + a2.getNumber().toPlainString());
             } else if (a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.COMPLEX) {
-                return new StringConstant(a1.getStringConstant().get().get() + a2);
+                return new StringConstant(a1.getStringConstant().get() + a2);
             } else {
                 throw new Error("+ unsupported on operands of type " + a1.getType().name() + " and " + a2.getType().name());
             }
@@ -59,19 +86,21 @@ public class Add implements Closure {
     public static Atom add1(Atom a) {
         return new Atom(new LbcSupplier<>(() -> {
             if (a.getType() == Type.COMPLEX) {
-                return BigComplexMath.conjugate(a.getComplex().get());
+                return BigComplexMath.conjugate(a.getComplex());
             } else if (a.getType() == Type.MATRIX) {
-                return a.getMatrix().get().transmogrifyRank0(x ->
+                return a.getMatrix().transmogrifyRank0(x ->
                         new Atom(new LbcSupplier<>(() -> {
                             if (x.getType() == Type.COMPLEX) {
-                                return BigComplexMath.conjugate(x.getComplex().get());
+                                return BigComplexMath.conjugate(x.getComplex());
                             } else {
-                                return x.get().get();
+                                return x.get();
                             }
                         }))
                 );
+            } else if (a.getType() == Type.ARRAY) {
+                return a.getArray().map(Add::add1);
             } else {
-                return a.get().get();
+                return a.get();
             }
         }));
     }
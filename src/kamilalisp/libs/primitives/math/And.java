@@ -12,14 +12,14 @@ import java.util.stream.Collectors;
 public class And implements Closure {
     public Atom and(Atom a, Atom b) {
         if(a.getType() == Type.NUMBER && b.getType() == Type.NUMBER) {
-            return new Atom(new BigDecimal(a.getNumber().get().toBigInteger().and(b.getNumber().get().toBigInteger())));
+            return new Atom(new BigDecimal(a.getNumber().toBigInteger().and(b.getNumber().toBigInteger())));
         } else if(a.getType() == Type.STRING_CONSTANT && b.getType() == Type.STRING_CONSTANT) {
-            Set<Integer> result = new LinkedHashSet<>(a.getStringConstant().get().get().codePoints().boxed().collect(Collectors.toList()));
-            result.retainAll(b.getStringConstant().get().get().codePoints().boxed().collect(Collectors.toList()));
+            Set<Integer> result = new LinkedHashSet<>(a.getStringConstant().get().codePoints().boxed().collect(Collectors.toList()));
+            result.retainAll(b.getStringConstant().get().codePoints().boxed().collect(Collectors.toList()));
             return new Atom(new StringConstant(result.stream().collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString()));
         } else if(a.getType() == Type.LIST && b.getType() == Type.LIST) {
-            Set<Atom> result = new LinkedHashSet<>(a.getList().get());
-            result.retainAll(b.getList().get());
+            Set<Atom> result = new LinkedHashSet<>(a.getList());
+            result.retainAll(b.getList());
             return new Atom(new ArrayList<>(result));
         } else
             throw new Error("Invalid invocation to '&'. Expected two numbers, two strings or two lists.");
@@ -29,6 +29,6 @@ public class And implements Closure {
     public Atom apply(Executor env, List<Atom> arguments) {
         if(arguments.size() != 2)
             throw new Error("Invalid invocation to '&'.");
-        return new Atom(new LbcSupplier<>(() -> and(arguments.get(0), arguments.get(1)).get().get()));
+        return new Atom(new LbcSupplier<>(() -> and(arguments.get(0), arguments.get(1))));
     }
 }
@@ -8,155 +8,171 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 public class Derivative implements Closure {
-    public Atom D(Atom f, String v) {
+    private static final Symbol ADD = Symbol.of("+");
+    private static final Symbol SUB = Symbol.of("-");
+    private static final Symbol MUL = Symbol.of("*");
+    private static final Symbol DIV = Symbol.of("/");
+    private static final Symbol POW = Symbol.of("**");
+    private static final Symbol SIN = Symbol.of("sin");
+    private static final Symbol COS = Symbol.of("cos");
+    private static final Symbol TAN = Symbol.of("tan");
+    private static final Symbol CTAN = Symbol.of("ctan");
+    private static final Symbol SEC = Symbol.of("sec");
+    private static final Symbol CSEC = Symbol.of("csec");
+    private static final Symbol SQRT = Symbol.of("sqrt");
+    private static final Symbol LN = Symbol.of("ln");
+    private static final Symbol EXP = Symbol.of("exp");
+    private static final Symbol LAMBERT_W = Symbol.of("lambert-w");
+
+    public Atom D(Atom f, Symbol v) {
         if(f.getType() == Type.CLOSURE)
-            return D(f.getClosure().get().requote().get(1), v);
+            return D(f.getClosure().requote().get(1), v);
         else if(f.getType() == Type.COMPLEX || f.getType() == Type.NUMBER)
             return new Atom(BigDecimal.ZERO);
         else if(f.getType() == Type.STRING)
-            if(f.getString().get().equals(v))
+            if(f.getSymbol() == v)
                 return new Atom(BigDecimal.ONE);
             else
                 return new Atom(BigDecimal.ZERO); // Partial derivative: treat variable as constant.
         else if(f.getType() != Type.LIST)
-            throw new Error("'D': Derivative of " + f.getType() + " is not supported: " + f.get().get());
+            throw new Error("'D': Derivative of " + f.getType() + " is not supported: " + f.get());
 
-        List<Atom> expr = f.getList().get();
+        List<Atom> expr = f.getList();
         if(expr.isEmpty())
             throw new Error("'D': Derivative of an empty list is not supported.");
         expr.get(0).guardType("'D' function head", Type.STRING);
-        switch(expr.get(0).getString().get()) {
-            case "+":
-                // d/dx conj(x) = undefined
-                // d/dx a + b = d/dx a + d/dx b
-                if(expr.size() == 2)
-                    throw new Error("d/dx conj(x) impossible.");
-                else if(expr.size() == 3)
-                    return new Atom(List.of(new Atom("+"), D(expr.get(1), v), D(expr.get(2), v)));
-                else
-                    throw new Error("Invalid invocation to +.");
-            case "-":
-                if(expr.size() == 2)
-                    return new Atom(List.of(new Atom("-"), D(expr.get(1), v)));
-                else if(expr.size() == 3)
-                    return new Atom(List.of(new Atom("-"), D(expr.get(1), v), D(expr.get(2), v)));
-                else
-                    throw new Error("Invalid invocation to -.");
-            case "*":
-                // d/dx a * b = d/dx a * b + d/dx b * a
-                if(expr.size() == 2)
-                    throw new Error("d/dx signum(x) = 2δ(x), although dirac delta is a lie.");
-                else if(expr.size() == 3)
-                    return new Atom(List.of(new Atom("+"),
-                            new Atom(List.of(new Atom("*"), D(expr.get(1), v), expr.get(2))),
-                            new Atom(List.of(new Atom("*"), D(expr.get(2), v), expr.get(1)))));
-                else
-                    throw new Error("Invalid invocation to *.");
-            case "/":
-                // d/dx 1 / f(x) = - d/dx f(x) / f(x)^2
-                // d/dx f(x) / g(x) = ((d/dx f(x)) * g(x) - (d/dx g(x)) * f(x)) / g(x)^2
-                if(expr.size() == 2)
-                    return new Atom(List.of(new Atom("-"),
-                            new Atom(List.of(new Atom("/"), D(expr.get(1), v),
-                                    new Atom(List.of(new Atom("**"), expr.get(1), new Atom(new BigDecimal(2))))))));
-                else if(expr.size() == 3)
-                    return new Atom(List.of(new Atom("/"), new Atom(List.of(new Atom("-"),
-                                    new Atom(List.of(new Atom("*"), D(expr.get(1), v), expr.get(2))),
-                                    new Atom(List.of(new Atom("*"), D(expr.get(2), v), expr.get(1))))),
-                            new Atom(List.of(new Atom("**"), expr.get(2), new Atom(new BigDecimal(2))))));
-                else
-                    throw new Error("Invalid invocation to /.");
-            case "**":
-                // Better get your fucking seatbelts ready, punk.
-                // d/dx (f(x) ** g(x)) = f(x) ** (g(x) - 1) * (g(x) * (d/dx f(x)) + f(x) * log(f(x)) * (d/dx g(x)))
-                if(expr.size() != 3)
-                    throw new Error("Invalid invocation to **.");
-                // d/dx (f(x) ** g(x)) = a * (c + d)
-                // a = f(x) ** (g(x) - 1)
-                // c = g(x) * (d/dx f(x))
-                // d = f(x) * log(f(x)) * (d/dx g(x))
-                Atom a = new Atom(List.of(new Atom("**"), expr.get(1), new Atom(List.of(new Atom("-"), expr.get(2), new Atom(new BigDecimal(1))))));
-                Atom c = new Atom(List.of(new Atom("*"), expr.get(2), D(expr.get(1), v)));
-                Atom d = new Atom(List.of(new Atom("*"), new Atom(List.of(new Atom("*"), expr.get(1), D(expr.get(2), v))), new Atom(List.of(new Atom("ln"), expr.get(1)))));
-                return new Atom(List.of(new Atom("*"), a, new Atom(List.of(new Atom("+"), c, d))));
-            case "sin":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to sin.");
-                // d/dx sin(f(x)) = cos(f(x)) * d/dx f(x)
-                return new Atom(List.of(new Atom("*"),
-                        new Atom(List.of(new Atom("cos"), expr.get(1))),
-                        D(expr.get(1), v)));
-            case "cos":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to cos.");
-                // d/dx cos(f(x)) = - sin(f(x)) * d/dx f(x)
-                return new Atom(List.of(new Atom("*"),
-                        new Atom(List.of(new Atom("-"), new Atom(List.of(new Atom("sin"), expr.get(1))))),
-                        D(expr.get(1), v)));
-            case "sqrt":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to sqrt.");
-                // d/dx sqrt(f(x)) = (d/dx f(x)) / (2 * sqrt(f(x)))
-                return new Atom(List.of(new Atom("/"),
-                        D(expr.get(1), v),
-                        new Atom(List.of(new Atom("*"), new Atom(new BigDecimal(2)), new Atom(List.of(new Atom("sqrt"), expr.get(1)))))));
-            case "ln":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to ln.");
-                // d/dx ln(f(x)) = (d/dx f(x)) / f(x)
-                return new Atom(List.of(new Atom("/"),
-                        D(expr.get(1), v),
-                        expr.get(1)));
-            case "exp":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to exp.");
-                // d/dx exp(f(x)) = exp(f(x)) * d/dx f(x)
-                return new Atom(List.of(new Atom("*"),
-                        new Atom(List.of(new Atom("exp"), expr.get(1))),
-                        D(expr.get(1), v)));
-            case "tan":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to tan.");
-                // d/dx tan(f(x)) = (d/dx f(x)) * sec^2(f(x))
-                return new Atom(List.of(new Atom("*"),
-                        D(expr.get(1), v),
-                        new Atom(List.of(new Atom("**"), new Atom(List.of(new Atom("sec"), expr.get(1))), new Atom(new BigDecimal(2))))));
-            case "ctan":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to ctan.");
-                // d/dx ctan(f(x)) = (d/dx f(x)) * (- (csec^2(f(x))))
-                return new Atom(List.of(new Atom("*"),
-                        D(expr.get(1), v),
-                        new Atom(List.of(new Atom("*"), new Atom(new BigDecimal(-1)), new Atom(List.of(new Atom("**"), new Atom(List.of(new Atom("csec"), expr.get(1))), new Atom(new BigDecimal(2))))))));
-            case "sec":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to sec.");
-                // d/dx sec(f(x)) = (d/dx f(x)) * (sec(f(x)) * tan(f(x)))
-                return new Atom(List.of(new Atom("*"),
-                        D(expr.get(1), v),
-                        new Atom(List.of(new Atom("*"), new Atom(List.of(new Atom("sec"), expr.get(1))), new Atom(List.of(new Atom("tan"), expr.get(1)))))));
-            case "csec":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to csec.");
-                // d/dx csec(f(x)) = (d/dx f(x)) * (- (csec(f(x)) * ctan(f(x))))
-                return new Atom(List.of(new Atom("*"),
-                        D(expr.get(1), v),
-                        new Atom(List.of(new Atom("*"), new Atom(new BigDecimal(-1)),
-                                new Atom(List.of(new Atom("*"), new Atom(List.of(new Atom("csec"), expr.get(1))), new Atom(List.of(new Atom("ctan"), expr.get(1)))))))));
-            case "lambert-w":
-                if(expr.size() != 2)
-                    throw new Error("Invalid invocation to lambert-w.");
-                // d/dx W(f(x)) = (d/dx f(x)) * W(f(x)) / (f(x) * W(f(x)) + f(x))
-                // d/dx W(f(x)) = a/b
-                // a = W(f(x)) * d/dx f(x)
-                // b = (f(x) * W(f(x))) + f(x) = f(x) * (W(f(x)) + 1)
-                Atom fA = new Atom(List.of(new Atom("*"),
-                        new Atom(List.of(new Atom("lambert-w"), expr.get(1))),
-                        D(expr.get(1), v)));
-                Atom fB = new Atom(List.of(new Atom("*"),
-                        expr.get(1),
-                        new Atom(List.of(new Atom("+"), new Atom(List.of(new Atom("lambert-w"), expr.get(1))), new Atom(new BigDecimal(1))))));
-                return new Atom(List.of(new Atom("/"), fA, fB));
+        Symbol head = expr.get(0).getSymbol();
+        if(head == ADD) {
+            // d/dx conj(x) = undefined
+            // d/dx a + b = d/dx a + d/dx b
+            if(expr.size() == 2)
+                throw new Error("d/dx conj(x) impossible.");
+            else if(expr.size() == 3)
+                return new Atom(List.of(new Atom(ADD), D(expr.get(1), v), D(expr.get(2), v)));
+            else
+                throw new Error("Invalid invocation to +.");
+        } else if(head == SUB) {
+            if(expr.size() == 2)
+                return new Atom(List.of(new Atom(SUB), D(expr.get(1), v)));
+            else if(expr.size() == 3)
+                return new Atom(List.of(new Atom(SUB), D(expr.get(1), v), D(expr.get(2), v)));
+            else
+                throw new Error("Invalid invocation to -.");
+        } else if(head == MUL) {
+            // d/dx a * b = d/dx a * b + d/dx b * a
+            if(expr.size() == 2)
+                throw new Error("d/dx signum(x) = 2δ(x), although dirac delta is a lie.");
+            else if(expr.size() == 3)
+                return new Atom(List.of(new Atom(ADD),
+                        new Atom(List.of(new Atom(MUL), D(expr.get(1), v), expr.get(2))),
+                        new Atom(List.of(new Atom(MUL), D(expr.get(2), v), expr.get(1)))));
+            else
+                throw new Error("Invalid invocation to *.");
+        } else if(head == DIV) {
+            // d/dx 1 / f(x) = - d/dx f(x) / f(x)^2
+            // d/dx f(x) / g(x) = ((d/dx f(x)) * g(x) - (d/dx g(x)) * f(x)) / g(x)^2
+            if(expr.size() == 2)
+                return new Atom(List.of(new Atom(SUB),
+                        new Atom(List.of(new Atom(DIV), D(expr.get(1), v),
+                                new Atom(List.of(new Atom(POW), expr.get(1), new Atom(new BigDecimal(2))))))));
+            else if(expr.size() == 3)
+                return new Atom(List.of(new Atom(DIV), new Atom(List.of(new Atom(SUB),
+                                new Atom(List.of(new Atom(MUL), D(expr.get(1), v), expr.get(2))),
+                                new Atom(List.of(new Atom(MUL), D(expr.get(2), v), expr.get(1))))),
+                        new Atom(List.of(new Atom(POW), expr.get(2), new Atom(new BigDecimal(2))))));
+            else
+                throw new Error("Invalid invocation to /.");
+        } else if(head == POW) {
+            // Better get your fucking seatbelts ready, punk.
+            // d/dx (f(x) ** g(x)) = f(x) ** (g(x) - 1) * (g(x) * (d/dx f(x)) + f(x) * log(f(x)) * (d/dx g(x)))
+            if(expr.size() != 3)
+                throw new Error("Invalid invocation to **.");
+            // d/dx (f(x) ** g(x)) = a * (c + d)
+            // a = f(x) ** (g(x) - 1)
+            // c = g(x) * (d/dx f(x))
+            // d = f(x) * log(f(x)) * (d/dx g(x))
+            Atom a = new Atom(List.of(new Atom(POW), expr.get(1), new Atom(List.of(new Atom(SUB), expr.get(2), new Atom(new BigDecimal(1))))));
+            Atom c = new Atom(List.of(new Atom(MUL), expr.get(2), D(expr.get(1), v)));
+            Atom d = new Atom(List.of(new Atom(MUL), new Atom(List.of(new Atom(MUL), expr.get(1), D(expr.get(2), v))), new Atom(List.of(new Atom(LN), expr.get(1)))));
+            return new Atom(List.of(new Atom(MUL), a, new Atom(List.of(new Atom(ADD), c, d))));
+        } else if(head == SIN) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to sin.");
+            // d/dx sin(f(x)) = cos(f(x)) * d/dx f(x)
+            return new Atom(List.of(new Atom(MUL),
+                    new Atom(List.of(new Atom(COS), expr.get(1))),
+                    D(expr.get(1), v)));
+        } else if(head == COS) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to cos.");
+            // d/dx cos(f(x)) = - sin(f(x)) * d/dx f(x)
+            return new Atom(List.of(new Atom(MUL),
+                    new Atom(List.of(new Atom(SUB), new Atom(List.of(new Atom(SIN), expr.get(1))))),
+                    D(expr.get(1), v)));
+        } else if(head == SQRT) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to sqrt.");
+            // d/dx sqrt(f(x)) = (d/dx f(x)) / (2 * sqrt(f(x)))
+            return new Atom(List.of(new Atom(DIV),
+                    D(expr.get(1), v),
+                    new Atom(List.of(new Atom(MUL), new Atom(new BigDecimal(2)), new Atom(List.of(new Atom(SQRT), expr.get(1)))))));
+        } else if(head == LN) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to ln.");
+            // d/dx ln(f(x)) = (d/dx f(x)) / f(x)
+            return new Atom(List.of(new Atom(DIV),
+                    D(expr.get(1), v),
+                    expr.get(1)));
+        } else if(head == EXP) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to exp.");
+            // d/dx exp(f(x)) = exp(f(x)) * d/dx f(x)
+            return new Atom(List.of(new Atom(MUL),
+                    new Atom(List.of(new Atom(EXP), expr.get(1))),
+                    D(expr.get(1), v)));
+        } else if(head == TAN) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to tan.");
+            // d/dx tan(f(x)) = (d/dx f(x)) * sec^2(f(x))
+            return new Atom(List.of(new Atom(MUL),
+                    D(expr.get(1), v),
+                    new Atom(List.of(new Atom(POW), new Atom(List.of(new Atom(SEC), expr.get(1))), new Atom(new BigDecimal(2))))));
+        } else if(head == CTAN) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to ctan.");
+            // d/dx ctan(f(x)) = (d/dx f(x)) * (- (csec^2(f(x))))
+            return new Atom(List.of(new Atom(MUL),
+                    D(expr.get(1), v),
+                    new Atom(List.of(new Atom(MUL), new Atom(new BigDecimal(-1)), new Atom(List.of(new Atom(POW), new Atom(List.of(new Atom(CSEC), expr.get(1))), new Atom(new BigDecimal(2))))))));
+        } else if(head == SEC) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to sec.");
+            // d/dx sec(f(x)) = (d/dx f(x)) * (sec(f(x)) * tan(f(x)))
+            return new Atom(List.of(new Atom(MUL),
+                    D(expr.get(1), v),
+                    new Atom(List.of(new Atom(MUL), new Atom(List.of(new Atom(SEC), expr.get(1))), new Atom(List.of(new Atom(TAN), expr.get(1)))))));
+        } else if(head == CSEC) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to csec.");
+            // d/dx csec(f(x)) = (d/dx f(x)) * (- (csec(f(x)) * ctan(f(x))))
+            return new Atom(List.of(new Atom(MUL),
+                    D(expr.get(1), v),
+                    new Atom(List.of(new Atom(MUL), new Atom(new BigDecimal(-1)),
+                            new Atom(List.of(new Atom(MUL), new Atom(List.of(new Atom(CSEC), expr.get(1))), new Atom(List.of(new Atom(CTAN), expr.get(1)))))))));
+        } else if(head == LAMBERT_W) {
+            if(expr.size() != 2)
+                throw new Error("Invalid invocation to lambert-w.");
+            // d/dx W(f(x)) = (d/dx f(x)) * W(f(x)) / (f(x) * W(f(x)) + f(x))
+            // d/dx W(f(x)) = a/b
+            // a = W(f(x)) * d/dx f(x)
+            // b = (f(x) * W(f(x))) + f(x) = f(x) * (W(f(x)) + 1)
+            Atom fA = new Atom(List.of(new Atom(MUL),
+                    new Atom(List.of(new Atom(LAMBERT_W), expr.get(1))),
+                    D(expr.get(1), v)));
+            Atom fB = new Atom(List.of(new Atom(MUL),
+                    expr.get(1),
+                    new Atom(List.of(new Atom(ADD), new Atom(List.of(new Atom(LAMBERT_W), expr.get(1))), new Atom(new BigDecimal(1))))));
+            return new Atom(List.of(new Atom(DIV), fA, fB));
         }
 
         throw new Error("'D': Can't compute the derivative of " + expr + ".");
@@ -180,75 +196,71 @@ public class Derivative implements Closure {
     public Atom simplify(Executor env, Atom f) {
         if(f.getType() != Type.LIST)
             return f;
-        List<Atom> expr = f.getList().get();
+        List<Atom> expr = f.getList();
         if(expr.isEmpty())
             throw new Error("'D': Simplification of an empty list is not supported.");
         expr.get(0).guardType("'D' Simplification submodule function head", Type.STRING);
         Atom result;
-        switch(expr.get(0).getString().get()) {
-            case "+":
-                // Try to simplify conj(x) and x + y.
-                // Also, try to cancel out 0+x and x+0.
-                if((result = trySimp(env, expr, 2)) != null)
-                    return result;
-                else if((result = trySimp(env, expr, 3)) != null)
-                    return result;
-                else if(expr.size() == 3 && (
-                        (expr.get(1).getType() == Type.NUMBER && expr.get(1).getNumber().get().compareTo(BigDecimal.ZERO) == 0)
-                                || (expr.get(1).getType() == Type.COMPLEX && expr.get(1).getComplex().get().equals(BigComplex.ZERO))))
-                    return expr.get(2);
-                else if(expr.size() == 3 && (
-                        (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().get().compareTo(BigDecimal.ZERO) == 0)
-                                || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().get().equals(BigComplex.ZERO))))
-                    return expr.get(1);
-                break;
-            case "-":
-                // Try to simplify -x and x - y.
-                // Also, try to simplify 0-x as -x and x-0 as x.
-                if((result = trySimp(env, expr, 2)) != null)
-                    return result;
-                else if((result = trySimp(env, expr, 3)) != null)
-                    return result;
-                else if(expr.size() == 3 && (
-                        (expr.get(1).getType() == Type.NUMBER && expr.get(1).getNumber().get().compareTo(BigDecimal.ONE) == 0)
-                                || (expr.get(1).getType() == Type.COMPLEX && expr.get(1).getComplex().get().equals(BigComplex.ONE))))
-                    return new Atom(List.of(new Atom("-"), expr.get(2)));
-                else if(expr.size() == 3 && (
-                        (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().get().compareTo(BigDecimal.ONE) == 0)
-                                || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().get().equals(BigComplex.ONE))))
-                    return expr.get(1);
-                break;
-            case "*":
-                // Try to simplify signum(x) and x * y.
-                // Also, try to simplify 0*x and x*0 to both 0, and 1*x and x*1 to both x.
-                if((result = trySimp(env, expr, 2)) != null)
-                    return result;
-                else if((result = trySimp(env, expr, 3)) != null)
-                    return result;
-                else if(expr.size() == 3 && (
-                        (expr.get(1).getType() == Type.NUMBER && expr.get(1).getNumber().get().compareTo(BigDecimal.ZERO) == 0)
-                                || (expr.get(1).getType() == Type.COMPLEX && expr.get(1).getComplex().get().equals(BigComplex.ZERO))))
-                    return new Atom(new BigDecimal(0));
-                else if(expr.size() == 3 && (
-                        (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().get().compareTo(BigDecimal.ZERO) == 0)
-                                || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().get().equals(BigComplex.ZERO))))
-                    return new Atom(new BigDecimal(0));
-                else if(expr.size() == 3 && (
-                        (expr.get(1).getType() == Type.NUMBER && expr.get(1).getNumber().get().compareTo(BigDecimal.ONE) == 0)
-                                || (expr.get(1).getType() == Type.COMPLEX && expr.get(1).getComplex().get().equals(BigComplex.ONE))))
-                    return expr.get(2);
-                else if(expr.size() == 3 && (
-                        (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().get().compareTo(BigDecimal.ONE) == 0)
-                                || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().get().equals(BigComplex.ONE))))
-                    return expr.get(1);
-                break;
-            case "**":
-                // Simpify x ** 1 to x.
-                if(expr.size() == 3 && (
-                        (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().get().compareTo(BigDecimal.ONE) == 0)
-                                || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().get().equals(BigComplex.ONE))))
-                    return expr.get(1);
-                break;
+        Symbol head = expr.get(0).getSymbol();
+        if(head == ADD) {
+            // Try to simplify conj(x) and x + y.
+            // Also, try to cancel out 0+x and x+0.
+            if((result = trySimp(env, expr, 2)) != null)
+                return result;
+            else if((result = trySimp(env, expr, 3)) != null)
+                return result;
+            else if(expr.size() == 3 && (
+                    (expr.get(1).getType() == Type.NUMBER && expr.get(1).getNumber().compareTo(BigDecimal.ZERO) == 0)
+                            || (expr.get(1).getType() == Type.COMPLEX && expr.get(1).getComplex().equals(BigComplex.ZERO))))
+                return expr.get(2);
+            else if(expr.size() == 3 && (
+                    (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().compareTo(BigDecimal.ZERO) == 0)
+                            || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().equals(BigComplex.ZERO))))
+                return expr.get(1);
+        } else if(head == SUB) {
+            // Try to simplify -x and x - y.
+            // Also, try to simplify 0-x as -x and x-0 as x.
+            if((result = trySimp(env, expr, 2)) != null)
+                return result;
+            else if((result = trySimp(env, expr, 3)) != null)
+                return result;
+            else if(expr.size() == 3 && (
+                    (expr.get(1).getType() == Type.NUMBER && expr.get(1).getNumber().compareTo(BigDecimal.ONE) == 0)
+                            || (expr.get(1).getType() == Type.COMPLEX && expr.get(1).getComplex().equals(BigComplex.ONE))))
+                return new Atom(List.of(new Atom(SUB), expr.get(2)));
+            else if(expr.size() == 3 && (
+                    (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().compareTo(BigDecimal.ONE) == 0)
+                            || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().equals(BigComplex.ONE))))
+                return expr.get(1);
+        } else if(head == MUL) {
+            // Try to simplify signum(x) and x * y.
+            // Also, try to simplify 0*x and x*0 to both 0, and 1*x and x*1 to both x.
+            if((result = trySimp(env, expr, 2)) != null)
+                return result;
+            else if((result = trySimp(env, expr, 3)) != null)
+                return result;
+            else if(expr.size() == 3 && (
+                    (expr.get(1).getType() == Type.NUMBER && expr.get(1).getNumber().compareTo(BigDecimal.ZERO) == 0)
+                            || (expr.get(1).getType() == Type.COMPLEX && expr.get(1).getComplex().equals(BigComplex.ZERO))))
+                return new Atom(new BigDecimal(0));
+            else if(expr.size() == 3 && (
+                    (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().compareTo(BigDecimal.ZERO) == 0)
+                            || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().equals(BigComplex.ZERO))))
+                return new Atom(new BigDecimal(0));
+            else if(expr.size() == 3 && (
+                    (expr.get(1).getType() == Type.NUMBER && expr.get(1).getNumber().compareTo(BigDecimal.ONE) == 0)
+                            || (expr.get(1).getType() == Type.COMPLEX && expr.get(1).getComplex().equals(BigComplex.ONE))))
+                return expr.get(2);
+            else if(expr.size() == 3 && (
+                    (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().compareTo(BigDecimal.ONE) == 0)
+                            || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().equals(BigComplex.ONE))))
+                return expr.get(1);
+        } else if(head == POW) {
+            // Simpify x ** 1 to x.
+            if(expr.size() == 3 && (
+                    (expr.get(2).getType() == Type.NUMBER && expr.get(2).getNumber().compareTo(BigDecimal.ONE) == 0)
+                            || (expr.get(2).getType() == Type.COMPLEX && expr.get(2).getComplex().equals(BigComplex.ONE))))
+                return expr.get(1);
         }
         return new Atom(expr.stream().map(x -> simplify(env, x)).collect(Collectors.toList()));
     }
@@ -263,10 +275,10 @@ public class Derivative implements Closure {
         return deriv;
     }
 
-    public Atom deriv(Executor env, Closure c, String v) {
+    public Atom deriv(Executor env, Closure c, Symbol v) {
         Atom code = c.requote().get(1);
         Atom params = c.requote().get(0);
-        return env.evaluate(new Atom(List.of(new Atom("lambda"), params, maxSimplify(env, D(maxSimplify(env, code), v)))));
+        return env.evaluate(new Atom(List.of(new Atom(Symbol.LAMBDA), params, maxSimplify(env, D(maxSimplify(env, code), v)))));
     }
 
     @Override
@@ -275,12 +287,12 @@ public class Derivative implements Closure {
             throw new Error("Invalid invocation to 'D'.");
         return new Atom(new LbcSupplier<>(() -> {
             arguments.get(0).guardType("Argument to 'D'", Type.CLOSURE);
-            String v;
+            Symbol v;
             if(arguments.size() == 2)
-                v = arguments.get(1).getString().get();
+                v = arguments.get(1).getSymbol();
             else
-                v = "x";
-            return deriv(env, arguments.get(0).getClosure().get(), v).get().get();
+                v = Symbol.X;
+            return deriv(env, arguments.get(0).getClosure(), v);
         }));
     }
 }
@@ -13,8 +13,8 @@ public class GCD implements Closure {
         a1.guardType("First argument to 'gcd'", Type.NUMBER, Type.COMPLEX);
         a2.guardType("Second argument to 'gcd'", Type.NUMBER, Type.COMPLEX);
         if(a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-            BigDecimal a = a1.getNumber().get();
-            BigDecimal b = a2.getNumber().get();
+            BigDecimal a = a1.getNumber();
+            BigDecimal b = a2.getNumber();
             BigDecimal base = BigDecimal.ONE;
             int dpA = decimalPlaces(a);
             if(dpA > 0) {
@@ -43,9 +43,9 @@ public class GCD implements Closure {
     public static BigComplex asComplex(Atom a) {
         a.guardType("Argument to 'asComplex'", Type.NUMBER, Type.COMPLEX);
         if(a.getType() == Type.NUMBER)
-            return BigComplex.valueOf(a.getNumber().get(), BigDecimal.ZERO);
+            return BigComplex.valueOf(a.getNumber(), BigDecimal.ZERO);
         else
-            return a.getComplex().get();
+            return a.getComplex();
     }
 
     private static BigComplex gaussianRem(Environment env, BigComplex a, BigComplex b) {
@@ -78,6 +78,6 @@ public class GCD implements Closure {
             throw new Error("Invalid 'gcd' invocation.");
         if(arguments.size() == 1)
             return arguments.get(0);
-        return new Atom(new LbcSupplier<>(() -> gcd(env.env, arguments.get(0), arguments.get(1)).get().get()));
+        return new Atom(new LbcSupplier<>(() -> gcd(env.env, arguments.get(0), arguments.get(1))));
     }
 }
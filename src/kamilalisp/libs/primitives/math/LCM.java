@@ -12,7 +12,7 @@ public class LCM implements Closure {
         a1.guardType("First argument to 'lcm'", Type.NUMBER, Type.COMPLEX);
         a2.guardType("Second argument to 'lcm'", Type.NUMBER, Type.COMPLEX);
         if(a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-            return new Atom(a1.getNumber().get().multiply(a2.getNumber().get()).divide(GCD.gcd(env, a1, a2).getNumber().get()));
+            return new Atom(a1.getNumber().multiply(a2.getNumber()).divide(GCD.gcd(env, a1, a2).getNumber()));
         } else {
             BigComplex a = asComplex(a1), b = asComplex(a2);
             assertGaussian(a);
@@ -28,9 +28,9 @@ public class LCM implements Closure {
     public static BigComplex asComplex(Atom a) {
         a.guardType("Argument to 'asComplex'", Type.NUMBER, Type.COMPLEX);
         if(a.getType() == Type.NUMBER)
-            return BigComplex.valueOf(a.getNumber().get(), BigDecimal.ZERO);
+            return BigComplex.valueOf(a.getNumber(), BigDecimal.ZERO);
         else
-            return a.getComplex().get();
+            return a.getComplex();
     }
 
     @Override
@@ -39,6 +39,6 @@ public class LCM implements Closure {
             throw new Error("Invalid 'lcm' invocation.");
         if(arguments.size() == 1)
             return arguments.get(0);
-        return new Atom(new LbcSupplier<>(() -> lcm(env.env, arguments.get(0), arguments.get(1)).get().get()));
+        return new Atom(new LbcSupplier<>(() -> lcm(env.env, arguments.get(0), arguments.get(1))));
     }
 }
@@ -0,0 +1,27 @@
+package kamilalisp.libs.primitives.math;
+
+import kamilalisp.data.*;
+
+import java.util.List;
+
+public class Max implements Closure {
+    @Override
+    public Atom apply(Executor env, List<Atom> arguments) {
+        if(arguments.size() != 2)
+            throw new Error("Invalid invocation to 'max'.");
+        return new Atom(new LbcSupplier<>(() -> {
+            Atom a1 = arguments.get(0);
+            Atom a2 = arguments.get(1);
+            if(a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
+                return a1.getNumber().max(a2.getNumber());
+            } else if(a1.getType() == Type.COMPLEX && a2.getType() == Type.COMPLEX) {
+                return Remainder.norm(env.env, a1.getComplex()).compareTo(Remainder.norm(env.env, a2.getComplex())) > 0 ? a1.get() : a2.get();
+            } else if(a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.STRING_CONSTANT) {
+                return a1.getStringConstant().get().compareTo(a2.getStringConstant().get()) > 0 ? a1.get() : a2.get();
+            } else if(a1.getType() == Type.LIST && a2.getType() == Type.LIST) {
+                return a1.getList().size() > a2.getList().size() ? a1.get() : a2.get();
+            }
+            throw new Error("Invalid invocation to 'max': expected two lists, two strings or two numbers.");
+        }));
+    }
+}
@@ -19,25 +19,31 @@ public class Power implements Closure {
         a1.guardType("First argument to '**'", Type.NUMBER, Type.COMPLEX, Type.MATRIX);
         a2.guardType("Second argument to '**'", Type.NUMBER, Type.COMPLEX);
         if(a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-            if (a2.getNumber().get().stripTrailingZeros().scale() > 0)
-                return new Atom(BigDecimalMath.pow(a1.getNumber().get(), a2.getNumber().get(), Constant.getFr(env.env)));
+            // integer powers of exact numbers stay exact.
+            if(Flonum.either(a1, a2) || (Constant.isFlonum(env.env) && a2.getNumber().stripTrailingZeros().scale() > 0)) {
+                Double d = Flonum.apply(a1, a2, Math::pow);
+                if(d != null)
+                    return new Atom(d);
+            }
+            if (a2.getNumber().stripTrailingZeros().scale() > 0)
+                return new Atom(BigDecimalMath.pow(a1.getNumber(), a2.getNumber(), Constant.getFr(env.env)));
             else
-                return new Atom(a1.getNumber().get().pow(a2.getNumber().get().intValue()));
+                return new Atom(a1.getNumber().pow(a2.getNumber().intValue()));
         } else if(a1.getType() == Type.MATRIX) {
-            int power = a2.getNumber().get().intValue();
-            Matrix mat = a1.getMatrix().get();
+            int power = a2.getNumber().intValue();
+            Matrix mat = a1.getMatrix();
             Matrix base = mat;
             if(power == 0)
                 return new Atom(Matrix.of((x, y) -> new Atom(BigDecimal.ZERO), mat.getRows(), mat.getCols()));
             for(int i = 1; i < power; i++)
-                mat = Product.mul2(new Atom(mat), new Atom(base)).getMatrix().get();
+                mat = Product.mul2(new Atom(mat), new Atom(base)).getMatrix();
             return new Atom(mat);
         } else {
             BigComplex a, b;
-            if(a1.getType() == Type.NUMBER) { a = BigComplex.valueOf(a1.getNumber().get(), BigDecimal.ZERO); }
-            else { a = a1.getComplex().get(); }
-            if(a2.getType() == Type.NUMBER) { b = BigComplex.valueOf(a2.getNumber().get(), BigDecimal.ZERO); }
-            else { b = a2.getComplex().get(); }
+            if(a1.getType() == Type.NUMBER) { a = BigComplex.valueOf(a1.getNumber(), BigDecimal.ZERO); }
+            else { a = a1.getComplex(); }
+            if(a2.getType() == Type.NUMBER) { b = BigComplex.valueOf(a2.getNumber(), BigDecimal.ZERO); }
+            else { b = a2.getComplex(); }
             return new Atom(BigComplexMath.pow(a, b, Constant.getFr(env.env)));
         }
     }
@@ -49,7 +55,7 @@ public class Power implements Closure {
         return new Atom(new LbcSupplier<>(() -> {
             Atom a1 = arguments.get(0);
             Atom a2 = arguments.get(1);
-            return power(a1, a2, env).get().get();
+            return power(a1, a2, env);
         }));
     }
 }
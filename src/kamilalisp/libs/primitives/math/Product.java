@@ -17,30 +17,63 @@ public class Product implements Closure {
 
     public static Atom mul2(Atom a1, Atom a2) {
         return new Atom(new LbcSupplier<>(() -> {
+            if (a1.isFixnum() && a2.isFixnum())
+                return Fixnum.multiply(a1.getFixnum(), a2.getFixnum());
+            if (Flonum.either(a1, a2)) {
+                Double d = Flonum.apply(a1, a2, (x, y) -> x * y);
+                if (d != null)
+                    return d;
+            }
             if(a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-                return a1.getNumber().get().multiply(a2.getNumber().get());
+                return a1.getNumber().multiply(a2.getNumber());
             } else if(a1.getType() == Type.COMPLEX && a2.getType() == Type.COMPLEX) {
-                return a1.getComplex().get().multiply(a2.getComplex().get());
+                return a1.getComplex().multiply(a2.getComplex());
             } else if(a1.getType() == Type.COMPLEX && a2.getType() == Type.NUMBER) {
-                return a1.getComplex().get().multiply(a2.getNumber().get());
+                return a1.getComplex().multiply(a2.getNumber());
             } else if(a1.getType() == Type.NUMBER && a2.getType() == Type.COMPLEX) {
-                return BigComplex.valueOf(a1.getNumber().get()).multiply(a2.getComplex().get());
+                return BigComplex.valueOf(a1.getNumber()).multiply(a2.getComplex());
             } else if(a1.getType() == Type.MATRIX && a2.getType() == Type.MATRIX) {
-                Matrix a = a1.getMatrix().get();
-                Matrix b = a2.getMatrix().get();
-                if(a.getRows() != b.getCols())
+                Matrix a = a1.getMatrix();
+                Matrix b = a2.getMatrix();
+                if(a.getCols() != b.getRows())
                     throw new Error("Invalid matrix multiplication: " + a.getRows() + "x" + a.getCols() + " and " + b.getRows() + "x" + b.getCols() + ".");
+                if(a instanceof SparseMatrix || b instanceof SparseMatrix) {
+                    Matrix r = SparseMatrix.multiply(a, b);
+                    if(r != null)
+                        return r;
+                }
+                DenseMatrix da = DenseMatrix.forced(a), db = da == null ? null : DenseMatrix.forced(b);
+                if(da != null && db != null) {
+                    DenseMatrix r = DenseProduct.multiply(DenseProduct.Semiring.PLUS_TIMES, da, db);
+                    if(r != null)
+                        return r;
+                }
                 List<List<Atom>> lRows = a.rows().collect(Collectors.toList());
                 List<List<Atom>> lCols = b.cols().collect(Collectors.toList());
                 return Matrix.of((row, col) -> Streams.zip(lRows.get(row).stream(), lCols.get(col).stream(), (x, y) -> mul2(x, y)).reduce(Add::add2).get(), a.getRows(), b.getCols());
+            } else if (NDArray.combines(a1, a2)) {
+                return NDArray.combine(NumericOp.MULTIPLY, a1, a2, Product::mul2);
             } else if ((a1.getType() == Type.MATRIX && a2.isNumeric()) || (a1.isNumeric() && a2.getType() == Type.MATRIX)) {
                 Atom number;
                 Matrix mat;
 
                 if (a1.getType() == Type.MATRIX) {
-                    mat = a1.getMatrix().get();
+                    mat = a1.getMatrix();
                 } else {
-                    mat = a2.getMatrix().get();
+                    mat = a2.getMatrix();
+                }
+
+                if (mat instanceof SparseMatrix) {
+                    SparseMatrix r = SparseMatrix.scale((SparseMatrix) mat, a1.getType() == Type.MATRIX ? a2 : a1);
+                    if (r != null)
+                        return r;
+                }
+
+                DenseMatrix d = DenseMatrix.pack(mat);
+                if (d != null) {
+                    DenseMatrix r = DenseMatrix.apply(NumericOp.MULTIPLY, d, a1.getType() == Type.MATRIX ? a2 : a1, a1.getType() != Type.MATRIX);
+                    if (r != null)
+                        return r;
                 }
 
                 if (a1.isNumeric()) {
@@ -50,12 +83,12 @@ public class Product implements Closure {
                 }
 
                 return mat.transmogrifyRank0(x ->
-                        new Atom(new LbcSupplier<>(() -> mul2(x, number).get().get()))
+                        new Atom(new LbcSupplier<>(() -> mul2(x, number)))
                 );
             } else if(a1.getType() == Type.NUMBER && a2.getType() == Type.STRING_CONSTANT) {
-                return new StringConstant(a2.getStringConstant().get().get().repeat(a1.getNumber().get().intValue()));
+                return new StringConstant(a2.getStringConstant().get().repeat(a1.getNumber().intValue()));
             } else if(a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.NUMBER) {
-                return new StringConstant(a1.getStringConstant().get().get().repeat(a2.getNumber().get().intValue()));
+                return new StringConstant(a1.getStringConstant().get().repeat(a2.getNumber().intValue()));
             } else {
                 throw new Error("* unsupported on operands of type " + a1.getType().name() + " and " + a2.getType().name());
             }
@@ -64,13 +97,15 @@ public class Product implements Closure {
 
     public static Atom mul1(Environment env, Atom a) {
         return new Atom(new LbcSupplier<>(() -> {
-            a.guardType("Argument to monadic *", Type.NUMBER, Type.COMPLEX, Type.MATRIX);
+            a.guardType("Argument to monadic *", Type.NUMBER, Type.COMPLEX, Type.MATRIX, Type.ARRAY);
             if(a.getType() == Type.NUMBER) {
-                return new BigDecimal(a.getNumber().get().compareTo(BigDecimal.ZERO));
+                return new BigDecimal(a.getNumber().compareTo(BigDecimal.ZERO));
             } else if(a.getType() == Type.COMPLEX) {
-                return norm(env, a.getComplex().get()).compareTo(BigDecimal.ZERO);
+                return norm(env, a.getComplex()).compareTo(BigDecimal.ZERO);
             } else if(a.getType() == Type.MATRIX) {
-                return a.getMatrix().get().transmogrifyRank0(x -> new Atom(new LbcSupplier<>(() -> mul1(env, x))));
+                return a.getMatrix().transmogrifyRank0(x -> new Atom(new LbcSupplier<>(() -> mul1(env, x))));
+            } else if(a.getType() == Type.ARRAY) {
+                return a.getArray().map(x -> mul1(env, x));
             } else
                 throw new Error("unreachable.");
         }));
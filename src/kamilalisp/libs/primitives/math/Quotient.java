@@ -6,8 +6,7 @@ import com.google.common.collect.Lists;
 import kamilalisp.data.*;
 import kamilalisp.libs.MathLib;
 import kamilalisp.libs.math.Constant;
-import kamilalisp.libs.primitives.linalg.Adjoint;
-import kamilalisp.libs.primitives.linalg.Determinant;
+import kamilalisp.libs.primitives.linalg.Inverse;
 import kamilalisp.data.Matrix;
 
 import java.math.BigDecimal;
@@ -17,27 +16,39 @@ import java.util.stream.Collectors;
 public class Quotient implements Closure {
     public static Atom div2(Environment env, Atom a1, Atom a2) {
         if(a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-            return new Atom(a1.getNumber().get().divide(a2.getNumber().get(), Constant.getFr(env)));
+            if(a1.isFixnum() && a2.isFixnum()) {
+                Long q = Fixnum.exactQuotient(a1.getFixnum(), a2.getFixnum(), Constant.getFr(env));
+                if(q != null)
+                    return new Atom(q);
+            }
+            if((Constant.isFlonum(env) || a1.isFlonum() || a2.isFlonum()) && Flonum.fits(a1) && Flonum.fits(a2)) {
+                Double d = Flonum.apply(a1, a2, (x, y) -> x / y);
+                if(d != null)
+                    return new Atom(d);
+            }
+            return new Atom(a1.getNumber().divide(a2.getNumber(), Constant.getFr(env)));
         } else if(a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.NUMBER) {
-            String s = a1.getStringConstant().get().get();
+            String s = a1.getStringConstant().get();
             return new Atom(Lists.newLinkedList(
                             Splitter
-                                    .fixedLength(s.length() / a2.getNumber().get().intValue())
+                                    .fixedLength(s.length() / a2.getNumber().intValue())
                                     .split(s)
                     ).stream()
                     .map(x -> new Atom(new StringConstant(x)))
                     .collect(Collectors.toList()));
         } else if(a1.getType() == Type.COMPLEX && a2.getType() == Type.COMPLEX) {
-            return new Atom(a1.getComplex().get().divide(a2.getComplex().get(), Constant.getFr(env)));
+            return new Atom(a1.getComplex().divide(a2.getComplex(), Constant.getFr(env)));
         } else if(a1.getType() == Type.LIST && a2.getType() == Type.NUMBER) {
-            List<Atom> s = a1.getList().get();
-            return new Atom(Lists.partition(s, s.size() / a2.getNumber().get().intValue()).stream().map(x -> new Atom(x)).collect(Collectors.toList()));
+            List<Atom> s = a1.getList();
+            return new Atom(Lists.partition(s, s.size() / a2.getNumber().intValue()).stream().map(x -> new Atom(x)).collect(Collectors.toList()));
         } else if((a1.getType() == Type.COMPLEX && a2.getType() == Type.NUMBER) || (a2.getType() == Type.COMPLEX && a1.getType() == Type.NUMBER)) {
             BigComplex a = MathLib.asComplex(a1), b = MathLib.asComplex(a2);
             return new Atom(a.divide(b, Constant.getFr(env)));
+        } else if(NDArray.combines(a1, a2)) {
+            return new Atom(NDArray.combine(null, a1, a2, (x, y) -> div2(env, x, y)));
         } else if(a1.getType() == Type.MATRIX && a2.getType() == Type.MATRIX) {
-            Matrix m1 = a1.getMatrix().get();
-            Matrix m2 = a2.getMatrix().get();
+            Matrix m1 = a1.getMatrix();
+            Matrix m2 = a2.getMatrix();
             if(m1.getRows() != m2.getRows() || m1.getCols() != m2.getCols() || m1.getCols() != m1.getRows() || m1.getCols() != m1.getRows())
                 throw new Error("Can't divide matrices of different sizes.");
             return Product.mul2(a1, div1(env, a2));
@@ -47,18 +58,16 @@ public class Quotient implements Closure {
     }
 
     public static Atom div1(Environment env, Atom a) {
-        a.guardType("Argument to monadic /", Type.NUMBER, Type.COMPLEX, Type.MATRIX);
+        a.guardType("Argument to monadic /", Type.NUMBER, Type.COMPLEX, Type.MATRIX, Type.ARRAY);
         if(a.getType() == Type.NUMBER) {
-            return new Atom(BigDecimal.ONE.divide(a.getNumber().get(), Constant.getFr(env)));
+            return new Atom(BigDecimal.ONE.divide(a.getNumber(), Constant.getFr(env)));
         } else if(a.getType() == Type.COMPLEX) {
-            return new Atom(a.getComplex().get().reciprocal(Constant.getFr(env)));
+            return new Atom(a.getComplex().reciprocal(Constant.getFr(env)));
         } else if(a.getType() == Type.MATRIX) {
-            Atom n = Determinant.det(a.getMatrix().get());
-            if((n.getType() == Type.NUMBER && n.getNumber().get().compareTo(BigDecimal.ZERO) == 0)
-                    || (n.getType() == Type.COMPLEX && n.getComplex().get().equals(BigComplex.ZERO)))
-                throw new Error("Can't find the inverse; det(a) = 0.");
-            Matrix adj = Adjoint.adj(a.getMatrix().get());
-            return new Atom(adj.transmogrifyRank0(x -> div2(env, x, n)));
+            return new Atom(Inverse.of(env, a.getMatrix()));
+        } else if(a.getType() == Type.ARRAY) {
+            // there's no inverse past rank 2, so it's cell by cell.
+            return new Atom(a.getArray().map(x -> div1(env, x)));
         } else
             throw new Error("unreachable.");
     }
@@ -68,7 +77,7 @@ public class Quotient implements Closure {
         if(arguments.size() == 0 || arguments.size() > 2)
             throw new Error("Invalid / invocation.");
         if(arguments.size() == 1)
-            return new Atom(new LbcSupplier<>(() -> div1(env.env, arguments.get(0)).get().get()));
-        return new Atom(new LbcSupplier<>(() -> div2(env.env, arguments.get(0), arguments.get(1)).get().get()));
+            return new Atom(new LbcSupplier<>(() -> div1(env.env, arguments.get(0))));
+        return new Atom(new LbcSupplier<>(() -> div2(env.env, arguments.get(0), arguments.get(1))));
     }
 }
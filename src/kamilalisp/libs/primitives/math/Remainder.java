@@ -21,9 +21,9 @@ public class Remainder implements Closure {
                 arguments.get(0).guardType("Argument to monadic %", Type.NUMBER, Type.COMPLEX);
 
                 if(arguments.get(0).getType() == Type.NUMBER) {
-                    return arguments.get(0).getNumber().get().abs();
+                    return arguments.get(0).getNumber().abs();
                 } else if(arguments.get(0).getType() == Type.COMPLEX) {
-                    return norm(env.env, arguments.get(0).getComplex().get());
+                    return norm(env.env, arguments.get(0).getComplex());
                 }
 
                 throw new Error("unreachable.");
@@ -32,7 +32,14 @@ public class Remainder implements Closure {
             return new Atom(new LbcSupplier<>(() -> {
                 arguments.get(0).guardType("Argument to dyadic %", Type.NUMBER);
                 arguments.get(1).guardType("Argument to dyadic %", Type.NUMBER);
-                return arguments.get(0).getNumber().get().remainder(arguments.get(1).getNumber().get());
+                if(arguments.get(0).isFixnum() && arguments.get(1).isFixnum())
+                    return Fixnum.remainder(arguments.get(0).getFixnum(), arguments.get(1).getFixnum());
+                if(Flonum.either(arguments.get(0), arguments.get(1))) {
+                    Double d = Flonum.apply(arguments.get(0), arguments.get(1), (x, y) -> x % y);
+                    if(d != null)
+                        return d;
+                }
+                return arguments.get(0).getNumber().remainder(arguments.get(1).getNumber());
             }));
     }
 }
@@ -11,9 +11,12 @@ public class Sqrt implements Closure {
     public static Atom sqrt(Atom a, Executor env) {
         a.guardType("First argument to 'sqrt'", Type.NUMBER, Type.COMPLEX);
         if(a.getType() == Type.NUMBER) {
-            return new Atom(BigDecimalMath.sqrt(a.getNumber().get(), Constant.getFr(env.env)));
+            Double d = Constant.flonum(env.env, a, Math::sqrt);
+            if(d != null)
+                return new Atom(d);
+            return new Atom(BigDecimalMath.sqrt(a.getNumber(), Constant.getFr(env.env)));
         } else {
-            return new Atom(BigComplexMath.sqrt(a.getComplex().get(), Constant.getFr(env.env)));
+            return new Atom(BigComplexMath.sqrt(a.getComplex(), Constant.getFr(env.env)));
         }
     }
 
@@ -23,7 +26,7 @@ public class Sqrt implements Closure {
             throw new Error("Invalid invocation to 'sqrt'.");
         return new Atom(new LbcSupplier<>(() -> {
             Atom a = arguments.get(0);
-            return sqrt(a, env).get().get();
+            return sqrt(a, env);
         }));
     }
 }
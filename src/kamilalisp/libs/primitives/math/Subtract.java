@@ -10,47 +10,74 @@ import java.util.List;
 public class Subtract implements Closure {
     public static Atom sub2(Atom a1, Atom a2) {
         return new Atom(new LbcSupplier<>(() -> {
+            if (a1.isFixnum() && a2.isFixnum())
+                return Fixnum.subtract(a1.getFixnum(), a2.getFixnum());
+            if (Flonum.either(a1, a2)) {
+                Double d = Flonum.apply(a1, a2, (x, y) -> x - y);
+                if (d != null)
+                    return d;
+            }
             if (a1.getType() == Type.NUMBER && a2.getType() == Type.NUMBER) {
-                return a1.getNumber().get().subtract(a2.getNumber().get());
+                return a1.getNumber().subtract(a2.getNumber());
             } else if (a1.getType() == Type.MATRIX && a2.getType() == Type.MATRIX) {
-                if (a1.getMatrix().get().getRows() != a2.getMatrix().get().getRows() || a1.getMatrix().get().getCols() != a2.getMatrix().get().getCols())
+                if (a1.getMatrix().getRows() != a2.getMatrix().getRows() || a1.getMatrix().getCols() != a2.getMatrix().getCols())
                     throw new Error("Matrix dimensions must match");
-                return a1.getMatrix().get().transmogrifyRank0((x, y) ->
-                        new Atom(new LbcSupplier<>(() -> sub2(x, y).get().get())), a2.getMatrix().get());
+                if (a1.getMatrix() instanceof SparseMatrix && a2.getMatrix() instanceof SparseMatrix) {
+                    SparseMatrix r = SparseMatrix.apply(NumericOp.SUBTRACT, (SparseMatrix) a1.getMatrix(), (SparseMatrix) a2.getMatrix());
+                    if (r != null)
+                        return r;
+                }
+                DenseMatrix d1 = DenseMatrix.pack(a1.getMatrix()), d2 = DenseMatrix.pack(a2.getMatrix());
+                if (d1 != null && d2 != null) {
+                    DenseMatrix r = DenseMatrix.apply(NumericOp.SUBTRACT, d1, d2);
+                    if (r != null)
+                        return r;
+                }
+                return a1.getMatrix().transmogrifyRank0((x, y) ->
+                        new Atom(new LbcSupplier<>(() -> sub2(x, y))), a2.getMatrix());
+            } else if (NDArray.combines(a1, a2)) {
+                return NDArray.combine(NumericOp.SUBTRACT, a1, a2, Subtract::sub2);
             } else if ((a1.getType() == Type.MATRIX && a2.isNumeric()) || (a1.isNumeric() && a2.getType() == Type.MATRIX)) {
                 Matrix mat;
 
                 if (a1.getType() == Type.MATRIX) {
-                    mat = a1.getMatrix().get();
+                    mat = a1.getMatrix();
                 } else {
-                    mat = a2.getMatrix().get();
+                    mat = a2.getMatrix();
+                }
+
+                DenseMatrix d = DenseMatrix.pack(mat);
+                if (d != null) {
+                    DenseMatrix r = DenseMatrix.apply(NumericOp.SUBTRACT, d, a1.getType() == Type.MATRIX ? a2 : a1, a1.getType() != Type.MATRIX);
+                    if (r != null)
+                        return r;
                 }
 
                 if (a1.isNumeric()) {
                     return mat.transmogrifyRank0(x ->
-                            new Atom(new LbcSupplier<>(() -> sub2(a1, x).get().get()))
+                            new Atom(new LbcSupplier<>(() -> sub2(a1, x)))
                     );
                 } else {
                     return mat.transmogrifyRank0(x ->
-                            new Atom(new LbcSupplier<>(() -> sub2(x, a2).get().get()))
+                            new Atom(new LbcSupplier<>(() -> sub2(x, a2)))
                     );
                 }
             } else if (a1.getType() == Type.COMPLEX && a2.getType() == Type.COMPLEX) {
-                return a1.getComplex().get().subtract(a2.getComplex().get());
+                return a1.getComplex().subtract(a2.getComplex());
             } else if(a1.getType() == Type.COMPLEX && a2.getType() == Type.NUMBER) {
-                return a1.getComplex().get().subtract(a2.getNumber().get());
+                return a1.getComplex().subtract(a2.getNumber());
             } else if(a1.getType() == Type.NUMBER && a2.getType() == Type.COMPLEX) {
-                return BigComplex.valueOf(a1.getNumber().get()).subtract(a2.getComplex().get());
+                return BigComplex.valueOf(a1.getNumber()).subtract(a2.getComplex());
             } else if (a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.STRING_CONSTANT) {
-                final String lookup = a2.getStringConstant().get().get();
-                return new StringConstant(a1.getStringConstant().get().get()
+                final String lookup = a2.getStringConstant().get();
+                return new StringConstant(a1.getStringConstant().get()
                         .chars().filter(x -> lookup.indexOf(x) != -1).collect(StringWriter::new, StringWriter::write,
                                 (swl, swr) -> swl.write(swr.toString())).toString());
             } else if (a1.getType() == Type.NUMBER && a2.getType() == Type.STRING_CONSTANT) {
-                return new StringConstant(a2.getStringConstant().get().get().substring(a1.getNumber().get().intValue()));
+                return new StringConstant(a2.getStringConstant().get().substring(a1.getNumber().intValue()));
             } else if (a1.getType() == Type.STRING_CONSTANT && a2.getType() == Type.NUMBER) {
-                String s = a1.getStringConstant().get().get();
-                return new StringConstant(s.substring(0, s.length() - a2.getNumber().get().intValue()));
+                String s = a1.getStringConstant().get();
+                return new StringConstant(s.substring(0, s.length() - a2.getNumber().intValue()));
             } else {
                 throw new Error("- unsupported on operands of type " + a1.getType().name() + " and " + a2.getType().name());
             }
@@ -59,14 +86,18 @@ public class Subtract implements Closure {
 
     public static Atom sub1(Atom a) {
         return new Atom(new LbcSupplier<>(() -> {
-            a.guardType("Argument to monadic -", Type.NUMBER, Type.COMPLEX, Type.MATRIX);
-            if (a.getType() == Type.NUMBER) {
-                return a.getNumber().get().negate();
+            a.guardType("Argument to monadic -", Type.NUMBER, Type.COMPLEX, Type.MATRIX, Type.ARRAY);
+            if (a.isFixnum()) {
+                return Fixnum.subtract(0, a.getFixnum());
+            } else if (a.getType() == Type.NUMBER) {
+                return a.getNumber().negate();
             } else if (a.getType() == Type.COMPLEX) {
-                return a.getComplex().get().negate();
+                return a.getComplex().negate();
             } else if (a.getType() == Type.MATRIX) {
-                return a.getMatrix().get().transmogrifyRank0(x ->
+                return a.getMatrix().transmogrifyRank0(x ->
                         new Atom(new LbcSupplier<>(() -> sub1(x))));
+            } else if (a.getType() == Type.ARRAY) {
+                return a.getArray().map(Subtract::sub1);
             }
             throw new Error("Unreachable");
         }));
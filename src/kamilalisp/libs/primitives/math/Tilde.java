@@ -23,9 +23,9 @@ public class Tilde implements Closure {
         a.guardType("First argument to monadic '~'", Type.NUMBER, Type.STRING_CONSTANT);
 
         if(a.getType() == Type.NUMBER) {
-            return new Atom(BigDecimal.valueOf(a.getNumber().get().compareTo(BigDecimal.ZERO) == 0 ? 1 : 0));
+            return new Atom(BigDecimal.valueOf(a.getNumber().compareTo(BigDecimal.ZERO) == 0 ? 1 : 0));
         } else if(a.getType() == Type.STRING_CONSTANT) {
-            return new Atom(new StringConstant(reverseCase(a.getStringConstant().get().get())));
+            return new Atom(new StringConstant(reverseCase(a.getStringConstant().get())));
         }
 
         // Should never get here.
@@ -35,12 +35,12 @@ public class Tilde implements Closure {
     public Atom neg(Atom a, Atom b) {
         a.guardType("First argument to dyadic '~'", Type.LIST);
         if(b.getType() == Type.LIST) {
-            List<Atom> clone = new LinkedList<>(a.getList().get());
-            clone.removeIf(x -> a.getList().get().contains(x.get().get()));
+            List<Atom> clone = new LinkedList<>(a.getList());
+            clone.removeIf(x -> a.getList().contains(x.get()));
             return new Atom(clone);
         } else {
-            List<Atom> clone = new LinkedList<>(a.getList().get());
-            clone.removeIf(x -> x.get().get().equals(b.get().get()));
+            List<Atom> clone = new LinkedList<>(a.getList());
+            clone.removeIf(x -> x.equals(b));
             return new Atom(clone);
         }
     }
@@ -50,9 +50,9 @@ public class Tilde implements Closure {
         if(arguments.size() == 0)
             throw new Error("Invalid invocation to '~'.");
         else if(arguments.size() == 1)
-            return new Atom(new LbcSupplier(() -> neg(arguments.get(0)).get().get()));
+            return new Atom(new LbcSupplier(() -> neg(arguments.get(0)).get()));
         else if(arguments.size() == 2)
-            return new Atom(new LbcSupplier(() -> neg(arguments.get(0), arguments.get(1)).get().get()));
+            return new Atom(new LbcSupplier(() -> neg(arguments.get(0), arguments.get(1)).get()));
         throw new Error("Invalid invocation to '~'.");
     }
 }
@@ -21,8 +21,8 @@ public class Average implements Closure {
             throw new Error("'avg' expects exactly one argument.");
         return new Atom(new LbcSupplier<>(() -> {
             arguments.get(0).guardType("Argument to 'avg'", Type.LIST);
-            List<Atom> list = arguments.get(0).getList().get();
-            return average(list, env).get().get();
+            List<Atom> list = arguments.get(0).getList();
+            return average(list, env);
         }));
     }
 }
@@ -23,7 +23,7 @@ public class Median implements Closure {
             throw new Error("'median' expects exactly one argument.");
         return new Atom(new LbcSupplier<>(() -> {
             arguments.get(0).guardType("Argument to 'median'", Type.LIST);
-            return median(arguments.get(0).getList().get(), env).get().get();
+            return median(arguments.get(0).getList(), env);
         }));
     }
 }
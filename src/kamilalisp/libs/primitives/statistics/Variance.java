@@ -11,7 +11,7 @@ import java.util.stream.Collectors;
 
 public class Variance implements Closure {
     public static Atom variance(Atom source, Executor env) {
-        List<Atom> data = source.getList().get();
+        List<Atom> data = source.getList();
         Atom avg = Average.average(data, env);
         Atom variance = Average.average(data.stream()
                 .map(x -> Power.power(Subtract.sub2(x, avg), new Atom(new BigDecimal(2)), env))
@@ -26,7 +26,7 @@ public class Variance implements Closure {
         return new Atom(new LbcSupplier<>(() -> {
             Atom source = arguments.get(0);
             source.guardType("'variance' argument", Type.LIST);
-            return variance(source, env).get().get();
+            return variance(source, env);
         }));
     }
 }
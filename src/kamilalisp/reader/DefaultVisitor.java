@@ -8,7 +8,7 @@ import org.antlr.v4.runtime.tree.AbstractParseTreeVisitor;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -16,7 +16,7 @@ import java.util.stream.Stream;
 public class DefaultVisitor extends AbstractParseTreeVisitor<Atom> implements GrammarVisitor<Atom> {
     @Override
     public Atom visitFile_(GrammarParser.File_Context ctx) {
-        List<Atom> l = ctx.form().stream().map(this::visit).collect(LinkedList::new, List::add, List::addAll);
+        List<Atom> l = ctx.form().stream().map(this::visit).collect(Collectors.toList());
         return new Atom(l);
     }
 
@@ -56,10 +56,10 @@ public class DefaultVisitor extends AbstractParseTreeVisitor<Atom> implements Gr
     }
 
     public List<Atom> fixupBackslash(List<Atom> l) {
-        if(l.contains(new Atom("\\"))) {
-            List<Atom> result = new LinkedList<>();
+        if(l.contains(new Atom(Symbol.PARTITION))) {
+            List<Atom> result = new ArrayList<>();
             for (Atom a : l) {
-                if (a.getType() == Type.STRING && a.getString().get().equals("\\")) {
+                if (a.getType() == Type.STRING && a.getSymbol() == Symbol.PARTITION) {
                     result.add(new Atom(fixupBackslash(l.subList(result.size() + 1, l.size()))));
                     break;
                 } else {
@@ -74,19 +74,19 @@ public class DefaultVisitor extends AbstractParseTreeVisitor<Atom> implements Gr
 
     @Override
     public Atom visitList_(GrammarParser.List_Context ctx) {
-        List<Atom> l = ctx.forms().form().stream().map(this::visit).collect(LinkedList::new, List::add, List::addAll);
-        return new Atom(fixupBackslash(l));
+        List<Atom> l = ctx.forms().form().stream().map(this::visit).collect(Collectors.toList());
+        return new Atom(PersistentVector.of(fixupBackslash(l)));
     }
 
     @Override
     public Atom visitSqlist(GrammarParser.SqlistContext ctx) {
-        List<Atom> l = ctx.forms().form().stream().map(this::visit).collect(LinkedList::new, List::add, List::addAll);
+        List<Atom> l = ctx.forms().form().stream().map(this::visit).collect(Collectors.toCollection(ArrayList::new));
         if(l.size() >= 2) {
             Atom tmp = l.get(1);
             l.set(1, l.get(0));
             l.set(0, tmp);
         }
-        return new Atom(fixupBackslash(l));
+        return new Atom(PersistentVector.of(fixupBackslash(l)));
     }
 
     @Override
@@ -96,12 +96,12 @@ public class DefaultVisitor extends AbstractParseTreeVisitor<Atom> implements Gr
 
     @Override
     public Atom visitPartition(GrammarParser.PartitionContext ctx) {
-        return new Atom("\\");
+        return new Atom(Symbol.PARTITION);
     }
 
     @Override
     public Atom visitQuote(GrammarParser.QuoteContext ctx) {
-        return new Atom(List.of(new Atom("quote"), visit(ctx.form())));
+        return new Atom(List.of(new Atom(Symbol.QUOTE), visit(ctx.form())));
     }
 
     @Override
@@ -113,7 +113,7 @@ public class DefaultVisitor extends AbstractParseTreeVisitor<Atom> implements Gr
 
     @Override
     public Atom visitFork(GrammarParser.ForkContext ctx) {
-        List<Atom> tmp = visit(ctx.any_list()).getList().get();
+        List<Atom> tmp = visit(ctx.any_list()).getList();
         if(tmp.size() < 2)
             throw new Error("a fork can't be created out of less than two functions.");
         return new Atom(Stream.concat(Stream.of(new Atom("fork")), tmp.stream()).collect(Collectors.toList()));
@@ -121,25 +121,34 @@ public class DefaultVisitor extends AbstractParseTreeVisitor<Atom> implements Gr
 
     @Override
     public Atom visitBind(GrammarParser.BindContext ctx) {
-        List<Atom> tmp = visit(ctx.any_list()).getList().get();
+        List<Atom> tmp = visit(ctx.any_list()).getList();
         if(tmp.size() < 1)
             throw new Error("a bind can't be created out of less than one entity.");
         return new Atom(Stream.concat(Stream.of(new Atom("bind")), tmp.stream()).collect(Collectors.toList()));
     }
 
+    // `#n`, selecting the n-th argument.
+    public static class Tack implements Closure {
+        public final int index;
+
+        public Tack(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String representation() {
+            return "#" + index;
+        }
+
+        @Override
+        public Atom apply(Executor env, List<Atom> arguments) {
+            return arguments.get(index);
+        }
+    }
+
     @Override
     public Atom visitTack(GrammarParser.TackContext ctx) {
-        return new Atom(new Closure() {
-            @Override
-            public String representation() {
-                return "#" + ctx.getText().substring(1);
-            }
-
-            @Override
-            public Atom apply(Executor env, List<Atom> arguments) {
-                return arguments.get(Integer.valueOf(ctx.getText().substring(1)));
-            }
-        });
+        return new Atom(new Tack(Integer.valueOf(ctx.getText().substring(1))));
     }
 
     @Override
@@ -157,12 +166,12 @@ public class DefaultVisitor extends AbstractParseTreeVisitor<Atom> implements Gr
 
     @Override
     public Atom visitHex_(GrammarParser.Hex_Context ctx) {
-        return new Atom(new BigDecimal(new BigInteger(ctx.getText(), 16)));
+        return Atom.number(new BigDecimal(new BigInteger(ctx.getText(), 16)));
     }
 
     @Override
     public Atom visitBin_(GrammarParser.Bin_Context ctx) {
-        return new Atom(new BigDecimal(new BigInteger(ctx.getText(), 2)));
+        return Atom.number(new BigDecimal(new BigInteger(ctx.getText(), 2)));
     }
 
     @Override
@@ -171,7 +180,7 @@ public class DefaultVisitor extends AbstractParseTreeVisitor<Atom> implements Gr
             String[] parts = ctx.getText().split("J");
             return new Atom(BigComplex.valueOf(new BigDecimal(parts[0]), new BigDecimal(parts[1])));
         } else
-            return new Atom(new BigDecimal(ctx.getText()));
+            return Atom.number(new BigDecimal(ctx.getText()));
     }
 
     @Override
@@ -0,0 +1,27 @@
+package kamilalisp.start;
+
+import kamilalisp.api.Evaluation;
+import kamilalisp.data.Atom;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+// The entry point of a jar built by `JarCompiler`. Runs the bundled script
+// the way `Main.evalScript` runs a source file, without parsing anything.
+public class CompiledScript {
+    public static void main(String[] args) throws IOException {
+        InputStream in = CompiledScript.class.getClassLoader().getResourceAsStream(JarCompiler.IMAGE);
+        if(in == null)
+            throw new Error("No compiled script found.");
+        ScriptImage image;
+        try(DataInputStream data = new DataInputStream(in)) {
+            image = ScriptImage.read(data);
+        }
+        for(Map.Entry<String, List<Atom>> e : image.sources.entrySet())
+            Evaluation.preparse(e.getKey(), e.getValue());
+        Evaluation.evalAtoms(Evaluation.createDefaultEnv(), image.forms).forEach(x -> x.get());
+    }
+}
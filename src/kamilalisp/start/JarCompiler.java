@@ -0,0 +1,135 @@
+package kamilalisp.start;
+
+import com.google.common.io.Resources;
+import kamilalisp.api.Evaluation;
+import kamilalisp.data.Atom;
+import kamilalisp.data.Symbol;
+import kamilalisp.data.Type;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Compiles a script to a self-contained jar: the script, the prelude and every
+// file imported by a literal name are parsed into a `ScriptImage`, which is
+// bundled with the runtime and started by `CompiledScript`.
+public class JarCompiler {
+    static final String IMAGE = "kamilalisp/script.bin";
+    private static final Symbol IMPORT = Symbol.of("import");
+
+    public static void compile(Path script, Path jar) throws IOException {
+        Map<String, List<Atom>> sources = new LinkedHashMap<>();
+        sources.put("!prelude.lisp", Evaluation.parse(Resources.toString(Resources.getResource("kamilalisp/prelude.lisp"), StandardCharsets.UTF_8)));
+        List<Atom> forms = Evaluation.parse(Files.readString(script));
+        Deque<List<Atom>> pending = new ArrayDeque<>(List.of(forms));
+        while(!pending.isEmpty()) {
+            for(String name : imports(pending.pop())) {
+                if(sources.containsKey(name))
+                    continue;
+                List<Atom> imported = read(name);
+                // files that can't be read now are left to fail at runtime.
+                if(imported != null) {
+                    sources.put(name, imported);
+                    pending.push(imported);
+                }
+            }
+        }
+
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, CompiledScript.class.getName());
+        Path output = jar.toAbsolutePath();
+        try(JarOutputStream out = new JarOutputStream(Files.newOutputStream(output), manifest)) {
+            Set<String> written = new HashSet<>(List.of(JarFile.MANIFEST_NAME, "META-INF/"));
+            out.putNextEntry(new JarEntry(IMAGE));
+            DataOutputStream data = new DataOutputStream(out);
+            new ScriptImage(sources, forms).write(data);
+            data.flush();
+            written.add(IMAGE);
+            for(String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                Path p = Path.of(entry).toAbsolutePath();
+                if(p.equals(output) || !Files.exists(p))
+                    continue;
+                if(Files.isDirectory(p))
+                    copyDirectory(p, out, written);
+                else
+                    copyJar(p, out, written);
+            }
+        }
+    }
+
+    // The names of the files imported by a literal name anywhere in `forms`.
+    private static List<String> imports(List<Atom> forms) {
+        List<String> result = new ArrayList<>();
+        Deque<Atom> queue = new ArrayDeque<>(forms);
+        while(!queue.isEmpty()) {
+            Atom a = queue.pop();
+            if(a.getType() != Type.LIST)
+                continue;
+            List<Atom> l = a.getList();
+            if(l.size() == 2 && l.get(0).getType() == Type.STRING && l.get(0).getSymbol() == IMPORT
+                    && l.get(1).getType() == Type.STRING_CONSTANT)
+                result.add(l.get(1).getStringConstant().get());
+            queue.addAll(l);
+        }
+        return result;
+    }
+
+    private static List<Atom> read(String name) {
+        try {
+            if(name.startsWith("!"))
+                return Evaluation.parse(Resources.toString(Resources.getResource("kamilalisp/" + name.substring(1)), StandardCharsets.UTF_8));
+            return Evaluation.parse(Files.readString(Path.of(name)));
+        } catch(Exception e) {
+            return null;
+        }
+    }
+
+    private static void copyDirectory(Path root, JarOutputStream out, Set<String> written) throws IOException {
+        List<Path> files;
+        try(Stream<Path> s = Files.walk(root)) {
+            files = s.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        for(Path f : files) {
+            String name = root.relativize(f).toString().replace(File.separatorChar, '/');
+            try(InputStream in = Files.newInputStream(f)) {
+                copy(name, in, out, written);
+            }
+        }
+    }
+
+    private static void copyJar(Path jar, JarOutputStream out, Set<String> written) throws IOException {
+        try(JarFile in = new JarFile(jar.toFile())) {
+            for(JarEntry e : Collections.list(in.entries())) {
+                if(e.isDirectory())
+                    continue;
+                try(InputStream data = in.getInputStream(e)) {
+                    copy(e.getName(), data, out, written);
+                }
+            }
+        }
+    }
+
+    private static void copy(String name, InputStream in, JarOutputStream out, Set<String> written) throws IOException {
+        String upper = name.toUpperCase(Locale.ROOT);
+        // signatures of the copied jars don't hold for the new one.
+        if(upper.startsWith("META-INF/") && (upper.endsWith(".SF") || upper.endsWith(".RSA") || upper.endsWith(".DSA")))
+            return;
+        if(!written.add(name))
+            return;
+        out.putNextEntry(new JarEntry(name));
+        in.transferTo(out);
+    }
+}
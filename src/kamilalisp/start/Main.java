@@ -23,15 +23,18 @@ public class Main {
     }
 
     public static void evalScript(Environment env, String source) throws IOException {
-        Evaluation.evalString(env, Files.readString(Path.of(source))).stream().forEach(x -> x.get().get());
+        Evaluation.evalString(env, Files.readString(Path.of(source))).stream().forEach(x -> x.get());
     }
 
     public static void main(String[] args) throws IOException {
         if(args.length == 1) {
             evalScript(Evaluation.createDefaultEnv(), args[0]);
             return;
+        } else if(args.length == 3 && args[0].equals("compile")) {
+            JarCompiler.compile(Path.of(args[1]), Path.of(args[2]));
+            return;
         } else if(args.length != 0)
-            throw new IllegalArgumentException("Please pass no arguments to start a REPL, or pass a single argument with the KamilaLisp script file.");
+            throw new IllegalArgumentException("Please pass no arguments to start a REPL, a single argument with the KamilaLisp script file, or 'compile', a script file and an output jar to compile the script.");
         Environment env = Evaluation.createDefaultEnv();
         banner();
         DefaultParser parser = new DefaultParser();
@@ -0,0 +1,144 @@
+package kamilalisp.start;
+
+import ch.obermuhlner.math.big.BigComplex;
+import kamilalisp.data.Atom;
+import kamilalisp.data.PersistentVector;
+import kamilalisp.data.StringConstant;
+import kamilalisp.reader.DefaultVisitor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// A script parsed ahead of time, together with the prelude and the files it
+// imports, so that it can be run without the parser. Forms are stored as a
+// tree of tagged nodes:
+//   'L' count form*    list
+//   'S' string         symbol
+//   'N' string         number
+//   'X' string string  complex number
+//   'C' string         string constant
+//   'T' int            tack (#n)
+public class ScriptImage {
+    private static final int MAGIC = 0x4B4C4953;
+    private static final int VERSION = 1;
+
+    // imported files by name, including "!prelude.lisp".
+    public final Map<String, List<Atom>> sources;
+    public final List<Atom> forms;
+
+    public ScriptImage(Map<String, List<Atom>> sources, List<Atom> forms) {
+        this.sources = sources;
+        this.forms = forms;
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(sources.size());
+        for(Map.Entry<String, List<Atom>> e : sources.entrySet()) {
+            writeString(out, e.getKey());
+            writeForms(out, e.getValue());
+        }
+        writeForms(out, forms);
+    }
+
+    public static ScriptImage read(DataInputStream in) throws IOException {
+        if(in.readInt() != MAGIC || in.readInt() != VERSION)
+            throw new Error("Not a compiled KamilaLisp script.");
+        int n = in.readInt();
+        Map<String, List<Atom>> sources = new LinkedHashMap<>();
+        for(int i = 0; i < n; i++) {
+            String name = readString(in);
+            sources.put(name, readForms(in));
+        }
+        return new ScriptImage(sources, readForms(in));
+    }
+
+    private static void writeForms(DataOutputStream out, List<Atom> forms) throws IOException {
+        out.writeInt(forms.size());
+        for(Atom a : forms)
+            writeForm(out, a);
+    }
+
+    private static List<Atom> readForms(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        List<Atom> forms = new ArrayList<>(n);
+        for(int i = 0; i < n; i++)
+            forms.add(readForm(in));
+        return PersistentVector.of(forms);
+    }
+
+    private static void writeForm(DataOutputStream out, Atom a) throws IOException {
+        switch(a.getType()) {
+            case LIST:
+                out.writeByte('L');
+                writeForms(out, a.getList());
+                break;
+            case STRING:
+                out.writeByte('S');
+                writeString(out, a.getString());
+                break;
+            case NUMBER:
+                out.writeByte('N');
+                writeString(out, a.getNumber().toString());
+                break;
+            case COMPLEX:
+                out.writeByte('X');
+                writeString(out, a.getComplex().re.toString());
+                writeString(out, a.getComplex().im.toString());
+                break;
+            case STRING_CONSTANT:
+                out.writeByte('C');
+                writeString(out, a.getStringConstant().get());
+                break;
+            case CLOSURE:
+                if(!(a.getClosure() instanceof DefaultVisitor.Tack))
+                    throw new Error("Can't compile a form of type " + a.getType().name() + " - '" + a + "'.");
+                out.writeByte('T');
+                out.writeInt(((DefaultVisitor.Tack) a.getClosure()).index);
+                break;
+            default:
+                throw new Error("Can't compile a form of type " + a.getType().name() + " - '" + a + "'.");
+        }
+    }
+
+    private static Atom readForm(DataInputStream in) throws IOException {
+        int tag = in.readByte();
+        switch(tag) {
+            case 'L':
+                return new Atom(readForms(in));
+            case 'S':
+                return new Atom(readString(in));
+            case 'N':
+                return Atom.number(new BigDecimal(readString(in)));
+            case 'X':
+                return new Atom(BigComplex.valueOf(new BigDecimal(readString(in)), new BigDecimal(readString(in))));
+            case 'C':
+                return new Atom(new StringConstant(readString(in)));
+            case 'T':
+                return new Atom(new DefaultVisitor.Tack(in.readInt()));
+            default:
+                throw new Error("Invalid form tag " + tag + " in a compiled script.");
+        }
+    }
+
+    // unlike writeUTF, not limited to 64KiB.
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
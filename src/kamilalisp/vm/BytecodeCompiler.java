@@ -0,0 +1,326 @@
+package kamilalisp.vm;
+
+import kamilalisp.compiler.ConstantNode;
+import kamilalisp.compiler.Lambda;
+import kamilalisp.compiler.Node;
+import kamilalisp.data.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+// Compiles a form to a chunk of bytecode. `lambda`, `if`, `cond`, `let`,
+// `let-seq` and `def` are compiled inline, behind a guard that falls back to
+// calling the macro if the symbol was rebound since. Every other list is a
+// call, which may still turn out to be a macro call at runtime; the arguments
+// of calls to what is a macro at compile time are left uncompiled.
+public class BytecodeCompiler {
+    private static final Set<Symbol> specialForms = Set.of(Symbol.LAMBDA, Symbol.IF, Symbol.COND, Symbol.LET, Symbol.LET_SEQ, Symbol.DEF);
+
+    private final Environment global;
+    private final Scope initialScope;
+    private Scope scope;
+
+    private int[] code = new int[16];
+    private int size;
+    private final List<Object> constants = new ArrayList<>();
+    private int depth, maxStack;
+
+    private BytecodeCompiler(Environment global, Scope scope) {
+        this.global = global;
+        this.initialScope = scope;
+        this.scope = scope;
+    }
+
+    public static Chunk compile(Atom form, Scope scope, Environment global) {
+        BytecodeCompiler c = new BytecodeCompiler(global, scope);
+        c.form(form);
+        c.emit(Opcode.RETURN);
+        return c.finish(form);
+    }
+
+    // Like `compile`, but cached on the atom and wrapped in a node.
+    public static Node compileNode(Atom form, Scope scope, Environment global) {
+        Type t = form.getType();
+        if(t != Type.LIST && t != Type.STRING)
+            return new ConstantNode(form);
+        Node n = form.getCompiled(scope);
+        if(!(n instanceof ChunkNode)) {
+            n = new ChunkNode(compile(form, scope, global));
+            form.setCompiled(scope, n);
+        }
+        return n;
+    }
+
+    private Chunk finish(Atom form) {
+        return new Chunk(form, initialScope, Arrays.copyOf(code, size), constants.toArray(), maxStack);
+    }
+
+    private int emit(int op, int... operands) {
+        if(size + operands.length + 1 > code.length)
+            code = Arrays.copyOf(code, Math.max(code.length * 2, size + operands.length + 1));
+        int at = size;
+        code[size++] = op;
+        for(int x : operands)
+            code[size++] = x;
+        return at;
+    }
+
+    private void patch(int at, int value) {
+        code[at] = value;
+    }
+
+    private void grow(int n) {
+        depth += n;
+        maxStack = Math.max(maxStack, depth);
+    }
+
+    private int constant(Object o) {
+        for(int i = 0; i < constants.size(); i++)
+            if(constants.get(i) == o)
+                return i;
+        constants.add(o);
+        return constants.size() - 1;
+    }
+
+    private void form(Atom a) {
+        switch(a.getType()) {
+            case STRING:
+                symbol(a);
+                break;
+            case LIST:
+                list(a);
+                break;
+            default:
+                emit(Opcode.CONST, constant(a));
+                grow(1);
+        }
+    }
+
+    private void symbol(Atom a) {
+        Symbol key = a.getSymbol();
+        int d = 0;
+        for(Scope s = scope; s != Scope.GLOBAL; s = s.parent, d++) {
+            if(s.isDynamic()) {
+                emit(Opcode.DYNAMIC, constant(a));
+                grow(1);
+                return;
+            }
+            int slot = s.indexOf(key);
+            if(slot != -1) {
+                emit(Opcode.LOCAL, d, slot, constant(a));
+                grow(1);
+                return;
+            }
+        }
+        emit(Opcode.GLOBAL, constant(a));
+        grow(1);
+    }
+
+    private boolean isGlobal(Symbol key) {
+        for(Scope s = scope; s != Scope.GLOBAL; s = s.parent)
+            if(s.isDynamic() || s.indexOf(key) != -1)
+                return false;
+        return true;
+    }
+
+    private void list(Atom a) {
+        List<Atom> sexpr = a.getList();
+        if(sexpr.isEmpty()) {
+            emit(Opcode.FAIL, constant("Attempted to evaluate an empty s-expression."));
+            grow(1);
+            return;
+        }
+        Atom head = sexpr.get(0);
+        List<Atom> args = sexpr.subList(1, sexpr.size());
+        if(head.getType() == Type.STRING && specialForms.contains(head.getSymbol()) && isGlobal(head.getSymbol())) {
+            Symbol key = head.getSymbol();
+            Atom value = global.data.get(key);
+            if(value != null && value.getType() == Type.MACRO && value.getMacro().specialForm() == key && valid(key, args)) {
+                int guard = emit(Opcode.GUARD, constant(key), 0);
+                specialForm(a, key, args);
+                int jump = emit(Opcode.JUMP, 0);
+                patch(guard + 2, size);
+                depth--;
+                apply(head, args);
+                patch(jump + 1, size);
+                return;
+            }
+        }
+        if(head.getType() == Type.STRING && isGlobal(head.getSymbol())) {
+            Atom value = global.data.get(head.getSymbol());
+            if(value != null && value.knownType() == Type.MACRO) {
+                apply(head, args);
+                return;
+            }
+        }
+        call(head, args);
+    }
+
+    private void apply(Atom head, List<Atom> args) {
+        form(head);
+        emit(Opcode.APPLY, constant(Collections.unmodifiableList(new ArrayList<>(args))));
+    }
+
+    private void call(Atom head, List<Atom> args) {
+        form(head);
+        int at = emit(Opcode.CALL_HEAD, constant(Collections.unmodifiableList(new ArrayList<>(args))), 0);
+        for(Atom x : args)
+            form(x);
+        emit(Opcode.CALL, args.size());
+        depth -= args.size();
+        patch(at + 2, size);
+    }
+
+    // Malformed special forms are left to the macro, which reports the error.
+    private static boolean valid(Symbol key, List<Atom> args) {
+        if(key == Symbol.LAMBDA)
+            return args.size() == 2 && args.get(0).getType() == Type.LIST
+                    && args.get(0).getList().stream().allMatch(x -> x.getType() == Type.STRING);
+        if(key == Symbol.IF)
+            return args.size() == 3;
+        if(key == Symbol.COND)
+            return args.size() >= 2 && args.stream().allMatch(x -> x.getType() == Type.LIST
+                    && (x.getList().size() == 1 || x.getList().size() == 2));
+        if(key == Symbol.LET) {
+            if(args.size() < 2 || args.get(0).getType() != Type.LIST)
+                return false;
+            for(Atom binding : args.get(0).getList()) {
+                if(binding.getType() != Type.LIST)
+                    return false;
+                List<Atom> b = binding.getList();
+                if(b.size() == 0 || b.size() % 2 != 0 || b.get(0).getType() != Type.STRING)
+                    return false;
+            }
+            return true;
+        }
+        if(key == Symbol.LET_SEQ) {
+            for(Atom a : args) {
+                Symbol form = definition(a);
+                if(form == null)
+                    return true;
+                List<Atom> l = a.getList();
+                if(l.size() != (form == Symbol.DEF ? 3 : 4) || l.get(1).getType() != Type.STRING)
+                    return false;
+            }
+            return true;
+        }
+        if(key == Symbol.DEF)
+            return args.size() == 2 && args.get(0).getType() == Type.STRING;
+        return false;
+    }
+
+    // `def`, `defun` or `defmacro` if `a` is one of the definitions `let-seq`
+    // recognises by name.
+    private static Symbol definition(Atom a) {
+        if(a.getType() != Type.LIST)
+            return null;
+        List<Atom> l = a.getList();
+        if(l.size() == 0 || l.get(0).getType() != Type.STRING)
+            return null;
+        Symbol s = l.get(0).getSymbol();
+        return s == Symbol.DEF || s == Symbol.DEFUN || s == Symbol.DEFMACRO ? s : null;
+    }
+
+    private void specialForm(Atom a, Symbol key, List<Atom> args) {
+        if(key == Symbol.LAMBDA) {
+            List<Atom> params = args.get(0).getList();
+            Scope inner = scope.child(Lambda.parameterNames(params));
+            Node body = compileNode(args.get(1), inner, global);
+            emit(Opcode.LAMBDA, constant(new Chunk.Template(params, args.get(1), inner, body)));
+            grow(1);
+        } else if(key == Symbol.DEF) {
+            form(args.get(1));
+            emit(Opcode.DEF, constant(args.get(0)));
+        } else {
+            // the rest are lazy and evaluated in tail position.
+            BytecodeCompiler sub = new BytecodeCompiler(global, scope);
+            if(key == Symbol.IF)
+                sub.ifBody(args);
+            else if(key == Symbol.COND)
+                sub.condBody(args);
+            else if(key == Symbol.LET)
+                sub.letBody(args);
+            else
+                sub.letSeqBody(args);
+            emit(Opcode.THUNK, constant(sub.finish(a)));
+            grow(1);
+        }
+    }
+
+    private void ifBody(List<Atom> args) {
+        form(args.get(0));
+        int branch = emit(Opcode.JUMP_IF_FALSE, 0);
+        depth--;
+        form(args.get(1));
+        emit(Opcode.RETURN);
+        depth--;
+        patch(branch + 1, size);
+        form(args.get(2));
+        emit(Opcode.RETURN);
+    }
+
+    private void condBody(List<Atom> args) {
+        for(Atom a : args) {
+            List<Atom> clause = a.getList();
+            if(clause.size() == 1) {
+                form(clause.get(0));
+                emit(Opcode.RETURN);
+                return;
+            }
+            form(clause.get(0));
+            int branch = emit(Opcode.JUMP_IF_FALSE, 0);
+            depth--;
+            form(clause.get(1));
+            emit(Opcode.RETURN);
+            depth--;
+            patch(branch + 1, size);
+        }
+        emit(Opcode.FAIL, constant("Non-exhaustive 'cond'."));
+    }
+
+    private void letBody(List<Atom> args) {
+        List<Atom> bindings = args.get(0).getList();
+        Symbol[] names = new Symbol[bindings.size()];
+        for(int i = 0; i < bindings.size(); i++) {
+            List<Atom> binding = bindings.get(i).getList();
+            names[i] = binding.get(0).getSymbol();
+            form(binding.get(1));
+        }
+        scope = scope.child(names);
+        emit(Opcode.ENTER, constant(new Chunk.Frame("Let expression", scope, Symbol.LET)), names.length);
+        depth -= names.length;
+        form(args.get(1));
+        emit(Opcode.RETURN);
+    }
+
+    private void letSeqBody(List<Atom> args) {
+        // one slot for every name defined in the sequence.
+        Symbol[] names = args.stream().filter(a -> a.getType() == Type.LIST).map(a -> a.getList())
+                .filter(l -> l.size() > 1 && l.get(0).getType() == Type.STRING && l.get(1).getType() == Type.STRING)
+                .filter(l -> l.get(0).getSymbol() == Symbol.DEF || l.get(0).getSymbol() == Symbol.DEFUN || l.get(0).getSymbol() == Symbol.DEFMACRO)
+                .map(l -> l.get(1).getSymbol()).distinct().toArray(Symbol[]::new);
+        scope = scope.child(names);
+        emit(Opcode.ENTER, constant(new Chunk.Frame("let-seq environment.", scope, null)), 0);
+        for(Atom a : args) {
+            Symbol definition = definition(a);
+            if(definition == null) {
+                form(a);
+                emit(Opcode.RETURN);
+                return;
+            }
+            List<Atom> l = a.getList();
+            if(definition == Symbol.DEF)
+                form(l.get(2));
+            else
+                form(new Atom(List.of(new Atom(definition == Symbol.DEFUN ? Symbol.LAMBDA : Symbol.MACRO), l.get(2), l.get(3))));
+            emit(Opcode.STORE, scope.indexOf(l.get(1).getSymbol()));
+            depth--;
+        }
+        emit(Opcode.CONST, constant(Atom.NULL));
+        grow(1);
+        emit(Opcode.RETURN);
+    }
+}
@@ -0,0 +1,70 @@
+package kamilalisp.vm;
+
+import kamilalisp.compiler.Node;
+import kamilalisp.data.Atom;
+import kamilalisp.data.Scope;
+import kamilalisp.data.Symbol;
+
+import java.util.List;
+
+// A compiled form: a code array, its constant pool and the operand stack
+// size it needs.
+public class Chunk {
+    public final Atom form;
+    public final Scope scope;
+    final int[] code;
+    final Object[] constants;
+    final int maxStack;
+
+    Chunk(Atom form, Scope scope, int[] code, Object[] constants, int maxStack) {
+        this.form = form;
+        this.scope = scope;
+        this.code = code;
+        this.constants = constants;
+        this.maxStack = maxStack;
+    }
+
+    @Override
+    public String toString() {
+        return "<chunk " + form + ">";
+    }
+
+    // The frame created by ENTER.
+    static class Frame {
+        final String name;
+        final Scope scope;
+        // the special form whose global binding becomes the owner of the frame.
+        final Symbol owner;
+
+        Frame(String name, Scope scope, Symbol owner) {
+            this.name = name;
+            this.scope = scope;
+            this.owner = owner;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + scope;
+        }
+    }
+
+    // The closure created by LAMBDA.
+    static class Template {
+        final List<Atom> params;
+        final Atom code;
+        final Scope scope;
+        final Node body;
+
+        Template(List<Atom> params, Atom code, Scope scope, Node body) {
+            this.params = params;
+            this.code = code;
+            this.scope = scope;
+            this.body = body;
+        }
+
+        @Override
+        public String toString() {
+            return "(λ " + new Atom(params) + " . " + code + ")";
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package kamilalisp.vm;
+
+import kamilalisp.compiler.Node;
+import kamilalisp.data.Atom;
+import kamilalisp.data.Executor;
+
+// A form compiled to bytecode, run on the virtual machine when evaluated.
+public class ChunkNode implements Node {
+    public final Chunk chunk;
+
+    public ChunkNode(Chunk chunk) {
+        this.chunk = chunk;
+    }
+
+    @Override
+    public Atom evaluate(Executor env) {
+        return VM.run(chunk, env);
+    }
+}
@@ -0,0 +1,40 @@
+package kamilalisp.vm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Renders a chunk and the chunks nested in it (lazy special forms and lambda
+// bodies) as a listing, one instruction per line:
+//   0004  GLOBAL           3    ; +
+public class Disassembler {
+    public static String disassemble(Chunk chunk) {
+        StringBuilder out = new StringBuilder();
+        disassemble(chunk, out);
+        return out.toString();
+    }
+
+    private static void disassemble(Chunk chunk, StringBuilder out) {
+        out.append("; ").append(chunk.form).append(" in ").append(chunk.scope).append('\n');
+        List<Chunk> nested = new ArrayList<>();
+        int[] code = chunk.code;
+        for(int pc = 0; pc < code.length; pc += 1 + Opcode.operands[code[pc]]) {
+            int op = code[pc];
+            out.append(String.format("%04d  %-13s", pc, Opcode.names[op]));
+            for(int i = 1; i <= Opcode.operands[op]; i++)
+                out.append(String.format(" %4d", code[pc + i]));
+            if(Opcode.constantOperand[op] != 0) {
+                Object constant = chunk.constants[code[pc + Opcode.constantOperand[op]]];
+                out.append("    ; ").append(constant);
+                if(constant instanceof Chunk)
+                    nested.add((Chunk) constant);
+                else if(constant instanceof Chunk.Template && ((Chunk.Template) constant).body instanceof ChunkNode)
+                    nested.add(((ChunkNode) ((Chunk.Template) constant).body).chunk);
+            }
+            out.append('\n');
+        }
+        for(Chunk c : nested) {
+            out.append('\n');
+            disassemble(c, out);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package kamilalisp.vm;
+
+// Instructions of the virtual machine. Each opcode is followed in the code
+// array by a fixed number of integer operands; constant operands index the
+// constant pool of the chunk, jump operands are absolute code offsets.
+public final class Opcode {
+    // CONST k: push constant k.
+    public static final int CONST = 0;
+    // LOCAL depth slot k: push a slot of the frame `depth` levels up. k is the
+    // symbol, used if the slot is still unassigned.
+    public static final int LOCAL = 1;
+    // GLOBAL k: push the global binding of symbol k.
+    public static final int GLOBAL = 2;
+    // DYNAMIC k: push the binding of symbol k, looked up by name.
+    public static final int DYNAMIC = 3;
+    // CALL_HEAD k target: the head of a call is on the stack. If it's a macro,
+    // replace it with the macro applied to the raw arguments k and jump to
+    // target, otherwise continue with the evaluation of the arguments.
+    public static final int CALL_HEAD = 4;
+    // CALL n: apply the closure under the top n values to them.
+    public static final int CALL = 5;
+    // GUARD k target: jump to target unless symbol k is bound to the builtin
+    // special form it names.
+    public static final int GUARD = 6;
+    // JUMP target.
+    public static final int JUMP = 7;
+    // JUMP_IF_FALSE target: pop a value, jump if it's falsy.
+    public static final int JUMP_IF_FALSE = 8;
+    // THUNK k: push a lazy value running chunk k in the current frame.
+    public static final int THUNK = 9;
+    // ENTER k n: pop n values into the slots of a new frame described by k.
+    public static final int ENTER = 10;
+    // STORE slot: pop a value into a slot of the current frame.
+    public static final int STORE = 11;
+    // DEF k: bind symbol k globally to the value on the stack.
+    public static final int DEF = 12;
+    // LAMBDA k: push a closure over the current frame made from template k.
+    public static final int LAMBDA = 13;
+    // FAIL k: throw an error with message k.
+    public static final int FAIL = 14;
+    // RETURN: return the value on the stack.
+    public static final int RETURN = 15;
+    // APPLY k: apply the callable on the stack to the raw arguments k, which
+    // are evaluated one by one if it's a closure. Used where the head is
+    // expected to be a macro, whose arguments aren't worth compiling.
+    public static final int APPLY = 16;
+
+    static final String[] names = {
+            "CONST", "LOCAL", "GLOBAL", "DYNAMIC", "CALL_HEAD", "CALL", "GUARD", "JUMP",
+            "JUMP_IF_FALSE", "THUNK", "ENTER", "STORE", "DEF", "LAMBDA", "FAIL", "RETURN",
+            "APPLY"
+    };
+
+    static final int[] operands = {
+            1, 3, 1, 1, 2, 1, 2, 1,
+            1, 1, 2, 1, 1, 1, 1, 0,
+            1
+    };
+
+    // the position of the operand indexing the constant pool, if any.
+    static final int[] constantOperand = {
+            1, 3, 1, 1, 1, 0, 1, 0,
+            0, 1, 1, 0, 1, 1, 1, 0,
+            1
+    };
+
+    private Opcode() { }
+}
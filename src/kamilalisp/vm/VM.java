@@ -0,0 +1,165 @@
+package kamilalisp.vm;
+
+import kamilalisp.compiler.Lambda;
+import kamilalisp.data.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs chunks of bytecode. Each run has its own operand stack; the frame it
+// runs in changes only when a `let` or `let-seq` enters a new one.
+public class VM {
+    @SuppressWarnings("unchecked")
+    public static Atom run(Chunk chunk, Executor exec) {
+        final int[] code = chunk.code;
+        final Object[] constants = chunk.constants;
+        final Atom[] stack = new Atom[chunk.maxStack];
+        Environment env = exec.env;
+        int sp = 0, pc = 0;
+        while(true) {
+            switch(code[pc]) {
+                case Opcode.CONST:
+                    stack[sp++] = (Atom) constants[code[pc + 1]];
+                    pc += 2;
+                    break;
+                case Opcode.LOCAL: {
+                    Environment frame = env;
+                    for(int i = code[pc + 1]; i > 0; i--)
+                        frame = frame.ancestor;
+                    Atom value = frame.slots[code[pc + 2]];
+                    if(value == null) {
+                        // A `let-seq` binding referenced before its definition.
+                        Atom symbol = (Atom) constants[code[pc + 3]];
+                        value = frame.ancestor.lookup(symbol.getSymbol());
+                        if(value == null)
+                            value = symbol;
+                    }
+                    stack[sp++] = value;
+                    pc += 4;
+                    break;
+                }
+                case Opcode.GLOBAL: {
+                    Atom symbol = (Atom) constants[code[pc + 1]];
+                    Atom value = env.global.data.get(symbol.getSymbol());
+                    stack[sp++] = value == null ? symbol : value;
+                    pc += 2;
+                    break;
+                }
+                case Opcode.DYNAMIC: {
+                    Atom symbol = (Atom) constants[code[pc + 1]];
+                    Atom value = env.lookup(symbol.getSymbol());
+                    stack[sp++] = value == null ? symbol : value;
+                    pc += 2;
+                    break;
+                }
+                case Opcode.CALL_HEAD: {
+                    Atom head = stack[sp - 1];
+                    switch(head.getType()) {
+                        case CLOSURE:
+                            pc += 3;
+                            break;
+                        case MACRO:
+                            stack[sp - 1] = head.getMacro().apply(exec, (List<Atom>) constants[code[pc + 1]]);
+                            pc = code[pc + 2];
+                            break;
+                        default:
+                            throw new Error("Can't evaluate a list with head of type " + head.getType().name() + " - '" + head + "'.");
+                    }
+                    break;
+                }
+                case Opcode.CALL: {
+                    int n = code[pc + 1];
+                    List<Atom> values = new ArrayList<>(n);
+                    for(int i = sp - n; i < sp; i++)
+                        values.add(stack[i]);
+                    sp -= n;
+                    stack[sp - 1] = stack[sp - 1].getClosure().apply(exec, values);
+                    pc += 2;
+                    break;
+                }
+                case Opcode.GUARD: {
+                    Symbol key = (Symbol) constants[code[pc + 1]];
+                    Atom value = env.global.data.get(key);
+                    if(value != null && value.getType() == Type.MACRO && value.getMacro().specialForm() == key)
+                        pc += 3;
+                    else
+                        pc = code[pc + 2];
+                    break;
+                }
+                case Opcode.JUMP:
+                    pc = code[pc + 1];
+                    break;
+                case Opcode.JUMP_IF_FALSE:
+                    if(stack[--sp].coerceBool())
+                        pc += 2;
+                    else
+                        pc = code[pc + 1];
+                    break;
+                case Opcode.THUNK: {
+                    Chunk body = (Chunk) constants[code[pc + 1]];
+                    Executor current = exec;
+                    stack[sp++] = new Atom(LbcSupplier.tail(() -> run(body, current)));
+                    pc += 2;
+                    break;
+                }
+                case Opcode.ENTER: {
+                    Chunk.Frame f = (Chunk.Frame) constants[code[pc + 1]];
+                    int n = code[pc + 2];
+                    Environment newEnv = env.descendant(f.name, f.scope);
+                    sp -= n;
+                    System.arraycopy(stack, sp, newEnv.slots, 0, n);
+                    if(f.owner != null)
+                        newEnv.owner = env.global.data.get(f.owner);
+                    env = newEnv;
+                    exec = new Executor(newEnv);
+                    pc += 3;
+                    break;
+                }
+                case Opcode.STORE:
+                    env.slots[code[pc + 1]] = stack[--sp];
+                    pc += 2;
+                    break;
+                case Opcode.DEF: {
+                    Atom symbol = (Atom) constants[code[pc + 1]];
+                    if(env.ancestor != null)
+                        throw new Error("Unable to define a global variable outside of global scope.");
+                    env.push(symbol.getSymbol(), stack[sp - 1]);
+                    pc += 2;
+                    break;
+                }
+                case Opcode.LAMBDA: {
+                    Chunk.Template t = (Chunk.Template) constants[code[pc + 1]];
+                    stack[sp++] = new Atom(new Lambda(env, t.params, t.code, t.scope, t.body));
+                    pc += 2;
+                    break;
+                }
+                case Opcode.FAIL:
+                    throw new Error((String) constants[code[pc + 1]]);
+                case Opcode.RETURN:
+                    return stack[sp - 1];
+                case Opcode.APPLY: {
+                    Atom head = stack[sp - 1];
+                    List<Atom> rawArguments = (List<Atom>) constants[code[pc + 1]];
+                    switch(head.getType()) {
+                        case CLOSURE: {
+                            List<Atom> values = new ArrayList<>(rawArguments.size());
+                            for(Atom a : rawArguments)
+                                values.add(exec.evaluate(a));
+                            stack[sp - 1] = head.getClosure().apply(exec, values);
+                            break;
+                        }
+                        case MACRO:
+                            stack[sp - 1] = head.getMacro().apply(exec, rawArguments);
+                            break;
+                        default:
+                            throw new Error("Can't evaluate a list with head of type " + head.getType().name() + " - '" + head + "'.");
+                    }
+                    pc += 2;
+                    break;
+                }
+                default:
+                    throw new Error("Invalid opcode " + code[pc] + ".");
+            }
+        }
+    }
+}
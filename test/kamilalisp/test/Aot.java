@@ -0,0 +1,26 @@
+package kamilalisp.test;
+
+import kamilalisp.api.Evaluation;
+import kamilalisp.data.Atom;
+import kamilalisp.start.ScriptImage;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class Aot {
+    @Test
+    void imageRoundTrip() throws IOException {
+        String code = "(defun f (x) [x * 2]) (f 21) (#1 'a 'b) (car '(\"str\" 1.5)) :$(+ 1)@iota 3";
+        List<Atom> forms = Evaluation.parse(code);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new ScriptImage(Map.of("lib.lisp", forms), forms).write(new DataOutputStream(bytes));
+        ScriptImage image = ScriptImage.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(forms.toString(), image.forms.toString());
+        assertEquals(forms.toString(), image.sources.get("lib.lisp").toString());
+        assertEquals(Evaluation.evalString(code).toString(), Evaluation.evalAtoms(Evaluation.createDefaultEnv(), image.forms).toString());
+    }
+}
@@ -12,23 +12,56 @@ import static org.junit.jupiter.api.Assertions.*;
 class ArithmeticTest {
     @Test
     void addition() {
-        assertTrue(Evaluation.evalString("(+ 13 43)").get(0).getNumber().get().compareTo(BigDecimal.valueOf(13 + 43)) == 0);
+        assertTrue(Evaluation.evalString("(+ 13 43)").get(0).getNumber().compareTo(BigDecimal.valueOf(13 + 43)) == 0);
     }
 
     @Test
     void subtraction() {
-        assertTrue(Evaluation.evalString("(- 13 43)").get(0).getNumber().get().compareTo(BigDecimal.valueOf(13 - 43)) == 0);
+        assertTrue(Evaluation.evalString("(- 13 43)").get(0).getNumber().compareTo(BigDecimal.valueOf(13 - 43)) == 0);
     }
 
     @Test
     void multiplication() {
-        assertTrue(Evaluation.evalString("(* 13 43)").get(0).getNumber().get().compareTo(BigDecimal.valueOf(13 * 43)) == 0);
+        assertTrue(Evaluation.evalString("(* 13 43)").get(0).getNumber().compareTo(BigDecimal.valueOf(13 * 43)) == 0);
+    }
+
+    @Test
+    void fixnumOverflow() {
+        assertTrue(Evaluation.evalString("(+ (* 3000000000 3000000000) (* 3000000000 3000000000))").get(0).getNumber().compareTo(new BigDecimal("18000000000000000000")) == 0);
+        assertTrue(Evaluation.evalString("(- (- (* 3000000000 3000000000)) (* 3000000000 3000000000))").get(0).getNumber().compareTo(new BigDecimal("-18000000000000000000")) == 0);
+        assertTrue(Evaluation.evalString("(* 4294967296 4294967296)").get(0).getNumber().compareTo(new BigDecimal("18446744073709551616")) == 0);
+        assertTrue(Evaluation.evalString("(- (* 4294967296 4294967296) 18446744073709551615)").get(0).isFixnum());
+        assertTrue(Evaluation.evalString("(/ 7 2)").get(0).getNumber().compareTo(new BigDecimal("3.5")) == 0);
+        assertEquals(Evaluation.evalString("(+ 1.5 1.5)").get(0).toString(), "3");
+    }
+
+    @Test
+    void flonumMode() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(def fr 15)");
+        assertTrue(Evaluation.evalString(env, "[1 / 3]").get(0).isFlonum());
+        assertEquals(Evaluation.evalString(env, "[1 / 3]").get(0).toString(), "0.333333333333333");
+        assertEquals(Evaluation.evalString(env, "(+ 0.1 [1 / 10])").get(0).toString(), "0.2");
+        assertTrue(Evaluation.evalString(env, "(= (sin 0) 0)").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(** 2 100)").get(0).getNumber(), new BigDecimal("1267650600228229401496703205376"));
+        assertEquals(Evaluation.evalString(env, "(- 100000000000000000000 [1 / 2])").get(0).toString(), "99999999999999999999.5");
+        assertEquals(Evaluation.evalString(env, "(+ 1234567890123456789 [1 / 2])").get(0).toString(), "1234567890123456789.5");
+        assertTrue(Evaluation.evalString(env, "(= [1 / 3] 0.333333333333333)").get(0).coerceBool());
+        assertFalse(Evaluation.evalString(env, "(< [1 / 3] 0.333333333333333)").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(/ 1E-300 1E300)").get(0).getNumber().compareTo(new BigDecimal("1E-600")), 0);
+        assertFalse(Evaluation.evalString(env, "(< [1 / 1E400] 1E-401)").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(exp -800)").get(0).getNumber().signum(), 1);
+        assertFalse(Evaluation.evalString("[1 / 3]").get(0).isFlonum());
+        assertEquals(Evaluation.evalString("(def fr 0) (/ 123456789012345678901 10)").get(1).toString(), "12345678901234567890.1");
+        assertTrue(Evaluation.evalString(env, "(def q [1 / 3])").get(0).isFlonum());
+        Evaluation.evalString(env, "(def fr 50)");
+        assertEquals(Evaluation.evalString(env, "(/ 100000000000000000001 q)").get(0).getNumber().toBigInteger().toString(), "300000000000000300003");
     }
 
     @Test
     void gcdLcm() {
-        assertTrue(Evaluation.evalString("(gcd 13 43)").get(0).getNumber().get().compareTo(BigDecimal.valueOf(1)) == 0);
-        assertTrue(Evaluation.evalString("(lcm 13 43)").get(0).getNumber().get().compareTo(BigDecimal.valueOf(559)) == 0);
+        assertTrue(Evaluation.evalString("(gcd 13 43)").get(0).getNumber().compareTo(BigDecimal.valueOf(1)) == 0);
+        assertTrue(Evaluation.evalString("(lcm 13 43)").get(0).getNumber().compareTo(BigDecimal.valueOf(559)) == 0);
     }
 
     @Test
@@ -39,25 +72,25 @@ class ArithmeticTest {
 
     @Test
     void stringConcat() {
-        assertTrue(Evaluation.evalString("(+ \"hello, \" \"world\")").get(0).getStringConstant().get().get().equals("hello, world"));
+        assertTrue(Evaluation.evalString("(+ \"hello, \" \"world\")").get(0).getStringConstant().get().equals("hello, world"));
     }
 
     @Test
     void stringConcatNumbers() {
-        assertTrue(Evaluation.evalString("(+ 2 \"world\")").get(0).getStringConstant().get().get().equals("2world"));
-        assertTrue(Evaluation.evalString("(+ \"world\" 2)").get(0).getStringConstant().get().get().equals("world2"));
+        assertTrue(Evaluation.evalString("(+ 2 \"world\")").get(0).getStringConstant().get().equals("2world"));
+        assertTrue(Evaluation.evalString("(+ \"world\" 2)").get(0).getStringConstant().get().equals("world2"));
     }
 
     @Test
     void stringSubtract() {
-        assertTrue(Evaluation.evalString("(- 2 \"world\")").get(0).getStringConstant().get().get().equals("rld"));
-        assertTrue(Evaluation.evalString("(- \"world\" 2)").get(0).getStringConstant().get().get().equals("wor"));
+        assertTrue(Evaluation.evalString("(- 2 \"world\")").get(0).getStringConstant().get().equals("rld"));
+        assertTrue(Evaluation.evalString("(- \"world\" 2)").get(0).getStringConstant().get().equals("wor"));
     }
 
     @Test
     void stringMultiply() {
-        assertTrue(Evaluation.evalString("(* 2 \"world\")").get(0).getStringConstant().get().get().equals("worldworld"));
-        assertTrue(Evaluation.evalString("(* \"world\" 2)").get(0).getStringConstant().get().get().equals("worldworld"));
+        assertTrue(Evaluation.evalString("(* 2 \"world\")").get(0).getStringConstant().get().equals("worldworld"));
+        assertTrue(Evaluation.evalString("(* \"world\" 2)").get(0).getStringConstant().get().equals("worldworld"));
     }
 
     @Test
@@ -68,8 +101,8 @@ class ArithmeticTest {
 
     @Test
     void division() {
-        assertTrue(Evaluation.evalString("(approx-eq 1 (- (/ 5 3) (/ 2 3)) 0.00001)").get(0).getNumber().get().equals(BigDecimal.ONE));
-        assertTrue(Evaluation.evalString("(approx-eq 1 (- (/ 4 3) (/ 1 3)) 0.00001)").get(0).getNumber().get().equals(BigDecimal.ONE));
+        assertTrue(Evaluation.evalString("(approx-eq 1 (- (/ 5 3) (/ 2 3)) 0.00001)").get(0).getNumber().equals(BigDecimal.ONE));
+        assertTrue(Evaluation.evalString("(approx-eq 1 (- (/ 4 3) (/ 1 3)) 0.00001)").get(0).getNumber().equals(BigDecimal.ONE));
     }
 
     @Test
@@ -90,25 +123,25 @@ class ArithmeticTest {
 
     @Test
     void testMin() {
-        assertTrue(Evaluation.evalString("(min 2 3)").get(0).getNumber().get().equals(BigDecimal.valueOf(2)));
-        assertTrue(Evaluation.evalString("(min 3 2)").get(0).getNumber().get().equals(BigDecimal.valueOf(2)));
-        assertTrue(Evaluation.evalString("(min \"hi\" \"hello\")").get(0).getStringConstant().get().get().equals("hello"));
-        assertTrue(Evaluation.evalString("(min \"hello\" \"hi\")").get(0).getStringConstant().get().get().equals("hello"));
-        assertTrue(Evaluation.evalString("(size (min '(1 2 3 4) '(1 2)))").get(0).getNumber().get().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(min 2 3)").get(0).getNumber().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(min 3 2)").get(0).getNumber().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(min \"hi\" \"hello\")").get(0).getStringConstant().get().equals("hello"));
+        assertTrue(Evaluation.evalString("(min \"hello\" \"hi\")").get(0).getStringConstant().get().equals("hello"));
+        assertTrue(Evaluation.evalString("(size (min '(1 2 3 4) '(1 2)))").get(0).getNumber().equals(BigDecimal.valueOf(2)));
     }
 
     @Test
     void testMax() {
-        assertTrue(Evaluation.evalString("(max 2 3)").get(0).getNumber().get().equals(BigDecimal.valueOf(3)));
-        assertTrue(Evaluation.evalString("(max 3 2)").get(0).getNumber().get().equals(BigDecimal.valueOf(3)));
-        assertTrue(Evaluation.evalString("(max \"hi\" \"hello\")").get(0).getStringConstant().get().get().equals("hi"));
-        assertTrue(Evaluation.evalString("(max \"hello\" \"hi\")").get(0).getStringConstant().get().get().equals("hi"));
-        assertTrue(Evaluation.evalString("(size (max '(1 2 3 4) '(1 2)))").get(0).getNumber().get().equals(BigDecimal.valueOf(4)));
+        assertTrue(Evaluation.evalString("(max 2 3)").get(0).getNumber().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(max 3 2)").get(0).getNumber().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(max \"hi\" \"hello\")").get(0).getStringConstant().get().equals("hi"));
+        assertTrue(Evaluation.evalString("(max \"hello\" \"hi\")").get(0).getStringConstant().get().equals("hi"));
+        assertTrue(Evaluation.evalString("(size (max '(1 2 3 4) '(1 2)))").get(0).getNumber().equals(BigDecimal.valueOf(4)));
     }
 
     @Test
     void testId() {
-        assertTrue(Evaluation.evalString("(id 5)").get(0).getNumber().get().equals(BigDecimal.valueOf(5)));
+        assertTrue(Evaluation.evalString("(id 5)").get(0).getNumber().equals(BigDecimal.valueOf(5)));
     }
 
     @Test
@@ -119,138 +152,138 @@ class ArithmeticTest {
     @Test
     void testSort() {
         // Copilot generated these. Don't complain to me.
-        assertTrue(Evaluation.evalString("(sort '(3 2 1))").get(0).getList().get().get(0).getNumber().get().equals(BigDecimal.valueOf(1)));
-        assertTrue(Evaluation.evalString("(sort '(3 2 1))").get(0).getList().get().get(1).getNumber().get().equals(BigDecimal.valueOf(2)));
-        assertTrue(Evaluation.evalString("(sort '(3 2 1))").get(0).getList().get().get(2).getNumber().get().equals(BigDecimal.valueOf(3)));
-        assertTrue(Evaluation.evalString("(sort '(3 2 1))").get(0).getList().get().size() == 3);
+        assertTrue(Evaluation.evalString("(sort '(3 2 1))").get(0).getList().get(0).getNumber().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(sort '(3 2 1))").get(0).getList().get(1).getNumber().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(sort '(3 2 1))").get(0).getList().get(2).getNumber().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(sort '(3 2 1))").get(0).getList().size() == 3);
     }
 
     @Test
     void testSortStrings() {
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get().get(0).getStringConstant().get().get().equals("a test"));
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get().get(1).getStringConstant().get().get().equals("example"));
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get().get(2).getStringConstant().get().get().equals("hello"));
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get().get(3).getStringConstant().get().get().equals("hi"));
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get().get(4).getStringConstant().get().get().equals("world"));
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get().size() == 5);
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get(0).getStringConstant().get().equals("a test"));
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get(1).getStringConstant().get().equals("example"));
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get(2).getStringConstant().get().equals("hello"));
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get(3).getStringConstant().get().equals("hi"));
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().get(4).getStringConstant().get().equals("world"));
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" \"hi\" \"example\" \"a test\"))").get(0).getList().size() == 5);
     }
 
     @Test
     void testSortMixed() {
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().get().get(0).getNumber().get().equals(BigDecimal.valueOf(2)));
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().get().get(1).getNumber().get().equals(BigDecimal.valueOf(3)));
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().get().get(2).getStringConstant().get().get().equals("hello"));
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().get().get(3).getStringConstant().get().get().equals("world"));
-        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().get().size() == 4);
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().get(0).getNumber().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().get(1).getNumber().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().get(2).getStringConstant().get().equals("hello"));
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().get(3).getStringConstant().get().equals("world"));
+        assertTrue(Evaluation.evalString("(sort '(\"hello\" \"world\" 2 3))").get(0).getList().size() == 4);
     }
 
     @Test
     void testSortList() {
-        assertTrue(Evaluation.evalString("(sort '((1 2 3) (1 2 3 4)))").get(0).getList().get().get(0).getList().get().get(0).getNumber().get().equals(BigDecimal.valueOf(1)));
-        assertTrue(Evaluation.evalString("(sort '((1 2 3) (1 2 3 4)))").get(0).getList().get().get(0).getList().get().get(1).getNumber().get().equals(BigDecimal.valueOf(2)));
-        assertTrue(Evaluation.evalString("(sort '((1 2 3) (1 2 3 4)))").get(0).getList().get().get(0).getList().get().get(2).getNumber().get().equals(BigDecimal.valueOf(3)));
-        assertTrue(Evaluation.evalString("(sort '((1 2 3) (1 2 3 4)))").get(0).getList().get().get(0).getList().get().size() == 3);
-        assertTrue(Evaluation.evalString("(sort '((2 2 3) (1 2 3 4)))").get(0).getList().get().get(0).getList().get().get(0).getNumber().get().equals(BigDecimal.valueOf(2)));
-        assertTrue(Evaluation.evalString("(sort '((2 2 3) (1 2 3 4)))").get(0).getList().get().get(0).getList().get().get(1).getNumber().get().equals(BigDecimal.valueOf(2)));
-        assertTrue(Evaluation.evalString("(sort '((2 2 3) (1 2 3 4)))").get(0).getList().get().get(0).getList().get().get(2).getNumber().get().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(sort '((1 2 3) (1 2 3 4)))").get(0).getList().get(0).getList().get(0).getNumber().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(sort '((1 2 3) (1 2 3 4)))").get(0).getList().get(0).getList().get(1).getNumber().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(sort '((1 2 3) (1 2 3 4)))").get(0).getList().get(0).getList().get(2).getNumber().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(sort '((1 2 3) (1 2 3 4)))").get(0).getList().get(0).getList().size() == 3);
+        assertTrue(Evaluation.evalString("(sort '((2 2 3) (1 2 3 4)))").get(0).getList().get(0).getList().get(0).getNumber().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(sort '((2 2 3) (1 2 3 4)))").get(0).getList().get(0).getList().get(1).getNumber().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(sort '((2 2 3) (1 2 3 4)))").get(0).getList().get(0).getList().get(2).getNumber().equals(BigDecimal.valueOf(3)));
     }
 
     @Test
     void testSinCos() {
-        assertTrue(Evaluation.evalString("(sin 0)").get(0).getNumber().get().equals(BigDecimal.valueOf(0)));
-        assertEquals(Evaluation.evalString("[(- (sin (rad 90)) 1) < 0.00000001]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(cos (rad 90)) < 0.00000001]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(sin (rad 180)) < 0.00000001]").get(0).getNumber().get(), BigDecimal.valueOf(1));
+        assertTrue(Evaluation.evalString("(sin 0)").get(0).getNumber().equals(BigDecimal.valueOf(0)));
+        assertEquals(Evaluation.evalString("[(- (sin (rad 90)) 1) < 0.00000001]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(cos (rad 90)) < 0.00000001]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(sin (rad 180)) < 0.00000001]").get(0).getNumber(), BigDecimal.valueOf(1));
     }
 
     @Test
     void testTanSec() {
-        assertEquals(Evaluation.evalString("[(- (tan (rad 45)) 1.61) < 0.1]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(tan (rad 135)) < 0.00000001]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(tan (rad 180)) < 0.00000001]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(- (tan (rad 45)) 1) < 0.00000001]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(- (sec (rad 45)) 1.41) < 0.1]").get(0).getNumber().get(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(- (tan (rad 45)) 1.61) < 0.1]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(tan (rad 135)) < 0.00000001]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(tan (rad 180)) < 0.00000001]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(- (tan (rad 45)) 1) < 0.00000001]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(- (sec (rad 45)) 1.41) < 0.1]").get(0).getNumber(), BigDecimal.valueOf(1));
     }
 
     @Test
     void testDeg() {
-        assertEquals(Evaluation.evalString("[[(deg (rad 180)) - 180] < 0.01]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[[(deg (rad 90)) - 90] < 0.01]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[[(deg (rad 123)) - 123] < 0.01]").get(0).getNumber().get(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[[(deg (rad 180)) - 180] < 0.01]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[[(deg (rad 90)) - 90] < 0.01]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[[(deg (rad 123)) - 123] < 0.01]").get(0).getNumber(), BigDecimal.valueOf(1));
     }
 
     @Test
     void testApproxEq() {
-        assertEquals(Evaluation.evalString("(approx-eq 0.1 0.11 0.1)").get(0).getNumber().get(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(approx-eq 0.1 0.11 0.1)").get(0).getNumber(), BigDecimal.valueOf(1));
     }
 
     @Test
     void testFactorial() {
-        assertEquals(Evaluation.evalString("(! 5)").get(0).getNumber().get(), BigDecimal.valueOf(120));
-        assertEquals(Evaluation.evalString("(! 0)").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("(! 1)").get(0).getNumber().get(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(! 5)").get(0).getNumber(), BigDecimal.valueOf(120));
+        assertEquals(Evaluation.evalString("(! 0)").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(! 1)").get(0).getNumber(), BigDecimal.valueOf(1));
     }
 
     @Test
     void testBinomial() {
-        assertEquals(Evaluation.evalString("(binomial 5 2)").get(0).getNumber().get(), BigDecimal.valueOf(10));
-        assertEquals(Evaluation.evalString("(binomial 5 3)").get(0).getNumber().get(), BigDecimal.valueOf(10));
-        assertEquals(Evaluation.evalString("(binomial 5 4)").get(0).getNumber().get(), BigDecimal.valueOf(5));
+        assertEquals(Evaluation.evalString("(binomial 5 2)").get(0).getNumber(), BigDecimal.valueOf(10));
+        assertEquals(Evaluation.evalString("(binomial 5 3)").get(0).getNumber(), BigDecimal.valueOf(10));
+        assertEquals(Evaluation.evalString("(binomial 5 4)").get(0).getNumber(), BigDecimal.valueOf(5));
     }
 
     @Test
     void testNthRoot() {
-        assertEquals(Evaluation.evalString("[(root 2 81) approx-eq 9 0.001]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(root 3 0) approx-eq 0 0.001]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(root 3 125) approx-eq 5 0.001]").get(0).getNumber().get(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(root 2 81) approx-eq 9 0.001]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(root 3 0) approx-eq 0 0.001]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(root 3 125) approx-eq 5 0.001]").get(0).getNumber(), BigDecimal.valueOf(1));
     }
 
     @Test
     void testAbs() {
-        assertEquals(Evaluation.evalString("(% -1)").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("(% 1)").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("(% 0)").get(0).getNumber().get(), BigDecimal.valueOf(0));
+        assertEquals(Evaluation.evalString("(% -1)").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(% 1)").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(% 0)").get(0).getNumber(), BigDecimal.valueOf(0));
     }
 
     @Test
     void testRemainder() {
-        assertEquals(Evaluation.evalString("(% 5 2)").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("(% 5 3)").get(0).getNumber().get(), BigDecimal.valueOf(2));
-        assertEquals(Evaluation.evalString("(% 5 4)").get(0).getNumber().get(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(% 5 2)").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(% 5 3)").get(0).getNumber(), BigDecimal.valueOf(2));
+        assertEquals(Evaluation.evalString("(% 5 4)").get(0).getNumber(), BigDecimal.valueOf(1));
     }
 
     @Test
     void testFloor() {
-        assertEquals(Evaluation.evalString("(floor 0.5)").get(0).getNumber().get(), BigDecimal.valueOf(0));
-        assertEquals(Evaluation.evalString("(floor -0.5)").get(0).getNumber().get(), BigDecimal.valueOf(-1));
-        assertEquals(Evaluation.evalString("(floor 1.5)").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("(floor -1.5)").get(0).getNumber().get(), BigDecimal.valueOf(-2));
+        assertEquals(Evaluation.evalString("(floor 0.5)").get(0).getNumber(), BigDecimal.valueOf(0));
+        assertEquals(Evaluation.evalString("(floor -0.5)").get(0).getNumber(), BigDecimal.valueOf(-1));
+        assertEquals(Evaluation.evalString("(floor 1.5)").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(floor -1.5)").get(0).getNumber(), BigDecimal.valueOf(-2));
     }
 
     @Test
     void testCeil() {
-        assertEquals(Evaluation.evalString("(ceil 0.5)").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("(ceil -0.5)").get(0).getNumber().get(), BigDecimal.valueOf(0));
-        assertEquals(Evaluation.evalString("(ceil 1.5)").get(0).getNumber().get(), BigDecimal.valueOf(2));
-        assertEquals(Evaluation.evalString("(ceil -1.5)").get(0).getNumber().get(), BigDecimal.valueOf(-1));
+        assertEquals(Evaluation.evalString("(ceil 0.5)").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(ceil -0.5)").get(0).getNumber(), BigDecimal.valueOf(0));
+        assertEquals(Evaluation.evalString("(ceil 1.5)").get(0).getNumber(), BigDecimal.valueOf(2));
+        assertEquals(Evaluation.evalString("(ceil -1.5)").get(0).getNumber(), BigDecimal.valueOf(-1));
     }
 
     @Test
     void testDecode() {
         Environment env = Evaluation.createDefaultEnv();
         Evaluation.evalString(env, "(def hms-to-sec #((bind poly '(24 60 60)) tie))");
-        assertEquals(Evaluation.evalString(env, "(hms-to-sec 2 46 40)").get(0).getNumber().get(), new BigDecimal(10000));
-        assertEquals(Evaluation.evalString("[2 poly '(1 1 0 1)]").get(0).getNumber().get(), new BigDecimal(13));
+        assertEquals(Evaluation.evalString(env, "(hms-to-sec 2 46 40)").get(0).getNumber(), new BigDecimal(10000));
+        assertEquals(Evaluation.evalString("[2 poly '(1 1 0 1)]").get(0).getNumber(), new BigDecimal(13));
     }
 
     @Test
     void testPollardRho() {
-        assertEquals(Evaluation.evalString("(sum (p-factors 44343535354351600000003434353))").get(0).getNumber().get(), new BigDecimal("903348927041347"));
+        assertEquals(Evaluation.evalString("(sum (p-factors 44343535354351600000003434353))").get(0).getNumber(), new BigDecimal("903348927041347"));
     }
 
     @Test
     void testTotient() {
-        assertEquals(Evaluation.evalString("(totient 174)").get(0).getNumber().get(), new BigDecimal("56"));
+        assertEquals(Evaluation.evalString("(totient 174)").get(0).getNumber(), new BigDecimal("56"));
     }
 
     @Test
@@ -265,10 +298,10 @@ class ArithmeticTest {
 
     @Test
     void testMobiusMu() {
-        assertEquals(Evaluation.evalString("(mobius-mu 1523)").get(0).getNumber().get(), BigDecimal.valueOf(0));
-        assertEquals(Evaluation.evalString("(mobius-mu 7)").get(0).getNumber().get(), BigDecimal.valueOf(-1));
-        assertEquals(Evaluation.evalString("(mobius-mu 10)").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("(mobius-mu 8)").get(0).getNumber().get(), BigDecimal.valueOf(0));
+        assertEquals(Evaluation.evalString("(mobius-mu 1523)").get(0).getNumber(), BigDecimal.valueOf(0));
+        assertEquals(Evaluation.evalString("(mobius-mu 7)").get(0).getNumber(), BigDecimal.valueOf(-1));
+        assertEquals(Evaluation.evalString("(mobius-mu 10)").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("(mobius-mu 8)").get(0).getNumber(), BigDecimal.valueOf(0));
     }
 
     @Test
@@ -279,11 +312,11 @@ class ArithmeticTest {
                         "    if [n < 2]\n" +
                         "        n\n" +
                         "        [(fib [n - 1]) + (fib [n - 2])]))");
-        assertEquals(Evaluation.evalString(env, "(fib 0)").get(0).getNumber().get(), new BigDecimal(0));
-        assertEquals(Evaluation.evalString(env, "(fib 1)").get(0).getNumber().get(), new BigDecimal(1));
-        assertEquals(Evaluation.evalString(env, "(fib 2)").get(0).getNumber().get(), new BigDecimal(1));
-        assertEquals(Evaluation.evalString(env, "(fib 3)").get(0).getNumber().get(), new BigDecimal(2));
-        assertEquals(Evaluation.evalString(env, "(fib 4)").get(0).getNumber().get(), new BigDecimal(3));
-        assertEquals(Evaluation.evalString(env, "(fib 5)").get(0).getNumber().get(), new BigDecimal(5));
+        assertEquals(Evaluation.evalString(env, "(fib 0)").get(0).getNumber(), new BigDecimal(0));
+        assertEquals(Evaluation.evalString(env, "(fib 1)").get(0).getNumber(), new BigDecimal(1));
+        assertEquals(Evaluation.evalString(env, "(fib 2)").get(0).getNumber(), new BigDecimal(1));
+        assertEquals(Evaluation.evalString(env, "(fib 3)").get(0).getNumber(), new BigDecimal(2));
+        assertEquals(Evaluation.evalString(env, "(fib 4)").get(0).getNumber(), new BigDecimal(3));
+        assertEquals(Evaluation.evalString(env, "(fib 5)").get(0).getNumber(), new BigDecimal(5));
     }
 }
@@ -0,0 +1,67 @@
+package kamilalisp.test;
+
+import kamilalisp.api.Evaluation;
+import kamilalisp.compiler.Engine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Bytecode {
+    @BeforeEach
+    void useBytecode() {
+        Evaluation.setEngine(Engine.BYTECODE);
+    }
+
+    @AfterEach
+    void useTree() {
+        Evaluation.setEngine(Engine.TREE);
+    }
+
+    @Test
+    void specialForms() {
+        assertEquals(BigDecimal.valueOf(6765), Evaluation.evalString(
+                "(defun fib (n) (if (< n 2) n (+ (fib (- n 1)) (fib (- n 2)))))" +
+                     "(fib 20)").get(1).getNumber());
+        assertTrue(Evaluation.evalString(
+                "(def x 5)" +
+                     "(= 'b (cond ((= x 4) 'a) ((= x 5) 'b) ('c)))").get(1).coerceBool());
+        assertEquals(BigDecimal.valueOf(7), Evaluation.evalString(
+                "(let ((x 3) (y 4)) ((lambda (z) (+ x z)) y))").get(0).getNumber());
+        assertEquals(BigDecimal.valueOf(5), Evaluation.evalString(
+                "(let-seq (def x 3) (defun add (y) (+ x y)) (add 2))").get(0).getNumber());
+        assertThrows(Error.class, () -> Evaluation.evalString("(cond (0 1) (0 2))").get(0).get());
+        assertThrows(Error.class, () -> Evaluation.evalString("(let ((x 1)) (def y 2))").get(0).get());
+    }
+
+    @Test
+    void laziness() {
+        // the untaken branch is never evaluated, nor is a binding nobody uses.
+        assertEquals(BigDecimal.ONE, Evaluation.evalString("(if 1 1 (/ 1 0))").get(0).getNumber());
+        assertEquals(BigDecimal.ONE, Evaluation.evalString("(let ((x (/ 1 0))) 1)").get(0).getNumber());
+        assertEquals(BigDecimal.ZERO, Evaluation.evalString(
+                "(defun count (n) (if (= n 0) n (count (- n 1))))" +
+                     "(count 100000)").get(1).getNumber());
+    }
+
+    @Test
+    void reboundSpecialForm() {
+        assertEquals(BigDecimal.valueOf(2), Evaluation.evalString(
+                "(defun f (x) (if x 1 2))" +
+                     "(def if (lambda (c a b) b))" +
+                     "(f 1)").get(2).getNumber());
+    }
+
+    @Test
+    void disassembler() {
+        String listing = Evaluation.disassemble(Evaluation.createDefaultEnv(), "(lambda (x) (if x (+ x 1) 0))");
+        assertTrue(listing.contains("LAMBDA"));
+        assertTrue(listing.contains("JUMP_IF_FALSE"));
+        assertTrue(listing.contains("LOCAL"));
+    }
+}
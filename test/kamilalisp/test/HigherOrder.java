@@ -8,94 +8,149 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HigherOrder {
     @Test
     public void map() {
-        assertTrue(Evaluation.evalString("(size (map - '(1 2 3)))").get(0).get().get().equals(BigDecimal.valueOf(3)));
-        assertTrue(Evaluation.evalString("(size (map - 'nil))").get(0).get().get().equals(BigDecimal.valueOf(0)));
+        assertTrue(Evaluation.evalString("(size (map - '(1 2 3)))").get(0).get().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(size (map - 'nil))").get(0).get().equals(BigDecimal.valueOf(0)));
     }
 
     @Test
     public void filter() {
-        assertTrue(Evaluation.evalString("(size (filter ~ '(1 0 1)))").get(0).get().get().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(size (filter ~ '(1 0 1)))").get(0).get().equals(BigDecimal.valueOf(1)));
     }
 
     @Test
     public void count() {
-        assertTrue(Evaluation.evalString("(count ~ '(1 0 1))").get(0).get().get().equals(BigDecimal.valueOf(1)));
-        assertTrue(Evaluation.evalString("(count ~ 'nil)").get(0).get().get().equals(BigDecimal.valueOf(0)));
+        assertTrue(Evaluation.evalString("(count ~ '(1 0 1))").get(0).get().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(count ~ 'nil)").get(0).get().equals(BigDecimal.valueOf(0)));
     }
 
     @Test
     public void testEval() {
-        assertTrue(Evaluation.evalString("(eval '(+ 1 2))").get(0).get().get().equals(BigDecimal.valueOf(3)));
-        assertTrue(Evaluation.evalString("((eval '(lambda (x) (* x x))) 5)").get(0).get().get().equals(BigDecimal.valueOf(25)));
+        assertTrue(Evaluation.evalString("(eval '(+ 1 2))").get(0).get().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("((eval '(lambda (x) (* x x))) 5)").get(0).get().equals(BigDecimal.valueOf(25)));
     }
 
     @Test
     public void testEvery() {
-        assertTrue(Evaluation.evalString("(every ~ '(1 0 1))").get(0).get().get().equals(BigDecimal.valueOf(0)));
-        assertTrue(Evaluation.evalString("(every ~ '(1 1 1))").get(0).get().get().equals(BigDecimal.valueOf(0)));
-        assertTrue(Evaluation.evalString("(every ~ '(0 0 0))").get(0).get().get().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(every ~ '(1 0 1))").get(0).get().equals(BigDecimal.valueOf(0)));
+        assertTrue(Evaluation.evalString("(every ~ '(1 1 1))").get(0).get().equals(BigDecimal.valueOf(0)));
+        assertTrue(Evaluation.evalString("(every ~ '(0 0 0))").get(0).get().equals(BigDecimal.valueOf(1)));
     }
 
     @Test
     public void testFlatmap() {
-        assertTrue(Evaluation.evalString("(nth 2 (flat-map (lambda (x) (cons x 'nil)) '(1 2 3)))").get(0).get().get().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(nth 2 (flat-map (lambda (x) (cons x 'nil)) '(1 2 3)))").get(0).get().equals(BigDecimal.valueOf(3)));
     }
 
     @Test
     public void testNth() {
-        assertTrue(Evaluation.evalString("(nth 0 '(1 2 3))").get(0).get().get().equals(BigDecimal.valueOf(1)));
-        assertTrue(Evaluation.evalString("(nth 1 '(1 2 3))").get(0).get().get().equals(BigDecimal.valueOf(2)));
-        assertTrue(Evaluation.evalString("(nth 2 '(1 2 3))").get(0).get().get().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(nth 0 '(1 2 3))").get(0).get().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(nth 1 '(1 2 3))").get(0).get().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(nth 2 '(1 2 3))").get(0).get().equals(BigDecimal.valueOf(3)));
     }
 
     @Test
     public void testTie() {
-        assertTrue(Evaluation.evalString("(tie 4 5 6)").get(0).getList().get().size() == 3);
-        assertTrue(Evaluation.evalString("(tie 4 5 6)").get(0).getList().get().get(0).get().get().equals(BigDecimal.valueOf(4)));
+        assertTrue(Evaluation.evalString("(tie 4 5 6)").get(0).getList().size() == 3);
+        assertTrue(Evaluation.evalString("(tie 4 5 6)").get(0).getList().get(0).get().equals(BigDecimal.valueOf(4)));
     }
 
     @Test
     public void testCommute() {
-        assertTrue(Evaluation.evalString("(commute tie 1 2 3)").get(0).getList().get().equals(List.of(new Atom(new BigDecimal(3)), new Atom(new BigDecimal(2)), new Atom(new BigDecimal(1)))));
+        assertTrue(Evaluation.evalString("(commute tie 1 2 3)").get(0).getList().equals(List.of(new Atom(new BigDecimal(3)), new Atom(new BigDecimal(2)), new Atom(new BigDecimal(1)))));
     }
 
     @Test
     public void testScanl() {
-        assertTrue(Evaluation.evalString("(scanl + 0 '(1 2 3))").get(0).getList().get().equals(List.of(new Atom(BigDecimal.ZERO), new Atom(BigDecimal.ONE), new Atom(BigDecimal.valueOf(3)), new Atom(BigDecimal.valueOf(6)))));
+        assertTrue(Evaluation.evalString("(scanl + 0 '(1 2 3))").get(0).getList().equals(List.of(new Atom(BigDecimal.ZERO), new Atom(BigDecimal.ONE), new Atom(BigDecimal.valueOf(3)), new Atom(BigDecimal.valueOf(6)))));
     }
 
     @Test
     public void testScanlOrdered() {
-        assertTrue(Evaluation.evalString("(scanl - 0 '(1 2 3))").get(0).getList().get().equals(List.of(new Atom(BigDecimal.ZERO), new Atom(BigDecimal.valueOf(-1)), new Atom(BigDecimal.valueOf(-3)), new Atom(BigDecimal.valueOf(-6)))));
+        assertTrue(Evaluation.evalString("(scanl - 0 '(1 2 3))").get(0).getList().equals(List.of(new Atom(BigDecimal.ZERO), new Atom(BigDecimal.valueOf(-1)), new Atom(BigDecimal.valueOf(-3)), new Atom(BigDecimal.valueOf(-6)))));
     }
 
     @Test
     public void testScanr() {
-        assertTrue(Evaluation.evalString("(scanr + 0 '(1 2 3))").get(0).getList().get().equals(List.of(new Atom(BigDecimal.valueOf(6)), new Atom(BigDecimal.valueOf(5)), new Atom(BigDecimal.valueOf(3)), new Atom(BigDecimal.valueOf(0)))));
+        assertTrue(Evaluation.evalString("(scanr + 0 '(1 2 3))").get(0).getList().equals(List.of(new Atom(BigDecimal.valueOf(6)), new Atom(BigDecimal.valueOf(5)), new Atom(BigDecimal.valueOf(3)), new Atom(BigDecimal.valueOf(0)))));
     }
 
     @Test
     public void testScanrOrdered() {
-        assertTrue(Evaluation.evalString("(scanr - 0 '(1 2 3))").get(0).getList().get().equals(List.of(new Atom(BigDecimal.valueOf(2)), new Atom(BigDecimal.valueOf(-1)), new Atom(BigDecimal.valueOf(3)), new Atom(BigDecimal.valueOf(0)))));
+        assertTrue(Evaluation.evalString("(scanr - 0 '(1 2 3))").get(0).getList().equals(List.of(new Atom(BigDecimal.valueOf(2)), new Atom(BigDecimal.valueOf(-1)), new Atom(BigDecimal.valueOf(3)), new Atom(BigDecimal.valueOf(0)))));
     }
 
     @Test
     public void testBindBasic() {
-        assertTrue(Evaluation.evalString("([+ bind 2] 5)").get(0).getNumber().get().equals(BigDecimal.valueOf(7)));
+        assertTrue(Evaluation.evalString("([+ bind 2] 5)").get(0).getNumber().equals(BigDecimal.valueOf(7)));
     }
 
     @Test
     public void testBindBasicPlaceholder() {
-        assertTrue(Evaluation.evalString("([+ bind _] 5 2)").get(0).getNumber().get().equals(BigDecimal.valueOf(7)));
+        assertTrue(Evaluation.evalString("([+ bind _] 5 2)").get(0).getNumber().equals(BigDecimal.valueOf(7)));
     }
 
     @Test
     public void testMultibind() {
-        assertTrue(Evaluation.evalString("([[if bind [0 /= 0]] bind 1] 12)").get(0).getNumber().get().equals(BigDecimal.valueOf(12)));
+        assertTrue(Evaluation.evalString("([[if bind [0 /= 0]] bind 1] 12)").get(0).getNumber().equals(BigDecimal.valueOf(12)));
+    }
+
+    @Test
+    public void testDerivative() {
+        assertTrue(Evaluation.evalString("((D (lambda (x) (* x x))) 3)").get(0).getNumber().compareTo(BigDecimal.valueOf(6)) == 0);
+        assertTrue(Evaluation.evalString("((D (lambda (x y) (* x y)) 'y) 3 4)").get(0).getNumber().compareTo(BigDecimal.valueOf(3)) == 0);
+        assertTrue(Evaluation.evalString("(= 'abc 'abc)").get(0).getNumber().compareTo(BigDecimal.ONE) == 0);
+    }
+
+    @Test
+    public void testParallel() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(def parallelism 4)");
+        assertTrue(Evaluation.evalString(env, "(= (pmap (lambda (x) (* x x)) (iota 1000)) (map (lambda (x) (* x x)) (iota 1000)))").get(0).coerceBool());
+        assertTrue(Evaluation.evalString(env, "(pmap + '(1 2 3) '(10 20))").get(0).equals(Evaluation.evalString(env, "'(11 22)").get(0)));
+        assertTrue(Evaluation.evalString(env, "(size (pfilter (lambda (x) (= 0 (% x 3))) (iota 1000)))").get(0).getNumber().equals(BigDecimal.valueOf(334)));
+        assertTrue(Evaluation.evalString(env, "(preduce + 0 (iota 1000))").get(0).getNumber().equals(BigDecimal.valueOf(499500)));
+        assertTrue(Evaluation.evalString(env, "(preduce (lambda (x y) (+ x y)) 0 (iota 1000))").get(0).getNumber().equals(BigDecimal.valueOf(499500)));
+        assertTrue(Evaluation.evalString(env, "(preduce + 7 'nil)").get(0).getNumber().equals(BigDecimal.valueOf(7)));
+        assertEquals(Evaluation.evalString(env, "((pfork tie minl maxl size) (iota 1000))").get(0).toString(), "(0 999 1000)");
+        assertEquals(Evaluation.evalString(env, "((pfork - (lambda (x y) (* x y)) +) 3 4)").get(0).toString(), "5");
+    }
+
+    @Test
+    public void testFutures() throws InterruptedException {
+        Environment env = Evaluation.createDefaultEnv();
+        // runs until cancelled, in constant stack: the only failure below is the division.
+        Evaluation.evalString(env, "(defun spin (n) (if (< n 0) n (spin (+ n 1))))");
+        assertEquals(Evaluation.evalString(env, "(def a (future (foldl + 0 (iota 1000)))) (await a)").get(1).toString(), "499500");
+        assertEquals(Evaluation.evalString(env, "(await-all a (future (size (iota 10))) (future 'x))").get(0).toString(), "(499500 10 x)");
+        assertEquals(Evaluation.evalString(env, "(a)").get(0).toString(), "499500");
+        assertEquals(Evaluation.evalString(env, "(await-any (future (car 1)) (future (spin 0)) (future 42))").get(0).toString(), "42");
+        assertThrows(ArithmeticException.class, () -> Evaluation.evalString(env, "(await-all (future (spin 0)) (future (/ 1 0)))").get(0).get());
+
+        // the spinning futures were cancelled.
+        for(int i = 0; i < 100 && Thread.getAllStackTraces().keySet().stream().anyMatch(t -> t.getName().equals("future") && t.getState() == Thread.State.RUNNABLE); i++)
+            Thread.sleep(20);
+        assertTrue(Thread.getAllStackTraces().keySet().stream().noneMatch(t -> t.getName().equals("future") && t.getState() == Thread.State.RUNNABLE));
+    }
+
+    @Test
+    public void testGenerators() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(defun nats (i) (nats (+ 1 (yield i))))");
+        Evaluation.evalString(env, "(def g (generator (nats 0)))");
+        assertEquals(Evaluation.evalString(env, "(take 3 g)").get(0).toString(), "(0 1 2)");
+        assertEquals(Evaluation.evalString(env, "(g)").get(0).toString(), "3");
+        assertEquals(Evaluation.evalString(env, "(foldl' + 0 (take 20000 (generator (nats 0))))").get(0).toString(), "199990000");
+        assertEquals(Evaluation.evalString(env, "(take 4 (map (lambda (x) (* x x)) (filter (lambda (x) (= 0 (% x 3))) g)))").get(0).toString(), "(36 81 144 225)");
+        assertEquals(Evaluation.evalString(env, "(foldl' + 0 (generator (map yield (iota 1000))))").get(0).toString(), "499500");
+        assertEquals(Evaluation.evalString(env, "(take 5 (generator (map yield '(1 2))))").get(0).toString(), "(1 2)");
+        assertThrows(Error.class, () -> Evaluation.evalString(env, "(take 2 (generator (tie (yield 1) (car 5))))").get(0).get());
+        assertThrows(Error.class, () -> Evaluation.evalString(env, "(yield 1)").get(0).get());
     }
 }
@@ -1,35 +1,40 @@
 package kamilalisp.test;
 
 import kamilalisp.api.Evaluation;
+import kamilalisp.compiler.Jit;
 import kamilalisp.data.Atom;
 import kamilalisp.data.Environment;
+import kamilalisp.data.LbcSupplier;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class Lambda {
     @Test
     void simpleLambda() {
-        assertTrue(Evaluation.evalString("((lambda (x y) (+ x y)) 5 6)").get(0).getNumber().get().compareTo(BigDecimal.valueOf(11)) == 0);
+        assertTrue(Evaluation.evalString("((lambda (x y) (+ x y)) 5 6)").get(0).getNumber().compareTo(BigDecimal.valueOf(11)) == 0);
     }
 
     @Test
     void lambdaCurry() {
-        assertTrue(Evaluation.evalString("(((lambda (x) (lambda (y) (+ x y))) 5) 6)").get(0).getNumber().get().compareTo(BigDecimal.valueOf(11)) == 0);
+        assertTrue(Evaluation.evalString("(((lambda (x) (lambda (y) (+ x y))) 5) 6)").get(0).getNumber().compareTo(BigDecimal.valueOf(11)) == 0);
     }
 
     @Test
     void dyadicLambda() {
-        assertTrue(Evaluation.evalString("((dyad [x + y]) 5 5)").get(0).getNumber().get().compareTo(BigDecimal.valueOf(10)) == 0);
+        assertTrue(Evaluation.evalString("((dyad [x + y]) 5 5)").get(0).getNumber().compareTo(BigDecimal.valueOf(10)) == 0);
     }
 
     @Test
     void monadicLambda() {
-        assertTrue(Evaluation.evalString("((monad [x + x]) 5)").get(0).getNumber().get().compareTo(BigDecimal.valueOf(10)) == 0);
+        assertTrue(Evaluation.evalString("((monad [x + x]) 5)").get(0).getNumber().compareTo(BigDecimal.valueOf(10)) == 0);
     }
 
     @Test
@@ -45,27 +50,27 @@ public class Lambda {
         Environment env = Evaluation.createDefaultEnv();
         Evaluation.evalString(env, "(defun tieid (x y ?z) (tie x y z))");
         Evaluation.evalString(env, "(defun tieid2 (x ?y ?z) (tie x y z))");
-        assertEquals(Evaluation.evalString(env, "(tieid 1 2 3)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid 1 2 3)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("2")),
                 new Atom(new BigDecimal("3"))
         ));
-        assertEquals(Evaluation.evalString(env, "(tieid2 1 2 3)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid2 1 2 3)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("2")),
                 new Atom(new BigDecimal("3"))
         ));
-        assertEquals(Evaluation.evalString(env, "(tieid 1 2)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid 1 2)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("2")),
                 Atom.NULL
         ));
-        assertEquals(Evaluation.evalString(env, "(tieid2 1 2)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid2 1 2)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("2")),
                 Atom.NULL
         ));
-        assertEquals(Evaluation.evalString(env, "(tieid2 1)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid2 1)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 Atom.NULL,
                 Atom.NULL
@@ -77,27 +82,27 @@ public class Lambda {
         Environment env = Evaluation.createDefaultEnv();
         Evaluation.evalString(env, "(defmacro tieid (x y ?z) (tie x y z))");
         Evaluation.evalString(env, "(defmacro tieid2 (x ?y ?z) (tie x y z))");
-        assertEquals(Evaluation.evalString(env, "(tieid 1 2 3)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid 1 2 3)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("2")),
                 new Atom(new BigDecimal("3"))
         ));
-        assertEquals(Evaluation.evalString(env, "(tieid2 1 2 3)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid2 1 2 3)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("2")),
                 new Atom(new BigDecimal("3"))
         ));
-        assertEquals(Evaluation.evalString(env, "(tieid 1 2)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid 1 2)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("2")),
                 Atom.NULL
         ));
-        assertEquals(Evaluation.evalString(env, "(tieid2 1 2)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid2 1 2)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("2")),
                 Atom.NULL
         ));
-        assertEquals(Evaluation.evalString(env, "(tieid2 1)").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString(env, "(tieid2 1)").get(0).getList(), List.of(
                 new Atom(new BigDecimal("1")),
                 Atom.NULL,
                 Atom.NULL
@@ -108,18 +113,104 @@ public class Lambda {
     void functionAcrossEnvs() {
         Environment env = Evaluation.createDefaultEnv();
         Evaluation.evalString(env, "(defun caar (x) (car (car x)))");
-        assertTrue(Evaluation.evalString(env, "(caar '((1 2) (3 4) 5 6))").get(0).getNumber().get().compareTo(BigDecimal.ONE) == 0);
+        assertTrue(Evaluation.evalString(env, "(caar '((1 2) (3 4) 5 6))").get(0).getNumber().compareTo(BigDecimal.ONE) == 0);
     }
 
     @Test
     void testType() {
-        assertTrue(Evaluation.evalString("(type (lambda (x y) (+ x y)))").get(0).getStringConstant().get().get().equals("CLOSURE"));
+        assertTrue(Evaluation.evalString("(type (lambda (x y) (+ x y)))").get(0).getStringConstant().get().equals("CLOSURE"));
     }
 
     @Test
     void testLog() {
-        assertEquals(Evaluation.evalString("[(log 10) approx-eq 1 0.01]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(log 2 8) approx-eq 3 0.01]").get(0).getNumber().get(), BigDecimal.valueOf(1));
-        assertEquals(Evaluation.evalString("[(log2 8) approx-eq 3 0.01]").get(0).getNumber().get(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(log 10) approx-eq 1 0.01]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(log 2 8) approx-eq 3 0.01]").get(0).getNumber(), BigDecimal.valueOf(1));
+        assertEquals(Evaluation.evalString("[(log2 8) approx-eq 3 0.01]").get(0).getNumber(), BigDecimal.valueOf(1));
+    }
+
+    @Test
+    void tailCalls() {
+        assertEquals(Evaluation.evalString("(defun f (n) (if (= n 0) 'done (f (- n 1)))) (f 200000)").get(1).toString(), "done");
+        assertEquals(Evaluation.evalString("(defun f (n) (cond ((= n 0) 'done) ((f (- n 1))))) (f 200000)").get(1).toString(), "done");
+        assertEquals(Evaluation.evalString("(let-seq (defun f (n) (let ((m (- n 1))) (if (< m 0) 'done (f m)))) (f 200000))").get(0).toString(), "done");
+        assertEquals(Evaluation.evalString("(defun f (n) (g n)) (defun g (n) (if (= n 0) 'done (f (- n 1)))) (f 200000)").get(2).toString(), "done");
+        assertEquals(Evaluation.evalString("(defun cnt (n acc) (if (= n 0) acc (cnt (- n 1) (+ acc 1)))) (cnt 200000 0)").get(1).toString(), "200000");
+    }
+
+    @Test
+    void loopRecur() {
+        assertTrue(Evaluation.evalString("(loop ((i 0) (acc 0)) (if (= i 1000000) acc (recur (+ i 1) (+ acc i))))").get(0).getNumber().compareTo(BigDecimal.valueOf(499999500000L)) == 0);
+        assertEquals(Evaluation.evalString("(map (lambda (n) (loop ((i n) (r 1)) (if (= i 0) r (recur (- i 1) (* r i))))) '(0 1 5))").get(0).toString(), "(1 1 120)");
+        assertEquals(Evaluation.evalString("(loop ((i 0) (acc 0)) (if (= i 3) acc (recur (+ i 1) (+ acc (loop ((j 0)) (if (= j 5) j (recur (+ j 1))))))))").get(0).toString(), "15");
+        Error e = assertThrows(Error.class, () -> Evaluation.evalString("(loop ((i 0)) (if (= i 10) i (+ 100 (recur (+ i 1)))))").get(0).get());
+        assertEquals(e.getMessage(), "'recur' used outside of tail position.");
+        e = assertThrows(Error.class, () -> Evaluation.evalString("(defun next (i) (recur (+ i 1))) (loop ((i 0)) (if (= i 10) i (next i)))").get(1).get());
+        assertEquals(e.getMessage(), "'recur' used outside of a 'loop'.");
+    }
+
+    @Test
+    void globalRedefinition() {
+        Environment env = Evaluation.createDefaultEnv();
+        assertEquals(Evaluation.evalString(env, "(defun f () 1) (defun g () (f)) (g)").get(2).toString(), "1");
+        assertEquals(Evaluation.evalString(env, "(defun f () 2) (g)").get(1).toString(), "2");
+    }
+
+    @Test
+    void hotLambdas() {
+        int threshold = Jit.threshold;
+        Jit.threshold = 2;
+        try {
+            Environment env = Evaluation.createDefaultEnv();
+            List<Atom> result = Evaluation.evalString(env,
+                    "(defun fib (n) (if (< n 2) n (+ (fib (- n 1)) (fib (- n 2)))))" +
+                         "(fib 15)" +
+                         "(foldl' (lambda (acc x) (+ acc (* x x))) 0 (iota 100))" +
+                         "(defun f (x) (+ x 1)) (defun g (x) (f x)) (g 1) (g 2) (g 3)");
+            assertEquals(result.get(1).toString(), "610");
+            assertEquals(result.get(2).toString(), "328350");
+            assertEquals(result.get(7).toString(), "4");
+            assertEquals(Evaluation.evalString(env, "(defun f (x) (- x 1)) (g 4)").get(1).toString(), "3");
+        } finally {
+            Jit.threshold = threshold;
+        }
+    }
+
+    @Test
+    void concurrentEvaluation() throws InterruptedException {
+        AtomicInteger forced = new AtomicInteger();
+        Atom shared = new Atom(new LbcSupplier<>(() -> {
+            forced.incrementAndGet();
+            return BigDecimal.TEN;
+        }));
+        List<Thread> threads = new ArrayList<>();
+        for(int i = 0; i < 8; i++)
+            threads.add(new Thread(() -> assertTrue(shared.getNumber().equals(BigDecimal.TEN))));
+        for(Thread t : threads)
+            t.start();
+        for(Thread t : threads)
+            t.join();
+        assertEquals(forced.get(), 1);
+
+        // a value whose computation failed fails the same way when forced again.
+        Environment failing = Evaluation.createDefaultEnv();
+        Evaluation.evalString(failing, "(defun f (n) (if (= n 0) (car 5) n)) (def x (f 0))");
+        for(int i = 0; i < 2; i++) {
+            Error e = assertThrows(Error.class, () -> Evaluation.evalString(failing, "x").get(0).get());
+            assertEquals(e.getMessage(), "Argument to 'car': expected LIST got NUMBER");
+        }
+
+        int threshold = Jit.threshold;
+        Jit.threshold = 2;
+        try {
+            Environment env = Evaluation.createDefaultEnv();
+            List<Atom> result = Evaluation.evalString(env,
+                    "(def parallelism 8)" +
+                         "(def total (foldl + 0 (iota 1000)))" +
+                         "(defun fib (n) (if (< n 2) n (+ (fib (- n 1)) (fib (- n 2)))))" +
+                         "(preduce + 0 (pmap (lambda (x) (+ total (fib (% x 12)))) (iota 400)))");
+            assertEquals(result.get(3).toString(), String.valueOf(400 * 499500 + 7660));
+        } finally {
+            Jit.threshold = threshold;
+        }
     }
 }
@@ -10,9 +10,22 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 public class LetBindings {
     @Test
     void testLet() {
-        assertTrue(Evaluation.evalString("(let ((x 1)) x)").get(0).getNumber().get().equals(BigDecimal.ONE));
-        assertTrue(Evaluation.evalString("(let ((x 1) (y 2)) (+ x y))").get(0).getNumber().get().equals(BigDecimal.valueOf(3)));
-        assertTrue(Evaluation.evalString("(let ((x 1) (y 2)) (let ((z (+ x y))) z))").get(0).getNumber().get().equals(BigDecimal.valueOf(3)));
-        assertTrue(Evaluation.evalString("(let ((x 1) (y 2)) (let ((z (+ x y))) (+ z x)))").get(0).getNumber().get().equals(BigDecimal.valueOf(4)));
+        assertTrue(Evaluation.evalString("(let ((x 1)) x)").get(0).getNumber().equals(BigDecimal.ONE));
+        assertTrue(Evaluation.evalString("(let ((x 1) (y 2)) (+ x y))").get(0).getNumber().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(let ((x 1) (y 2)) (let ((z (+ x y))) z))").get(0).getNumber().equals(BigDecimal.valueOf(3)));
+        assertTrue(Evaluation.evalString("(let ((x 1) (y 2)) (let ((z (+ x y))) (+ z x)))").get(0).getNumber().equals(BigDecimal.valueOf(4)));
+    }
+
+    @Test
+    void testLetSeq() {
+        assertTrue(Evaluation.evalString("(let-seq (def x 3) (defun add3 (y) (+ x y)) (add3 2))").get(0).getNumber().equals(BigDecimal.valueOf(5)));
+        assertTrue(Evaluation.evalString("(let-seq (def x 1) (def x (+ x 1)) x)").get(0).getNumber().equals(BigDecimal.valueOf(2)));
+        assertTrue(Evaluation.evalString("(let ((x 1)) (let-seq (def y x) (def x 5) (+ x y)))").get(0).getNumber().equals(BigDecimal.valueOf(6)));
+    }
+
+    @Test
+    void testNestedScopes() {
+        assertTrue(Evaluation.evalString("(let ((x 1) (y 2)) ((lambda (z) (let ((w (+ x z))) (+ w y))) 10))").get(0).getNumber().equals(BigDecimal.valueOf(13)));
+        assertTrue(Evaluation.evalString("((lambda (x) (match '(1 2) ((a b) (a b) (+ a b x)))) 4)").get(0).getNumber().equals(BigDecimal.valueOf(7)));
     }
 }
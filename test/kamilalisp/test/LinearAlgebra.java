@@ -3,11 +3,13 @@ package kamilalisp.test;
 import ch.obermuhlner.math.big.BigComplex;
 import kamilalisp.api.Evaluation;
 import kamilalisp.data.Atom;
+import kamilalisp.data.DenseMatrix;
 import kamilalisp.data.Environment;
 import kamilalisp.data.Matrix;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -29,12 +31,12 @@ public class LinearAlgebra {
         env.push("a", new Atom(a));
         env.push("b", new Atom(b));
 
-        assertEquals(Evaluation.evalString(env, "(+ a b)").get(0).getMatrix().get(), Matrix.from(List.of(
+        assertEquals(Evaluation.evalString(env, "(+ a b)").get(0).getMatrix(), Matrix.from(List.of(
                 List.of(new Atom(new BigDecimal("7.5")), new Atom(new BigDecimal("12.5"))),
                 List.of(new Atom(new BigDecimal("4.0")), new Atom(new BigDecimal("7.5")))
         )));
 
-        assertEquals(Evaluation.evalString(env, "(+ a 0.5)").get(0).getMatrix().get(), Matrix.from(List.of(
+        assertEquals(Evaluation.evalString(env, "(+ a 0.5)").get(0).getMatrix(), Matrix.from(List.of(
                 List.of(new Atom(new BigDecimal("2.0")), new Atom(new BigDecimal("4.0"))),
                 List.of(new Atom(new BigDecimal("1.0")), new Atom(new BigDecimal("6.0")))
         )));
@@ -47,7 +49,163 @@ public class LinearAlgebra {
 
     @Test
     void testFrobeniusProd() {
-        assertEquals(Evaluation.evalString("(frobenius-prod (mat-mix '((2 0 6) (1 -1 2))) (mat-mix '((8 -3 2) (4 1 -5))))").get(0).getNumber().get(), new BigDecimal("21"));
-        assertEquals(Evaluation.evalString("(frobenius-prod (mat-mix '((1J1 0J-2) (3 -5))) (mat-mix '((-2 0J3) (4J-3 6))))").get(0).getComplex().get(), BigComplex.valueOf(new BigDecimal("-26"), new BigDecimal("-7")));
+        assertEquals(Evaluation.evalString("(frobenius-prod (mat-mix '((2 0 6) (1 -1 2))) (mat-mix '((8 -3 2) (4 1 -5))))").get(0).getNumber(), new BigDecimal("21"));
+        assertEquals(Evaluation.evalString("(frobenius-prod (mat-mix '((1J1 0J-2) (3 -5))) (mat-mix '((-2 0J3) (4J-3 6))))").get(0).getComplex(), BigComplex.valueOf(new BigDecimal("-26"), new BigDecimal("-7")));
+    }
+
+    @Test
+    void testPackedMatrices() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(def k (reshape 40 40 (iota 1600)))");
+        assertTrue(Evaluation.evalString(env, "k").get(0).getMatrix() instanceof DenseMatrix);
+        assertTrue(Evaluation.evalString(env, "(= (* k k) (inner-prod (lambda (x y) (+ x y)) (lambda (x y) (* x y)) k k))").get(0).coerceBool());
+        assertTrue(Evaluation.evalString(env, "(= (transpose (transpose k)) k)").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(mat-trace (- (* 2 k) k))").get(0).getNumber(), BigDecimal.valueOf(31980));
+        assertEquals(Evaluation.evalString(env, "(frobenius-prod k (mat-id 40))").get(0).getNumber(), BigDecimal.valueOf(31980));
+
+        // fixnum overflow carries on exactly.
+        Evaluation.evalString(env, "(def big (reshape 2 2 '(4000000000 4000000000 4000000000 4000000000)))");
+        assertEquals(Evaluation.evalString(env, "(mat-trace (* big big))").get(0).getNumber(), new BigDecimal("64000000000000000000"));
+
+        // flonums give the same doubles as computing cell by cell.
+        Evaluation.evalString(env, "(def fr 15)");
+        Evaluation.evalString(env, "(def d (reshape 30 30 (map (lambda (x) (sin x)) (iota 900))))");
+        Evaluation.evalString(env, "(frobenius-prod d d)");
+        assertTrue(Evaluation.evalString(env, "(= (* d (mat-sub k 0 0 29 29)) (inner-prod (lambda (x y) (+ x y)) (lambda (x y) (* x y)) d (mat-sub k 0 0 29 29)))").get(0).coerceBool());
+    }
+
+    @Test
+    void testSemiringProducts() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(def ip (lambda (f g a b) (inner-prod (lambda (x y) (f x y)) (lambda (x y) (g x y)) a b)))");
+        Evaluation.evalString(env, "(def m (reshape 9 9 (map (lambda (x) [[x * 13] % 17]) (iota 81))))");
+        Evaluation.evalString(env, "(def q (reshape 9 9 (map (lambda (x) [x / 8]) (iota 81))))");
+        assertTrue(Evaluation.evalString(env, "(= (inner-prod min + m q) (ip min + m q))").get(0).coerceBool());
+        assertTrue(Evaluation.evalString(env, "(= (inner-prod max + q m) (ip max + q m))").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(mat-trace (inner-prod min + (mat-id 3) (mat-id 3)))").get(0).getNumber(), BigDecimal.ZERO);
+
+        // large exact products go through Strassen's algorithm.
+        Evaluation.evalString(env, "(def s (reshape 130 130 (map (lambda (x) [[[x * 37] % 101] / 4]) (iota 16900))))");
+        assertTrue(Evaluation.evalString(env, "(= (* s s) (ip + * s s))").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(mat-trace (* s s))").get(0).getNumber(),
+                Evaluation.evalString(env, "(mat-trace (ip + * s s))").get(0).getNumber());
+    }
+
+    @Test
+    void testDeterminants() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(def c (reshape 8 8 (map (lambda (x) (- (% (+ (* x x 31) (* x 7)) 19) 9)) (iota 64))))");
+        assertEquals(Evaluation.evalString(env, "(det c)").get(0).getNumber(), BigDecimal.valueOf(-118852752));
+        assertEquals(Evaluation.evalString(env, "(faddeev-leverrier c)").get(0).getList().get(8).getNumber(), BigDecimal.valueOf(-118852752));
+        assertTrue(Evaluation.evalString(env, "(= (* (mat-adjoint c) c) (* (det c) (mat-id 8)))").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(det (reshape 3 3 '(0 1 2 1 0 3 4 -3 8)))").get(0).getNumber(), BigDecimal.valueOf(-2));
+        assertEquals(Evaluation.evalString(env, "(det (reshape 3 3 (iota 9)))").get(0).getNumber(), BigDecimal.ZERO);
+        assertEquals(Evaluation.evalString(env, "(det (mat-mix '((1J1 2 0 3) (3 4J-2 1 0) (0 1 2J1 5) (1 1 1 1J-3))))").get(0).getComplex(),
+                BigComplex.valueOf(new BigDecimal(-17), new BigDecimal(16)));
+
+        // rational cells are scaled to integers, so nothing is rounded.
+        Evaluation.evalString(env, "(def q (reshape 40 40 (map (lambda (x) (/ (- (% (+ (* x x 31) (* x 7)) 1009) 500) 8)) (iota 1600))))");
+        assertTrue(Evaluation.evalString(env, "(= (* (mat-adjoint q) q) (* (det q) (mat-id 40)))").get(0).coerceBool());
+
+        Evaluation.evalString(env, "(def big (reshape 200 200 (map (lambda (x) (- (% (+ (* x x 31) (* x 7)) 1009) 500)) (iota 40000))))");
+        assertEquals(Evaluation.evalString(env, "(% (det big) 1000000007)").get(0).getNumber(), BigDecimal.valueOf(-948055745));
+    }
+
+    @Test
+    void testFactorizations() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(def a (reshape 3 3 '(0 1 2 1 0 3 4 -3 8)))");
+        assertEquals(Evaluation.evalString(env, "(solve a '(1 2 3))").get(0).getList(),
+                Evaluation.evalString(env, "'(5 3 -1)").get(0).getList());
+        assertTrue(Evaluation.evalString(env, "(= (mat-inv a) (mat-mix '((-4.5 7 -1.5) (-2 4 -1) (1.5 -2 0.5))))").get(0).coerceBool());
+        assertTrue(Evaluation.evalString(env, "(= (/ a) (mat-inv a))").get(0).coerceBool());
+        Evaluation.evalString(env, "(def f (lu a))");
+        assertTrue(Evaluation.evalString(env, "(= (* (car (cdr (cdr f))) a) (* (car f) (car (cdr f))))").get(0).coerceBool());
+
+        // least squares through QR for a tall matrix.
+        assertEquals(Evaluation.evalString(env, "(solve (reshape 2 4 '(1 1 1 2 1 3 1 4)) '(6 5 7 10))").get(0).getList(),
+                Evaluation.evalString(env, "'(3.5 1.4)").get(0).getList());
+        Evaluation.evalString(env, "(def q (qr (reshape 3 4 '(1 2 3 4 5 6 7 8 10 1 0 1))))");
+        assertEquals(Evaluation.evalString(env, "(mat-trace (* (transpose (car q)) (car q)))").get(0).getNumber().round(new MathContext(50)).compareTo(BigDecimal.valueOf(3)), 0);
+
+        // past 128 rows, and in doubles.
+        Evaluation.evalString(env, "(def b (reshape 150 150 (map (lambda (x) (- (% (+ (* x x 31) (* x 7)) 1009) 500)) (iota 22500))))");
+        Evaluation.evalString(env, "(def fr 15)");
+        assertEquals(Evaluation.evalString(env, "(mat-trace (* (mat-inv b) b))").get(0).getNumber().round(new MathContext(8)).compareTo(BigDecimal.valueOf(150)), 0);
+        assertTrue(Evaluation.evalString(env, "(car (solve b (iota 150)))").get(0).isFlonum());
+
+        Error e = assertThrows(Error.class, () -> Evaluation.evalString(env, "(def fr 0) (mat-inv a)").get(1).get());
+        assertEquals(e.getMessage(), "Can't factorize a matrix at an unlimited 'fr'; set 'fr' to a number of digits.");
+    }
+
+    @Test
+    void testMatrixViews() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(def a (reshape 3 2 '(1 2 3 4 5 6)))");
+        assertEquals(Evaluation.evalString(env, "(reshape 6 (transpose a))").get(0).getList(),
+                Evaluation.evalString(env, "'(1 4 2 5 3 6)").get(0).getList());
+        assertEquals(Evaluation.evalString(env, "(reshape 8 (reshape 5 2 (transpose a)))").get(0).getList(),
+                Evaluation.evalString(env, "'(1 4 2 5 3 6 1 4)").get(0).getList());
+        assertEquals(Evaluation.evalString(env, "(reshape 6 (take 3 2 (mat-sub (transpose a) 1 0 2 1)))").get(0).getList(),
+                Evaluation.evalString(env, "'(2 5 3 6 0 0)").get(0).getList());
+        assertTrue(Evaluation.evalString(env, "(= (transpose (transpose a)) a)").get(0).coerceBool());
+        assertTrue(Evaluation.evalString(env, "(= (* (transpose a) a) (mat-mix '((17 22 27) (22 29 36) (27 36 45))))").get(0).coerceBool());
+
+        // writing to a view leaves the matrix it came from alone.
+        Evaluation.evalString(env, "(def b (mat-bresenham 0 0 2 0 (transpose a)))");
+        assertEquals(Evaluation.evalString(env, "(reshape 6 b)").get(0).getList(),
+                Evaluation.evalString(env, "'(1 1 2 5 3 6)").get(0).getList());
+        assertEquals(Evaluation.evalString(env, "(reshape 6 a)").get(0).getList(),
+                Evaluation.evalString(env, "'(1 2 3 4 5 6)").get(0).getList());
+    }
+
+    @Test
+    void testSparseMatrices() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(def a (mat-sparse 4 3 '((0 0 1) (1 2 5) (2 3 -2) (1 2 1) (0 0 -1))))");
+        Evaluation.evalString(env, "(def d (reshape 3 4 (iota 12)))");
+        assertEquals(Evaluation.evalString(env, "(mat-nnz a)").get(0).getNumber().intValue(), 2);
+        assertEquals(Evaluation.evalString(env, "(reshape 12 a)").get(0).getList(),
+                Evaluation.evalString(env, "'(0 0 0 0 0 0 6 0 0 0 0 -2)").get(0).getList());
+        assertTrue(Evaluation.evalString(env, "(= (* a d) (* (mat-dense a) d))").get(0).coerceBool());
+        assertTrue(Evaluation.evalString(env, "(= (inner-prod + * (transpose d) (transpose a)) (* (transpose d) (mat-dense (transpose a))))").get(0).coerceBool());
+        assertTrue(Evaluation.evalString(env, "(= (+ a a) (* 2 a))").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(mat-nnz (- a a))").get(0).getNumber().intValue(), 0);
+        assertEquals(Evaluation.evalString(env, "(mat-nnz (reshape 6 6 a))").get(0).getNumber().intValue(), 6);
+        assertEquals(Evaluation.evalString(env, "(reshape 6 (mat-sub a 1 1 2 3))").get(0).getList(),
+                Evaluation.evalString(env, "'(0 6 0 0 0 -2)").get(0).getList());
+        Error e = assertThrows(Error.class, () -> Evaluation.evalString("(mat-sparse 2 2 '((5 5 1)))").get(0).get());
+        assertEquals(e.getMessage(), "'mat-sparse': entry (5 5) out of the bounds of a 2x2 matrix.");
+
+        // a tridiagonal matrix and its square.
+        Evaluation.evalString(env, "(def n 20000)");
+        Evaluation.evalString(env, "(def t (mat-sparse n n (flatten (tie (map (lambda (i) (tie i i 2)) (iota n)) (map (lambda (i) (tie i (+ i 1) -1)) (iota (- n 1))) (map (lambda (i) (tie (+ i 1) i -1)) (iota (- n 1)))))))");
+        assertEquals(Evaluation.evalString(env, "(mat-nnz (* t t))").get(0).getNumber().intValue(), 99994);
+        assertEquals(Evaluation.evalString(env, "(mat-trace (* t (transpose t)))").get(0).getNumber().intValue(), 119998);
+    }
+
+    @Test
+    void testArrays() {
+        Environment env = Evaluation.createDefaultEnv();
+        Evaluation.evalString(env, "(def a (reshape '(4 3 2) (iota 24)))");
+        assertEquals(Evaluation.evalString(env, "(shape a)").get(0).getList(),
+                Evaluation.evalString(env, "'(4 3 2)").get(0).getList());
+        assertEquals(Evaluation.evalString(env, "(shape (transpose a))").get(0).getList(),
+                Evaluation.evalString(env, "'(2 3 4)").get(0).getList());
+        assertEquals(Evaluation.evalString(env, "(reshape 8 (transpose '(2 1 0) a))").get(0).getList(),
+                Evaluation.evalString(env, "'(0 12 4 16 8 20 1 13)").get(0).getList());
+        assertEquals(Evaluation.evalString(env, "(reshape 6 (transpose '(1 0 2) a))").get(0).getList(),
+                Evaluation.evalString(env, "'(0 4 8 1 5 9)").get(0).getList());
+        assertTrue(Evaluation.evalString(env, "(= (+ a a) (* 2 a))").get(0).coerceBool());
+        assertTrue(Evaluation.evalString(env, "(= (- (* a a) a) (rank0 (lambda (x) (* x (- x 1))) a))").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(reshape 4 (/ (reshape '(2 2 2) '(1 2 4 5)) 2))").get(0).getList(),
+                Evaluation.evalString(env, "'(0.5 1 2 2.5)").get(0).getList());
+
+        // lower ranks are matrices and lists, and padding fills with zeros.
+        assertTrue(Evaluation.evalString(env, "(= (reshape '(3 2) a) (reshape 3 2 (iota 6)))").get(0).coerceBool());
+        assertEquals(Evaluation.evalString(env, "(reshape '(5) a)").get(0).getList(),
+                Evaluation.evalString(env, "'(0 1 2 3 4)").get(0).getList());
+        assertEquals(Evaluation.evalString(env, "(reshape 12 (take '(2 2 3) (iota 10)))").get(0).getList(),
+                Evaluation.evalString(env, "'(0 1 2 3 4 5 6 7 8 9 0 0)").get(0).getList());
     }
 }
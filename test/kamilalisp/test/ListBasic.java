@@ -30,6 +30,24 @@ public class ListBasic {
         ))));
 
         assertTrue(Evaluation.evalString("(cdr 'nil)").get(0).equals(Atom.NULL));
+        assertEquals(Evaluation.evalString("(append '() 1 2)").get(0).toString(), "(1 2)");
+    }
+
+    @Test
+    void testLargeLists() {
+        assertEquals(Evaluation.evalString("(size (foldl' (lambda (acc x) (append acc x)) 'nil (iota 5000)))").get(0).getNumber(), BigDecimal.valueOf(5000));
+        assertEquals(Evaluation.evalString("(nth 3210 (foldl' (lambda (acc x) (append acc x)) 'nil (iota 5000)))").get(0).getNumber(), BigDecimal.valueOf(3210));
+        assertEquals(Evaluation.evalString("(nth 10 (cdr (foldl' (lambda (acc x) (cons x acc)) 'nil (iota 5000))))").get(0).getNumber(), BigDecimal.valueOf(4988));
+        assertEquals(Evaluation.evalString("(size (cdr (cdr (iota 5000))))").get(0).getNumber(), BigDecimal.valueOf(4998));
+    }
+
+    @Test
+    void testPackedLists() {
+        assertEquals(Evaluation.evalString("(sum (iota 100000))").get(0).getNumber(), BigDecimal.valueOf(4999950000L));
+        assertEquals(Evaluation.evalString("(foldl1 * (range 1 26))").get(0).getNumber(), new BigDecimal("15511210043330985984000000"));
+        assertEquals(Evaluation.evalString("(nth 3 (map - (iota 10) '(5 5 5 5)))").get(0).getNumber(), BigDecimal.valueOf(-2));
+        assertEquals(Evaluation.evalString("(cumsum (iota 5))").get(0), Evaluation.evalString("'(0 0 1 3 6 10)").get(0));
+        assertEquals(Evaluation.evalString("(foldl + \"n: \" (iota 3))").get(0).getStringConstant().get(), "n: 012");
     }
 
     @Test
@@ -41,12 +59,12 @@ public class ListBasic {
                 new Atom(BigDecimal.valueOf(4))
         ))));
 
-        assertTrue(Evaluation.evalString("(| \"hi\" \"hello\")").get(0).getStringConstant().get().get().equals("hielo"));
-        assertTrue(Evaluation.evalString("(| 1 0)").get(0).getNumber().get().equals(BigDecimal.valueOf(1)));
-        assertTrue(Evaluation.evalString("(| 0 1)").get(0).getNumber().get().equals(BigDecimal.valueOf(1)));
-        assertTrue(Evaluation.evalString("(| 0 0)").get(0).getNumber().get().equals(BigDecimal.valueOf(0)));
-        assertTrue(Evaluation.evalString("(| 1 1)").get(0).getNumber().get().equals(BigDecimal.valueOf(1)));
-        assertTrue(Evaluation.evalString("(| 5 20)").get(0).getNumber().get().equals(BigDecimal.valueOf(21)));
+        assertTrue(Evaluation.evalString("(| \"hi\" \"hello\")").get(0).getStringConstant().get().equals("hielo"));
+        assertTrue(Evaluation.evalString("(| 1 0)").get(0).getNumber().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(| 0 1)").get(0).getNumber().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(| 0 0)").get(0).getNumber().equals(BigDecimal.valueOf(0)));
+        assertTrue(Evaluation.evalString("(| 1 1)").get(0).getNumber().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(| 5 20)").get(0).getNumber().equals(BigDecimal.valueOf(21)));
     }
 
     @Test
@@ -56,12 +74,12 @@ public class ListBasic {
                 new Atom(BigDecimal.valueOf(3))
         ))));
 
-        assertTrue(Evaluation.evalString("(& \"hi\" \"hello\")").get(0).getStringConstant().get().get().equals("h"));
-        assertTrue(Evaluation.evalString("(& 1 0)").get(0).getNumber().get().equals(BigDecimal.valueOf(0)));
-        assertTrue(Evaluation.evalString("(& 0 1)").get(0).getNumber().get().equals(BigDecimal.valueOf(0)));
-        assertTrue(Evaluation.evalString("(& 0 0)").get(0).getNumber().get().equals(BigDecimal.valueOf(0)));
-        assertTrue(Evaluation.evalString("(& 1 1)").get(0).getNumber().get().equals(BigDecimal.valueOf(1)));
-        assertTrue(Evaluation.evalString("(& 5 20)").get(0).getNumber().get().equals(BigDecimal.valueOf(4)));
+        assertTrue(Evaluation.evalString("(& \"hi\" \"hello\")").get(0).getStringConstant().get().equals("h"));
+        assertTrue(Evaluation.evalString("(& 1 0)").get(0).getNumber().equals(BigDecimal.valueOf(0)));
+        assertTrue(Evaluation.evalString("(& 0 1)").get(0).getNumber().equals(BigDecimal.valueOf(0)));
+        assertTrue(Evaluation.evalString("(& 0 0)").get(0).getNumber().equals(BigDecimal.valueOf(0)));
+        assertTrue(Evaluation.evalString("(& 1 1)").get(0).getNumber().equals(BigDecimal.valueOf(1)));
+        assertTrue(Evaluation.evalString("(& 5 20)").get(0).getNumber().equals(BigDecimal.valueOf(4)));
     }
 
     @Test
@@ -139,7 +157,7 @@ public class ListBasic {
                 new Atom(BigDecimal.valueOf(1))
         ))));
 
-        assertTrue(Evaluation.evalString("(reverse \"hello\")").get(0).getStringConstant().get().get().equals("olleh"));
+        assertTrue(Evaluation.evalString("(reverse \"hello\")").get(0).getStringConstant().get().equals("olleh"));
     }
 
     @Test
@@ -209,7 +227,7 @@ public class ListBasic {
 
     @Test
     void testGrade() {
-        assertTrue(Evaluation.evalString("(grade-up '(1 6 2 3 4 5))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(grade-up '(1 6 2 3 4 5))").get(0).getList().equals(List.of(
                 new Atom(BigDecimal.valueOf(0)),
                 new Atom(BigDecimal.valueOf(2)),
                 new Atom(BigDecimal.valueOf(3)),
@@ -218,7 +236,7 @@ public class ListBasic {
                 new Atom(BigDecimal.valueOf(1))
         )));
 
-        assertTrue(Evaluation.evalString("(grade-down '(1 6 2 3 4 5))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(grade-down '(1 6 2 3 4 5))").get(0).getList().equals(List.of(
                 new Atom(BigDecimal.valueOf(1)),
                 new Atom(BigDecimal.valueOf(5)),
                 new Atom(BigDecimal.valueOf(4)),
@@ -230,7 +248,7 @@ public class ListBasic {
 
     @Test
     void testIndex() {
-        assertTrue(Evaluation.evalString("(index '(1 3 5) (iota 10))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(index '(1 3 5) (iota 10))").get(0).getList().equals(List.of(
                 new Atom(BigDecimal.valueOf(1)),
                 new Atom(BigDecimal.valueOf(3)),
                 new Atom(BigDecimal.valueOf(5))
@@ -239,7 +257,7 @@ public class ListBasic {
 
     @Test
     void testAt() {
-        assertTrue(Evaluation.evalString("(at (lambda (x) [x + 10]) '(1 2 3) (iota 10))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(at (lambda (x) [x + 10]) '(1 2 3) (iota 10))").get(0).getList().equals(List.of(
                 new Atom(BigDecimal.valueOf(0)),
                 new Atom(BigDecimal.valueOf(11)),
                 new Atom(BigDecimal.valueOf(12)),
@@ -252,7 +270,7 @@ public class ListBasic {
                 new Atom(BigDecimal.valueOf(9))
         )));
 
-        assertTrue(Evaluation.evalString("(at (lambda (x) [x + 10]) (lambda (x) [x > 5]) (iota 10))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(at (lambda (x) [x + 10]) (lambda (x) [x > 5]) (iota 10))").get(0).getList().equals(List.of(
                 new Atom(BigDecimal.valueOf(0)),
                 new Atom(BigDecimal.valueOf(1)),
                 new Atom(BigDecimal.valueOf(2)),
@@ -268,23 +286,23 @@ public class ListBasic {
     
     @Test
     void testUnique() {
-        assertTrue(Evaluation.evalString("(unique '(1 2 3 1 2 3))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(unique '(1 2 3 1 2 3))").get(0).getList().equals(List.of(
                 new Atom(BigDecimal.valueOf(1)),
                 new Atom(BigDecimal.valueOf(2)),
                 new Atom(BigDecimal.valueOf(3))
         )));
 
-        assertTrue(Evaluation.evalString("(unique '((1 2) (1 2) (1 2 3) (1 2 3)))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(unique '((1 2) (1 2) (1 2 3) (1 2 3)))").get(0).getList().equals(List.of(
                 new Atom(List.of(new Atom(BigDecimal.valueOf(1)), new Atom(BigDecimal.valueOf(2)))),
                 new Atom(List.of(new Atom(BigDecimal.valueOf(1)), new Atom(BigDecimal.valueOf(2)), new Atom(BigDecimal.valueOf(3))))
         )));
 
-        assertTrue(Evaluation.evalString("(unique '((1 2) (1 2 3) (1 2) (1 2 3)))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(unique '((1 2) (1 2 3) (1 2) (1 2 3)))").get(0).getList().equals(List.of(
                 new Atom(List.of(new Atom(BigDecimal.valueOf(1)), new Atom(BigDecimal.valueOf(2)))),
                 new Atom(List.of(new Atom(BigDecimal.valueOf(1)), new Atom(BigDecimal.valueOf(2)), new Atom(BigDecimal.valueOf(3))))
         )));
 
-        assertTrue(Evaluation.evalString("(unique '((1 2) (1 2 3) (1 2 3) (1 2)))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(unique '((1 2) (1 2 3) (1 2 3) (1 2)))").get(0).getList().equals(List.of(
                 new Atom(List.of(new Atom(BigDecimal.valueOf(1)), new Atom(BigDecimal.valueOf(2)))),
                 new Atom(List.of(new Atom(BigDecimal.valueOf(1)), new Atom(BigDecimal.valueOf(2)), new Atom(BigDecimal.valueOf(3))))
         )));
@@ -292,19 +310,19 @@ public class ListBasic {
 
     @Test
     void testIterate() {
-        assertTrue(Evaluation.evalString("(iterate 0 (lambda (x) [x + 1]) 10)").get(0).getNumber().get().intValue() == 10);
-        assertTrue(Evaluation.evalString("(iterate (dyad [y < 10]) (monad [x + 1]) 0)").get(0).getNumber().get().intValue() == 10);
+        assertTrue(Evaluation.evalString("(iterate 0 (lambda (x) [x + 1]) 10)").get(0).getNumber().intValue() == 10);
+        assertTrue(Evaluation.evalString("(iterate (dyad [y < 10]) (monad [x + 1]) 0)").get(0).getNumber().intValue() == 10);
     }
 
     @Test
     void testWhere() {
-        assertTrue(Evaluation.evalString("(where '(1 0 1 0 1 0))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(where '(1 0 1 0 1 0))").get(0).getList().equals(List.of(
                 new Atom(BigDecimal.valueOf(0)),
                 new Atom(BigDecimal.valueOf(2)),
                 new Atom(BigDecimal.valueOf(4))
         )));
 
-        assertTrue(Evaluation.evalString("(where '(1 2 3))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(where '(1 2 3))").get(0).getList().equals(List.of(
                 new Atom(BigDecimal.valueOf(0)),
                 new Atom(BigDecimal.valueOf(1)),
                 new Atom(BigDecimal.valueOf(1)),
@@ -316,15 +334,15 @@ public class ListBasic {
 
     @Test
     void testReplicate() {
-        assertTrue(Evaluation.evalString("(replicate 3 'a)").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(replicate 3 'a)").get(0).getList().equals(List.of(
                 new Atom("a"),
                 new Atom("a"),
                 new Atom("a")
         )));
 
-        assertTrue(Evaluation.evalString("(replicate 0 'a)").get(0).getList().get().equals(List.of()));
+        assertTrue(Evaluation.evalString("(replicate 0 'a)").get(0).getList().equals(List.of()));
 
-        assertTrue(Evaluation.evalString("(replicate 3 '(1 2))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(replicate 3 '(1 2))").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("1")),
@@ -333,7 +351,7 @@ public class ListBasic {
                 new Atom(new BigDecimal("2"))
         )));
 
-        assertTrue(Evaluation.evalString("(replicate '(1 0 1 0 1 0) (iota 6))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(replicate '(1 0 1 0 1 0) (iota 6))").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("0")),
                 new Atom(new BigDecimal("2")),
                 new Atom(new BigDecimal("4"))
@@ -342,15 +360,15 @@ public class ListBasic {
 
     @Test
     void testTake() {
-        assertTrue(Evaluation.evalString("(take 3 '(1 2 3 4 5))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(take 3 '(1 2 3 4 5))").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("2")),
                 new Atom(new BigDecimal("3"))
         )));
 
-        assertTrue(Evaluation.evalString("(take 0 '(1 2 3 4 5))").get(0).getList().get().equals(List.of()));
+        assertTrue(Evaluation.evalString("(take 0 '(1 2 3 4 5))").get(0).getList().equals(List.of()));
 
-        assertTrue(Evaluation.evalString("(take -3 '(1 2 3 4 5))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(take -3 '(1 2 3 4 5))").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("3")),
                 new Atom(new BigDecimal("4")),
                 new Atom(new BigDecimal("5"))
@@ -359,7 +377,7 @@ public class ListBasic {
 
     @Test
     void testScanterate() {
-        assertTrue(Evaluation.evalString("(scanterate (lambda (x) [x + 2]) (lambda (x y) [y < 10]) 0)").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(scanterate (lambda (x) [x + 2]) (lambda (x y) [y < 10]) 0)").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("0")),
                 new Atom(new BigDecimal("2")),
                 new Atom(new BigDecimal("4")),
@@ -371,7 +389,7 @@ public class ListBasic {
 
     @Test
     void testIntersperse() {
-        assertTrue(Evaluation.evalString("(intersperse 'a '(1 2 3))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(intersperse 'a '(1 2 3))").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom("a"),
                 new Atom(new BigDecimal("2")),
@@ -382,7 +400,7 @@ public class ListBasic {
 
     @Test
     void testIntersperseLists() {
-        assertTrue(Evaluation.evalString("(intersperse '(1 2) '(3 4))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(intersperse '(1 2) '(3 4))").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("3")),
                 new Atom(new BigDecimal("2")),
@@ -392,12 +410,12 @@ public class ListBasic {
 
     @Test
     void testForkAvg() {
-        assertTrue(Evaluation.evalString("(#(/ [foldl bind + 0] size) '(1 2 3 4 5))").get(0).getNumber().get().equals(new BigDecimal("3")));
+        assertTrue(Evaluation.evalString("(#(/ [foldl bind + 0] size) '(1 2 3 4 5))").get(0).getNumber().equals(new BigDecimal("3")));
     }
 
     @Test
     void testUniqueMask() {
-        assertTrue(Evaluation.evalString("(unique-mask '(1 2 3 4 5))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(unique-mask '(1 2 3 4 5))").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("1")),
@@ -405,7 +423,7 @@ public class ListBasic {
                 new Atom(new BigDecimal("1"))
         )));
 
-        assertTrue(Evaluation.evalString("(unique-mask '(1 2 3 4 1))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(unique-mask '(1 2 3 4 1))").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("1")),
@@ -413,7 +431,7 @@ public class ListBasic {
                 new Atom(new BigDecimal("0"))
         )));
 
-        assertTrue(Evaluation.evalString("(unique-mask '(1 2 1 2 3))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(unique-mask '(1 2 1 2 3))").get(0).getList().equals(List.of(
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("1")),
                 new Atom(new BigDecimal("0")),
@@ -424,7 +442,7 @@ public class ListBasic {
 
     @Test
     void testPrefixes() {
-        assertTrue(Evaluation.evalString("(prefixes '(1 2 3 4 5))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(prefixes '(1 2 3 4 5))").get(0).getList().equals(List.of(
                 new Atom(List.of(new Atom(new BigDecimal("1")))),
                 new Atom(List.of(new Atom(new BigDecimal("1")), new Atom(new BigDecimal("2")))),
                 new Atom(List.of(new Atom(new BigDecimal("1")), new Atom(new BigDecimal("2")), new Atom(new BigDecimal("3")))),
@@ -432,7 +450,7 @@ public class ListBasic {
                 new Atom(List.of(new Atom(new BigDecimal("1")), new Atom(new BigDecimal("2")), new Atom(new BigDecimal("3")), new Atom(new BigDecimal("4")), new Atom(new BigDecimal("5"))))
         )));
 
-        assertTrue(Evaluation.evalString("(prefixes \"hello\")").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(prefixes \"hello\")").get(0).getList().equals(List.of(
                 new Atom(new StringConstant("h")),
                 new Atom(new StringConstant("he")),
                 new Atom(new StringConstant("hel")),
@@ -443,7 +461,7 @@ public class ListBasic {
 
     @Test
     void testSuffixes() {
-        assertTrue(Evaluation.evalString("(suffixes '(1 2 3 4 5))").get(0).getList().get().equals(List.of(
+        assertTrue(Evaluation.evalString("(suffixes '(1 2 3 4 5))").get(0).getList().equals(List.of(
                 new Atom(List.of(new Atom(new BigDecimal("5")))),
                 new Atom(List.of(new Atom(new BigDecimal("4")), new Atom(new BigDecimal("5")))),
                 new Atom(List.of(new Atom(new BigDecimal("3")), new Atom(new BigDecimal("4")), new Atom(new BigDecimal("5")))),
@@ -451,7 +469,7 @@ public class ListBasic {
                 new Atom(List.of(new Atom(new BigDecimal("1")), new Atom(new BigDecimal("2")), new Atom(new BigDecimal("3")), new Atom(new BigDecimal("4")), new Atom(new BigDecimal("5"))))
         )));
 
-        assertEquals(Evaluation.evalString("(suffixes \"hello\")").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString("(suffixes \"hello\")").get(0).getList(), List.of(
                 new Atom(new StringConstant("o")),
                 new Atom(new StringConstant("lo")),
                 new Atom(new StringConstant("llo")),
@@ -462,7 +480,7 @@ public class ListBasic {
 
     @Test
     void testPartition() {
-        assertEquals(Evaluation.evalString("(partition '(1 0 1 0 0 1) '(1 2 3 4 5 6))").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString("(partition '(1 0 1 0 0 1) '(1 2 3 4 5 6))").get(0).getList(), List.of(
                 new Atom(List.of(new Atom(new BigDecimal("1")), new Atom(new BigDecimal("2")))),
                 new Atom(List.of(new Atom(new BigDecimal("3")), new Atom(new BigDecimal("4")), new Atom(new BigDecimal("5")))),
                 new Atom(List.of(new Atom(new BigDecimal("6"))))
@@ -471,17 +489,17 @@ public class ListBasic {
 
     @Test
     void testInnerProduct() {
-        assertEquals(Evaluation.evalString("[+ inner-prod * '(1 2 3) '(3 2 1)]").get(0).getNumber().get(), new BigDecimal("10"));
+        assertEquals(Evaluation.evalString("[+ inner-prod * '(1 2 3) '(3 2 1)]").get(0).getNumber(), new BigDecimal("10"));
     }
 
     @Test
     void testOuterProduct() {
-        assertEquals(Evaluation.evalString("(foldl1 + (outer-prod * '(1 2) '(1 2 3 4)))").get(0).getNumber().get(), new BigDecimal("30"));
+        assertEquals(Evaluation.evalString("(foldl1 + (outer-prod * '(1 2) '(1 2 3 4)))").get(0).getNumber(), new BigDecimal("30"));
     }
 
     @Test
     void testKeys() {
-        assertEquals(Evaluation.evalString("(keys \"Mississippi\")").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString("(keys \"Mississippi\")").get(0).getList(), List.of(
                 new Atom(List.of(new Atom(new StringConstant("M")), new Atom(List.of(new Atom(new BigDecimal(0)))))),
                 new Atom(List.of(new Atom(new StringConstant("i")), new Atom(List.of(new Atom(new BigDecimal(1)), new Atom(new BigDecimal(4)), new Atom(new BigDecimal(7)), new Atom(new BigDecimal(10)))))),
                 new Atom(List.of(new Atom(new StringConstant("s")), new Atom(List.of(new Atom(new BigDecimal(2)), new Atom(new BigDecimal(3)), new Atom(new BigDecimal(5)), new Atom(new BigDecimal(6)))))),
@@ -491,19 +509,19 @@ public class ListBasic {
 
     @Test
     void testIndexOf() {
-        assertEquals(Evaluation.evalString("(index-of '(1 3 4) '(1 2 3 4 5))").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString("(index-of '(1 3 4) '(1 2 3 4 5))").get(0).getList(), List.of(
                 new Atom(new BigDecimal(0)),
                 new Atom(new BigDecimal(2)),
                 new Atom(new BigDecimal(3))
         ));
 
-        assertEquals(Evaluation.evalString("(index-of '((1 2) (3 4)) '((1 2) (2 3) (3 4) (4 5)))").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString("(index-of '((1 2) (3 4)) '((1 2) (2 3) (3 4) (4 5)))").get(0).getList(), List.of(
                 new Atom(new BigDecimal(0)),
                 new Atom(new BigDecimal(2))
         ));
 
         // Thanks, Dyalog.
-        assertEquals(Evaluation.evalString("(index-of \"ACF\" \"ABCDABCDEF\")").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString("(index-of \"ACF\" \"ABCDABCDEF\")").get(0).getList(), List.of(
                 new Atom(new BigDecimal(0)),
                 new Atom(new BigDecimal(2)),
                 new Atom(new BigDecimal(9))
@@ -512,7 +530,7 @@ public class ListBasic {
 
     @Test
     void testUCS() {
-        assertEquals(Evaluation.evalString("(ucs \"Mississippi\")").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString("(ucs \"Mississippi\")").get(0).getList(), List.of(
                 new Atom(new BigDecimal(0x004D)),
                 new Atom(new BigDecimal(0x0069)),
                 new Atom(new BigDecimal(0x0073)),
@@ -526,7 +544,7 @@ public class ListBasic {
                 new Atom(new BigDecimal(0x0069))
         ));
 
-        assertEquals(Evaluation.evalString("(ucs '(77 105 115 115 105 115 115 105 112 112 105))").get(0).getStringConstant().get().get(), "Mississippi");
+        assertEquals(Evaluation.evalString("(ucs '(77 105 115 115 105 115 115 105 112 112 105))").get(0).getStringConstant().get(), "Mississippi");
     }
 
     @Test
@@ -537,7 +555,7 @@ public class ListBasic {
 
     @Test
     void testFindSeq() {
-        assertEquals(Evaluation.evalString("(find-seq \"ana\" \"Banana\")").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString("(find-seq \"ana\" \"Banana\")").get(0).getList(), List.of(
                 new Atom(new BigDecimal(0)),
                 new Atom(new BigDecimal(1)),
                 new Atom(new BigDecimal(0)),
@@ -546,7 +564,7 @@ public class ListBasic {
                 new Atom(new BigDecimal(0))
         ));
 
-        assertEquals(Evaluation.evalString("(find-seq '(\"a\" \"n\" \"a\") '(\"B\" \"a\" \"n\" \"a\" \"n\" \"a\"))").get(0).getList().get(), List.of(
+        assertEquals(Evaluation.evalString("(find-seq '(\"a\" \"n\" \"a\") '(\"B\" \"a\" \"n\" \"a\" \"n\" \"a\"))").get(0).getList(), List.of(
                 new Atom(new BigDecimal(0)),
                 new Atom(new BigDecimal(1)),
                 new Atom(new BigDecimal(0)),